@@ -0,0 +1,44 @@
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_1_8
+    targetCompatibility = JavaVersion.VERSION_1_8
+}
+
+sourceSets {
+    getByName("main") {
+        // Benchmarks run on a desktop JVM, so the library sources are compiled here rather than taken from the AAR.
+        java.setSrcDirs(listOf("../libs/src/main/java"))
+    }
+}
+
+dependencies {
+    // Only provides the android.os classes the library refers to, the Android code paths are not benchmarked.
+    implementation("com.google.android:android:4.1.1.4")
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    // Allocation rate per operation is reported alongside the timings, so allocation regressions show up too.
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    // -PjmhIncludes=FormatRead runs only the benchmarks matching the pattern
+    project.findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+}
+
+// ./gradlew :benchmarks:generateCorpus -PcorpusDir=/tmp/corpus -PcorpusSize=5000 -PcorpusSeed=1
+tasks.register<JavaExec>("generateCorpus") {
+    description = "Generates a reproducible corpus of tagged audio files for scale testing"
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.jaudiotagger.benchmark.CorpusGenerator")
+    // The generator takes the Mp4, Ogg and artwork samples from testdata
+    workingDir = rootProject.projectDir
+    args(
+        project.findProperty("corpusDir")?.toString() ?: layout.buildDirectory.dir("corpus").get().asFile.path,
+        project.findProperty("corpusSize")?.toString() ?: "1000",
+        project.findProperty("corpusSeed")?.toString() ?: "1"
+    )
+}
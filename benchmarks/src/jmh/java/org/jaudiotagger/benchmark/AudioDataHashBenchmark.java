@@ -0,0 +1,74 @@
+package org.jaudiotagger.benchmark;
+
+import org.jaudiotagger.audio.io.AudioDataHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time taken to hash the audio data of a large file with {@link AudioDataHasher}, comparing the fast
+ * non-cryptographic checksums with message digests
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AudioDataHashBenchmark
+{
+    private static final int FILE_SIZE = 64 * 1024 * 1024;
+
+    @Param({"CRC32C", "XXH64", "CRC32", "MD5", "SHA-256"})
+    public String algorithm;
+
+    private Path file;
+    private FileChannel fc;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException
+    {
+        Random random = new Random(1);
+        byte[] bytes = new byte[1024 * 1024];
+        file = Files.createTempFile("hash", ".bin");
+        fc = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        for (long written = 0; written < FILE_SIZE; written += bytes.length)
+        {
+            random.nextBytes(bytes);
+            fc.write(ByteBuffer.wrap(bytes), written);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException
+    {
+        fc.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public byte[] hash() throws IOException, NoSuchAlgorithmException
+    {
+        return AudioDataHasher.hash(fc, 0, FILE_SIZE, algorithm);
+    }
+}
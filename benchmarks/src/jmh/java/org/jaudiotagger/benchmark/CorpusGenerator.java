@@ -0,0 +1,238 @@
+package org.jaudiotagger.benchmark;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.wav.WavSaveOptions;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptions;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.options.PaddingPolicy;
+import org.jaudiotagger.tag.reference.PictureTypes;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.logging.LogManager;
+
+/**
+ * Generates a corpus of valid, tagged audio files, so that scans, caches and the parallel APIs can be measured at
+ * library scale on one machine.
+ *
+ * Each {@link Layout} gets a folder of its own holding the requested number of files. The audio is built by
+ * {@link SyntheticAudio}, or copied from a {@code testdata} sample for Mp4 and Ogg, and the tag is then written with
+ * the library's own writers, with random field lengths, artwork size and padding. Every file is generated from the
+ * seed and its number, so the same arguments always give the same corpus.
+ *
+ * <pre>
+ * CorpusGenerator outputDir [filesPerLayout] [seed]
+ * </pre>
+ */
+public final class CorpusGenerator
+{
+    static final int DEFAULT_FILES_PER_LAYOUT = 1000;
+    static final long DEFAULT_SEED = 1;
+
+    private static final String MP4_SAMPLE = "test5.m4a";
+    private static final String OGG_SAMPLE = "test.ogg";
+    private static final String ARTWORK_SAMPLE = "coverart.jpg";
+
+    private static final int MAX_TEXT_FIELD_LENGTH = 64;
+    private static final int MAX_COMMENT_LENGTH = 4 * 1024;
+    private static final int MAX_LYRICS_LENGTH = 16 * 1024;
+    private static final int MAX_ARTWORK_SIZE = 256 * 1024;
+    private static final int MAX_PADDING = 16 * 1024;
+
+    /**
+     * Layouts of each format that take different paths through the readers and writers
+     */
+    enum Layout
+    {
+        MP3_CBR("mp3"),
+        MP3_XING("mp3"),
+        FLAC("flac"),
+        MP4_MOOV_FIRST("m4a"),
+        MP4_MOOV_LAST("m4a"),
+        OGG("ogg"),
+        WAV("wav"),
+        AIFF("aiff");
+
+        private final String suffix;
+
+        Layout(String suffix)
+        {
+            this.suffix = suffix;
+        }
+
+        String getFolderName()
+        {
+            return name().toLowerCase().replace('_', '-');
+        }
+    }
+
+    private final Path outputDir;
+    private final long seed;
+    private final byte[] mp4Sample;
+    private final byte[] oggSample;
+    private final byte[] artworkSample;
+
+    CorpusGenerator(Path outputDir, long seed) throws IOException
+    {
+        this.outputDir = outputDir;
+        this.seed = seed;
+        Path testData = SampleFiles.getTestDataDir();
+        mp4Sample = Files.readAllBytes(testData.resolve(MP4_SAMPLE));
+        oggSample = Files.readAllBytes(testData.resolve(OGG_SAMPLE));
+        artworkSample = Files.readAllBytes(testData.resolve(ARTWORK_SAMPLE));
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        if (args.length < 1 || args.length > 3)
+        {
+            System.err.println("Usage: CorpusGenerator outputDir [filesPerLayout] [seed]");
+            System.exit(1);
+        }
+        Path outputDir = Paths.get(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_FILES_PER_LAYOUT;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+
+        LogManager.getLogManager().reset();
+        CorpusGenerator generator = new CorpusGenerator(outputDir, seed);
+        for (Layout layout : Layout.values())
+        {
+            long start = System.nanoTime();
+            long size = 0;
+            for (int i = 0; i < count; i++)
+            {
+                size += Files.size(generator.generate(layout, i));
+            }
+            System.out.println(String.format("%-15s %6d files %,15d bytes %8d ms", layout.getFolderName(), count, size, (System.nanoTime() - start) / 1000000));
+        }
+    }
+
+    /**
+     * Generate one file, the same layout and number always give the same file
+     *
+     * @param layout
+     * @param number
+     * @return the file
+     * @throws Exception
+     */
+    Path generate(Layout layout, int number) throws Exception
+    {
+        Random random = new Random(seed * 31 + layout.ordinal() * 1000003L + number);
+        Path dir = Files.createDirectories(outputDir.resolve(layout.getFolderName()));
+        Path file = dir.resolve(String.format("%06d.%s", number, layout.suffix));
+        Files.write(file, createAudio(layout, random));
+
+        //Options are scoped to this thread so the global options of a caller are left alone
+        final int padding = random.nextInt(MAX_PADDING + 1);
+        TagOptions options = TagOptions.getDefault().with(o ->
+        {
+            o.setToDefault();
+            //Wav files get an ID3 chunk and a LIST INFO chunk holding the same fields
+            o.setWavSaveOptions(WavSaveOptions.SAVE_BOTH_AND_SYNC);
+            o.setPaddingPolicy(PaddingPolicy.fixed(padding));
+        });
+        TagOptions.Scope scope = TagOptions.use(options);
+        try
+        {
+            AudioFile audioFile = AudioFileIO.read(file.toFile());
+            setRandomFields(audioFile.getTagOrCreateAndSetDefault(), random, number);
+            audioFile.commit();
+        }
+        finally
+        {
+            TagOptions.end(scope);
+        }
+
+        if (layout == Layout.MP4_MOOV_LAST)
+        {
+            Files.write(file, SyntheticAudio.moveMoovToEnd(Files.readAllBytes(file)));
+        }
+        return file;
+    }
+
+    private byte[] createAudio(Layout layout, Random random)
+    {
+        switch (layout)
+        {
+            case MP3_CBR:
+                return SyntheticAudio.mp3(random, 100 + random.nextInt(900), false);
+            case MP3_XING:
+                return SyntheticAudio.mp3(random, 100 + random.nextInt(900), true);
+            case FLAC:
+                //Seek table, application and padding blocks are each left out a quarter of the time
+                return SyntheticAudio.flac(random,
+                        1 + random.nextInt(16),
+                        random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(32),
+                        random.nextInt(4) == 0 ? 0 : 4 + random.nextInt(1024),
+                        random.nextInt(4) == 0 ? 0 : random.nextInt(MAX_PADDING));
+            case MP4_MOOV_FIRST:
+            case MP4_MOOV_LAST:
+                return mp4Sample;
+            case OGG:
+                return oggSample;
+            case WAV:
+                return SyntheticAudio.wav(random, 4410 + random.nextInt(44100));
+            case AIFF:
+                return SyntheticAudio.aiff(random, 4410 + random.nextInt(44100));
+            default:
+                throw new IllegalArgumentException("Unsupported layout:" + layout);
+        }
+    }
+
+    private void setRandomFields(Tag tag, Random random, int number) throws Exception
+    {
+        tag.setField(FieldKey.TITLE, randomText(random, 1 + random.nextInt(MAX_TEXT_FIELD_LENGTH)));
+        tag.setField(FieldKey.ARTIST, randomText(random, 1 + random.nextInt(MAX_TEXT_FIELD_LENGTH)));
+        tag.setField(FieldKey.ALBUM, randomText(random, 1 + random.nextInt(MAX_TEXT_FIELD_LENGTH)));
+        tag.setField(FieldKey.GENRE, randomText(random, 1 + random.nextInt(16)));
+        tag.setField(FieldKey.YEAR, String.valueOf(1950 + random.nextInt(75)));
+        tag.setField(FieldKey.TRACK, String.valueOf(1 + number % 20));
+        if (random.nextBoolean())
+        {
+            tag.setField(FieldKey.COMMENT, randomText(random, random.nextInt(MAX_COMMENT_LENGTH)));
+        }
+        if (random.nextInt(4) == 0)
+        {
+            tag.setField(FieldKey.LYRICS, randomText(random, random.nextInt(MAX_LYRICS_LENGTH)));
+        }
+        if (random.nextBoolean())
+        {
+            tag.setField(createArtwork(random));
+        }
+    }
+
+    /**
+     * The sample image followed by random bytes, which image decoders ignore, to make it up to a random size
+     */
+    private Artwork createArtwork(Random random)
+    {
+        int size = artworkSample.length + random.nextInt(MAX_ARTWORK_SIZE - artworkSample.length);
+        byte[] image = new byte[size];
+        random.nextBytes(image);
+        System.arraycopy(artworkSample, 0, image, 0, artworkSample.length);
+
+        Artwork artwork = ArtworkFactory.getNew();
+        artwork.setBinaryData(image);
+        artwork.setMimeType("image/jpeg");
+        artwork.setDescription("");
+        artwork.setPictureType(PictureTypes.DEFAULT_ID);
+        return artwork;
+    }
+
+    private static String randomText(Random random, int length)
+    {
+        char[] text = new char[length];
+        for (int i = 0; i < length; i++)
+        {
+            text[i] = random.nextInt(8) == 0 ? ' ' : (char) ('a' + random.nextInt(26));
+        }
+        return new String(text);
+    }
+}
@@ -0,0 +1,68 @@
+package org.jaudiotagger.benchmark;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.audio.SupportedFileFormat;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Time taken to read the sample file of each supported format, reading only the encoding info, only the tag or both
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatReadBenchmark
+{
+    @Param({"OGG", "OGA", "MP3", "FLAC", "MP4", "M4A", "M4P", "WMA", "WAV", "RA", "RM", "M4B", "AIF", "AIFF", "AIFC", "DSF", "DFF"})
+    public SupportedFileFormat format;
+
+    @Param({"HEADER_ONLY", "TAG_ONLY", "FULL"})
+    public ReadOptions readOptions;
+
+    private Path dir;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void copySample() throws Exception
+    {
+        //Logging every file read would be measured as well
+        LogManager.getLogManager().reset();
+        TagOptionSingleton.getInstance().setToDefault();
+        dir = Files.createTempDirectory("read");
+        file = SampleFiles.copySample(format, dir, "sample");
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSample() throws Exception
+    {
+        SampleFiles.deleteDir(dir);
+    }
+
+    @Benchmark
+    public AudioFile read() throws Exception
+    {
+        return AudioFileIO.read(file, readOptions);
+    }
+}
@@ -0,0 +1,120 @@
+package org.jaudiotagger.benchmark;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.SupportedFileFormat;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.LogManager;
+
+/**
+ * Time taken to write the tag of the sample file of each format that can be written, either changing a field to a
+ * value of the same length, which fits in the space the tag already has, or adding a comment larger than any
+ * padding, which needs the audio to be moved or the file to be rewritten.
+ *
+ * The file is read before each write, only the write is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatWriteBenchmark
+{
+    private static final int LARGE_COMMENT_SIZE = 16 * 1024;
+
+    @Param({"OGG", "OGA", "MP3", "FLAC", "MP4", "M4A", "M4P", "WMA", "WAV", "M4B", "AIF", "AIFF", "AIFC", "DSF"})
+    public SupportedFileFormat format;
+
+    /**
+     * fits-in-padding rewrites a field with a value of the same length, needs-rewrite starts from the sample each
+     * time and adds a large comment
+     */
+    @Param({"fits-in-padding", "needs-rewrite"})
+    public String layout;
+
+    private Path dir;
+    private Path file;
+    private String largeComment;
+    private AudioFile audioFile;
+    private int count;
+
+    @Setup(Level.Trial)
+    public void copySample() throws Exception
+    {
+        LogManager.getLogManager().reset();
+        TagOptionSingleton.getInstance().setToDefault();
+        dir = Files.createTempDirectory("write");
+        file = SampleFiles.copySample(format, dir, "sample");
+
+        char[] comment = new char[LARGE_COMMENT_SIZE];
+        Arrays.fill(comment, 'c');
+        largeComment = new String(comment);
+
+        if (layout.equals("fits-in-padding"))
+        {
+            //First write makes room for the title, later writes only replace it
+            AudioFile primed = AudioFileIO.read(file);
+            primed.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, getTitle());
+            primed.commit();
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void readSample() throws Exception
+    {
+        if (layout.equals("needs-rewrite"))
+        {
+            file = SampleFiles.copySample(format, dir, "sample");
+        }
+        audioFile = AudioFileIO.read(file);
+        Tag tag = audioFile.getTagOrCreateAndSetDefault();
+        count++;
+        if (layout.equals("fits-in-padding"))
+        {
+            tag.setField(FieldKey.TITLE, getTitle());
+        }
+        else
+        {
+            tag.setField(FieldKey.COMMENT, largeComment);
+        }
+    }
+
+    private String getTitle()
+    {
+        return String.format("Title %08d", count);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSample() throws Exception
+    {
+        SampleFiles.deleteDir(dir);
+    }
+
+    @Benchmark
+    public long write() throws Exception
+    {
+        audioFile.commit();
+        return audioFile.getFile().length();
+    }
+}
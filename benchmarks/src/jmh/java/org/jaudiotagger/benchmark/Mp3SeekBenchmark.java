@@ -0,0 +1,113 @@
+package org.jaudiotagger.benchmark;
+
+import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.mp3.MP3AudioHeader;
+import org.jaudiotagger.audio.mp3.MPEGFrameHeader;
+import org.jaudiotagger.audio.mp3.MPEGSyncScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time taken to find the first frame of an mp3 file preceded by junk, and to search the junk alone with
+ * {@link MPEGSyncScanner} compared with testing every position with {@link MPEGFrameHeader#isMPEGFrame(ByteBuffer)}
+ * as seek did before
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Mp3SeekBenchmark
+{
+    @Param({"0", "65536", "1048576"})
+    public int junkSize;
+
+    private Path file;
+    private FileChannel fc;
+    private ByteBuffer junk;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException
+    {
+        Random random = new Random(junkSize);
+        byte[] bytes = new byte[junkSize];
+        random.nextBytes(bytes);
+        //Unsynchronised as in an ID3v2 tag so the junk holds sync bytes but no false headers
+        for (int i = 0; i < bytes.length - 1; i++)
+        {
+            if (bytes[i] == (byte) 0xFF)
+            {
+                bytes[++i] = 0;
+            }
+        }
+        if (bytes.length > 0)
+        {
+            bytes[bytes.length - 1] = 0;
+        }
+        junk = ByteBuffer.allocateDirect(bytes.length);
+        junk.put(bytes).flip();
+
+        file = Files.createTempFile("seek", ".mp3");
+        fc = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fc.write(ByteBuffer.wrap(bytes), 0);
+        fc.write(ByteBuffer.wrap(SyntheticAudio.mp3(random, 100, false)), bytes.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException
+    {
+        fc.close();
+        Files.delete(file);
+    }
+
+    @Benchmark
+    public long seek() throws IOException, InvalidAudioFrameException
+    {
+        return new MP3AudioHeader(fc, 0, file.getFileName().toString()).getMp3StartByte();
+    }
+
+    @Benchmark
+    public int scanJunk()
+    {
+        return MPEGSyncScanner.find(junk, junk.limit());
+    }
+
+    /**
+     * Testing every position, as seek did before
+     */
+    @Benchmark
+    public int scanJunkLegacy()
+    {
+        ByteBuffer bb = junk.duplicate();
+        for (int i = 0; i < bb.limit() - 2; i++)
+        {
+            bb.position(i);
+            if (MPEGFrameHeader.isMPEGFrame(bb))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,101 @@
+package org.jaudiotagger.benchmark;
+
+import org.jaudiotagger.audio.SupportedFileFormat;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Sample file from {@code testdata} for each {@link SupportedFileFormat}, formats without a sample of their own use
+ * a file of the same container copied with their suffix
+ */
+final class SampleFiles
+{
+    /**
+     * Overrides where the testdata folder is, otherwise it is looked for in the working folder and its parents
+     */
+    static final String TESTDATA_PROPERTY = "jaudiotagger.testdata";
+
+    private static final Map<SupportedFileFormat, String> SAMPLES = new EnumMap<SupportedFileFormat, String>(SupportedFileFormat.class);
+
+    static
+    {
+        SAMPLES.put(SupportedFileFormat.OGG, "test.ogg");
+        SAMPLES.put(SupportedFileFormat.OGA, "test.ogg");
+        SAMPLES.put(SupportedFileFormat.MP3, "01.mp3");
+        SAMPLES.put(SupportedFileFormat.FLAC, "test.flac");
+        SAMPLES.put(SupportedFileFormat.MP4, "test.m4a");
+        SAMPLES.put(SupportedFileFormat.M4A, "test.m4a");
+        SAMPLES.put(SupportedFileFormat.M4P, "test.m4a");
+        SAMPLES.put(SupportedFileFormat.WMA, "test1.wma");
+        SAMPLES.put(SupportedFileFormat.WAV, "test.wav");
+        SAMPLES.put(SupportedFileFormat.RA, "test01.ra");
+        SAMPLES.put(SupportedFileFormat.RM, "test05.rm");
+        SAMPLES.put(SupportedFileFormat.M4B, "test.m4a");
+        SAMPLES.put(SupportedFileFormat.AIF, "test119.aif");
+        SAMPLES.put(SupportedFileFormat.AIFF, "test138.aiff");
+        SAMPLES.put(SupportedFileFormat.AIFC, "test119.aif");
+        SAMPLES.put(SupportedFileFormat.DSF, "test122.dsf");
+        SAMPLES.put(SupportedFileFormat.DFF, "test229.dff");
+    }
+
+    private SampleFiles()
+    {
+    }
+
+    static Path getTestDataDir() throws IOException
+    {
+        String configured = System.getProperty(TESTDATA_PROPERTY);
+        if (configured != null)
+        {
+            return Paths.get(configured);
+        }
+        for (Path dir = Paths.get("").toAbsolutePath(); dir != null; dir = dir.getParent())
+        {
+            Path testData = dir.resolve("testdata");
+            if (Files.isDirectory(testData))
+            {
+                return testData;
+            }
+        }
+        throw new IOException("Unable to find testdata folder, set -D" + TESTDATA_PROPERTY);
+    }
+
+    /**
+     * Copy the sample for format into dir
+     *
+     * @param format
+     * @param dir
+     * @param name   name of the copy, without the suffix
+     * @return the copy
+     * @throws IOException
+     */
+    static Path copySample(SupportedFileFormat format, Path dir, String name) throws IOException
+    {
+        Path source = getTestDataDir().resolve(SAMPLES.get(format));
+        Path target = dir.resolve(name + "." + format.getFilesuffix());
+        return Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    static void deleteDir(Path dir) throws IOException
+    {
+        if (dir == null)
+        {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir))
+        {
+            for (Path file : files)
+            {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,141 @@
+package org.jaudiotagger.benchmark;
+
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.utils.ShiftData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time taken to make space for metadata at the start of a large file, as when an ID3v2 tag grows, comparing
+ * {@link ShiftData} with the chunk loop it replaced
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ShiftDataBenchmark
+{
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    @Param({"67108864", "536870912"})
+    public long fileSize;
+
+    @Param({"8192", "1048576"})
+    public int offset;
+
+    /**
+     * legacy is the original chunk loop, shift and mapped use ShiftData without and with memory mapping
+     */
+    @Param({"legacy", "shift", "mapped"})
+    public String engine;
+
+    private Path file;
+    private FileChannel fc;
+
+    @Setup(Level.Trial)
+    public void createFile() throws IOException
+    {
+        file = Files.createTempFile("shift", ".bin");
+        fc = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        for (long written = 0; written < fileSize; written += BUFFER_SIZE)
+        {
+            buffer.clear();
+            fc.write(buffer, written);
+        }
+
+        TagOptionSingleton.getInstance().setToDefault();
+        if (engine.equals("mapped"))
+        {
+            TagOptionSingleton.getInstance().setMaxMappedShiftSize(Integer.MAX_VALUE);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetFile() throws IOException
+    {
+        fc.truncate(fileSize);
+        fc.position(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException
+    {
+        fc.close();
+        Files.delete(file);
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    @Benchmark
+    public long makeSpace() throws IOException
+    {
+        if (engine.equals("legacy"))
+        {
+            legacyShiftDataByOffsetToMakeSpace(fc, offset);
+        }
+        else
+        {
+            ShiftData.shiftDataByOffsetToMakeSpace(fc, offset);
+        }
+        return fc.size();
+    }
+
+    /**
+     * The chunk loop ShiftData used before, kept as the baseline
+     */
+    static void legacyShiftDataByOffsetToMakeSpace(SeekableByteChannel fc, int offset) throws IOException
+    {
+        long startPos = fc.position();
+        long amountToBeWritten = fc.size() - startPos;
+        int chunkSize = (int) TagOptionSingleton.getInstance().getWriteChunkSize();
+        long count = amountToBeWritten / chunkSize;
+        long mod = amountToBeWritten % chunkSize;
+
+        ByteBuffer chunkBuffer = ByteBuffer.allocate(chunkSize);
+        long readPos = fc.size() - chunkSize;
+        long writePos = (fc.size() - chunkSize) + offset;
+        for (int i = 0; i < count; i++)
+        {
+            fc.position(readPos);
+            fc.read(chunkBuffer);
+            chunkBuffer.flip();
+            fc.position(writePos);
+            fc.write(chunkBuffer);
+            chunkBuffer.rewind();
+            readPos -= chunkSize;
+            writePos -= chunkSize;
+        }
+
+        if (mod > 0)
+        {
+            chunkBuffer = ByteBuffer.allocate((int) mod);
+            fc.position(startPos);
+            fc.read(chunkBuffer);
+            chunkBuffer.flip();
+            fc.position(startPos + offset);
+            fc.write(chunkBuffer);
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package org.jaudiotagger.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds untagged audio files from scratch, so a corpus of any size can be created without needing sample files.
+ *
+ * The audio is either silence (Mp3) or noise (Flac, Wav, Aiff), but the files are structurally valid and decode, all
+ * at 44.1 kHz, 16 bit stereo. Mp4 files cannot sensibly be built from scratch, so a sample is relaid out instead.
+ */
+final class SyntheticAudio
+{
+    private static final int SAMPLE_RATE = 44100;
+    private static final int CHANNELS = 2;
+    private static final int BYTES_PER_SAMPLE = 2;
+
+    /**
+     * Mpeg 1 Layer III bitrates in kbps indexed by the bitrate index of the frame header
+     */
+    private static final int[] MP3_BITRATES = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int MP3_CBR_BITRATE_INDEX = 9;
+
+    /**
+     * Xing header follows the header and side information of a Mpeg 1 stereo frame
+     */
+    private static final int XING_OFFSET = 36;
+    private static final int XING_FLAGS_ALL = 0x0F;
+    private static final int XING_TOC_SIZE = 100;
+
+    private static final int FLAC_BLOCK_SIZE = 4096;
+    private static final int FLAC_STREAMINFO = 0;
+    private static final int FLAC_PADDING = 1;
+    private static final int FLAC_APPLICATION = 2;
+    private static final int FLAC_SEEKTABLE = 3;
+    private static final int FLAC_SEEKPOINT_SIZE = 18;
+
+    /**
+     * Frame numbers of fixed block size frames are coded like UTF-8, only one byte is written so no more frames
+     */
+    static final int MAX_FLAC_FRAMES = 127;
+
+    private SyntheticAudio()
+    {
+    }
+
+    /**
+     * @param frameCount number of audio frames
+     * @param xing       if true the frames have random bitrates and are preceded by a Xing frame giving the frame
+     *                   count, size and table of contents, otherwise they are all 128 kbps without a Xing frame
+     * @return Mpeg 1 Layer III stream of silence
+     */
+    static byte[] mp3(Random random, int frameCount, boolean xing)
+    {
+        int[] bitrateIndexes = new int[frameCount];
+        long[] frameOffsets = new long[frameCount];
+        int audioSize = 0;
+        for (int i = 0; i < frameCount; i++)
+        {
+            bitrateIndexes[i] = xing ? 1 + random.nextInt(MP3_BITRATES.length - 1) : MP3_CBR_BITRATE_INDEX;
+            frameOffsets[i] = audioSize;
+            audioSize += getMp3FrameLength(bitrateIndexes[i]);
+        }
+
+        int xingFrameLength = xing ? getMp3FrameLength(MP3_CBR_BITRATE_INDEX) : 0;
+        ByteBuffer mp3 = ByteBuffer.allocate(xingFrameLength + audioSize);
+        if (xing)
+        {
+            putMp3FrameHeader(mp3, MP3_CBR_BITRATE_INDEX);
+            mp3.position(XING_OFFSET);
+            mp3.put("Xing".getBytes(StandardCharsets.ISO_8859_1));
+            mp3.putInt(XING_FLAGS_ALL);
+            mp3.putInt(frameCount);
+            mp3.putInt(xingFrameLength + audioSize);
+            for (int i = 0; i < XING_TOC_SIZE; i++)
+            {
+                //Each entry is the offset of the frame i percent of the way through, as a fraction of 256
+                long offset = frameOffsets[(int) ((long) i * frameCount / XING_TOC_SIZE)];
+                mp3.put((byte) (offset * 256 / audioSize));
+            }
+            mp3.putInt(0);
+            mp3.position(xingFrameLength);
+        }
+        for (int i = 0; i < frameCount; i++)
+        {
+            int start = mp3.position();
+            putMp3FrameHeader(mp3, bitrateIndexes[i]);
+            //Zero side information and main data decode as silence
+            mp3.position(start + getMp3FrameLength(bitrateIndexes[i]));
+        }
+        return mp3.array();
+    }
+
+    private static int getMp3FrameLength(int bitrateIndex)
+    {
+        return 144 * MP3_BITRATES[bitrateIndex] * 1000 / SAMPLE_RATE;
+    }
+
+    /**
+     * Mpeg 1, Layer III, no CRC, 44.1 kHz, no padding, joint stereo, original
+     */
+    private static void putMp3FrameHeader(ByteBuffer mp3, int bitrateIndex)
+    {
+        mp3.put((byte) 0xFF);
+        mp3.put((byte) 0xFB);
+        mp3.put((byte) (bitrateIndex << 4));
+        mp3.put((byte) 0x44);
+    }
+
+    /**
+     * @param frameCount    number of frames of 4096 samples, at most {@link #MAX_FLAC_FRAMES}
+     * @param seekPoints    number of seek points in a seek table block, or no block if zero
+     * @param application   size of an application block, or no block if zero
+     * @param padding       size of a padding block, or no block if zero
+     * @return Flac stream of noise, stored in verbatim subframes, the metadata blocks after the stream info are
+     * in random order
+     */
+    static byte[] flac(Random random, int frameCount, int seekPoints, int application, int padding)
+    {
+        if (frameCount > MAX_FLAC_FRAMES)
+        {
+            throw new IllegalArgumentException("Too many frames:" + frameCount);
+        }
+        int frameLength = 4 + 1 + 1 + CHANNELS * (1 + FLAC_BLOCK_SIZE * BYTES_PER_SAMPLE) + 2;
+        long totalSamples = (long) frameCount * FLAC_BLOCK_SIZE;
+
+        ByteBuffer streamInfo = ByteBuffer.allocate(34);
+        streamInfo.putShort((short) FLAC_BLOCK_SIZE);
+        streamInfo.putShort((short) FLAC_BLOCK_SIZE);
+        putInt24(streamInfo, frameLength);
+        putInt24(streamInfo, frameLength);
+        streamInfo.putLong(((long) SAMPLE_RATE << 44) | ((long) (CHANNELS - 1) << 41) | ((long) (BYTES_PER_SAMPLE * 8 - 1) << 36) | totalSamples);
+        //Remaining 16 bytes are the MD5 of the audio, zero means it is not known
+
+        List<byte[]> blocks = new ArrayList<byte[]>();
+        if (seekPoints > 0)
+        {
+            ByteBuffer seekTable = ByteBuffer.allocate(1 + seekPoints * FLAC_SEEKPOINT_SIZE);
+            seekTable.put((byte) FLAC_SEEKTABLE);
+            for (int i = 0; i < seekPoints; i++)
+            {
+                long frame = (long) i * frameCount / seekPoints;
+                seekTable.putLong(frame * FLAC_BLOCK_SIZE);
+                seekTable.putLong(frame * frameLength);
+                seekTable.putShort((short) FLAC_BLOCK_SIZE);
+            }
+            blocks.add(seekTable.array());
+        }
+        if (application > 0)
+        {
+            byte[] block = new byte[1 + Math.max(application, 4)];
+            random.nextBytes(block);
+            block[0] = FLAC_APPLICATION;
+            blocks.add(block);
+        }
+        if (padding > 0)
+        {
+            byte[] block = new byte[1 + padding];
+            block[0] = FLAC_PADDING;
+            blocks.add(block);
+        }
+        Collections.shuffle(blocks, random);
+
+        ByteArrayOutputStream flac = new ByteArrayOutputStream();
+        flac.write('f');
+        flac.write('L');
+        flac.write('a');
+        flac.write('C');
+        writeFlacBlock(flac, FLAC_STREAMINFO, streamInfo.array(), 0, blocks.isEmpty());
+        for (int i = 0; i < blocks.size(); i++)
+        {
+            byte[] block = blocks.get(i);
+            writeFlacBlock(flac, block[0], block, 1, i == blocks.size() - 1);
+        }
+
+        byte[] frame = new byte[frameLength];
+        for (int i = 0; i < frameCount; i++)
+        {
+            ByteBuffer frameBuffer = ByteBuffer.wrap(frame);
+            //Sync code, fixed block size, 4096 samples, 44.1 kHz, independent stereo, 16 bit
+            frameBuffer.put((byte) 0xFF);
+            frameBuffer.put((byte) 0xF8);
+            frameBuffer.put((byte) 0xC9);
+            frameBuffer.put((byte) 0x18);
+            frameBuffer.put((byte) i);
+            frameBuffer.put(crc8(frame, frameBuffer.position()));
+            for (int channel = 0; channel < CHANNELS; channel++)
+            {
+                //Verbatim subframe
+                frameBuffer.put((byte) 0x02);
+                byte[] samples = new byte[FLAC_BLOCK_SIZE * BYTES_PER_SAMPLE];
+                random.nextBytes(samples);
+                frameBuffer.put(samples);
+            }
+            frameBuffer.putShort(crc16(frame, frameBuffer.position()));
+            flac.write(frame, 0, frame.length);
+        }
+        return flac.toByteArray();
+    }
+
+    private static void writeFlacBlock(ByteArrayOutputStream flac, int type, byte[] data, int offset, boolean last)
+    {
+        int length = data.length - offset;
+        flac.write((last ? 0x80 : 0) | type);
+        flac.write(length >>> 16);
+        flac.write(length >>> 8);
+        flac.write(length);
+        flac.write(data, offset, length);
+    }
+
+    private static byte crc8(byte[] data, int length)
+    {
+        int crc = 0;
+        for (int i = 0; i < length; i++)
+        {
+            crc ^= data[i] & 0xFF;
+            for (int bit = 0; bit < 8; bit++)
+            {
+                crc = (crc & 0x80) != 0 ? (crc << 1) ^ 0x07 : crc << 1;
+            }
+            crc &= 0xFF;
+        }
+        return (byte) crc;
+    }
+
+    private static short crc16(byte[] data, int length)
+    {
+        int crc = 0;
+        for (int i = 0; i < length; i++)
+        {
+            crc ^= (data[i] & 0xFF) << 8;
+            for (int bit = 0; bit < 8; bit++)
+            {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x8005 : crc << 1;
+            }
+            crc &= 0xFFFF;
+        }
+        return (short) crc;
+    }
+
+    private static void putInt24(ByteBuffer buffer, int value)
+    {
+        buffer.put((byte) (value >>> 16));
+        buffer.put((byte) (value >>> 8));
+        buffer.put((byte) value);
+    }
+
+    /**
+     * @param sampleFrames number of samples per channel
+     * @return Wav file with a fmt and data chunk of noise
+     */
+    static byte[] wav(Random random, int sampleFrames)
+    {
+        int dataSize = sampleFrames * CHANNELS * BYTES_PER_SAMPLE;
+        ByteBuffer wav = ByteBuffer.allocate(12 + 8 + 16 + 8 + dataSize + (dataSize & 1));
+        wav.put("RIFF".getBytes(StandardCharsets.ISO_8859_1));
+        wav.order(ByteOrder.LITTLE_ENDIAN);
+        wav.putInt(wav.capacity() - 8);
+        wav.order(ByteOrder.BIG_ENDIAN);
+        wav.put("WAVEfmt ".getBytes(StandardCharsets.ISO_8859_1));
+        wav.order(ByteOrder.LITTLE_ENDIAN);
+        wav.putInt(16);
+        //PCM
+        wav.putShort((short) 1);
+        wav.putShort((short) CHANNELS);
+        wav.putInt(SAMPLE_RATE);
+        wav.putInt(SAMPLE_RATE * CHANNELS * BYTES_PER_SAMPLE);
+        wav.putShort((short) (CHANNELS * BYTES_PER_SAMPLE));
+        wav.putShort((short) (BYTES_PER_SAMPLE * 8));
+        wav.order(ByteOrder.BIG_ENDIAN);
+        wav.put("data".getBytes(StandardCharsets.ISO_8859_1));
+        wav.order(ByteOrder.LITTLE_ENDIAN);
+        wav.putInt(dataSize);
+        putNoise(random, wav, dataSize);
+        return wav.array();
+    }
+
+    /**
+     * @param sampleFrames number of samples per channel
+     * @return Aiff file with a COMM and SSND chunk of noise
+     */
+    static byte[] aiff(Random random, int sampleFrames)
+    {
+        int dataSize = sampleFrames * CHANNELS * BYTES_PER_SAMPLE;
+        ByteBuffer aiff = ByteBuffer.allocate(12 + 8 + 18 + 8 + 8 + dataSize);
+        aiff.put("FORM".getBytes(StandardCharsets.ISO_8859_1));
+        aiff.putInt(aiff.capacity() - 8);
+        aiff.put("AIFFCOMM".getBytes(StandardCharsets.ISO_8859_1));
+        aiff.putInt(18);
+        aiff.putShort((short) CHANNELS);
+        aiff.putInt(sampleFrames);
+        aiff.putShort((short) (BYTES_PER_SAMPLE * 8));
+        //44100 as an 80 bit extended float
+        aiff.put(new byte[]{0x40, 0x0E, (byte) 0xAC, 0x44, 0, 0, 0, 0, 0, 0});
+        aiff.put("SSND".getBytes(StandardCharsets.ISO_8859_1));
+        aiff.putInt(8 + dataSize);
+        aiff.putInt(0);
+        aiff.putInt(0);
+        putNoise(random, aiff, dataSize);
+        return aiff.array();
+    }
+
+    private static void putNoise(Random random, ByteBuffer buffer, int size)
+    {
+        byte[] noise = new byte[size];
+        random.nextBytes(noise);
+        buffer.put(noise);
+    }
+
+    /**
+     * @param mp4 Mp4 file with its moov atom before its mdat atom
+     * @return the same file with the moov atom moved to the end, after the mdat atom, and the chunk offsets
+     * adjusted to where the audio now is
+     */
+    static byte[] moveMoovToEnd(byte[] mp4)
+    {
+        ByteBuffer in = ByteBuffer.wrap(mp4);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(mp4.length);
+        byte[] moov = null;
+        long oldMdatOffset = -1;
+        long newMdatOffset = -1;
+        while (in.remaining() >= 8)
+        {
+            int offset = in.position();
+            int size = in.getInt();
+            String type = getType(in);
+            if (size < 8 || size > mp4.length - offset)
+            {
+                throw new IllegalArgumentException("Unsupported atom:" + type + ":size:" + size);
+            }
+            if (type.equals("moov"))
+            {
+                moov = new byte[size];
+                System.arraycopy(mp4, offset, moov, 0, size);
+            }
+            else
+            {
+                if (type.equals("mdat"))
+                {
+                    oldMdatOffset = offset;
+                    newMdatOffset = out.size();
+                }
+                out.write(mp4, offset, size);
+            }
+            in.position(offset + size);
+        }
+        if (moov == null || oldMdatOffset == -1)
+        {
+            throw new IllegalArgumentException("No moov or mdat atom");
+        }
+        adjustChunkOffsets(ByteBuffer.wrap(moov, 8, moov.length - 8), newMdatOffset - oldMdatOffset);
+        out.write(moov, 0, moov.length);
+        return out.toByteArray();
+    }
+
+    private static void adjustChunkOffsets(ByteBuffer atoms, long delta)
+    {
+        while (atoms.remaining() >= 8)
+        {
+            int offset = atoms.position();
+            int size = atoms.getInt();
+            String type = getType(atoms);
+            int end = offset + size;
+            if (type.equals("trak") || type.equals("mdia") || type.equals("minf") || type.equals("stbl"))
+            {
+                ByteBuffer children = atoms.duplicate();
+                children.limit(end);
+                adjustChunkOffsets(children, delta);
+            }
+            else if (type.equals("stco") || type.equals("co64"))
+            {
+                //Skip version and flags
+                atoms.getInt();
+                int count = atoms.getInt();
+                for (int i = 0; i < count; i++)
+                {
+                    int position = atoms.position();
+                    if (type.equals("stco"))
+                    {
+                        atoms.putInt(position, (int) (atoms.getInt(position) + delta));
+                        atoms.position(position + 4);
+                    }
+                    else
+                    {
+                        atoms.putLong(position, atoms.getLong(position) + delta);
+                        atoms.position(position + 8);
+                    }
+                }
+            }
+            atoms.position(end);
+        }
+    }
+
+    private static String getType(ByteBuffer buffer)
+    {
+        byte[] type = new byte[4];
+        buffer.get(type);
+        return new String(type, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,29 @@
+import org.gradle.api.tasks.testing.Test
+
+plugins {
+    `java-library`
+}
+
+java {
+    // jdk.jfr is part of the Java 11 API, it is not available on Android so the events are not in the library module.
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    getByName("main") {
+        // Desktop JVM build of the library with the Flight Recorder events, as for the benchmarks.
+        java.setSrcDirs(listOf("src/main/java", "../libs/src/main/java"))
+    }
+}
+
+dependencies {
+    // Only provides the android.os classes the library refers to, the Android code paths are not used on a desktop JVM.
+    compileOnly("com.google.android:android:4.1.1.4")
+    testImplementation("junit:junit:3.8.1")
+}
+
+tasks.withType<Test>().configureEach {
+    // Tests resolve fixtures via paths relative to the repository root.
+    workingDir = rootProject.projectDir
+}
@@ -0,0 +1,32 @@
+package org.jaudiotagger.jfr;
+
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Timespan;
+
+/**
+ * Fields common to every event, each event begins when its phase starts and ends when it completes so the event
+ * duration is that of the phase, {@link #wallTime} is the same duration as measured by the library
+ */
+abstract class AudioEvent extends Event
+{
+    @Label("Format")
+    String format;
+
+    @Label("Path")
+    String path;
+
+    @Label("File Size")
+    @Description("Size of the file when the read or write began")
+    @DataAmount
+    long fileSize;
+
+    @Label("Wall Time")
+    @Timespan
+    long wallTime;
+
+    @Label("Buffer Allocations")
+    long bufferAllocations;
+}
@@ -0,0 +1,229 @@
+package org.jaudiotagger.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.instrument.InstrumentationListener;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.instrument.PhaseEvent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Emits Java Flight Recorder events for reads, writes and data shifts done through an {@link AudioFileIO}.
+ *
+ * Once installed the events are only measured while a recording is running, at other times nothing is registered
+ * with the AudioFileIO so reading and writing cost no more than without this class. Whether each event is recorded
+ * is then decided by the recording settings, the events are named org.jaudiotagger.Read, org.jaudiotagger.Write
+ * and org.jaudiotagger.Shift.
+ */
+public final class JfrInstrumentation implements InstrumentationListener
+{
+    private static final Map<AudioFileIO, Installation> installations = new IdentityHashMap<AudioFileIO, Installation>();
+
+    /**
+     * Phases started on each thread and not yet completed, most recent first
+     */
+    private final ThreadLocal<Deque<StartedPhase>> started = new ThreadLocal<Deque<StartedPhase>>()
+    {
+        @Override
+        protected Deque<StartedPhase> initialValue()
+        {
+            return new ArrayDeque<StartedPhase>();
+        }
+    };
+
+    private JfrInstrumentation()
+    {
+    }
+
+    /**
+     * Emit events for the default AudioFileIO used by the static AudioFileIO methods
+     */
+    public static void install()
+    {
+        install(AudioFileIO.getDefaultAudioFileIO());
+    }
+
+    /**
+     * Emit events for reads and writes done through audioFileIO, does nothing if already installed
+     *
+     * @param audioFileIO
+     */
+    public static synchronized void install(AudioFileIO audioFileIO)
+    {
+        if (installations.containsKey(audioFileIO))
+        {
+            return;
+        }
+        Installation installation = new Installation(audioFileIO);
+        installations.put(audioFileIO, installation);
+        FlightRecorder.addListener(installation);
+    }
+
+    /**
+     * Stop emitting events for audioFileIO
+     *
+     * @param audioFileIO
+     */
+    public static synchronized void uninstall(AudioFileIO audioFileIO)
+    {
+        Installation installation = installations.remove(audioFileIO);
+        if (installation != null)
+        {
+            FlightRecorder.removeListener(installation);
+            installation.setRecording(false);
+        }
+    }
+
+    @Override
+    public void phaseStarted(Phase phase)
+    {
+        AudioEvent audioEvent = createEvent(phase);
+        audioEvent.begin();
+        started.get().push(new StartedPhase(phase, audioEvent));
+    }
+
+    @Override
+    public void phaseCompleted(PhaseEvent event)
+    {
+        //Phases left open when their operation ended never complete, and if this was registered while the phase
+        //was in progress it was not started
+        Deque<StartedPhase> phases = started.get();
+        while (!phases.isEmpty() && phases.peek().phase != event.getPhase())
+        {
+            phases.pop();
+        }
+        if (phases.isEmpty())
+        {
+            return;
+        }
+        AudioEvent audioEvent = phases.pop().event;
+        audioEvent.end();
+        if (!audioEvent.shouldCommit())
+        {
+            return;
+        }
+
+        audioEvent.format = event.getFormat();
+        audioEvent.wallTime = event.getWallNanos();
+        audioEvent.bufferAllocations = event.getBufferAllocations();
+        audioEvent.fileSize = event.getFileSize();
+        if (event.getPath() != null)
+        {
+            audioEvent.path = event.getPath().toString();
+        }
+        if (audioEvent instanceof ReadEvent)
+        {
+            ReadEvent read = (ReadEvent) audioEvent;
+            read.phase = event.getPhase().name();
+            read.bytesRead = event.getBytesRead();
+            read.seeks = event.getSeeks();
+        }
+        else if (audioEvent instanceof WriteEvent)
+        {
+            WriteEvent write = (WriteEvent) audioEvent;
+            write.phase = event.getPhase().name();
+            write.strategy = event.getStrategy();
+            write.bytesRead = event.getBytesRead();
+            write.bytesWritten = event.getBytesWritten();
+            write.seeks = event.getSeeks();
+        }
+        else
+        {
+            ShiftEvent shift = (ShiftEvent) audioEvent;
+            shift.strategy = event.getStrategy();
+            shift.bytesMoved = event.getBytesWritten();
+            shift.seeks = event.getSeeks();
+        }
+        audioEvent.commit();
+    }
+
+    private static AudioEvent createEvent(Phase phase)
+    {
+        switch (phase)
+        {
+            case WRITE:
+            case RENAME:
+                return new WriteEvent();
+
+            case SHIFT:
+                return new ShiftEvent();
+
+            default:
+                return new ReadEvent();
+        }
+    }
+
+    /**
+     * Event begun when a phase started, waiting for the phase to complete
+     */
+    private static class StartedPhase
+    {
+        private final Phase phase;
+        private final AudioEvent event;
+
+        StartedPhase(Phase phase, AudioEvent event)
+        {
+            this.phase = phase;
+            this.event = event;
+        }
+    }
+
+    /**
+     * Registers a listener with the AudioFileIO while any recording is running
+     */
+    private static class Installation implements FlightRecorderListener
+    {
+        private final AudioFileIO audioFileIO;
+        private final JfrInstrumentation listener = new JfrInstrumentation();
+
+        Installation(AudioFileIO audioFileIO)
+        {
+            this.audioFileIO = audioFileIO;
+        }
+
+        @Override
+        public void recorderInitialized(FlightRecorder recorder)
+        {
+            update(recorder);
+        }
+
+        @Override
+        public void recordingStateChanged(Recording recording)
+        {
+            update(FlightRecorder.getFlightRecorder());
+        }
+
+        private void update(FlightRecorder recorder)
+        {
+            boolean running = false;
+            for (Recording recording : recorder.getRecordings())
+            {
+                if (recording.getState() == RecordingState.RUNNING)
+                {
+                    running = true;
+                    break;
+                }
+            }
+            setRecording(running);
+        }
+
+        synchronized void setRecording(boolean recording)
+        {
+            if (recording)
+            {
+                audioFileIO.addInstrumentationListener(listener);
+            }
+            else
+            {
+                audioFileIO.removeInstrumentationListener(listener);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.jaudiotagger.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A phase of reading an audio file: working out the format, reading the encoding info or reading the tag
+ */
+@Name("org.jaudiotagger.Read")
+@Label("Audio File Read")
+@Category("jaudiotagger")
+@Description("Phase of reading the encoding info or tag of an audio file")
+@StackTrace(false)
+class ReadEvent extends AudioEvent
+{
+    @Label("Phase")
+    String phase;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Seeks")
+    long seeks;
+}
@@ -0,0 +1,29 @@
+package org.jaudiotagger.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Audio data moved within a file while writing a tag
+ */
+@Name("org.jaudiotagger.Shift")
+@Label("Audio Data Shift")
+@Category("jaudiotagger")
+@Description("Audio data moved within a file to fit a tag of a different size")
+@StackTrace(false)
+class ShiftEvent extends AudioEvent
+{
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Bytes Moved")
+    @DataAmount
+    long bytesMoved;
+
+    @Label("Seeks")
+    long seeks;
+}
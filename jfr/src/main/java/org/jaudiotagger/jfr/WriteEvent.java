@@ -0,0 +1,36 @@
+package org.jaudiotagger.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A phase of writing an audio file: writing the tag, or replacing the original file with the copy written
+ */
+@Name("org.jaudiotagger.Write")
+@Label("Audio File Write")
+@Category("jaudiotagger")
+@Description("Phase of writing the tag of an audio file")
+@StackTrace(false)
+class WriteEvent extends AudioEvent
+{
+    @Label("Phase")
+    String phase;
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Bytes Read")
+    @DataAmount
+    long bytesRead;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+
+    @Label("Seeks")
+    long seeks;
+}
@@ -0,0 +1,86 @@
+package org.jaudiotagger.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import junit.framework.TestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JfrInstrumentationTest extends TestCase
+{
+    public void testEventsRecordedWhileRecording() throws Exception
+    {
+        File tmpDir = new File("testdatatmp");
+        tmpDir.mkdirs();
+        Path file = new File(tmpDir, "jfr-test.flac").toPath();
+        Files.copy(new File("testdata", "test.flac").toPath(), file, StandardCopyOption.REPLACE_EXISTING);
+
+        AudioFileIO audioFileIO = new AudioFileIO();
+        JfrInstrumentation.install(audioFileIO);
+        try
+        {
+            //Not recording so nothing is measured
+            audioFileIO.readFile(file);
+
+            Path output = new File(tmpDir, "jfr-test.jfr").toPath();
+            try (Recording recording = new Recording())
+            {
+                recording.enable("org.jaudiotagger.Read").withThreshold(Duration.ZERO);
+                recording.enable("org.jaudiotagger.Write").withThreshold(Duration.ZERO);
+                recording.enable("org.jaudiotagger.Shift").withThreshold(Duration.ZERO);
+                recording.start();
+
+                AudioFile audioFile = audioFileIO.readFile(file);
+                StringBuilder album = new StringBuilder();
+                for (int i = 0; i < 2000; i++)
+                {
+                    album.append("Recorded ");
+                }
+                audioFile.getTag().setField(FieldKey.ALBUM, album.toString());
+                audioFileIO.writeFile(audioFile, (Path) null);
+
+                recording.stop();
+                recording.dump(output);
+            }
+
+            List<String> names = new ArrayList<String>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(output))
+            {
+                String name = event.getEventType().getName();
+                if (name.startsWith("org.jaudiotagger."))
+                {
+                    names.add(name + ":" + event.getString("format"));
+                    assertTrue(event.getLong("fileSize") > 0);
+                    assertTrue(event.getLong("wallTime") > 0);
+                    //The event spans the phase
+                    assertTrue(event.getDuration().toNanos() > 0);
+                    assertTrue(event.getDuration().toNanos() >= event.getLong("wallTime") / 2);
+                    if (name.equals("org.jaudiotagger.Shift"))
+                    {
+                        assertEquals("double-buffered", event.getString("strategy"));
+                        assertTrue(event.getLong("bytesMoved") > 0);
+                    }
+                }
+            }
+            assertTrue(names.toString(), names.remove("org.jaudiotagger.Read:flac"));
+            assertTrue(names.toString(), names.remove("org.jaudiotagger.Read:flac"));
+            assertTrue(names.toString(), names.remove("org.jaudiotagger.Shift:flac"));
+            assertTrue(names.toString(), names.remove("org.jaudiotagger.Write:flac"));
+            assertTrue(names.toString(), names.isEmpty());
+        }
+        finally
+        {
+            JfrInstrumentation.uninstall(audioFileIO);
+        }
+    }
+}
@@ -4,10 +4,13 @@ import org.jaudiotagger.audio.dsf.Dsf;
 import org.jaudiotagger.audio.exceptions.*;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
 import org.jaudiotagger.audio.generic.Permissions;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.io.AudioDataHasher;
 import org.jaudiotagger.audio.real.RealTag;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.aiff.AiffTag;
 import org.jaudiotagger.tag.asf.AsfTag;
 import org.jaudiotagger.tag.flac.FlacTag;
@@ -15,6 +18,7 @@ import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 import org.jaudiotagger.tag.id3.ID3v22Tag;
 import org.jaudiotagger.tag.id3.ID3v23Tag;
 import org.jaudiotagger.tag.id3.ID3v24Tag;
+import org.jaudiotagger.tag.images.Artwork;
 import org.jaudiotagger.tag.mp4.Mp4Tag;
 import org.jaudiotagger.tag.reference.ID3V2Version;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
@@ -22,9 +26,12 @@ import org.jaudiotagger.tag.wav.WavTag;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.logging.Logger;
 
@@ -66,6 +73,21 @@ public class AudioFile
      */
     protected String extension;
 
+    /**
+     * What was read from the file
+     */
+    protected ReadOptions readOptions = ReadOptions.FULL;
+
+    /**
+     * Options the file was read with, also used to write it, null if read with the global options
+     */
+    protected TagOptions tagOptions;
+
+    /**
+     * Whether artwork was allowed to be left in the file to be read lazily when this was read
+     */
+    private final boolean lazyArtwork = TagOptionSingleton.getInstance().isLazyArtwork();
+
     public AudioFile()
     {
 
@@ -165,6 +187,65 @@ public class AudioFile
         return extension;
     }
 
+    /**
+     * Set what was read from the file
+     *
+     * @param readOptions
+     */
+    public void setReadOptions(ReadOptions readOptions)
+    {
+        this.readOptions = readOptions;
+    }
+
+    /**
+     * @return what was read from the file, a file read without its tag cannot be written back
+     */
+    public ReadOptions getReadOptions()
+    {
+        return readOptions;
+    }
+
+    /**
+     * Set the options the file was read with, so that it is written and its default tag created with the same options
+     *
+     * @param tagOptions options, or null to use the global options
+     */
+    public void setTagOptions(TagOptions tagOptions)
+    {
+        this.tagOptions = tagOptions;
+    }
+
+    /**
+     * @return the options the file was read with, or null if read with the global options
+     */
+    public TagOptions getTagOptions()
+    {
+        return tagOptions;
+    }
+
+    /**
+     * Read any artwork whose data has not yet been read from the file, this has to be done before the file is
+     * written because writing may move or overwrite it. This depends on the option when the file was read, not the
+     * current option which may have been changed since.
+     *
+     * @throws IOException if the artwork cannot be read
+     * @see TagOptionSingleton#isLazyArtwork()
+     */
+    public void loadLazyArtwork() throws IOException
+    {
+        if (tag == null || !lazyArtwork)
+        {
+            return;
+        }
+        for (Artwork artwork : tag.getArtworkList())
+        {
+            if (artwork.getLazyBinaryData() != null)
+            {
+                artwork.getLazyBinaryData().load();
+            }
+        }
+    }
+
     /**
      *  Assign a tag to this audio file
      *  
@@ -184,6 +265,39 @@ public class AudioFile
         return audioHeader;
     }
 
+    /**
+     * Hash the audio data of the file, from {@link AudioHeader#getAudioDataStartPosition()} up to
+     * {@link AudioHeader#getAudioDataEndPosition()}, so files holding the same audio have the same hash however
+     * their metadata differs. For Ogg only the data of the audio pages is hashed, not their page headers.
+     *
+     * @param algorithm {@link AudioDataHasher#CRC32C} or {@link AudioDataHasher#XXH64} for a fast hash, or a
+     *                  {@link java.security.MessageDigest} algorithm such as MD5 or SHA-256
+     * @return the hash
+     * @throws CannotReadException if the file was not read from a file, or the position of the audio data is not
+     *                             known for this format
+     * @throws IOException
+     * @throws NoSuchAlgorithmException if the algorithm is not known
+     */
+    public byte[] computeAudioDataHash(String algorithm) throws CannotReadException, IOException, NoSuchAlgorithmException
+    {
+        if (file == null)
+        {
+            throw new CannotReadException("Cannot hash audio data, not read from a file");
+        }
+        if (audioHeader == null || audioHeader.getAudioDataStartPosition() == null || audioHeader.getAudioDataEndPosition() == null)
+        {
+            throw new CannotReadException("Cannot hash audio data, position of audio data not known:" + file.getPath());
+        }
+        try (FileChannel fc = Instrumentation.open(file.toPath()))
+        {
+            if (SupportedFileFormat.OGG.getDisplayName().equals(audioHeader.getFormat()))
+            {
+                return AudioDataHasher.hashOggPages(fc, audioHeader.getAudioDataStartPosition(), audioHeader.getAudioDataEndPosition(), algorithm);
+            }
+            return AudioDataHasher.hash(fc, audioHeader.getAudioDataStartPosition(), audioHeader.getAudioDataEndPosition(), algorithm);
+        }
+    }
+
     /**
      * <p>Returns the tag contained in this AudioFile, the <code>Tag</code> contains any useful meta-data, like
      * artist, album, title, etc. If the file does not contain any tag the null is returned. Some audio formats do
@@ -205,7 +319,7 @@ public class AudioFile
      */
     public String toString()
     {
-        return "AudioFile " + getFile().getAbsolutePath()
+        return "AudioFile " + (file == null ? "" : file.getAbsolutePath())
                 + "  --------\n" + audioHeader.toString() + "\n" + ((tag == null) ? "" : tag.toString()) + "\n-------------------";
     }
 
@@ -372,7 +486,15 @@ public class AudioFile
         Tag tag = getTag();
         if(tag==null)
         {
-            return createDefaultTag();
+            TagOptions.Scope scope = TagOptions.use(tagOptions);
+            try
+            {
+                return createDefaultTag();
+            }
+            finally
+            {
+                TagOptions.end(scope);
+            }
         }
         return tag;
     }
@@ -406,7 +528,16 @@ public class AudioFile
          */
         if(tag instanceof AbstractID3v2Tag)
         {
-            Tag convertedTag = convertID3Tag((AbstractID3v2Tag)tag, TagOptionSingleton.getInstance().getID3V2Version());
+            Tag convertedTag;
+            TagOptions.Scope scope = TagOptions.use(tagOptions);
+            try
+            {
+                convertedTag = convertID3Tag((AbstractID3v2Tag)tag, TagOptionSingleton.getInstance().getID3V2Version());
+            }
+            finally
+            {
+                TagOptions.end(scope);
+            }
             if(convertedTag!=null)
             {
                 return convertedTag;
@@ -22,6 +22,7 @@ import org.jaudiotagger.audio.generic.Utils;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.nio.file.Path;
 
 /**
  * <p>This is a simple FileFilter that will only allow the file supported by this library.
@@ -68,8 +69,23 @@ public class AudioFileFilter implements FileFilter
             return allowDirectories;
         }
 
-        String ext = Utils.getExtension(f);
+        return isSupportedExtension(Utils.getExtension(f));
+	}
+
+    /**
+     * Check whether the extension of the path is supported by the library, the file itself is not checked so this can
+     * be used for files that no longer exist.
+     *
+     * @param path The path to test
+     * @return a boolean indicating if the path has a supported extension
+     */
+    public boolean acceptName(Path path)
+    {
+        return isSupportedExtension(Utils.getExtension(path));
+    }
 
+    private static boolean isSupportedExtension(String ext)
+    {
         try
         {
             if (SupportedFileFormat.valueOf(ext.toUpperCase()) != null)
@@ -83,5 +99,5 @@ public class AudioFileFilter implements FileFilter
             return false;    
         }
         return false;
-	}
+    }
 }
@@ -30,6 +30,13 @@ import org.jaudiotagger.audio.exceptions.*;
 import org.jaudiotagger.audio.flac.FlacFileReader;
 import org.jaudiotagger.audio.flac.FlacFileWriter;
 import org.jaudiotagger.audio.generic.*;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.InstrumentationHandler;
+import org.jaudiotagger.audio.instrument.InstrumentationListener;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.io.ByteBufferIO;
+import org.jaudiotagger.audio.io.ReadBackend;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.audio.mp3.MP3FileReader;
 import org.jaudiotagger.audio.mp3.MP3FileWriter;
 import org.jaudiotagger.audio.mp4.Mp4FileReader;
@@ -37,19 +44,29 @@ import org.jaudiotagger.audio.mp4.Mp4FileWriter;
 import org.jaudiotagger.audio.ogg.OggFileReader;
 import org.jaudiotagger.audio.ogg.OggFileWriter;
 import org.jaudiotagger.audio.real.RealFileReader;
+import org.jaudiotagger.audio.scan.LibraryScan;
+import org.jaudiotagger.audio.scan.ScanOptions;
+import org.jaudiotagger.audio.scan.ScanResult;
 import org.jaudiotagger.audio.wav.WavFileReader;
 import org.jaudiotagger.audio.wav.WavFileWriter;
+import org.jaudiotagger.audio.write.WritePlan;
+import org.jaudiotagger.audio.write.WriteScheduler;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.TagException;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  *
@@ -247,6 +264,27 @@ public class AudioFileIO
         return getDefaultAudioFileIO().readFile(path);
   }
 
+    /**
+     * Read only the audio header, only the tag or both from the given path.
+     *
+     * Reading less lets the reader skip work, but a file read without its tag cannot be written back.
+     */
+    public static AudioFile read(Path path, ReadOptions readOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return getDefaultAudioFileIO().readFile(path, readOptions);
+    }
+
+    /**
+     * Read from the given path using the given options rather than the global {@link TagOptionSingleton}, the options
+     * are kept with the returned AudioFile and also used when it is written.
+     */
+    public static AudioFile read(Path path, ReadOptions readOptions, TagOptions tagOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return getDefaultAudioFileIO().readFile(path, readOptions, tagOptions);
+    }
+
     /**
      * Android-first read entry point. The hint can be either plain extension ("mp3")
      * or a display name ("track01.mp3"), extension is required.
@@ -258,6 +296,53 @@ public class AudioFileIO
         return readAs(pfd, ext);
     }
 
+    /**
+     * Read the tag from an audio file held in memory, such as an upload that has not been written to disk.
+     *
+     * The bytes between the position and limit of the buffer are read, the buffer is not modified. The hint can be
+     * either plain extension ("mp3") or a display name ("track01.mp3"), extension is required. The returned AudioFile
+     * has no file so cannot be written back.
+     */
+    public static AudioFile read(ByteBuffer buffer, String displayNameOrExtHint)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return getDefaultAudioFileIO().readBuffer(buffer, displayNameOrExtHint);
+    }
+
+    /**
+     * Read only the audio header, only the tag or both from an audio file held in memory.
+     */
+    public static AudioFile read(ByteBuffer buffer, String displayNameOrExtHint, ReadOptions readOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return getDefaultAudioFileIO().readBuffer(buffer, displayNameOrExtHint, readOptions);
+    }
+
+    /**
+     * Read from an audio file held in memory using the given options rather than the global {@link TagOptionSingleton}.
+     */
+    public static AudioFile read(ByteBuffer buffer, String displayNameOrExtHint, ReadOptions readOptions, TagOptions tagOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return getDefaultAudioFileIO().readBuffer(buffer, displayNameOrExtHint, readOptions, tagOptions);
+    }
+
+    /**
+     * Read many files in parallel, such as when rescanning a whole music library.
+     *
+     * Reads are limited per storage device as set in the options, and a file that cannot be read gives a failed
+     * {@link ScanResult} rather than stopping the scan. Consume {@link LibraryScan#results()} and close the scan when
+     * done, closing before all results are consumed cancels the scan.
+     *
+     * @param paths   files to read, closed by the scan
+     * @param options
+     * @return the running scan
+     */
+    public static LibraryScan readAll(Stream<Path> paths, ScanOptions options)
+    {
+        return new LibraryScan(paths, options).start();
+    }
+
     /**
      *
      * Write the tag contained in the audioFile in the actual file on the disk.
@@ -275,6 +360,54 @@ public class AudioFileIO
         getDefaultAudioFileIO().writeFile(f, (Path) null);
     }
 
+    /**
+     * Write the tag contained in the audioFile to the file on disk using the given options rather than those the file
+     * was read with or the global {@link TagOptionSingleton}.
+     *
+     * @param audioFile The AudioFile to be written
+     * @param tagOptions
+     * @throws NoWritePermissionsException if the file could not be written to due to file permissions
+     * @throws CannotWriteException If the file could not be written/accessed, the extension
+     *                              wasn't recognized, or other IO error occurred.
+     */
+    public static void write(AudioFile audioFile, TagOptions tagOptions) throws CannotWriteException
+    {
+        getDefaultAudioFileIO().writeFile(audioFile, null, tagOptions);
+    }
+
+    /**
+     * Write the tag contained in the audioFile to the file on disk in the background, so the caller is not blocked while
+     * the file is rewritten.
+     *
+     * Writes to the same file are made in the order they are requested and the number of writes at once on each storage
+     * device is limited, see {@link WriteScheduler}. The audioFile must not be modified until the write has completed.
+     *
+     * @param audioFile The AudioFile to be written
+     * @return future completing with the audioFile once written, or exceptionally with the {@link CannotWriteException}
+     * if it could not be written
+     */
+    public static CompletableFuture<AudioFile> writeAsync(AudioFile audioFile)
+    {
+        return WriteScheduler.getDefaultWriteScheduler().write(audioFile);
+    }
+
+    /**
+     * Work out how the tag contained in the audioFile would be written to the file on disk, without modifying the file.
+     *
+     * The plan gives the way the format writer would write the tag, such as rewriting it within existing padding or
+     * having to move or copy the audio, and estimates of the number of bytes read and written, so that expensive writes
+     * can be scheduled separately from cheap ones. The plan only holds as long as neither the tag nor the file changes.
+     *
+     * @param audioFile The AudioFile to be written
+     * @return the plan
+     * @throws CannotWriteException If the existing layout of the file could not be read, or the extension wasn't
+     *                              recognized
+     */
+    public static WritePlan planWrite(AudioFile audioFile) throws CannotWriteException
+    {
+        return getDefaultAudioFileIO().planWriteFile(audioFile);
+    }
+
     /**
      * Android-first write entry point.
      */
@@ -321,11 +454,20 @@ public class AudioFileIO
      */
     private final ModificationHandler modificationHandler;
 
+    /**
+     * This member is used to report the phases of each read and write to registered listeners
+     */
+    private final InstrumentationHandler instrumentationHandler;
+
     // These tables contains all the readers/writers associated with extension
     // as a key
     private Map<String, AudioFileReader> readers = new HashMap<String, AudioFileReader>();
     private Map<String, AudioFileWriter> writers = new HashMap<String, AudioFileWriter>();
 
+    private ReadBackend readBackend = ReadBackend.FILE_CHANNEL;
+
+    private TagOptions tagOptions;
+
 
     /**
      * Creates an instance.
@@ -333,7 +475,24 @@ public class AudioFileIO
     public AudioFileIO()
     {
         this.modificationHandler = new ModificationHandler();
+        this.instrumentationHandler = new InstrumentationHandler();
+        prepareReadersAndWriters();
+    }
+
+    /**
+     * Creates an instance with readers and writers of its own, so it can be used on another thread, that shares the
+     * modification and instrumentation listeners of parent, including any added to parent later, so listeners see
+     * and can veto its writes too. The read backend and tag options of parent are copied.
+     *
+     * @param parent instance whose listeners are shared
+     */
+    public AudioFileIO(AudioFileIO parent)
+    {
+        this.modificationHandler = parent.modificationHandler;
+        this.instrumentationHandler = parent.instrumentationHandler;
         prepareReadersAndWriters();
+        setReadBackend(parent.readBackend);
+        this.tagOptions = parent.tagOptions;
     }
 
     private static String extractExtensionHint(String displayNameOrExtHint) throws CannotReadException
@@ -360,6 +519,62 @@ public class AudioFileIO
         return hint;
     }
 
+    /**
+     * Set how files are accessed when read, by default using a {@link java.nio.channels.FileChannel}.
+     *
+     * Only applies to formats whose reader supports read sessions, others always read via the file.
+     *
+     * @param readBackend
+     */
+    public void setReadBackend(ReadBackend readBackend)
+    {
+        this.readBackend = readBackend;
+        for (AudioFileReader curr : readers.values())
+        {
+            if (curr instanceof AudioFileReader2)
+            {
+                ((AudioFileReader2) curr).setReadBackend(readBackend);
+            }
+        }
+    }
+
+    /**
+     * @return how files are accessed when read
+     */
+    public ReadBackend getReadBackend()
+    {
+        return readBackend;
+    }
+
+    /**
+     * Set the options used by reads and writes made by this instance that are not given options of their own, by
+     * default the global {@link TagOptionSingleton}.
+     *
+     * A file is written with the options it was read with, unless written with options of its own.
+     *
+     * @param tagOptions options, or null to use the global options
+     */
+    public void setTagOptions(TagOptions tagOptions)
+    {
+        this.tagOptions = tagOptions;
+    }
+
+    /**
+     * @return the options used by reads and writes made by this instance, or null if the global options are used
+     */
+    public TagOptions getTagOptions()
+    {
+        return tagOptions;
+    }
+
+    /**
+     * @return the options to write f with
+     */
+    private TagOptions getTagOptions(AudioFile f)
+    {
+        return f.getTagOptions() != null ? f.getTagOptions() : tagOptions;
+    }
+
     /**
      * Adds an listener for all file formats.
      *
@@ -371,6 +586,17 @@ public class AudioFileIO
         this.modificationHandler.addAudioFileModificationListener(listener);
     }
 
+    /**
+     * Adds a listener notified as each phase of reading or writing a file of any format completes. While no
+     * listeners are registered nothing is measured.
+     *
+     * @param listener listener
+     */
+    public void addInstrumentationListener(InstrumentationListener listener)
+    {
+        this.instrumentationHandler.addInstrumentationListener(listener);
+    }
+
     /**
      *
      * Delete the tag, if any, contained in the given file.
@@ -383,6 +609,14 @@ public class AudioFileIO
      */
     public void deleteTag(AudioFile f) throws CannotReadException, CannotWriteException
     {
+        if (f.getFile() == null)
+        {
+            throw new CannotWriteException("AudioFile was not read from a file so cannot be written back");
+        }
+        if (!f.getReadOptions().isReadTag())
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_TAG_NOT_READ.getMsg(f.getFile()));
+        }
         String ext = Utils.getExtension(f.getFile().toPath());
 
         Object afw = writers.get(ext);
@@ -391,7 +625,15 @@ public class AudioFileIO
             throw new CannotWriteException(ErrorMessage.NO_DELETER_FOR_THIS_FORMAT.getMsg(ext));
         }
 
-        ((AudioFileWriter) afw).delete(f);
+        TagOptions.Scope scope = TagOptions.use(getTagOptions(f));
+        try
+        {
+            ((AudioFileWriter) afw).delete(f);
+        }
+        finally
+        {
+            TagOptions.end(scope);
+        }
     }
 
     /**
@@ -466,6 +708,23 @@ public class AudioFileIO
 
     public AudioFile readFile(Path path)
             throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return readFile(path, ReadOptions.FULL);
+    }
+
+    public AudioFile readFile(Path path, ReadOptions readOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return readFile(path, readOptions, tagOptions);
+    }
+
+    /**
+     * @param path
+     * @param readOptions
+     * @param tagOptions options for this read, kept with the returned AudioFile, or null to use the global options
+     */
+    public AudioFile readFile(Path path, ReadOptions readOptions, TagOptions tagOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         //checkFileExists(path.toFile());
         String ext = Utils.getExtension(path);
@@ -475,9 +734,21 @@ public class AudioFileIO
         {
             throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
         }
-        AudioFile tempFile = afr.read(path);
-        tempFile.setExt(ext);
-        return tempFile;
+        TagOptions.Scope scope = TagOptions.use(tagOptions);
+        Instrumentation.Operation operation = instrumentationHandler.begin(ext, path);
+        try
+        {
+            AudioFile tempFile = afr.read(path, readOptions);
+            tempFile.setExt(ext);
+            tempFile.setReadOptions(readOptions);
+            tempFile.setTagOptions(tagOptions);
+            return tempFile;
+        }
+        finally
+        {
+            Instrumentation.end(operation);
+            TagOptions.end(scope);
+        }
     }
 
     public AudioFile readFileAs(ParcelFileDescriptor pfd, String ext)
@@ -496,6 +767,50 @@ public class AudioFileIO
         throw new CannotReadException("ParcelFileDescriptor read is not wired into format readers yet");
     }
 
+    public AudioFile readBuffer(ByteBuffer buffer, String displayNameOrExtHint)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return readBuffer(buffer, displayNameOrExtHint, ReadOptions.FULL);
+    }
+
+    public AudioFile readBuffer(ByteBuffer buffer, String displayNameOrExtHint, ReadOptions readOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return readBuffer(buffer, displayNameOrExtHint, readOptions, tagOptions);
+    }
+
+    public AudioFile readBuffer(ByteBuffer buffer, String displayNameOrExtHint, ReadOptions readOptions, TagOptions tagOptions)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        if (buffer == null)
+        {
+            throw new CannotReadException("ByteBuffer cannot be null");
+        }
+        String ext = extractExtensionHint(displayNameOrExtHint);
+        AudioFileReader afr = readers.get(ext);
+        if (afr == null)
+        {
+            throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
+        }
+
+        TagOptions.Scope scope = TagOptions.use(tagOptions);
+        Instrumentation.Operation operation = instrumentationHandler.begin(ext, null);
+        try (ReadSession session = new ReadSession(new ByteBufferIO(buffer), displayNameOrExtHint))
+        {
+            session.setReadOptions(readOptions);
+            AudioFile tempFile = afr.read(session);
+            tempFile.setExt(ext);
+            tempFile.setReadOptions(readOptions);
+            tempFile.setTagOptions(tagOptions);
+            return tempFile;
+        }
+        finally
+        {
+            Instrumentation.end(operation);
+            TagOptions.end(scope);
+        }
+    }
+
     /**
     *
     * Read the tag contained in the given file.
@@ -522,18 +837,39 @@ public class AudioFileIO
             throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
        //checkFileExists(path.toFile());
-       String ext = Utils.getMagicExtension(path);
+       TagOptions.Scope scope = TagOptions.use(tagOptions);
+       Instrumentation.Operation operation = instrumentationHandler.begin(null, path);
+       try
+       {
+           String ext;
+           Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.MAGIC_DETECTION);
+           try
+           {
+               ext = Utils.getMagicExtension(path);
+               Instrumentation.setFormat(ext);
+           }
+           finally
+           {
+               Instrumentation.endPhase(phase);
+           }
 
-       AudioFileReader afr = readers.get(ext);
-       if (afr == null)
+           AudioFileReader afr = readers.get(ext);
+           if (afr == null)
+           {
+               throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
+           }
+
+           AudioFile tempFile = afr.read(path);
+           tempFile.setExt(ext);
+           tempFile.setTagOptions(tagOptions);
+           return tempFile;
+       }
+       finally
        {
-           throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
+           Instrumentation.end(operation);
+           TagOptions.end(scope);
        }
 
-       AudioFile tempFile = afr.read(path);
-       tempFile.setExt(ext);
-       return tempFile;
-
    }
 
    /**
@@ -570,9 +906,20 @@ public class AudioFileIO
           throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
       }
 
-      AudioFile tempFile = afr.read(path);
-      tempFile.setExt(ext);
-      return tempFile;
+      TagOptions.Scope scope = TagOptions.use(tagOptions);
+      Instrumentation.Operation operation = instrumentationHandler.begin(ext, path);
+      try
+      {
+          AudioFile tempFile = afr.read(path);
+          tempFile.setExt(ext);
+          tempFile.setTagOptions(tagOptions);
+          return tempFile;
+      }
+      finally
+      {
+          Instrumentation.end(operation);
+          TagOptions.end(scope);
+      }
     }
 
     public void writeFile(AudioFile f, ParcelFileDescriptor pfd) throws CannotWriteException
@@ -631,6 +978,16 @@ public class AudioFileIO
         this.modificationHandler.removeAudioFileModificationListener(listener);
     }
 
+    /**
+     * Removes an instrumentation listener.
+     *
+     * @param listener listener
+     */
+    public void removeInstrumentationListener(InstrumentationListener listener)
+    {
+        this.instrumentationHandler.removeInstrumentationListener(listener);
+    }
+
     /**
      *
      * Write the tag contained in the audioFile in the actual file on the disk.
@@ -650,8 +1007,86 @@ public class AudioFileIO
         writeFile(f, path);
     }
 
+    /**
+     * Work out how the tag contained in the audioFile would be written to the file on disk, without modifying the file.
+     *
+     * @param f The AudioFile to be written
+     * @return the plan
+     * @throws CannotWriteException If the existing layout of the file could not be read, or the extension wasn't
+     *                              recognized
+     */
+    public WritePlan planWriteFile(AudioFile f) throws CannotWriteException
+    {
+        if (f.getFile() == null)
+        {
+            throw new CannotWriteException("AudioFile was not read from a file so cannot be written back");
+        }
+        if (!f.getReadOptions().isReadTag())
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_TAG_NOT_READ.getMsg(f.getFile()));
+        }
+        AudioFileWriter afw = writers.get(f.getExt());
+        if (afw == null)
+        {
+            throw new CannotWriteException(ErrorMessage.NO_WRITER_FOR_THIS_FORMAT.getMsg(f.getExt()));
+        }
+        TagOptions.Scope scope = TagOptions.use(getTagOptions(f));
+        try
+        {
+            f.loadLazyArtwork();
+            return afw.planWrite(f);
+        }
+        catch (IOException ioe)
+        {
+            throw new CannotWriteException(ioe);
+        }
+        finally
+        {
+            TagOptions.end(scope);
+        }
+    }
+
     public void writeFile(AudioFile f, Path targetPath) throws CannotWriteException
     {
+        writeFile(f, targetPath, getTagOptions(f));
+    }
+
+    /**
+     * @param f The AudioFile to be written
+     * @param targetPath a file path, without an extension, which provides a "save as". If null, then normal "save" function
+     * @param tagOptions options for this write, or null to use the global options
+     */
+    public void writeFile(AudioFile f, Path targetPath, TagOptions tagOptions) throws CannotWriteException
+    {
+        TagOptions.Scope scope = TagOptions.use(tagOptions);
+        try
+        {
+            doWriteFile(f, targetPath);
+        }
+        finally
+        {
+            TagOptions.end(scope);
+        }
+    }
+
+    private void doWriteFile(AudioFile f, Path targetPath) throws CannotWriteException
+    {
+        if (f.getFile() == null)
+        {
+            throw new CannotWriteException("AudioFile was not read from a file so cannot be written back");
+        }
+        if (!f.getReadOptions().isReadTag())
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_TAG_NOT_READ.getMsg(f.getFile()));
+        }
+        try
+        {
+            f.loadLazyArtwork();
+        }
+        catch (IOException ioe)
+        {
+            throw new CannotWriteException(ioe);
+        }
         String ext = f.getExt();
 
         if (targetPath != null)
@@ -673,7 +1108,15 @@ public class AudioFileIO
         {
             throw new CannotWriteException(ErrorMessage.NO_WRITER_FOR_THIS_FORMAT.getMsg(ext));
         }
-        afw.write(f);
+        Instrumentation.Operation operation = instrumentationHandler.begin(ext, f.getFile().toPath());
+        try
+        {
+            afw.write(f);
+        }
+        finally
+        {
+            Instrumentation.end(operation);
+        }
     }
 
 }
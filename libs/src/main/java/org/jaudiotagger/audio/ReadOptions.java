@@ -0,0 +1,52 @@
+package org.jaudiotagger.audio;
+
+/**
+ * What to read from an audio file, see {@link AudioFileIO#read(java.nio.file.Path, ReadOptions)}
+ *
+ * Reading only what is needed lets the reader skip work, for example the search for the last page of an Ogg file
+ * needed for the track length or parsing every metadata atom of an Mp4 file.
+ */
+public enum ReadOptions
+{
+    /**
+     * Read the audio header and the tag
+     */
+    FULL(true, true),
+
+    /**
+     * Read only the audio header (track length, bitrate, sample rate ...), {@link AudioFile#getTag()} returns null
+     * and the file cannot be written back.
+     */
+    HEADER_ONLY(true, false),
+
+    /**
+     * Read only the tag, {@link AudioFile#getAudioHeader()} returns null. Because the audio data is not checked a
+     * corrupt file may be read without error.
+     */
+    TAG_ONLY(false, true);
+
+    private final boolean readHeader;
+    private final boolean readTag;
+
+    ReadOptions(boolean readHeader, boolean readTag)
+    {
+        this.readHeader = readHeader;
+        this.readTag = readTag;
+    }
+
+    /**
+     * @return true if the audio header is read
+     */
+    public boolean isReadHeader()
+    {
+        return readHeader;
+    }
+
+    /**
+     * @return true if the tag is read
+     */
+    public boolean isReadTag()
+    {
+        return readTag;
+    }
+}
@@ -3,6 +3,7 @@ package org.jaudiotagger.audio.aiff;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.IOException;
@@ -24,4 +25,16 @@ public class AiffFileReader extends AudioFileReader2
     {
         return new AiffTagReader(path.toString()).read(path);
     }
+
+    @Override
+    protected GenericAudioHeader getEncodingInfo(ReadSession session) throws CannotReadException, IOException
+    {
+        return new AiffInfoReader(session.getLoggingName()).read(session.getChannel());
+    }
+
+    @Override
+    protected Tag getTag(ReadSession session) throws CannotReadException, IOException
+    {
+        return new AiffTagReader(session.getLoggingName()).read(session.getChannel());
+    }
 }
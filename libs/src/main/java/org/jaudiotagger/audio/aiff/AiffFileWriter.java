@@ -20,6 +20,7 @@ package org.jaudiotagger.audio.aiff;
 
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter2;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.tag.Tag;
 
 import java.nio.file.Path;
@@ -39,6 +40,12 @@ public class AiffFileWriter extends AudioFileWriter2
         tw.write(tag, file);
     }
 
+    @Override
+    protected WritePlan planWriteTag(Tag tag, Path file) throws CannotWriteException
+    {
+        return tw.planWrite(tag, file);
+    }
+
     @Override
     protected void deleteTag(Tag tag, Path file) throws CannotWriteException
     {
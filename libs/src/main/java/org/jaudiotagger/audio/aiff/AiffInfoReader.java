@@ -9,6 +9,7 @@ import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.Chunk;
 import org.jaudiotagger.audio.iff.ChunkHeader;
 import org.jaudiotagger.audio.iff.IffHeaderChunk;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 import org.jaudiotagger.logging.Hex;
 
 import java.io.IOException;
@@ -32,33 +33,46 @@ public class AiffInfoReader extends AiffChunkReader
 
     protected GenericAudioHeader read(Path file) throws CannotReadException, IOException
     {
-        try(FileChannel fc = FileChannel.open(file))
+        try(FileChannel fc = Instrumentation.open(file))
         {
-            logger.config(loggingName + ":Reading AIFF file size:" + Hex.asDecAndHex(fc.size()));
-            AiffAudioHeader info = new AiffAudioHeader();
-            final AiffFileHeader fileHeader = new AiffFileHeader(loggingName);
-            long noOfBytes = fileHeader.readHeader(fc, info);
-            while ((fc.position() < (noOfBytes + ChunkHeader.CHUNK_HEADER_SIZE)) && (fc.position() < fc.size()))
-            {
-                boolean result = readChunk(fc, info);
-                if (!result)
-                {
-                    logger.severe(file + ":UnableToReadProcessChunk");
-                    break;
-                }
-            }
+            return read(fc);
+        }
+    }
 
-            if(info.getFileType()==AiffType.AIFC)
-            {
-                info.setFormat(SupportedFileFormat.AIF.getDisplayName());
-            }
-            else
+    /**
+     * Read from an already open channel positioned at the start of the file
+     *
+     * @param fc
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    protected GenericAudioHeader read(FileChannel fc) throws CannotReadException, IOException
+    {
+        logger.config(loggingName + ":Reading AIFF file size:" + Hex.asDecAndHex(fc.size()));
+        AiffAudioHeader info = new AiffAudioHeader();
+        final AiffFileHeader fileHeader = new AiffFileHeader(loggingName);
+        long noOfBytes = fileHeader.readHeader(fc, info);
+        while ((fc.position() < (noOfBytes + ChunkHeader.CHUNK_HEADER_SIZE)) && (fc.position() < fc.size()))
+        {
+            boolean result = readChunk(fc, info);
+            if (!result)
             {
-                info.setFormat(SupportedFileFormat.AIF.getDisplayName());
+                logger.severe(loggingName + ":UnableToReadProcessChunk");
+                break;
             }
-            calculateBitRate(info);
-            return info;
         }
+
+        if(info.getFileType()==AiffType.AIFC)
+        {
+            info.setFormat(SupportedFileFormat.AIF.getDisplayName());
+        }
+        else
+        {
+            info.setFormat(SupportedFileFormat.AIF.getDisplayName());
+        }
+        calculateBitRate(info);
+        return info;
     }
 
     /**
@@ -9,6 +9,7 @@ import org.jaudiotagger.audio.iff.Chunk;
 import org.jaudiotagger.audio.iff.ChunkHeader;
 import org.jaudiotagger.audio.iff.ChunkSummary;
 import org.jaudiotagger.audio.iff.IffHeaderChunk;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 import org.jaudiotagger.logging.Hex;
 import org.jaudiotagger.tag.aiff.AiffTag;
 
@@ -43,37 +44,50 @@ public class AiffTagReader extends AiffChunkReader
      */
     public AiffTag read(Path file) throws CannotReadException, IOException
     {
-        try(FileChannel fc = FileChannel.open(file))
+        try(FileChannel fc = Instrumentation.open(file))
         {
-            AiffAudioHeader aiffAudioHeader = new AiffAudioHeader();
-            AiffTag aiffTag = new AiffTag();
+            return read(fc);
+        }
+    }
 
-            final AiffFileHeader fileHeader = new AiffFileHeader(file.toString());
-            long  overallChunkSize = fileHeader.readHeader(fc, aiffAudioHeader);
-            aiffTag.setFormSize( overallChunkSize);
-            aiffTag.setFileSize(fc.size());
-            long  endLocationOfAiffData = overallChunkSize + ChunkHeader.CHUNK_HEADER_SIZE;
-            while ((fc.position() < endLocationOfAiffData) && (fc.position() < fc.size()))
-            {
-                if (!readChunk(fc, aiffTag))
-                {
-                    logger.severe(file + ":UnableToReadProcessChunk");
-                    break;
-                }
-            }
+    /**
+     * Read from an already open channel positioned at the start of the file
+     *
+     * @param fc
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public AiffTag read(FileChannel fc) throws CannotReadException, IOException
+    {
+        AiffAudioHeader aiffAudioHeader = new AiffAudioHeader();
+        AiffTag aiffTag = new AiffTag();
 
-            if (aiffTag.getID3Tag() == null)
-            {
-                aiffTag.setID3Tag(AiffTag.createDefaultID3Tag());
-            }
-            logger.config("LastChunkPos:"+Hex.asDecAndHex(fc.position())
-                    +":OfficialEndLocation:"+Hex.asDecAndHex(endLocationOfAiffData));
-            if(fc.position() > endLocationOfAiffData)
+        final AiffFileHeader fileHeader = new AiffFileHeader(loggingName);
+        long  overallChunkSize = fileHeader.readHeader(fc, aiffAudioHeader);
+        aiffTag.setFormSize( overallChunkSize);
+        aiffTag.setFileSize(fc.size());
+        long  endLocationOfAiffData = overallChunkSize + ChunkHeader.CHUNK_HEADER_SIZE;
+        while ((fc.position() < endLocationOfAiffData) && (fc.position() < fc.size()))
+        {
+            if (!readChunk(fc, aiffTag))
             {
-                aiffTag.setLastChunkSizeExtendsPastFormSize(true);
+                logger.severe(loggingName + ":UnableToReadProcessChunk");
+                break;
             }
-            return aiffTag;
         }
+
+        if (aiffTag.getID3Tag() == null)
+        {
+            aiffTag.setID3Tag(AiffTag.createDefaultID3Tag());
+        }
+        logger.config("LastChunkPos:"+Hex.asDecAndHex(fc.position())
+                +":OfficialEndLocation:"+Hex.asDecAndHex(endLocationOfAiffData));
+        if(fc.position() > endLocationOfAiffData)
+        {
+            aiffTag.setLastChunkSizeExtendsPastFormSize(true);
+        }
+        return aiffTag;
     }
 
     /**
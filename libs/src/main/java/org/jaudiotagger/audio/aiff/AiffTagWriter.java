@@ -10,6 +10,8 @@ import org.jaudiotagger.audio.iff.Chunk;
 import org.jaudiotagger.audio.iff.ChunkHeader;
 import org.jaudiotagger.audio.iff.ChunkSummary;
 import org.jaudiotagger.audio.iff.IffHeaderChunk;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.logging.Hex;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
@@ -110,7 +112,7 @@ public class AiffTagWriter
      */
     public void delete(final Tag tag, Path file) throws CannotWriteException
     {
-        try(FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
+        try(FileChannel fc = Instrumentation.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
             logger.severe(file +":Deleting tag from file");
             final AiffTag existingTag = getExistingMetadata(file);
@@ -244,7 +246,7 @@ public class AiffTagWriter
             throw new CannotWriteException(file + ":" + ioe.getMessage());
         }
 
-        try(FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
+        try(FileChannel fc = Instrumentation.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
             //Issue 227:HDtracks issue, if crap at end of file after length according to FORM then delete it
             long formFileLength     = existingTag.getFormSize() + ChunkHeader.CHUNK_HEADER_SIZE;
@@ -319,6 +321,47 @@ public class AiffTagWriter
             throw new CannotWriteException(file + ":" + ioe.getMessage());
         }
     }
+    /**
+     * Work out how {@link #write(Tag, Path)} would write the tag without modifying the file
+     *
+     * @param tag
+     * @param file
+     * @return the plan
+     * @throws CannotWriteException
+     */
+    public WritePlan planWrite(final Tag tag, Path file) throws CannotWriteException
+    {
+        try
+        {
+            AiffTag existingTag = getExistingMetadata(file);
+            long fileLength = file.toFile().length();
+            long newTagSize = ChunkHeader.CHUNK_HEADER_SIZE + convert((AiffTag) tag, existingTag).limit();
+            if (existingTag.isExistingId3Tag() && existingTag.getID3Tag().getStartLocationInFile() != null)
+            {
+                if (!existingTag.isIncorrectlyAlignedTag())
+                {
+                    long endOfId3Chunk = existingTag.getID3Tag().getEndLocationInFile();
+                    if (endOfId3Chunk >= fileLength || (Utils.isOddLength(endOfId3Chunk) && endOfId3Chunk + 1 == fileLength))
+                    {
+                        return new WritePlan(WritePlan.Strategy.TAIL_APPEND, fileLength, 0, newTagSize);
+                    }
+                    //ID3 is not last chunk so the chunks after it are moved down
+                    long dataAfterId3Chunk = fileLength - endOfId3Chunk;
+                    return new WritePlan(WritePlan.Strategy.SHIFT, fileLength, dataAfterId3Chunk, dataAfterId3Chunk + newTagSize);
+                }
+                else if (!AiffChunkSummary.isOnlyMetadataTagsAfterStartingMetadataTag(existingTag))
+                {
+                    throw new CannotWriteException(file + ":Metadata tags are corrupted and not at end of file so cannot be fixed");
+                }
+            }
+            return new WritePlan(WritePlan.Strategy.TAIL_APPEND, fileLength, 0, newTagSize);
+        }
+        catch(IOException ioe)
+        {
+            throw new CannotWriteException(file + ":" + ioe.getMessage());
+        }
+    }
+
     /**
      * Rewrite FORM header to reflect new file length
      *
@@ -397,6 +440,12 @@ public class AiffTagWriter
                 }
             }
 
+            //A new ID3 chunk gets any padding the padding policy reserves
+            if (existingTagSize == 0)
+            {
+                existingTagSize = tag.getID3Tag().getNewTagSize();
+            }
+
             //Write Tag to buffer
             tag.getID3Tag().write(baos, (int)existingTagSize);
 
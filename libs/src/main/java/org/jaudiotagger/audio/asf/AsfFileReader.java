@@ -19,6 +19,7 @@
 package org.jaudiotagger.audio.asf;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.SupportedFileFormat;
 import org.jaudiotagger.audio.asf.data.AsfHeader;
 import org.jaudiotagger.audio.asf.data.AudioStreamChunk;
@@ -32,11 +33,15 @@ import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.TagException;
 import org.jaudiotagger.tag.asf.AsfTag;
 
 import java.io.*;
+import java.nio.channels.Channels;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -55,6 +60,16 @@ public class AsfFileReader extends AudioFileReader
      */
     private final static AsfHeaderReader HEADER_READER;
 
+    /**
+     * This reader will be configured to read only the audio header information.<br>
+     */
+    private final static AsfHeaderReader HEADER_ONLY_READER;
+
+    /**
+     * This reader will be configured to read only the tag information.<br>
+     */
+    private final static AsfHeaderReader TAG_ONLY_READER;
+
     static
     {
         final List<Class<? extends ChunkReader>> readers = new ArrayList<Class<? extends ChunkReader>>();
@@ -71,6 +86,24 @@ public class AsfFileReader extends AudioFileReader
         readers.add(StreamChunkReader.class);
         HEADER_READER = new AsfHeaderReader(readers, true);
         HEADER_READER.setExtendedHeaderReader(extReader);
+
+        readers.clear();
+        readers.add(ContentDescriptionReader.class);
+        readers.add(ContentBrandingReader.class);
+        readers.add(MetadataReader.class);
+        readers.add(LanguageListReader.class);
+        TAG_ONLY_READER = new AsfHeaderReader(readers, true);
+        TAG_ONLY_READER.setExtendedHeaderReader(new AsfExtHeaderReader(readers, true));
+
+        // The extended content description is still needed to find out if
+        // the bitrate is variable
+        readers.clear();
+        readers.add(MetadataReader.class);
+        final AsfExtHeaderReader headerOnlyExtReader = new AsfExtHeaderReader(readers, true);
+        readers.add(FileHeaderReader.class);
+        readers.add(StreamChunkReader.class);
+        HEADER_ONLY_READER = new AsfHeaderReader(readers, true);
+        HEADER_ONLY_READER.setExtendedHeaderReader(headerOnlyExtReader);
     }
 
     /**
@@ -227,6 +260,12 @@ public class AsfFileReader extends AudioFileReader
 
     @Override
     public AudioFile read(final Path path) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return read(path, ReadOptions.FULL);
+    }
+
+    @Override
+    public AudioFile read(final Path path, final ReadOptions readOptions) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         final File f = path.toFile();
         if (!Files.isReadable(path))
@@ -244,24 +283,7 @@ public class AsfFileReader extends AudioFileReader
 
         try (InputStream stream = new FullRequestInputStream(new BufferedInputStream(Files.newInputStream(path))))
         {
-            final AsfHeader header = HEADER_READER.read(Utils.readGUID(stream), stream, 0);
-            if (header == null)
-            {
-                throw new CannotReadException(ErrorMessage.ASF_HEADER_MISSING.getMsg(f.getAbsolutePath()));
-            }
-            if (header.getFileHeader() == null)
-            {
-                throw new CannotReadException(ErrorMessage.ASF_FILE_HEADER_MISSING.getMsg(f.getAbsolutePath()));
-            }
-
-            // Just log a warning because file seems to play okay
-            if (header.getFileHeader().getFileSize().longValue() != f.length())
-            {
-                logger.warning(ErrorMessage.ASF_FILE_HEADER_SIZE_DOES_NOT_MATCH_FILE_SIZE.getMsg(f.getAbsolutePath(), header.getFileHeader().getFileSize().longValue(), f.length()));
-            }
-
-            return new AudioFile(f, getAudioHeader(header), getTag(header));
-
+            return read(f, f.getAbsolutePath(), f.length(), stream, readOptions);
         }
         catch (final CannotReadException e)
         {
@@ -273,4 +295,70 @@ public class AsfFileReader extends AudioFileReader
         }
     }
 
+    @Override
+    public AudioFile read(final ReadSession session) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        //Stream is not closed, the session owns the underlying source
+        final InputStream stream = new FullRequestInputStream(new BufferedInputStream(Channels.newInputStream(session.getChannel())));
+        try
+        {
+            return read(null, session.getLoggingName(), session.size(), stream, session.getReadOptions());
+        }
+        catch (final CannotReadException e)
+        {
+            throw e;
+        }
+        catch (final Exception e)
+        {
+            throw new CannotReadException("\"" + session.getLoggingName() + "\" :" + e, e);
+        }
+    }
+
+    private AudioFile read(final File f, final String name, final long size, final InputStream stream, final ReadOptions readOptions) throws CannotReadException, IOException
+    {
+        final AsfHeaderReader reader;
+        switch (readOptions)
+        {
+            case HEADER_ONLY:
+                reader = HEADER_ONLY_READER;
+                break;
+            case TAG_ONLY:
+                reader = TAG_ONLY_READER;
+                break;
+            default:
+                reader = HEADER_READER;
+        }
+        //The header objects hold both the encoding info and the tag, so they are read in a single phase
+        final AsfHeader header;
+        Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(readOptions.isReadHeader() ? Phase.HEADER : Phase.TAG);
+        try
+        {
+            header = reader.read(Utils.readGUID(stream), stream, 0);
+        }
+        finally
+        {
+            Instrumentation.endPhase(phase);
+        }
+        if (header == null)
+        {
+            throw new CannotReadException(ErrorMessage.ASF_HEADER_MISSING.getMsg(name));
+        }
+        if (!readOptions.isReadHeader())
+        {
+            return new AudioFile(f, null, getTag(header));
+        }
+        if (header.getFileHeader() == null)
+        {
+            throw new CannotReadException(ErrorMessage.ASF_FILE_HEADER_MISSING.getMsg(name));
+        }
+
+        // Just log a warning because file seems to play okay
+        if (header.getFileHeader().getFileSize().longValue() != size)
+        {
+            logger.warning(ErrorMessage.ASF_FILE_HEADER_SIZE_DOES_NOT_MATCH_FILE_SIZE.getMsg(name, header.getFileHeader().getFileSize().longValue(), size));
+        }
+
+        return new AudioFile(f, getAudioHeader(header), readOptions.isReadTag() ? getTag(header) : null);
+    }
+
 }
@@ -4,6 +4,7 @@ import org.jaudiotagger.audio.asf.data.GUID;
 import org.jaudiotagger.audio.asf.util.Utils;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -149,7 +150,7 @@ public class AsfStreamer
             // write the header objects (chunks)
             dest.write(bos.toByteArray());
             // copy the rest of the file (data and index)
-            Utils.flush(source, dest);
+            copyRemaining(source, dest);
         }
         else
         {
@@ -157,6 +158,30 @@ public class AsfStreamer
         }
     }
 
+    /**
+     * Copies the rest of the source to the destination. This is the audio data, so almost all of the file, and if both
+     * are files it is copied by the operating system without passing through the heap.
+     *
+     * @param source the source to copy from its current position to its end
+     * @param dest   the destination to copy to
+     * @throws IOException on I/O errors.
+     */
+    private void copyRemaining(final InputStream source, final OutputStream dest) throws IOException
+    {
+        if (source instanceof RandomAccessFileInputstream && dest instanceof RandomAccessFileOutputStream)
+        {
+            final FileChannel sourceChannel = ((RandomAccessFileInputstream) source).getChannel();
+            final long position = sourceChannel.position();
+            final long size = sourceChannel.size();
+            org.jaudiotagger.audio.generic.Utils.transferFully(sourceChannel, position, size - position, ((RandomAccessFileOutputStream) dest).getChannel());
+            sourceChannel.position(size);
+        }
+        else
+        {
+            Utils.flush(source, dest);
+        }
+    }
+
     /**
      * This is a slight variation of
      * {@link #copyChunk(GUID, InputStream, OutputStream)}, it only handles file
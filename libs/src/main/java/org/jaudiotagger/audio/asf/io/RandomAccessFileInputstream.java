@@ -3,6 +3,7 @@ package org.jaudiotagger.audio.asf.io;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 
 /**
  * Wraps a {@link RandomAccessFile} into an {@link InputStream}.<br>
@@ -70,4 +71,11 @@ public final class RandomAccessFileInputstream extends InputStream
         return this.source.skipBytes((int) left);
     }
 
+    /**
+     * @return the channel of the file, positioned at the file pointer
+     */
+    FileChannel getChannel()
+    {
+        return this.source.getChannel();
+    }
 }
@@ -3,6 +3,7 @@ package org.jaudiotagger.audio.asf.io;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 
 /**
  * Wraps a {@link RandomAccessFile} into an {@link OutputStream}.<br>
@@ -46,4 +47,11 @@ public final class RandomAccessFileOutputStream extends OutputStream
         this.targetFile.write(toWrite);
     }
 
+    /**
+     * @return the channel of the file, positioned at the file pointer
+     */
+    FileChannel getChannel()
+    {
+        return this.targetFile.getChannel();
+    }
 }
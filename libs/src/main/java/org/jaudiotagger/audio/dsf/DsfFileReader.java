@@ -9,6 +9,8 @@ import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.IffHeaderChunk;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
 import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
@@ -36,46 +38,95 @@ public class DsfFileReader extends AudioFileReader2
     @Override
     protected GenericAudioHeader getEncodingInfo(Path file) throws CannotReadException, IOException
     {
-        try(FileChannel fc = FileChannel.open(file))
+        try(FileChannel fc = Instrumentation.open(file))
         {
-            DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
-            if (dsd != null)
-            {
-                ByteBuffer fmtChunkBuffer = Utils.readFileDataIntoBufferLE(fc, IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
-                FmtChunk fmt = FmtChunk.readChunkHeader(fmtChunkBuffer);
-                if (fmt != null)
-                {
-                    return fmt.readChunkData(dsd, fc);
-                }
-                else
-                {
-                    throw new CannotReadException(file + " Not a valid dsf file. Content does not include 'fmt ' chunk");
-                }
-            }
-            else
-            {
-                throw new CannotReadException(file + " Not a valid dsf file. Content does not start with 'DSD '");
-            }
+            return readEncodingInfo(fc, file.toString());
         }
     }
 
     @Override
     protected Tag getTag(Path file) throws CannotReadException, IOException
     {
-        try(FileChannel fc = FileChannel.open(file))
+        try(FileChannel fc = Instrumentation.open(file))
         {
-            DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
-            if (dsd != null)
-            {
-                logger.config( file +":actualFileSize:" + fc.size()+":"+dsd.toString());
+            return readTag(fc, file.toString());
+        }
+    }
+
+    @Override
+    protected GenericAudioHeader getEncodingInfo(ReadSession session) throws CannotReadException, IOException
+    {
+        return readEncodingInfo(session.getChannel(), session.getLoggingName());
+    }
 
-                return readTag(fc, dsd, file.toString());
+    @Override
+    protected Tag getTag(ReadSession session) throws CannotReadException, IOException
+    {
+        return readTag(session.getChannel(), session.getLoggingName());
+    }
+
+    private GenericAudioHeader readEncodingInfo(FileChannel fc, String fileName) throws CannotReadException, IOException
+    {
+        DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
+        if (dsd != null)
+        {
+            ByteBuffer fmtChunkBuffer = Utils.readFileDataIntoBufferLE(fc, IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
+            FmtChunk fmt = FmtChunk.readChunkHeader(fmtChunkBuffer);
+            if (fmt != null)
+            {
+                GenericAudioHeader audioHeader = fmt.readChunkData(dsd, fc);
+                readDataChunkPosition(fc, audioHeader);
+                return audioHeader;
             }
             else
             {
-                throw new CannotReadException(file +" Not a valid dsf file. Content does not start with 'DSD '.");
+                throw new CannotReadException(fileName + " Not a valid dsf file. Content does not include 'fmt ' chunk");
             }
         }
+        else
+        {
+            throw new CannotReadException(fileName + " Not a valid dsf file. Content does not start with 'DSD '");
+        }
+    }
+
+    /**
+     * The data chunk follows the fmt chunk, record where its samples start and end
+     *
+     * @param fc positioned at the start of the data chunk
+     * @param audioHeader
+     * @throws IOException
+     */
+    private void readDataChunkPosition(FileChannel fc, GenericAudioHeader audioHeader) throws IOException
+    {
+        if (fc.size() - fc.position() < IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH)
+        {
+            return;
+        }
+        ByteBuffer dataChunkBuffer = Utils.readFileDataIntoBufferLE(fc, IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
+        if (DsfChunkType.DATA.getCode().equals(Utils.readFourBytesAsChars(dataChunkBuffer)))
+        {
+            //Chunk size includes the chunk header
+            long start = fc.position();
+            long end = start + dataChunkBuffer.getLong() - (IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
+            audioHeader.setAudioDataStartPosition(start);
+            audioHeader.setAudioDataEndPosition(Math.min(end, fc.size()));
+            audioHeader.setAudioDataLength(audioHeader.getAudioDataEndPosition() - start);
+        }
+    }
+
+    private Tag readTag(FileChannel fc, String fileName) throws CannotReadException, IOException
+    {
+        DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
+        if (dsd != null)
+        {
+            logger.config( fileName +":actualFileSize:" + fc.size()+":"+dsd.toString());
+
+            return readTag(fc, dsd, fileName);
+        }
+        else
+        {
+            throw new CannotReadException(fileName +" Not a valid dsf file. Content does not start with 'DSD '.");
+        }
     }
 
     /**
@@ -22,6 +22,8 @@ import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.exceptions.NoWritePermissionsException;
 import org.jaudiotagger.audio.generic.AudioFileWriter2;
 import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 
@@ -41,7 +43,7 @@ public class DsfFileWriter extends AudioFileWriter2
 {
     protected void writeTag(Tag tag, Path file) throws CannotWriteException
     {
-        try(FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
+        try(FileChannel fc = Instrumentation.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
             DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
             if (dsd != null)
@@ -104,6 +106,27 @@ public class DsfFileWriter extends AudioFileWriter2
         }
     }
 
+    /**
+     * The ID3 tag is always at the end of the file so is truncated and rewritten there, along with the DSD header
+     *
+     * @param tag
+     * @param file
+     * @return the plan
+     * @throws CannotWriteException
+     */
+    @Override
+    protected WritePlan planWriteTag(Tag tag, Path file) throws CannotWriteException
+    {
+        try
+        {
+            return new WritePlan(WritePlan.Strategy.TAIL_APPEND, file.toFile().length(), 0, DsdChunk.DSD_HEADER_LENGTH + convert((AbstractID3v2Tag) tag).limit());
+        }
+        catch(IOException ioe)
+        {
+            throw new CannotWriteException(ioe.getMessage());
+        }
+    }
+
     /**
      * Convert ID3 tag into a ByteBuffer, also ensures always even to avoid problems
      *
@@ -156,7 +179,7 @@ public class DsfFileWriter extends AudioFileWriter2
     @Override
     protected void deleteTag(Tag tag, Path file) throws CannotWriteException
     {
-        try(FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
+        try(FileChannel fc = Instrumentation.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
             DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
             if (dsd != null)
@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.flac;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.IOException;
@@ -44,4 +45,16 @@ public class FlacFileReader extends AudioFileReader2
     {
         return tr.read(path);
     }
+
+    @Override
+    protected GenericAudioHeader getEncodingInfo(ReadSession session) throws CannotReadException, IOException
+    {
+        return ir.read(session.getChannel(), session.getLoggingName());
+    }
+
+    @Override
+    protected Tag getTag(ReadSession session) throws CannotReadException, IOException
+    {
+        return tr.read(session.getChannel(), session.getPath());
+    }
 }
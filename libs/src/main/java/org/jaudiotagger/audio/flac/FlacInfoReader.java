@@ -24,6 +24,7 @@ import org.jaudiotagger.audio.flac.metadatablock.BlockType;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
 import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 
 import java.io.File;
 import java.io.IOException;
@@ -43,67 +44,81 @@ public class FlacInfoReader
 
     public FlacAudioHeader read(Path path) throws CannotReadException, IOException
     {
-        logger.config(path + ":start");
-        try(FileChannel fc = FileChannel.open(path))
+        try(FileChannel fc = Instrumentation.open(path))
         {
-            FlacStreamReader flacStream = new FlacStreamReader(fc, path.toString() + " ");
-            flacStream.findStream();
+            return read(fc, path.toString());
+        }
+    }
 
-            MetadataBlockDataStreamInfo mbdsi = null;
-            boolean isLastBlock = false;
+    /**
+     * Read from an already open channel positioned at the start of the file
+     *
+     * @param fc
+     * @param loggingName
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public FlacAudioHeader read(FileChannel fc, String loggingName) throws CannotReadException, IOException
+    {
+        logger.config(loggingName + ":start");
+        FlacStreamReader flacStream = new FlacStreamReader(fc, loggingName + " ");
+        flacStream.findStream();
+
+        MetadataBlockDataStreamInfo mbdsi = null;
+        boolean isLastBlock = false;
 
-            //Search for StreamInfo Block, but even after we found it we still have to continue through all
-            //the metadata blocks so that we can find the start of the audio frames which we need to calculate
-            //the bitrate
-            while (isLastBlock==false)
+        //Search for StreamInfo Block, but even after we found it we still have to continue through all
+        //the metadata blocks so that we can find the start of the audio frames which we need to calculate
+        //the bitrate
+        while (isLastBlock==false)
+        {
+            MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
+            logger.info(loggingName + " "  + mbh.toString());
+            if (mbh.getBlockType() == BlockType.STREAMINFO)
             {
-                MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
-                logger.info(path.toString() + " "  + mbh.toString());
-                if (mbh.getBlockType() == BlockType.STREAMINFO)
+                //See #253:MetadataBlockDataStreamInfo exception when bytes length is 0
+                if(mbh.getDataLength()==0)
                 {
-                    //See #253:MetadataBlockDataStreamInfo exception when bytes length is 0
-                    if(mbh.getDataLength()==0)
-                    {
-                        throw new CannotReadException(path + ":FLAC StreamInfo has zeo data length");
-                    }
-
-                    mbdsi = new MetadataBlockDataStreamInfo(mbh, fc);
-                    if (!mbdsi.isValid())
-                    {
-                        throw new CannotReadException(path + ":FLAC StreamInfo not valid");
-                    }
+                    throw new CannotReadException(loggingName + ":FLAC StreamInfo has zeo data length");
                 }
-                else
+
+                mbdsi = new MetadataBlockDataStreamInfo(mbh, fc);
+                if (!mbdsi.isValid())
                 {
-                    fc.position(fc.position() + mbh.getDataLength());
+                    throw new CannotReadException(loggingName + ":FLAC StreamInfo not valid");
                 }
-                isLastBlock = mbh.isLastBlock();
             }
-
-            //Audio continues from this point to end of file (normally - TODO might need to allow for an ID3v1 tag at file end ?)
-            long streamStart = fc.position();
-
-            if (mbdsi == null)
+            else
             {
-                throw new CannotReadException(path + ":Unable to find Flac StreamInfo");
+                fc.position(fc.position() + mbh.getDataLength());
             }
+            isLastBlock = mbh.isLastBlock();
+        }
+
+        //Audio continues from this point to end of file (normally - TODO might need to allow for an ID3v1 tag at file end ?)
+        long streamStart = fc.position();
 
-            FlacAudioHeader info = new FlacAudioHeader();
-            info.setNoOfSamples(mbdsi.getNoOfSamples());
-            info.setPreciseLength(mbdsi.getPreciseLength());
-            info.setChannelNumber(mbdsi.getNoOfChannels());
-            info.setSamplingRate(mbdsi.getSamplingRate());
-            info.setBitsPerSample(mbdsi.getBitsPerSample());
-            info.setEncodingType(mbdsi.getEncodingType());
-            info.setFormat(SupportedFileFormat.FLAC.getDisplayName());
-            info.setLossless(true);
-            info.setMd5(mbdsi.getMD5Signature());
-            info.setAudioDataLength(fc.size() - streamStart);
-            info.setAudioDataStartPosition(streamStart);
-            info.setAudioDataEndPosition(fc.size());
-            info.setBitRate(computeBitrate(info.getAudioDataLength(), mbdsi.getPreciseLength()));
-            return info;
+        if (mbdsi == null)
+        {
+            throw new CannotReadException(loggingName + ":Unable to find Flac StreamInfo");
         }
+
+        FlacAudioHeader info = new FlacAudioHeader();
+        info.setNoOfSamples(mbdsi.getNoOfSamples());
+        info.setPreciseLength(mbdsi.getPreciseLength());
+        info.setChannelNumber(mbdsi.getNoOfChannels());
+        info.setSamplingRate(mbdsi.getSamplingRate());
+        info.setBitsPerSample(mbdsi.getBitsPerSample());
+        info.setEncodingType(mbdsi.getEncodingType());
+        info.setFormat(SupportedFileFormat.FLAC.getDisplayName());
+        info.setLossless(true);
+        info.setMd5(mbdsi.getMD5Signature());
+        info.setAudioDataLength(fc.size() - streamStart);
+        info.setAudioDataStartPosition(streamStart);
+        info.setAudioDataEndPosition(fc.size());
+        info.setBitRate(computeBitrate(info.getAudioDataLength(), mbdsi.getPreciseLength()));
+        return info;
     }
 
     private int computeBitrate(long size, float length )
@@ -121,7 +136,7 @@ public class FlacInfoReader
      */
     public int countMetaBlocks(File f) throws CannotReadException, IOException
     {
-        try(FileChannel fc = FileChannel.open(f.toPath()))
+        try(FileChannel fc = Instrumentation.open(f.toPath()))
         {
             FlacStreamReader flacStream = new FlacStreamReader(fc, f.toPath().toString() + " ");
             flacStream.findStream();
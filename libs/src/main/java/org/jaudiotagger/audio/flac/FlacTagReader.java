@@ -21,9 +21,12 @@ package org.jaudiotagger.audio.flac;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 import org.jaudiotagger.logging.Hex;
 import org.jaudiotagger.tag.InvalidFrameException;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.tag.images.ImageDataSource;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentReader;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
 
@@ -49,103 +52,122 @@ public class FlacTagReader
 
     public FlacTag read(Path path) throws CannotReadException, IOException
     {
-        try (FileChannel fc = FileChannel.open(path))
+        try (FileChannel fc = Instrumentation.open(path))
         {
-            FlacStreamReader flacStream = new FlacStreamReader(fc, path.toString() + " ");
-            flacStream.findStream();
+            return read(fc, path);
+        }
+    }
 
-            //Hold the metadata
-            VorbisCommentTag tag = null;
-            List<MetadataBlockDataPicture> images = new ArrayList<MetadataBlockDataPicture>();
+    /**
+     * Read from an already open channel positioned at the start of the file
+     *
+     * @param fc
+     * @param path of the file fc reads, may be null in which case artwork is never read lazily
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public FlacTag read(FileChannel fc, Path path) throws CannotReadException, IOException
+    {
+        FlacStreamReader flacStream = new FlacStreamReader(fc, String.valueOf(path) + " ");
+        flacStream.findStream();
 
-            //Seems like we have a valid stream
-            boolean isLastBlock = false;
-            while (!isLastBlock)
+        //Hold the metadata
+        VorbisCommentTag tag = null;
+        List<MetadataBlockDataPicture> images = new ArrayList<MetadataBlockDataPicture>();
+        ImageDataSource imageDataSource = null;
+
+        //Seems like we have a valid stream
+        boolean isLastBlock = false;
+        while (!isLastBlock)
+        {
+            if (logger.isLoggable(Level.CONFIG))
             {
-                if (logger.isLoggable(Level.CONFIG))
-                {
-                    logger.config(path + " Looking for MetaBlockHeader at:" + fc.position());
-                }
+                logger.config(path + " Looking for MetaBlockHeader at:" + fc.position());
+            }
 
-                //Read the header
-                MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
-                if (mbh == null)
-                {
-                    break;
-                }
+            //Read the header
+            MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
+            if (mbh == null)
+            {
+                break;
+            }
 
-                if (logger.isLoggable(Level.CONFIG))
-                {
-                    logger.config(path + " Reading MetadataBlockHeader:" + mbh.toString() + " ending at " + fc.position());
-                }
+            if (logger.isLoggable(Level.CONFIG))
+            {
+                logger.config(path + " Reading MetadataBlockHeader:" + mbh.toString() + " ending at " + fc.position());
+            }
 
-                //Is it one containing some sort of metadata, therefore interested in it?
+            //Is it one containing some sort of metadata, therefore interested in it?
 
-                //JAUDIOTAGGER-466:CBlocktype can be null
-                if (mbh.getBlockType() != null)
+            //JAUDIOTAGGER-466:CBlocktype can be null
+            if (mbh.getBlockType() != null)
+            {
+                switch (mbh.getBlockType())
                 {
-                    switch (mbh.getBlockType())
-                    {
-                        //We got a vorbiscomment comment block, parse it
-                        case VORBIS_COMMENT:
-                            ByteBuffer commentHeaderRawPacket = ByteBuffer.allocate(mbh.getDataLength());
-                            fc.read(commentHeaderRawPacket);
-                            tag = vorbisCommentReader.read(commentHeaderRawPacket.array(), false, path);
-                            break;
-
-                        case PICTURE:
-                            try
+                    //We got a vorbiscomment comment block, parse it
+                    case VORBIS_COMMENT:
+                        ByteBuffer commentHeaderRawPacket = ByteBuffer.allocate(mbh.getDataLength());
+                        fc.read(commentHeaderRawPacket);
+                        tag = vorbisCommentReader.read(commentHeaderRawPacket.array(), false, path);
+                        break;
+
+                    case PICTURE:
+                        try
+                        {
+                            if (imageDataSource == null && path != null && TagOptionSingleton.getInstance().isLazyArtwork())
                             {
-                                MetadataBlockDataPicture mbdp = new MetadataBlockDataPicture(mbh, fc);
-                                images.add(mbdp);
+                                imageDataSource = ImageDataSource.of(path);
                             }
-                            catch (IOException ioe)
-                            {
-                                logger.warning(path + "Unable to read picture metablock, ignoring:" + ioe.getMessage());
-                            }
-                            catch (InvalidFrameException ive)
-                            {
-                                logger.warning(path + "Unable to read picture metablock, ignoring" + ive.getMessage());
-                            }
-
-                            break;
-
-
-                        case SEEKTABLE:
-                            try
-                            {
-                                long pos = fc.position();
-                                fc.position(pos + mbh.getDataLength());
-                            }
-                            catch (IOException ioe)
-                            {
-                                logger.warning(path + "Unable to readseek metablock, ignoring:" + ioe.getMessage());
-                            }
-                            break;
-
-                        //This is not a metadata block we are interested in so we skip to next block
-                        default:
-                            if (logger.isLoggable(Level.CONFIG))
-                            {
-                                logger.config(path + "Ignoring MetadataBlock:" + mbh.getBlockType());
-                            }
-                            fc.position(fc.position() + mbh.getDataLength());
-                            break;
-                    }
+                            MetadataBlockDataPicture mbdp = new MetadataBlockDataPicture(mbh, fc, imageDataSource);
+                            images.add(mbdp);
+                        }
+                        catch (IOException ioe)
+                        {
+                            logger.warning(path + "Unable to read picture metablock, ignoring:" + ioe.getMessage());
+                        }
+                        catch (InvalidFrameException ive)
+                        {
+                            logger.warning(path + "Unable to read picture metablock, ignoring" + ive.getMessage());
+                        }
+
+                        break;
+
+
+                    case SEEKTABLE:
+                        try
+                        {
+                            long pos = fc.position();
+                            fc.position(pos + mbh.getDataLength());
+                        }
+                        catch (IOException ioe)
+                        {
+                            logger.warning(path + "Unable to readseek metablock, ignoring:" + ioe.getMessage());
+                        }
+                        break;
+
+                    //This is not a metadata block we are interested in so we skip to next block
+                    default:
+                        if (logger.isLoggable(Level.CONFIG))
+                        {
+                            logger.config(path + "Ignoring MetadataBlock:" + mbh.getBlockType());
+                        }
+                        fc.position(fc.position() + mbh.getDataLength());
+                        break;
                 }
-                isLastBlock = mbh.isLastBlock();
             }
-            logger.config("Audio should start at:"+ Hex.asHex(fc.position()));
+            isLastBlock = mbh.isLastBlock();
+        }
+        logger.config("Audio should start at:"+ Hex.asHex(fc.position()));
 
-            //Note there may not be either a tag or any images, no problem this is valid however to make it easier we
-            //just initialize Flac with an empty VorbisTag
-            if (tag == null)
-            {
-                tag = VorbisCommentTag.createNewTag();
-            }
-            FlacTag flacTag = new FlacTag(tag, images);
-            return flacTag;
+        //Note there may not be either a tag or any images, no problem this is valid however to make it easier we
+        //just initialize Flac with an empty VorbisTag
+        if (tag == null)
+        {
+            tag = VorbisCommentTag.createNewTag();
         }
+        FlacTag flacTag = new FlacTag(tag, images);
+        return flacTag;
     }
 }
 
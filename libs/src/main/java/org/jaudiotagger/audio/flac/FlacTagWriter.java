@@ -22,8 +22,12 @@ import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.exceptions.NoWritePermissionsException;
 import org.jaudiotagger.audio.flac.metadatablock.*;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.tag.options.PaddingPolicy;
 import org.jaudiotagger.utils.ShiftData;
 
 import java.io.IOException;
@@ -182,94 +186,187 @@ public class FlacTagWriter
     }
 
     /**
-     * @param tag
+     * Find start of Flac stream within file
+     *
+     * @param fc
      * @param file
-     * @throws CannotWriteException
+     * @return
      * @throws IOException
+     * @throws CannotWriteException
      */
-    public void write(Tag tag, Path file) throws CannotWriteException
+    private FlacStreamReader findStream(FileChannel fc, Path file) throws IOException, CannotWriteException
     {
-        logger.config(file + " Writing tag");
-        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
+        FlacStreamReader flacStream = new FlacStreamReader(fc, file.toString() + " ");
+        try
+        {
+            flacStream.findStream();
+        }
+        catch (CannotReadException cre)
         {
-            MetadataBlockInfo blockInfo = new MetadataBlockInfo();
+            throw new CannotWriteException(cre.getMessage());
+        }
+        return flacStream;
+    }
 
-            //Read existing data
-            FlacStreamReader flacStream = new FlacStreamReader(fc, file.toString() + " ");
+    /**
+     * Read the metadata blocks that follow the Flac stream identifier, leaving the channel positioned at the start of
+     * the audio
+     *
+     * @param fc
+     * @return
+     * @throws IOException
+     * @throws CannotWriteException
+     */
+    private MetadataBlockInfo readMetadataBlocks(FileChannel fc) throws IOException, CannotWriteException
+    {
+        MetadataBlockInfo blockInfo = new MetadataBlockInfo();
+        boolean isLastBlock = false;
+        while (!isLastBlock)
+        {
             try
             {
-                flacStream.findStream();
+                MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
+                if (mbh.getBlockType() != null)
+                {
+                    switch (mbh.getBlockType())
+                    {
+                        case STREAMINFO:
+                        {
+                            blockInfo.streamInfoBlock = new MetadataBlock(mbh, new MetadataBlockDataStreamInfo(mbh, fc));
+                            break;
+                        }
+
+                        case VORBIS_COMMENT:
+                        case PADDING:
+                        case PICTURE:
+                        {
+                            //All these will be replaced by the new metadata so we just treat as padding in order
+                            //to determine how much space is already allocated in the file
+                            fc.position(fc.position() + mbh.getDataLength());
+                            MetadataBlockData mbd = new MetadataBlockDataPadding(mbh.getDataLength());
+                            blockInfo.metadataBlockPadding.add(new MetadataBlock(mbh, mbd));
+                            break;
+                        }
+
+                        case APPLICATION:
+                        {
+                            MetadataBlockData mbd = new MetadataBlockDataApplication(mbh, fc);
+                            blockInfo.metadataBlockApplication.add(new MetadataBlock(mbh, mbd));
+                            break;
+                        }
+
+                        case SEEKTABLE:
+                        {
+                            MetadataBlockData mbd = new MetadataBlockDataSeekTable(mbh, fc);
+                            blockInfo.metadataBlockSeekTable.add(new MetadataBlock(mbh, mbd));
+                            break;
+                        }
+
+                        case CUESHEET:
+                        {
+                            MetadataBlockData mbd = new MetadataBlockDataCueSheet(mbh, fc);
+                            blockInfo.metadataBlockCueSheet.add(new MetadataBlock(mbh, mbd));
+                            break;
+                        }
+
+                        default:
+                        {
+                            //TODO What are the consequences of doing this ?
+                            fc.position(fc.position() + mbh.getDataLength());
+                            break;
+                        }
+                    }
+                }
+                isLastBlock = mbh.isLastBlock();
             }
             catch (CannotReadException cre)
             {
                 throw new CannotWriteException(cre.getMessage());
             }
+        }
+        return blockInfo;
+    }
 
-            boolean isLastBlock = false;
-            while (!isLastBlock)
+    /**
+     * @param availableRoom
+     * @param neededRoom
+     * @return true if there is enough room to fit the tag without moving the audio, need to allow space for padding
+     * header if padding required
+     */
+    private static boolean isRoomToRewrite(int availableRoom, int neededRoom)
+    {
+        return (availableRoom == neededRoom) || (availableRoom > neededRoom + MetadataBlockHeader.HEADER_LENGTH);
+    }
+
+    /**
+     * @param neededRoom
+     * @return size of padding block to add when the audio has to be moved, as set by the padding policy or
+     * {@link FlacTagCreator#DEFAULT_PADDING}
+     */
+    private static int getPaddingWhenShifting(int neededRoom)
+    {
+        PaddingPolicy paddingPolicy = TagOptionSingleton.getInstance().getPaddingPolicy();
+        if (paddingPolicy == null)
+        {
+            return FlacTagCreator.DEFAULT_PADDING;
+        }
+        return paddingPolicy.getPadding(neededRoom, MetadataBlockHeader.HEADER_LENGTH);
+    }
+
+    /**
+     * Work out how {@link #write(Tag, Path)} would write the tag without modifying the file
+     *
+     * @param tag
+     * @param file
+     * @return the plan
+     * @throws CannotWriteException
+     */
+    public WritePlan planWrite(Tag tag, Path file) throws CannotWriteException
+    {
+        try (FileChannel fc = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            FlacStreamReader flacStream = findStream(fc, file);
+            MetadataBlockInfo blockInfo = readMetadataBlocks(fc);
+
+            int availableRoom = blockInfo.computeAvailableRoom();
+            int neededRoom = tc.convertMetadata(tag).limit() + blockInfo.computeNeededRoom();
+            int streamBlockLength = MetadataBlockHeader.HEADER_LENGTH + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH;
+            if (isRoomToRewrite(availableRoom, neededRoom))
             {
-                try
-                {
-                    MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
-                    if (mbh.getBlockType() != null)
-                    {
-                        switch (mbh.getBlockType())
-                        {
-                            case STREAMINFO:
-                            {
-                                blockInfo.streamInfoBlock = new MetadataBlock(mbh, new MetadataBlockDataStreamInfo(mbh, fc));
-                                break;
-                            }
-
-                            case VORBIS_COMMENT:
-                            case PADDING:
-                            case PICTURE:
-                            {
-                                //All these will be replaced by the new metadata so we just treat as padding in order
-                                //to determine how much space is already allocated in the file
-                                fc.position(fc.position() + mbh.getDataLength());
-                                MetadataBlockData mbd = new MetadataBlockDataPadding(mbh.getDataLength());
-                                blockInfo.metadataBlockPadding.add(new MetadataBlock(mbh, mbd));
-                                break;
-                            }
-
-                            case APPLICATION:
-                            {
-                                MetadataBlockData mbd = new MetadataBlockDataApplication(mbh, fc);
-                                blockInfo.metadataBlockApplication.add(new MetadataBlock(mbh, mbd));
-                                break;
-                            }
-
-                            case SEEKTABLE:
-                            {
-                                MetadataBlockData mbd = new MetadataBlockDataSeekTable(mbh, fc);
-                                blockInfo.metadataBlockSeekTable.add(new MetadataBlock(mbh, mbd));
-                                break;
-                            }
-
-                            case CUESHEET:
-                            {
-                                MetadataBlockData mbd = new MetadataBlockDataCueSheet(mbh, fc);
-                                blockInfo.metadataBlockCueSheet.add(new MetadataBlock(mbh, mbd));
-                                break;
-                            }
-
-                            default:
-                            {
-                                //TODO What are the consequences of doing this ?
-                                fc.position(fc.position() + mbh.getDataLength());
-                                break;
-                            }
-                        }
-                    }
-                    isLastBlock = mbh.isLastBlock();
-                }
-                catch (CannotReadException cre)
-                {
-                    throw new CannotWriteException(cre.getMessage());
-                }
+                return new WritePlan(availableRoom == neededRoom ? WritePlan.Strategy.IN_PLACE : WritePlan.Strategy.PADDING_CONSUMED,
+                        fc.size(), 0, streamBlockLength + availableRoom);
             }
 
+            long audioStart = flacStream.getStartOfFlacInFile()
+                    + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH
+                    + streamBlockLength
+                    + availableRoom;
+            long audioLength = fc.size() - audioStart;
+            return new WritePlan(WritePlan.Strategy.SHIFT, fc.size(), audioLength,
+                    audioLength + streamBlockLength + neededRoom + getPaddingWhenShifting(neededRoom));
+        }
+        catch (IOException ioe)
+        {
+            logger.log(Level.SEVERE, ioe.getMessage(), ioe);
+            throw new CannotWriteException(file + ":" + ioe.getMessage());
+        }
+    }
+
+    /**
+     * @param tag
+     * @param file
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    public void write(Tag tag, Path file) throws CannotWriteException
+    {
+        logger.config(file + " Writing tag");
+        try (FileChannel fc = Instrumentation.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
+        {
+            //Read existing data
+            FlacStreamReader flacStream = findStream(fc, file);
+            MetadataBlockInfo blockInfo = readMetadataBlocks(fc);
+
             //Number of bytes in the existing file available before audio data
             int availableRoom = blockInfo.computeAvailableRoom();
 
@@ -288,7 +385,7 @@ public class FlacTagWriter
             //There is enough room to fit the tag without moving the audio just need to
             //adjust padding accordingly need to allow space for padding header if padding required
             logger.config(file + ":Writing tag available bytes:" + availableRoom + ":needed bytes:" + neededRoom);
-            if ((availableRoom == neededRoom) || (availableRoom > neededRoom + MetadataBlockHeader.HEADER_LENGTH))
+            if (isRoomToRewrite(availableRoom, neededRoom))
             {
                 logger.config(file + ":Room to Rewrite");
                 writeAllNonAudioData(tag, fc, blockInfo, flacStream, availableRoom - neededRoom);
@@ -297,8 +394,9 @@ public class FlacTagWriter
             else
             {
                 logger.config(file + ":Audio must be shifted "+ "NewTagSize:" + newTagSize + ":AvailableRoom:" + availableRoom + ":MinimumAdditionalRoomRequired:"+(neededRoom - availableRoom));
-                //As we are having to move both anyway may as well put in the default padding
-                insertUsingChunks(file, tag, fc, blockInfo, flacStream, neededRoom + FlacTagCreator.DEFAULT_PADDING, availableRoom);
+                //As we are having to move both anyway may as well put in some padding
+                int padding = getPaddingWhenShifting(neededRoom);
+                insertUsingChunks(file, tag, fc, blockInfo, flacStream, neededRoom + padding, availableRoom, padding);
             }
         }
         catch (AccessDeniedException ade)
@@ -403,10 +501,11 @@ public class FlacTagWriter
      * @param flacStream
      * @param neededRoom
      * @param availableRoom
+     * @param padding
      * @throws IOException
      * @throws UnsupportedEncodingException
      */
-    private void insertUsingChunks(Path file, Tag tag, FileChannel fc, MetadataBlockInfo blockInfo, FlacStreamReader flacStream, int neededRoom, int availableRoom) throws IOException, UnsupportedEncodingException
+    private void insertUsingChunks(Path file, Tag tag, FileChannel fc, MetadataBlockInfo blockInfo, FlacStreamReader flacStream, int neededRoom, int availableRoom, int padding) throws IOException, UnsupportedEncodingException
     {
         //Find end of metadata blocks (start of Audio), i.e start of Flac + 4 bytes for 'fLaC', 4 bytes for streaminfo header and
         //34 bytes for streaminfo and then size of all the other existing blocks
@@ -425,7 +524,7 @@ public class FlacTagWriter
 
         //Jump over Id3 (if exists) and Flac Header
         fc.position(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
-        writeAllNonAudioData(tag, fc, blockInfo, flacStream, FlacTagCreator.DEFAULT_PADDING);
+        writeAllNonAudioData(tag, fc, blockInfo, flacStream, padding);
     }
 
     private void writeStreamBlock(FileChannel fc, MetadataBlockInfo blockInfo) throws IOException
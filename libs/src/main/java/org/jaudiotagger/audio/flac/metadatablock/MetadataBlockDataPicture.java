@@ -4,11 +4,14 @@ import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.tag.FieldKey;
 import org.jaudiotagger.tag.InvalidFrameException;
 import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.images.ImageDataSource;
+import org.jaudiotagger.tag.images.LazyImageData;
 import org.jaudiotagger.tag.reference.PictureTypes;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
@@ -44,6 +47,12 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
 {
     public static final String IMAGE_IS_URL = "-->";
 
+    /**
+     * When reading lazily only this much of the block is read up front, it is enough for all the fields apart from
+     * the image data unless the description is very long.
+     */
+    private static final int LAZY_READ_SIZE = 4096;
+
     private int pictureType;
     private int mimeTypeSize;
     private int descriptionSize;
@@ -57,11 +66,33 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
     private int indexedColouredCount;
     private int lengthOfPictureInBytes;
     private byte[] imageData;
+    private LazyImageData lazyImageData;
 
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.flac.MetadataBlockDataPicture");
 
     private void initFromByteBuffer(ByteBuffer rawdata) throws IOException, InvalidFrameException
+    {
+        initFieldsFromByteBuffer(rawdata);
+
+        //ImageData
+        if(lengthOfPictureInBytes > rawdata.remaining())
+        {
+            throw new InvalidFrameException("PictureType Size was:" + lengthOfPictureInBytes + " but remaining bytes size " +rawdata.remaining());
+        }
+        imageData = new byte[lengthOfPictureInBytes];
+        rawdata.get(imageData);
+        logger.config("Read image:" + this.toString());
+    }
+
+    /**
+     * Read everything apart from the image data itself, leaving the buffer positioned at the start of the image data
+     *
+     * @param rawdata
+     * @throws IOException
+     * @throws InvalidFrameException
+     */
+    private void initFieldsFromByteBuffer(ByteBuffer rawdata) throws IOException, InvalidFrameException
     {
         //Picture Type
         pictureType = rawdata.getInt();
@@ -99,15 +130,6 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
         indexedColouredCount = rawdata.getInt();
 
         lengthOfPictureInBytes =  rawdata.getInt();
-
-        //ImageData
-        if(lengthOfPictureInBytes > rawdata.remaining())
-        {
-            throw new InvalidFrameException("PictureType Size was:" + lengthOfPictureInBytes + " but remaining bytes size " +rawdata.remaining());
-        }
-        imageData = new byte[lengthOfPictureInBytes];
-        rawdata.get(imageData);
-        logger.config("Read image:" + this.toString());
     }
 
     /**
@@ -131,6 +153,11 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
      * @throws org.jaudiotagger.tag.InvalidFrameException
      */
     public MetadataBlockDataPicture(MetadataBlockHeader header, FileChannel fc ) throws IOException, InvalidFrameException
+    {
+        readBlock(header, fc);
+    }
+
+    private void readBlock(MetadataBlockHeader header, FileChannel fc) throws IOException, InvalidFrameException
     {
         if (header.getDataLength()==0)
         {
@@ -150,6 +177,67 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
 
     }
 
+    /**
+     * Construct picture block by reading from file, if imageDataSource is not null the image data itself is not
+     * read, just its location within the file so it can be read when needed.
+     *
+     * @param header
+     * @param fc positioned at the start of the block data within the file imageDataSource refers to
+     * @param imageDataSource
+     * @throws IOException
+     * @throws InvalidFrameException
+     */
+    public MetadataBlockDataPicture(MetadataBlockHeader header, FileChannel fc, ImageDataSource imageDataSource) throws IOException, InvalidFrameException
+    {
+        this(header, fc, imageDataSource, fc.position());
+    }
+
+    private MetadataBlockDataPicture(MetadataBlockHeader header, FileChannel fc, ImageDataSource imageDataSource, long blockStart) throws IOException, InvalidFrameException
+    {
+        if (imageDataSource == null || header.getDataLength() <= LAZY_READ_SIZE)
+        {
+            readBlock(header, fc);
+            return;
+        }
+
+        ByteBuffer rawdata = ByteBuffer.allocate(LAZY_READ_SIZE);
+        int bytesRead = fc.read(rawdata);
+        if (bytesRead < LAZY_READ_SIZE)
+        {
+            throw new IOException("Unable to read required number of databytes read:" + bytesRead + ":required:" + header.getDataLength());
+        }
+        rawdata.flip();
+        try
+        {
+            initFieldsFromByteBuffer(rawdata);
+        }
+        catch (BufferUnderflowException bue)
+        {
+            //Fields extend beyond what we have read so just read the whole block
+            fc.position(blockStart);
+            readBlock(header, fc);
+            return;
+        }
+
+        int remaining = header.getDataLength() - rawdata.position();
+        if (lengthOfPictureInBytes < 0 || lengthOfPictureInBytes > remaining)
+        {
+            throw new InvalidFrameException("PictureType Size was:" + lengthOfPictureInBytes + " but remaining bytes size " + remaining);
+        }
+        if (isImageUrl())
+        {
+            imageData = new byte[lengthOfPictureInBytes];
+            fc.position(blockStart + rawdata.position());
+            fc.read(ByteBuffer.wrap(imageData));
+        }
+        else
+        {
+            lazyImageData = imageDataSource.create(blockStart + rawdata.position(), lengthOfPictureInBytes);
+        }
+        fc.position(blockStart + header.getDataLength());
+        logger.config("Read image:" + this.toString());
+    }
+
     /**
      * Construct new MetadataPicture block
      *
@@ -198,6 +286,7 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
             baos.write(Utils.getSizeBEInt32(height));
             baos.write(Utils.getSizeBEInt32(colourDepth));
             baos.write(Utils.getSizeBEInt32(indexedColouredCount));
+            byte[] imageData = getImageData();
             baos.write(Utils.getSizeBEInt32(imageData.length));
             baos.write(imageData);
             return ByteBuffer.wrap(baos.toByteArray());
@@ -211,7 +300,11 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
 
     public int getLength()
     {
-        return getBytes().limit();
+        //Calculated so that image data read lazily does not have to be read
+        return 32
+                + mimeType.getBytes(StandardCharsets.ISO_8859_1).length
+                + description.getBytes(StandardCharsets.UTF_8).length
+                + getImageDataLength();
     }
 
     public int getPictureType()
@@ -249,11 +342,41 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
         return indexedColouredCount;
     }
 
+    /**
+     * If the image data was read lazily it is read from the file the first time this is called
+     *
+     * @return the image data
+     * @throws java.io.UncheckedIOException if the image data cannot be read from the file
+     */
     public byte[] getImageData()
     {
+        if (imageData == null && lazyImageData != null)
+        {
+            return lazyImageData.getData();
+        }
         return imageData;
     }
 
+    /**
+     * @return length of the image data without reading it
+     */
+    public int getImageDataLength()
+    {
+        if (imageData == null && lazyImageData != null)
+        {
+            return lazyImageData.getLength();
+        }
+        return imageData.length;
+    }
+
+    /**
+     * @return the image data location within the file if read lazily, otherwise null
+     */
+    public LazyImageData getLazyImageData()
+    {
+        return lazyImageData;
+    }
+
     /**
      * @return true if imagedata  is held as a url rather than actually being imagedata
      */
@@ -286,7 +409,7 @@ public class MetadataBlockDataPicture implements MetadataBlockData, TagField
                 + "\t\theight:"+ height +"\n"
                 + "\t\tcolourdepth:" + colourDepth+"\n"
                 + "\t\tindexedColourCount:" + indexedColouredCount+"\n"
-                + "\t\timage size in bytes:" + lengthOfPictureInBytes + "/" + imageData.length+"\n";
+                + "\t\timage size in bytes:" + lengthOfPictureInBytes + "/" + getImageDataLength()+"\n";
     }
 
     /**
@@ -19,10 +19,14 @@
 package org.jaudiotagger.audio.generic;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.NoReadPermissionsException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
@@ -115,9 +119,27 @@ public abstract class AudioFileReader
             raf = new RandomAccessFile(f, "r");
             raf.seek(0);
 
-            GenericAudioHeader info = getEncodingInfo(raf);
+            GenericAudioHeader info;
+            Instrumentation.PhaseRecorder headerPhase = Instrumentation.startPhase(Phase.HEADER);
+            try
+            {
+                info = getEncodingInfo(raf);
+            }
+            finally
+            {
+                Instrumentation.endPhase(headerPhase);
+            }
             raf.seek(0);
-            Tag tag = getTag(raf);
+            Tag tag;
+            Instrumentation.PhaseRecorder tagPhase = Instrumentation.startPhase(Phase.TAG);
+            try
+            {
+                tag = getTag(raf);
+            }
+            finally
+            {
+                Instrumentation.endPhase(tagPhase);
+            }
             return new AudioFile(f, info, tag);
 
         }
@@ -153,4 +175,30 @@ public abstract class AudioFileReader
     {
         return read(path.toFile());
     }
+
+    /**
+     * Reads only the parts of the file asked for by readOptions, default implementation reads everything.
+     *
+     * @param path
+     * @param readOptions
+     * @return
+     */
+    public AudioFile read(Path path, ReadOptions readOptions) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return read(path);
+    }
+
+    /**
+     * Reads audio metadata from a source that is not backed by a file, such as an in-memory buffer.
+     *
+     * The returned AudioFile has no file so it cannot be written back with AudioFileIO.
+     *
+     * @param session
+     * @return
+     * @throws CannotReadException if the format does not support reading without a file, or on any parsing error
+     */
+    public AudioFile read(ReadSession session) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        throw new CannotReadException("Reading without a file is not supported by " + getClass().getSimpleName());
+    }
 }
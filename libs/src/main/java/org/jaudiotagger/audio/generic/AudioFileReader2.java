@@ -1,10 +1,15 @@
 package org.jaudiotagger.audio.generic;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.NoReadPermissionsException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.io.ReadBackend;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
@@ -22,6 +27,26 @@ import java.util.logging.Level;
  */
 public abstract class AudioFileReader2 extends AudioFileReader
 {
+    private ReadBackend readBackend = ReadBackend.FILE_CHANNEL;
+
+    /**
+     * @return how the file is accessed during a read
+     */
+    public ReadBackend getReadBackend()
+    {
+        return readBackend;
+    }
+
+    /**
+     * Set how the file is accessed during a read
+     *
+     * @param readBackend
+     */
+    public void setReadBackend(ReadBackend readBackend)
+    {
+        this.readBackend = readBackend;
+    }
+
     /*
    * Reads the given file, and return an AudioFile object containing the Tag
    * and the encoding infos present in the file. If the file has no tag, an
@@ -33,7 +58,12 @@ public abstract class AudioFileReader2 extends AudioFileReader
    */
     public AudioFile read(File f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
-        Path path = f.toPath();
+        return read(f.toPath(), ReadOptions.FULL);
+    }
+
+    @Override
+    public AudioFile read(Path path, ReadOptions readOptions) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
         if(logger.isLoggable(Level.CONFIG))
         {
             logger.config(ErrorMessage.GENERAL_READ.getMsg(path));
@@ -52,16 +82,104 @@ public abstract class AudioFileReader2 extends AudioFileReader
             }
         }
 
+        File f = path.toFile();
         if (f.length() <= MINIMUM_SIZE_FOR_VALID_AUDIO_FILE)
         {
             throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(path));
         }
 
-        GenericAudioHeader info = getEncodingInfo(path);
-        Tag tag = getTag(path);
+        try(ReadSession session = new ReadSession(path, readBackend))
+        {
+            session.setReadOptions(readOptions);
+            return read(f, session);
+        }
+    }
+
+    /**
+     * Reads from a source that is not backed by a file, the returned AudioFile has no file
+     *
+     * @param session
+     * @exception CannotReadException If anything went bad during the read
+     */
+    public AudioFile read(ReadSession session) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        if(logger.isLoggable(Level.CONFIG))
+        {
+            logger.config(ErrorMessage.GENERAL_READ.getMsg(session.getLoggingName()));
+        }
+
+        if (session.size() <= MINIMUM_SIZE_FOR_VALID_AUDIO_FILE)
+        {
+            throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(session.getLoggingName()));
+        }
+        return read(null, session);
+    }
+
+    private AudioFile read(File f, ReadSession session) throws CannotReadException, IOException
+    {
+        ReadOptions readOptions = session.getReadOptions();
+        GenericAudioHeader info = null;
+        if (readOptions.isReadHeader())
+        {
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.HEADER);
+            try
+            {
+                info = getEncodingInfo(session);
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
+            session.rewind();
+        }
+        Tag tag = null;
+        if (readOptions.isReadTag())
+        {
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.TAG);
+            try
+            {
+                tag = getTag(session);
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
+        }
+        if(logger.isLoggable(Level.CONFIG))
+        {
+            logger.config(session.toString());
+        }
         return new AudioFile(f, info, tag);
     }
 
+    /**
+     * Read Encoding Information using a read session shared with the tag phase, so the file only needs to be
+     * opened once. Default implementation reads from the path, override to make use of the session.
+     *
+     * @param session
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    protected GenericAudioHeader getEncodingInfo(ReadSession session) throws CannotReadException, IOException
+    {
+        return getEncodingInfo(session.getPath());
+    }
+
+    /**
+     * Read tag Information using a read session shared with the encoding phase. Default implementation reads
+     * from the path, override to make use of the session.
+     *
+     * @param session
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    protected Tag getTag(ReadSession session) throws CannotReadException, IOException
+    {
+        return getTag(session.getPath());
+    }
+
     /**
      *
      * Read Encoding Information
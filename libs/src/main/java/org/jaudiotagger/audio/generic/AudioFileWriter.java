@@ -21,8 +21,11 @@ package org.jaudiotagger.audio.generic;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
 import org.jaudiotagger.audio.exceptions.ModifyVetoException;
 import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
@@ -52,8 +55,19 @@ import java.util.logging.Logger;
  */
 public abstract class AudioFileWriter
 {
-    private static final String TEMP_FILENAME_SUFFIX = ".tmp";
+    /**
+     * Suffix of the temporary file the new file is written to before replacing the original file
+     */
+    public static final String TEMP_FILENAME_SUFFIX = ".tmp";
     private static final String WRITE_MODE = "rw";
+
+    /**
+     * How the file was written, as reported to {@link Instrumentation#setStrategy(String)}
+     */
+    public static final String STRATEGY_IN_PLACE = "in-place";
+    public static final String STRATEGY_TEMPORARY_COPY = "temporary-copy";
+    public static final String STRATEGY_COPY_CONTENT = "copy-content";
+    public static final String STRATEGY_RENAME = "rename";
     protected static final int MINIMUM_FILESIZE = 100;
 
     // Logger Object
@@ -237,6 +251,23 @@ public abstract class AudioFileWriter
         this.modificationListener = listener;
     }
 
+    /**
+     * Work out how the tag in the AudioFile would be written without modifying the file.
+     *
+     * Formats that are written in place override this, by default the whole file is copied to a temporary file, and
+     * copied back again if the file identity is preserved.
+     *
+     * @param af The file we want to process
+     * @return the plan
+     * @throws CannotWriteException if the existing layout could not be read
+     */
+    public WritePlan planWrite(AudioFile af) throws CannotWriteException
+    {
+        long fileLength = af.getFile().length();
+        int copies = TagOptionSingleton.getInstance().isPreserveFileIdentity() ? 2 : 1;
+        return new WritePlan(WritePlan.Strategy.FULL_COPY, fileLength, fileLength * copies, fileLength * copies);
+    }
+
     /**
      * Prechecks before normal write
      * <p/>
@@ -302,7 +333,16 @@ public abstract class AudioFileWriter
         //mp3's use a different mechanism to the other formats
         if (af instanceof MP3File)
         {
-            af.commit();
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.WRITE);
+            try
+            {
+                Instrumentation.setStrategy(STRATEGY_IN_PLACE);
+                af.commit();
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
             return;
         }
 
@@ -395,7 +435,19 @@ public abstract class AudioFileWriter
                 {
                     this.modificationListener.fileWillBeModified(af, false);
                 }
-                writeTag(af, af.getTag(), raf, rafTemp);
+                Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.WRITE);
+                try
+                {
+                    Instrumentation.setStrategy(STRATEGY_TEMPORARY_COPY);
+                    writeTag(af, af.getTag(), raf, rafTemp);
+                    //Formats writing a copy read the whole file, the copy is not read through a channel so is counted here
+                    Instrumentation.recordRead(0, raf.length());
+                    Instrumentation.recordWrite(0, rafTemp.length());
+                }
+                finally
+                {
+                    Instrumentation.endPhase(phase);
+                }
                 if (this.modificationListener != null)
                 {
                     this.modificationListener.fileModified(af, newFile);
@@ -464,7 +516,15 @@ public abstract class AudioFileWriter
         // If the temporary file was used
         if (newFile.length() > 0)
         {
-             transferNewFileToOriginalFile(newFile, af.getFile(), TagOptionSingleton.getInstance().isPreserveFileIdentity());
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.RENAME);
+            try
+            {
+                transferNewFileToOriginalFile(newFile, af.getFile(), TagOptionSingleton.getInstance().isPreserveFileIdentity());
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
         }
         else
         {
@@ -504,10 +564,12 @@ public abstract class AudioFileWriter
     {
         if (reuseExistingOriginalFile)
         {
+            Instrumentation.setStrategy(STRATEGY_COPY_CONTENT);
             transferNewFileContentToOriginalFile(newFile, originalFile);
         }
         else
         {
+            Instrumentation.setStrategy(STRATEGY_RENAME);
             transferNewFileToNewOriginalFile(newFile, originalFile);
         }
     }
@@ -597,11 +659,9 @@ public abstract class AudioFileWriter
             // copy contents of newFile to originalFile,
             // overwriting the old content in that file
             final long size = inChannel.size();
-            long position = 0;
-            while (position < size)
-            {
-                position += inChannel.transferTo(position, 1024L * 1024L, outChannel);
-            }
+            Utils.transferFully(inChannel, 0, size, outChannel);
+            Instrumentation.recordRead(0, size);
+            Instrumentation.recordWrite(0, size);
             // truncate raf, in case it used to be longer
             raf.setLength(size);
         }
@@ -3,6 +3,9 @@ package org.jaudiotagger.audio.generic;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
@@ -70,7 +73,29 @@ public abstract class AudioFileWriter2 extends AudioFileWriter
             throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE_FILE_IS_TOO_SMALL
                     .getMsg(file));
         }
-        writeTag(af.getTag(), file);
+        Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.WRITE);
+        try
+        {
+            Instrumentation.setStrategy(STRATEGY_IN_PLACE);
+            writeTag(af.getTag(), file);
+        }
+        finally
+        {
+            Instrumentation.endPhase(phase);
+        }
+    }
+
+    /**
+     * Work out how the tag would be written without modifying the file
+     *
+     * @param af The file we want to process
+     * @return the plan
+     * @throws CannotWriteException
+     */
+    @Override
+    public WritePlan planWrite(AudioFile af) throws CannotWriteException
+    {
+        return planWriteTag(af.getTag(), af.getFile().toPath());
     }
 
     /**
@@ -98,6 +123,21 @@ public abstract class AudioFileWriter2 extends AudioFileWriter
      */
     protected abstract void writeTag(Tag tag, Path file) throws CannotWriteException;
 
+    /**
+     * Should be overridden by each audio format to work out how {@link #writeTag(Tag, Path)} would write the tag, by
+     * default assumes all the data after the start of the file has to be moved
+     *
+     * @param tag
+     * @param file
+     * @return the plan
+     * @throws CannotWriteException
+     */
+    protected WritePlan planWriteTag(Tag tag, Path file) throws CannotWriteException
+    {
+        long fileLength = file.toFile().length();
+        return new WritePlan(WritePlan.Strategy.SHIFT, fileLength, fileLength, fileLength);
+    }
+
     protected   void writeTag(AudioFile audioFile, Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotReadException, CannotWriteException, IOException
     {
         throw new UnsupportedOperationException("Old method not used in version 2");
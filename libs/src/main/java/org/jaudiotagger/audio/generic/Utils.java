@@ -19,12 +19,14 @@
 package org.jaudiotagger.audio.generic;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.io.BufferPool;
 import org.jaudiotagger.utils.FileTypeUtil;
 
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.logging.Level;
@@ -45,6 +47,7 @@ public class Utils
 
     private static final Logger logger = Logger.getLogger("org.jaudiotagger.audio.generic.utils");
     private static final int MAX_BASE_TEMP_FILENAME_LENGTH = 20;
+    private static final long TRANSFER_CHUNK_SIZE = 1024L * 1024L;
 
     /**
      * Returns the extension of the given file.
@@ -548,6 +551,59 @@ public class Utils
         tagBuffer.order(ByteOrder.BIG_ENDIAN);
         return tagBuffer;
     }
+
+    /**
+     * Read into b from the current position of the channel until b is full or the end of the channel is reached,
+     * same as RandomAccessFile.read(byte[]) for a file
+     *
+     * @param fc
+     * @param b
+     * @return number of bytes read or -1 if already at end of channel
+     * @throws IOException
+     */
+    public static int read(FileChannel fc, final byte[] b) throws IOException
+    {
+        final ByteBuffer bb = ByteBuffer.wrap(b);
+        while (bb.hasRemaining())
+        {
+            if (fc.read(bb) < 0)
+            {
+                break;
+            }
+        }
+        return bb.position() == 0 && b.length > 0 ? -1 : bb.position();
+    }
+
+    /**
+     * Read into b from the current position of the channel until b is full, same as RandomAccessFile.readFully(byte[])
+     *
+     * @param fc
+     * @param b
+     * @throws EOFException if the end of the channel is reached before b is full
+     * @throws IOException
+     */
+    public static void readFully(FileChannel fc, final byte[] b) throws IOException
+    {
+        if (read(fc, b) < b.length)
+        {
+            throw new EOFException();
+        }
+    }
+
+    /**
+     * Read one byte from the current position of the channel, same as RandomAccessFile.readByte()
+     *
+     * @param fc
+     * @return
+     * @throws EOFException if at end of channel
+     * @throws IOException
+     */
+    public static byte readByte(FileChannel fc) throws IOException
+    {
+        final byte[] b = new byte[1];
+        readFully(fc, b);
+        return b[0];
+    }
     /**
      * Copy src file to dst file. FileChannels are used to maximize performance.
      *
@@ -557,21 +613,91 @@ public class Utils
      * @throws IOException if any error occurS
      */
     public static void copyThrowsOnException(final File source, final File destination) throws IOException {
+        try (FileInputStream inStream = new FileInputStream(source); FileOutputStream outStream = new FileOutputStream(destination))
+        {
+            final FileChannel inChannel = inStream.getChannel();
+            transferFully(inChannel, 0, inChannel.size(), outStream.getChannel());
+        } //Closeables closed exiting try block in all circumstances
+    }
+
+    /**
+     * Copy count bytes of the source channel starting at position to the current position of the target channel.
+     *
+     * Uses {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} so that where the
+     * platform supports it (sendfile/copy_file_range on Linux) the bytes are copied by the operating system and never
+     * enter the JVM heap, this is how unchanged audio data is copied when a file is rewritten. The position of the
+     * source channel is not changed.
+     *
+     * @param source
+     * @param position position in source to start copying from
+     * @param count number of bytes to copy
+     * @param target
+     * @throws IOException if the source ends before count bytes have been copied
+     */
+    public static void transferFully(final FileChannel source, final long position, final long count, final WritableByteChannel target) throws IOException
+    {
         // Must be done in a loop as there's no guarantee that a request smaller than request count will complete in one invocation.
         // Setting the transfer size more than about 1MB is pretty pointless because there is no asymptotic benefit. What you're trying
         // to achieve with larger transfer sizes is fewer context switches, and every time you double the transfer size you halve the
         // context switch cost. Pretty soon it vanishes into the noise.
-        try (FileInputStream inStream = new FileInputStream(source); FileOutputStream outStream = new FileOutputStream(destination))
+        long transferred = 0;
+        while (transferred < count)
         {
-            final FileChannel inChannel = inStream.getChannel();
-            final FileChannel outChannel = outStream.getChannel();
-            final long size = inChannel.size();
-            long position = 0;
-            while (position < size)
+            final long result = source.transferTo(position + transferred, Math.min(count - transferred, TRANSFER_CHUNK_SIZE), target);
+            if (result <= 0)
             {
-                position += inChannel.transferTo(position, 1024L * 1024L, outChannel);
+                //Nothing left to read at this position
+                if (position + transferred >= source.size())
+                {
+                    throw new EOFException("Unable to copy " + (count - transferred) + " bytes, reached end of file at:" + (position + transferred));
+                }
+                //The target would not take the bytes, rather than retrying transferTo forever copy the rest ourselves
+                copyBuffered(source, position + transferred, count - transferred, target);
+                return;
             }
-        } //Closeables closed exiting try block in all circumstances
+            transferred += result;
+        }
+    }
+
+    /**
+     * Copy count bytes of the source channel starting at position to the target channel through a pooled buffer
+     *
+     * @param source
+     * @param position
+     * @param count
+     * @param target
+     * @throws IOException if the source ends before count bytes have been copied or the target will not accept any
+     * more bytes
+     */
+    private static void copyBuffered(final FileChannel source, final long position, final long count, final WritableByteChannel target) throws IOException
+    {
+        ByteBuffer bb = BufferPool.getDefault().acquire((int) TRANSFER_CHUNK_SIZE);
+        try
+        {
+            long copied = 0;
+            while (copied < count)
+            {
+                bb.clear();
+                bb.limit((int) Math.min(TRANSFER_CHUNK_SIZE, count - copied));
+                if (source.read(bb, position + copied) < 0)
+                {
+                    throw new EOFException("Unable to copy " + (count - copied) + " bytes, reached end of file at:" + (position + copied));
+                }
+                bb.flip();
+                while (bb.hasRemaining())
+                {
+                    if (target.write(bb) <= 0)
+                    {
+                        throw new IOException("Unable to copy " + (count - copied) + " bytes, target accepted no bytes");
+                    }
+                }
+                copied += bb.limit();
+            }
+        }
+        finally
+        {
+            BufferPool.getDefault().release(bb);
+        }
     }
 
     /**
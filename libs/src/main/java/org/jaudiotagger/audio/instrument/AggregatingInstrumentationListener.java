@@ -0,0 +1,157 @@
+package org.jaudiotagger.audio.instrument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aggregates phase events by format and phase, keeping totals and the most recent wall times so latency percentiles
+ * can be reported, see {@link #getSummaries()} and {@link #report()}.
+ */
+public class AggregatingInstrumentationListener implements InstrumentationListener
+{
+    /**
+     * Default number of recent wall times kept for each format and phase
+     */
+    public static final int DEFAULT_SAMPLE_SIZE = 1024;
+
+    private final int sampleSize;
+    private final Map<String, Aggregate> aggregates = new ConcurrentHashMap<String, Aggregate>();
+
+    public AggregatingInstrumentationListener()
+    {
+        this(DEFAULT_SAMPLE_SIZE);
+    }
+
+    /**
+     * @param sampleSize number of recent wall times kept for each format and phase, percentiles are of these
+     */
+    public AggregatingInstrumentationListener(int sampleSize)
+    {
+        if (sampleSize <= 0)
+        {
+            throw new IllegalArgumentException("Sample size must be positive:" + sampleSize);
+        }
+        this.sampleSize = sampleSize;
+    }
+
+    @Override
+    public void phaseCompleted(PhaseEvent event)
+    {
+        String format = event.getFormat();
+        String key = format + ":" + event.getPhase();
+        Aggregate aggregate = aggregates.get(key);
+        if (aggregate == null)
+        {
+            Aggregate created = new Aggregate(format, event.getPhase(), sampleSize);
+            aggregate = aggregates.putIfAbsent(key, created);
+            if (aggregate == null)
+            {
+                aggregate = created;
+            }
+        }
+        aggregate.add(event);
+    }
+
+    /**
+     * @return summary of each format and phase seen, ordered by format then phase
+     */
+    public List<PhaseSummary> getSummaries()
+    {
+        List<PhaseSummary> summaries = new ArrayList<PhaseSummary>();
+        for (Aggregate aggregate : aggregates.values())
+        {
+            summaries.add(aggregate.summarize());
+        }
+        Collections.sort(summaries, new Comparator<PhaseSummary>()
+        {
+            @Override
+            public int compare(PhaseSummary a, PhaseSummary b)
+            {
+                String formatA = String.valueOf(a.getFormat());
+                String formatB = String.valueOf(b.getFormat());
+                int result = formatA.compareTo(formatB);
+                return result != 0 ? result : a.getPhase().compareTo(b.getPhase());
+            }
+        });
+        return summaries;
+    }
+
+    /**
+     * @param format file suffix of the format
+     * @param phase
+     * @return summary of the phase for the format, or null if it has not been seen
+     */
+    public PhaseSummary getSummary(String format, Phase phase)
+    {
+        Aggregate aggregate = aggregates.get(format + ":" + phase);
+        return aggregate == null ? null : aggregate.summarize();
+    }
+
+    /**
+     * @return one line per format and phase giving the count, latency percentiles and I/O totals
+     */
+    public String report()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (PhaseSummary summary : getSummaries())
+        {
+            sb.append(summary).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Forget everything aggregated so far
+     */
+    public void reset()
+    {
+        aggregates.clear();
+    }
+
+    private static class Aggregate
+    {
+        private final String format;
+        private final Phase phase;
+        private final long[] samples;
+        private long count;
+        private long maxNanos;
+        private long totalNanos;
+        private long bytesRead;
+        private long bytesWritten;
+        private long seeks;
+        private long buffersAcquired;
+        private long bufferAllocations;
+
+        Aggregate(String format, Phase phase, int sampleSize)
+        {
+            this.format = format;
+            this.phase = phase;
+            this.samples = new long[sampleSize];
+        }
+
+        synchronized void add(PhaseEvent event)
+        {
+            samples[(int) (count % samples.length)] = event.getWallNanos();
+            count++;
+            maxNanos = Math.max(maxNanos, event.getWallNanos());
+            totalNanos += event.getWallNanos();
+            bytesRead += event.getBytesRead();
+            bytesWritten += event.getBytesWritten();
+            seeks += event.getSeeks();
+            buffersAcquired += event.getBuffersAcquired();
+            bufferAllocations += event.getBufferAllocations();
+        }
+
+        synchronized PhaseSummary summarize()
+        {
+            long[] recent = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+            return new PhaseSummary(format, phase, count, recent, maxNanos, totalNanos, bytesRead, bytesWritten, seeks,
+                    buffersAcquired, bufferAllocations);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.jaudiotagger.audio.instrument;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * {@link FileChannel} recording the bytes read and written through it against the phase of an operation in progress
+ * when they are read or written, which may be on another thread. Data accessed through a memory mapping is not
+ * recorded.
+ */
+class CountingFileChannel extends FileChannel
+{
+    private final FileChannel delegate;
+    private final Instrumentation.Operation operation;
+
+    CountingFileChannel(FileChannel delegate, Instrumentation.Operation operation)
+    {
+        this.delegate = delegate;
+        this.operation = operation;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException
+    {
+        long position = delegate.position();
+        int count = delegate.read(dst);
+        if (count > 0)
+        {
+            operation.recordRead(position, count);
+        }
+        return count;
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException
+    {
+        long position = delegate.position();
+        long count = delegate.read(dsts, offset, length);
+        if (count > 0)
+        {
+            operation.recordRead(position, count);
+        }
+        return count;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException
+    {
+        long position = delegate.position();
+        int count = delegate.write(src);
+        operation.recordWrite(position, count);
+        return count;
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length) throws IOException
+    {
+        long position = delegate.position();
+        long count = delegate.write(srcs, offset, length);
+        operation.recordWrite(position, count);
+        return count;
+    }
+
+    @Override
+    public long position() throws IOException
+    {
+        return delegate.position();
+    }
+
+    @Override
+    public FileChannel position(long newPosition) throws IOException
+    {
+        delegate.position(newPosition);
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException
+    {
+        return delegate.size();
+    }
+
+    @Override
+    public FileChannel truncate(long size) throws IOException
+    {
+        delegate.truncate(size);
+        return this;
+    }
+
+    @Override
+    public void force(boolean metaData) throws IOException
+    {
+        delegate.force(metaData);
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException
+    {
+        //Transferring within the file must be done by the underlying channel so it can be done by the operating system
+        long writePosition = target == this ? delegate.position() : -1;
+        long transferred = delegate.transferTo(position, count, target == this ? delegate : target);
+        if (transferred > 0)
+        {
+            operation.recordRead(position, transferred);
+            if (writePosition != -1)
+            {
+                operation.recordWrite(writePosition, transferred);
+            }
+        }
+        return transferred;
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException
+    {
+        long readPosition = src == this ? delegate.position() : -1;
+        long transferred = delegate.transferFrom(src == this ? delegate : src, position, count);
+        if (transferred > 0)
+        {
+            if (readPosition != -1)
+            {
+                operation.recordRead(readPosition, transferred);
+            }
+            operation.recordWrite(position, transferred);
+        }
+        return transferred;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException
+    {
+        int count = delegate.read(dst, position);
+        if (count > 0)
+        {
+            operation.recordRead(position, count);
+        }
+        return count;
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position) throws IOException
+    {
+        int count = delegate.write(src, position);
+        operation.recordWrite(position, count);
+        return count;
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException
+    {
+        return delegate.map(mode, position, size);
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared) throws IOException
+    {
+        return delegate.lock(position, size, shared);
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared) throws IOException
+    {
+        return delegate.tryLock(position, size, shared);
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException
+    {
+        delegate.close();
+    }
+}
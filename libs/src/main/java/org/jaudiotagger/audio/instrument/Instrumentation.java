@@ -0,0 +1,421 @@
+package org.jaudiotagger.audio.instrument;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Records the phases of reading and writing a file for the {@link InstrumentationListener}s registered with
+ * {@link org.jaudiotagger.audio.AudioFileIO}.
+ *
+ * An {@link Operation} is begun on the calling thread for each file read or written while listeners are registered,
+ * readers and writers then time each {@link Phase} with {@link #startPhase(Phase)} and report the I/O done within it.
+ * When no operation is in progress on any thread every method returns after reading a single counter, so the
+ * readers and writers can call them unconditionally.
+ */
+public final class Instrumentation
+{
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.instrument");
+
+    /**
+     * Number of operations in progress on all threads
+     */
+    private static final AtomicInteger active = new AtomicInteger();
+
+    private static final ThreadLocal<Operation> current = new ThreadLocal<Operation>();
+
+    private Instrumentation()
+    {
+    }
+
+    /**
+     * Start recording the reading or writing of a file on the calling thread, the operation must be closed by the
+     * same thread.
+     *
+     * @param listener notified as each phase completes
+     * @param format   file suffix of the format, may be set later with {@link Operation#setFormat(String)}
+     * @param path     file read or written, may be null
+     * @return the operation, or null if listener is null
+     */
+    public static Operation begin(InstrumentationListener listener, String format, Path path)
+    {
+        if (listener == null)
+        {
+            return null;
+        }
+        Operation operation = new Operation(listener, format, path, getFileSize(path), current.get());
+        current.set(operation);
+        active.incrementAndGet();
+        return operation;
+    }
+
+    private static long getFileSize(Path path)
+    {
+        if (path == null)
+        {
+            return -1;
+        }
+        try
+        {
+            return Files.size(path);
+        }
+        catch (IOException ioe)
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * @return true if an operation is in progress on any thread
+     */
+    public static boolean isActive()
+    {
+        return active.get() != 0;
+    }
+
+    private static PhaseRecorder currentPhase()
+    {
+        if (active.get() == 0)
+        {
+            return null;
+        }
+        Operation operation = current.get();
+        return operation == null ? null : operation.phase;
+    }
+
+    /**
+     * Start timing a phase of the operation in progress on the calling thread
+     *
+     * @param phase
+     * @return the phase, to be closed once complete, or null if no operation is in progress
+     */
+    public static PhaseRecorder startPhase(Phase phase)
+    {
+        if (active.get() == 0)
+        {
+            return null;
+        }
+        Operation operation = current.get();
+        if (operation == null)
+        {
+            return null;
+        }
+        try
+        {
+            operation.listener.phaseStarted(phase);
+        }
+        catch (RuntimeException re)
+        {
+            logger.log(Level.WARNING, "Instrumentation listener failed for start of:" + phase, re);
+        }
+        operation.phase = new PhaseRecorder(operation, phase, operation.phase);
+        return operation.phase;
+    }
+
+    /**
+     * End the operation, for use in a finally block
+     *
+     * @param operation as returned by {@link #begin(InstrumentationListener, String, Path)}, may be null
+     */
+    public static void end(Operation operation)
+    {
+        if (operation != null)
+        {
+            operation.close();
+        }
+    }
+
+    /**
+     * Complete the phase, for use in a finally block
+     *
+     * @param phase as returned by {@link #startPhase(Phase)}, may be null
+     */
+    public static void endPhase(PhaseRecorder phase)
+    {
+        if (phase != null)
+        {
+            phase.close();
+        }
+    }
+
+    /**
+     * Set the format of the operation in progress on the calling thread, once it has been detected
+     *
+     * @param format file suffix of the format
+     */
+    public static void setFormat(String format)
+    {
+        if (active.get() == 0)
+        {
+            return;
+        }
+        Operation operation = current.get();
+        if (operation != null)
+        {
+            operation.setFormat(format);
+        }
+    }
+
+    /**
+     * Set how the current phase is being carried out
+     *
+     * @param strategy short name, such as transfer for data moved with {@link FileChannel#transferTo}
+     */
+    public static void setStrategy(String strategy)
+    {
+        PhaseRecorder recorder = currentPhase();
+        if (recorder != null)
+        {
+            recorder.strategy = strategy;
+        }
+    }
+
+    /**
+     * Record bytes read from the file by the current phase
+     *
+     * @param position file position the read started at
+     * @param count    number of bytes read
+     */
+    public static void recordRead(long position, long count)
+    {
+        PhaseRecorder recorder = currentPhase();
+        if (recorder != null)
+        {
+            recorder.recordRead(position, count);
+        }
+    }
+
+    /**
+     * Record bytes written to the file by the current phase
+     *
+     * @param position file position the write started at
+     * @param count    number of bytes written
+     */
+    public static void recordWrite(long position, long count)
+    {
+        PhaseRecorder recorder = currentPhase();
+        if (recorder != null)
+        {
+            recorder.recordWrite(position, count);
+        }
+    }
+
+    /**
+     * Record a buffer acquired by the current phase
+     *
+     * @param allocated true if the buffer had to be allocated
+     */
+    public static void recordBufferAcquired(boolean allocated)
+    {
+        PhaseRecorder recorder = currentPhase();
+        if (recorder != null)
+        {
+            recorder.buffersAcquired.incrementAndGet();
+            if (allocated)
+            {
+                recorder.bufferAllocations.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Open a file channel, I/O done through the channel is recorded against the phase in progress at the time
+     *
+     * @param path
+     * @param options as for {@link FileChannel#open(Path, OpenOption...)}
+     * @return the channel
+     * @throws IOException
+     */
+    public static FileChannel open(Path path, OpenOption... options) throws IOException
+    {
+        return instrument(FileChannel.open(path, options));
+    }
+
+    /**
+     * When called within an operation wrap the channel so the I/O done through it is recorded against the phase in
+     * progress at the time, even if done on another thread. Closing the returned channel closes fc.
+     *
+     * @param fc
+     * @return fc, or a view of it if an operation is in progress on the calling thread
+     */
+    public static FileChannel instrument(FileChannel fc)
+    {
+        if (active.get() == 0 || fc instanceof CountingFileChannel)
+        {
+            return fc;
+        }
+        Operation operation = current.get();
+        if (operation == null)
+        {
+            return fc;
+        }
+        return new CountingFileChannel(fc, operation);
+    }
+
+    /**
+     * Reading or writing a single file
+     */
+    public static final class Operation implements AutoCloseable
+    {
+        private final InstrumentationListener listener;
+        private final Path path;
+        private final long fileSize;
+        private final Operation previous;
+        private volatile String format;
+        private volatile PhaseRecorder phase;
+        private boolean closed;
+
+        private Operation(InstrumentationListener listener, String format, Path path, long fileSize, Operation previous)
+        {
+            this.listener = listener;
+            this.format = format;
+            this.path = path;
+            this.fileSize = fileSize;
+            this.previous = previous;
+        }
+
+        /**
+         * @param format file suffix of the format, reported for phases completing from now on
+         */
+        public void setFormat(String format)
+        {
+            this.format = format;
+        }
+
+        void recordRead(long position, long count)
+        {
+            PhaseRecorder recorder = phase;
+            if (recorder != null)
+            {
+                recorder.recordRead(position, count);
+            }
+        }
+
+        void recordWrite(long position, long count)
+        {
+            PhaseRecorder recorder = phase;
+            if (recorder != null)
+            {
+                recorder.recordWrite(position, count);
+            }
+        }
+
+        /**
+         * End the operation, phases still open are no longer recorded
+         */
+        @Override
+        public void close()
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            if (previous == null)
+            {
+                current.remove();
+            }
+            else
+            {
+                current.set(previous);
+            }
+            active.decrementAndGet();
+        }
+    }
+
+    /**
+     * Times a single phase and counts the I/O done within it, a phase started within another phase also adds its
+     * counts to the enclosing phase when complete
+     */
+    public static final class PhaseRecorder implements AutoCloseable
+    {
+        private final Operation operation;
+        private final Phase phase;
+        private final PhaseRecorder previous;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong bytesRead = new AtomicLong();
+        private final AtomicLong bytesWritten = new AtomicLong();
+        private final AtomicLong seeks = new AtomicLong();
+        private final AtomicLong buffersAcquired = new AtomicLong();
+        private final AtomicLong bufferAllocations = new AtomicLong();
+
+        /**
+         * Where the last access ended, used to count seeks
+         */
+        private volatile long lastPosition;
+        private volatile String strategy;
+        private boolean closed;
+
+        private PhaseRecorder(Operation operation, Phase phase, PhaseRecorder previous)
+        {
+            this.operation = operation;
+            this.phase = phase;
+            this.previous = previous;
+        }
+
+        void recordRead(long position, long count)
+        {
+            recordAccess(position, count);
+            bytesRead.addAndGet(count);
+        }
+
+        void recordWrite(long position, long count)
+        {
+            recordAccess(position, count);
+            bytesWritten.addAndGet(count);
+        }
+
+        private void recordAccess(long position, long count)
+        {
+            if (position != lastPosition)
+            {
+                seeks.incrementAndGet();
+            }
+            lastPosition = position + count;
+        }
+
+        /**
+         * Complete the phase and notify the listener
+         */
+        @Override
+        public void close()
+        {
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            long wallNanos = System.nanoTime() - startNanos;
+            if (operation.phase == this)
+            {
+                operation.phase = previous;
+            }
+            if (previous != null)
+            {
+                previous.bytesRead.addAndGet(bytesRead.get());
+                previous.bytesWritten.addAndGet(bytesWritten.get());
+                previous.seeks.addAndGet(seeks.get());
+                previous.buffersAcquired.addAndGet(buffersAcquired.get());
+                previous.bufferAllocations.addAndGet(bufferAllocations.get());
+                previous.lastPosition = lastPosition;
+            }
+
+            PhaseEvent event = new PhaseEvent(operation.format, phase, operation.path, operation.fileSize, strategy, wallNanos,
+                    bytesRead.get(), bytesWritten.get(), seeks.get(), buffersAcquired.get(), bufferAllocations.get());
+            try
+            {
+                operation.listener.phaseCompleted(event);
+            }
+            catch (RuntimeException re)
+            {
+                logger.log(Level.WARNING, "Instrumentation listener failed for:" + event, re);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.jaudiotagger.audio.instrument;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Broadcasts phase events to the {@link InstrumentationListener}s registered with an
+ * {@link org.jaudiotagger.audio.AudioFileIO}
+ */
+public class InstrumentationHandler implements InstrumentationListener
+{
+    private final List<InstrumentationListener> listeners = new CopyOnWriteArrayList<InstrumentationListener>();
+
+    /**
+     * @param listener listener to add, added only once
+     */
+    public void addInstrumentationListener(InstrumentationListener listener)
+    {
+        if (listener != null && listener != NO_OP && !listeners.contains(listener))
+        {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * @param listener listener to remove
+     */
+    public void removeInstrumentationListener(InstrumentationListener listener)
+    {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Start recording an operation on the calling thread
+     *
+     * @param format file suffix of the format, null if not yet known
+     * @param path   file read or written, may be null
+     * @return the operation, or null if there are no listeners so there is nothing to record
+     */
+    public Instrumentation.Operation begin(String format, Path path)
+    {
+        if (listeners.isEmpty())
+        {
+            return null;
+        }
+        return Instrumentation.begin(this, format, path);
+    }
+
+    @Override
+    public void phaseStarted(Phase phase)
+    {
+        for (InstrumentationListener listener : listeners)
+        {
+            listener.phaseStarted(phase);
+        }
+    }
+
+    @Override
+    public void phaseCompleted(PhaseEvent event)
+    {
+        for (InstrumentationListener listener : listeners)
+        {
+            listener.phaseCompleted(event);
+        }
+    }
+}
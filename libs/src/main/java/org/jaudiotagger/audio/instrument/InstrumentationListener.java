@@ -0,0 +1,36 @@
+package org.jaudiotagger.audio.instrument;
+
+/**
+ * Notified as each {@link Phase} of reading or writing a file starts and completes, see
+ * {@link org.jaudiotagger.audio.AudioFileIO#addInstrumentationListener(InstrumentationListener)}.
+ *
+ * Called on the thread reading or writing the file, so implementations must be thread safe and quick.
+ */
+public interface InstrumentationListener
+{
+    /**
+     * Listener that ignores every event
+     */
+    InstrumentationListener NO_OP = new InstrumentationListener()
+    {
+        @Override
+        public void phaseCompleted(PhaseEvent event)
+        {
+        }
+    };
+
+    /**
+     * Called before the phase does any work, phases started on a thread complete on that thread in the reverse
+     * order they were started
+     *
+     * @param phase the phase starting
+     */
+    default void phaseStarted(Phase phase)
+    {
+    }
+
+    /**
+     * @param event the phase just completed
+     */
+    void phaseCompleted(PhaseEvent event);
+}
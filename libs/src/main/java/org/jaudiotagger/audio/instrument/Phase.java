@@ -0,0 +1,38 @@
+package org.jaudiotagger.audio.instrument;
+
+/**
+ * Part of reading or writing an audio file reported to an {@link InstrumentationListener}
+ */
+public enum Phase
+{
+    /**
+     * Working out the format of a file from its content rather than its extension
+     */
+    MAGIC_DETECTION,
+
+    /**
+     * Reading the encoding information, such as the duration and bitrate
+     */
+    HEADER,
+
+    /**
+     * Reading the tag
+     */
+    TAG,
+
+    /**
+     * Writing the tag, either in place or to a temporary copy of the file
+     */
+    WRITE,
+
+    /**
+     * Moving the audio data within the file to make room for a larger tag, or to remove space no longer needed. Part
+     * of a write, so its I/O is also included in the write
+     */
+    SHIFT,
+
+    /**
+     * Replacing the original file with the temporary copy written
+     */
+    RENAME
+}
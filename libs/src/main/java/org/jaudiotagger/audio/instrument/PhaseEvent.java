@@ -0,0 +1,127 @@
+package org.jaudiotagger.audio.instrument;
+
+import java.nio.file.Path;
+
+/**
+ * Measurements of a single {@link Phase} of reading or writing a file
+ *
+ * Bytes and seeks are those of the file channels and read sessions used by the phase, formats still read through a
+ * RandomAccessFile report none.
+ */
+public final class PhaseEvent
+{
+    private final String format;
+    private final Phase phase;
+    private final Path path;
+    private final long fileSize;
+    private final String strategy;
+    private final long wallNanos;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long seeks;
+    private final long buffersAcquired;
+    private final long bufferAllocations;
+
+    PhaseEvent(String format, Phase phase, Path path, long fileSize, String strategy, long wallNanos, long bytesRead,
+               long bytesWritten, long seeks, long buffersAcquired, long bufferAllocations)
+    {
+        this.format = format;
+        this.phase = phase;
+        this.path = path;
+        this.fileSize = fileSize;
+        this.strategy = strategy;
+        this.wallNanos = wallNanos;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.seeks = seeks;
+        this.buffersAcquired = buffersAcquired;
+        this.bufferAllocations = bufferAllocations;
+    }
+
+    /**
+     * @return file suffix of the format, such as mp3, or null if it was not known when the phase completed
+     */
+    public String getFormat()
+    {
+        return format;
+    }
+
+    public Phase getPhase()
+    {
+        return phase;
+    }
+
+    /**
+     * @return file read or written, or null if not read from a file
+     */
+    public Path getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return size of the file when the operation began, or -1 if not known
+     */
+    public long getFileSize()
+    {
+        return fileSize;
+    }
+
+    /**
+     * @return how the phase was carried out, such as how the audio data was moved by a {@link Phase#SHIFT}, or null
+     * if not reported
+     */
+    public String getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * @return elapsed time of the phase in nanoseconds
+     */
+    public long getWallNanos()
+    {
+        return wallNanos;
+    }
+
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    /**
+     * @return number of times the file was accessed somewhere other than where the previous access ended
+     */
+    public long getSeeks()
+    {
+        return seeks;
+    }
+
+    /**
+     * @return number of buffers acquired from {@link org.jaudiotagger.audio.io.BufferPool}
+     */
+    public long getBuffersAcquired()
+    {
+        return buffersAcquired;
+    }
+
+    /**
+     * @return number of buffers acquired that had to be allocated rather than reused
+     */
+    public long getBufferAllocations()
+    {
+        return bufferAllocations;
+    }
+
+    public String toString()
+    {
+        return "format:" + format + ":phase:" + phase + ":strategy:" + strategy + ":wallNanos:" + wallNanos
+                + ":bytesRead:" + bytesRead + ":bytesWritten:" + bytesWritten + ":seeks:" + seeks + ":buffersAcquired:" + buffersAcquired
+                + ":bufferAllocations:" + bufferAllocations;
+    }
+}
@@ -0,0 +1,121 @@
+package org.jaudiotagger.audio.instrument;
+
+import java.util.Arrays;
+
+/**
+ * Latency percentiles and I/O totals of a {@link Phase} of a format, see {@link AggregatingInstrumentationListener}
+ */
+public final class PhaseSummary
+{
+    private final String format;
+    private final Phase phase;
+    private final long count;
+    private final long[] sortedNanos;
+    private final long maxNanos;
+    private final long totalNanos;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long seeks;
+    private final long buffersAcquired;
+    private final long bufferAllocations;
+
+    PhaseSummary(String format, Phase phase, long count, long[] sampleNanos, long maxNanos, long totalNanos,
+                 long bytesRead, long bytesWritten, long seeks, long buffersAcquired, long bufferAllocations)
+    {
+        this.format = format;
+        this.phase = phase;
+        this.count = count;
+        this.sortedNanos = sampleNanos;
+        Arrays.sort(this.sortedNanos);
+        this.maxNanos = maxNanos;
+        this.totalNanos = totalNanos;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.seeks = seeks;
+        this.buffersAcquired = buffersAcquired;
+        this.bufferAllocations = bufferAllocations;
+    }
+
+    public String getFormat()
+    {
+        return format;
+    }
+
+    public Phase getPhase()
+    {
+        return phase;
+    }
+
+    /**
+     * @return number of times the phase completed
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return wall time in nanoseconds that the given percentage of the recent samples did not exceed, 0 if none
+     */
+    public long getPercentileNanos(double percentile)
+    {
+        if (percentile < 0 || percentile > 100)
+        {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100:" + percentile);
+        }
+        if (sortedNanos.length == 0)
+        {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+        return sortedNanos[Math.max(rank, 1) - 1];
+    }
+
+    /**
+     * @return longest wall time in nanoseconds
+     */
+    public long getMaxNanos()
+    {
+        return maxNanos;
+    }
+
+    public long getTotalNanos()
+    {
+        return totalNanos;
+    }
+
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    public long getBytesWritten()
+    {
+        return bytesWritten;
+    }
+
+    public long getSeeks()
+    {
+        return seeks;
+    }
+
+    public long getBuffersAcquired()
+    {
+        return buffersAcquired;
+    }
+
+    public long getBufferAllocations()
+    {
+        return bufferAllocations;
+    }
+
+    public String toString()
+    {
+        return "format:" + format + ":phase:" + phase + ":count:" + count
+                + ":p50Nanos:" + getPercentileNanos(50) + ":p90Nanos:" + getPercentileNanos(90)
+                + ":p99Nanos:" + getPercentileNanos(99) + ":maxNanos:" + maxNanos
+                + ":bytesRead:" + bytesRead + ":bytesWritten:" + bytesWritten + ":seeks:" + seeks
+                + ":buffersAcquired:" + buffersAcquired + ":bufferAllocations:" + bufferAllocations;
+    }
+}
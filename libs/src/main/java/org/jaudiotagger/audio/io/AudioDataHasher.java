@@ -0,0 +1,273 @@
+package org.jaudiotagger.audio.io;
+
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32;
+import java.util.zip.CRC32C;
+
+/**
+ * Hashes a range of a file, such as the audio data of an audio file, reading it through a pooled direct buffer
+ * so hashing many files does not allocate a buffer for each one.
+ *
+ * As well as any {@link MessageDigest} algorithm such as MD5 or SHA-256 the fast non-cryptographic checksums
+ * {@link #CRC32}, {@link #CRC32C} and {@link #XXH64} are supported, these are good enough to find identical audio
+ * among many files but should not be used where the data may have been made to collide on purpose.
+ *
+ * {@link #CRC32C} uses {@link java.util.zip.CRC32C} which was added in Java 9, it is available on Android from API
+ * level 26 so is fine for this library's minimum of 28.
+ */
+public final class AudioDataHasher
+{
+    /**
+     * CRC-32 as used by zip, the hash is 4 bytes
+     */
+    public static final String CRC32 = "CRC32";
+
+    /**
+     * CRC-32C (Castagnoli), calculated in hardware on most processors, the hash is 4 bytes
+     */
+    public static final String CRC32C = "CRC32C";
+
+    /**
+     * 64 bit xxHash with seed 0, the hash is 8 bytes in the canonical big endian order
+     */
+    public static final String XXH64 = "XXH64";
+
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    private AudioDataHasher()
+    {
+    }
+
+    /**
+     * Something that hashes data given to it in pieces
+     */
+    private interface Hasher
+    {
+        void update(ByteBuffer bb);
+
+        byte[] digest();
+    }
+
+    /**
+     * Hash the bytes of the file from start up to but not including end, if end is beyond the end of the file only
+     * the bytes up to the end of the file are hashed. The position of the channel is not changed.
+     *
+     * @param fc
+     * @param start
+     * @param end
+     * @param algorithm {@link #CRC32}, {@link #CRC32C}, {@link #XXH64} or a {@link MessageDigest} algorithm
+     * @return the hash
+     * @throws IOException
+     * @throws NoSuchAlgorithmException if the algorithm is not known
+     */
+    public static byte[] hash(FileChannel fc, long start, long end, String algorithm) throws IOException, NoSuchAlgorithmException
+    {
+        if (start < 0 || end < start)
+        {
+            throw new IllegalArgumentException("Invalid range to hash:" + start + ":" + end);
+        }
+        Hasher hasher = getHasher(algorithm);
+        end = Math.min(end, fc.size());
+
+        ByteBuffer bb = BufferPool.getDefault().acquire(BUFFER_SIZE);
+        try
+        {
+            update(hasher, fc, start, end, bb);
+        }
+        finally
+        {
+            BufferPool.getDefault().release(bb);
+        }
+        return hasher.digest();
+    }
+
+    /**
+     * As {@link #hash(FileChannel, long, long, String)} for ogg pages starting at start, but only the data of each
+     * page is hashed and not the page headers, because when the metadata grows or shrinks by a page the writer
+     * renumbers the pages after it which changes their sequence numbers and checksums.
+     *
+     * @param fc
+     * @param start of the first page to hash
+     * @param end
+     * @param algorithm {@link #CRC32}, {@link #CRC32C}, {@link #XXH64} or a {@link MessageDigest} algorithm
+     * @return the hash
+     * @throws IOException if there is not an ogg page where one is expected
+     * @throws NoSuchAlgorithmException if the algorithm is not known
+     */
+    public static byte[] hashOggPages(FileChannel fc, long start, long end, String algorithm) throws IOException, NoSuchAlgorithmException
+    {
+        if (start < 0 || end < start)
+        {
+            throw new IllegalArgumentException("Invalid range to hash:" + start + ":" + end);
+        }
+        Hasher hasher = getHasher(algorithm);
+        end = Math.min(end, fc.size());
+
+        ByteBuffer header = ByteBuffer.allocate(OggPageHeader.MAXIMUM_PAGE_HEADER_SIZE);
+        ByteBuffer bb = BufferPool.getDefault().acquire(BUFFER_SIZE);
+        try
+        {
+            long position = start;
+            while (position + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH <= end)
+            {
+                header.clear();
+                header.limit(OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH);
+                if (!readFully(fc, header, position)
+                        || header.get(0) != OggPageHeader.CAPTURE_PATTERN[0]
+                        || header.get(1) != OggPageHeader.CAPTURE_PATTERN[1]
+                        || header.get(2) != OggPageHeader.CAPTURE_PATTERN[2]
+                        || header.get(3) != OggPageHeader.CAPTURE_PATTERN[3])
+                {
+                    throw new IOException("Unable to find ogg page at:" + position);
+                }
+                int segments = header.get(OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF;
+                header.limit(OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + segments);
+                if (!readFully(fc, header, position))
+                {
+                    throw new IOException("Unable to read ogg page header at:" + position);
+                }
+                int pageLength = 0;
+                for (int i = 0; i < segments; i++)
+                {
+                    pageLength += header.get(OggPageHeader.FIELD_SEGMENT_TABLE_POS + i) & 0xFF;
+                }
+                long dataStart = position + header.limit();
+                update(hasher, fc, dataStart, Math.min(dataStart + pageLength, end), bb);
+                position = dataStart + pageLength;
+            }
+        }
+        finally
+        {
+            BufferPool.getDefault().release(bb);
+        }
+        return hasher.digest();
+    }
+
+    /**
+     * Add the bytes of the file from start up to but not including end to the hasher
+     */
+    private static void update(Hasher hasher, FileChannel fc, long start, long end, ByteBuffer bb) throws IOException
+    {
+        long position = start;
+        while (position < end)
+        {
+            bb.clear();
+            bb.limit((int) Math.min(BUFFER_SIZE, end - position));
+            int read = fc.read(bb, position);
+            if (read <= 0)
+            {
+                break;
+            }
+            bb.flip();
+            hasher.update(bb);
+            position += read;
+        }
+    }
+
+    /**
+     * Read from position until the buffer is full
+     *
+     * @return false if the end of the file was reached first
+     */
+    private static boolean readFully(FileChannel fc, ByteBuffer bb, long position) throws IOException
+    {
+        while (bb.hasRemaining())
+        {
+            if (fc.read(bb, position + bb.position()) < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Hasher getHasher(String algorithm) throws NoSuchAlgorithmException
+    {
+        if (CRC32.equalsIgnoreCase(algorithm))
+        {
+            final CRC32 crc = new CRC32();
+            return new Hasher()
+            {
+                public void update(ByteBuffer bb)
+                {
+                    crc.update(bb);
+                }
+
+                public byte[] digest()
+                {
+                    return toBytes(crc.getValue(), 4);
+                }
+            };
+        }
+        else if (CRC32C.equalsIgnoreCase(algorithm))
+        {
+            final CRC32C crc = new CRC32C();
+            return new Hasher()
+            {
+                public void update(ByteBuffer bb)
+                {
+                    crc.update(bb);
+                }
+
+                public byte[] digest()
+                {
+                    return toBytes(crc.getValue(), 4);
+                }
+            };
+        }
+        else if (XXH64.equalsIgnoreCase(algorithm))
+        {
+            final XXHash64 xxHash = new XXHash64(0);
+            return new Hasher()
+            {
+                public void update(ByteBuffer bb)
+                {
+                    xxHash.update(bb);
+                }
+
+                public byte[] digest()
+                {
+                    return toBytes(xxHash.getValue(), 8);
+                }
+            };
+        }
+        else
+        {
+            final MessageDigest messageDigest = MessageDigest.getInstance(algorithm);
+            return new Hasher()
+            {
+                public void update(ByteBuffer bb)
+                {
+                    messageDigest.update(bb);
+                }
+
+                public byte[] digest()
+                {
+                    return messageDigest.digest();
+                }
+            };
+        }
+    }
+
+    /**
+     * @param value
+     * @param length
+     * @return the low length bytes of value, most significant first
+     */
+    private static byte[] toBytes(long value, int length)
+    {
+        byte[] bytes = new byte[length];
+        for (int i = length - 1; i >= 0; i--)
+        {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+}
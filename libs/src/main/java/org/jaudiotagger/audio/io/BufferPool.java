@@ -0,0 +1,196 @@
+package org.jaudiotagger.audio.io;
+
+import org.jaudiotagger.audio.instrument.Instrumentation;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of direct buffers reused for reading and writing, so reading many files does not allocate new native memory
+ * for every file.
+ *
+ * Buffers are pooled in power of two size classes from 4 KB to 8 MB. Each thread keeps a few buffers of the smaller
+ * classes for itself, other buffers are kept in a pool shared by all threads up to a limit. Larger requests are
+ * allocated and never pooled.
+ *
+ * A buffer acquired should be released once it is no longer used, and must not be used after it has been released
+ * because it may be handed out again. Nothing read from it must keep a reference to it, so values have to be copied.
+ * Only buffers acquired from this pool should be released to it.
+ */
+public final class BufferPool
+{
+    private static final int MIN_SIZE_CLASS_SHIFT = 12;
+    private static final int MAX_SIZE_CLASS_SHIFT = 23;
+
+    /**
+     * Only classes up to 256 KB are kept per thread, larger buffers are shared so idle threads don't hold much memory
+     */
+    private static final int MAX_THREAD_SIZE_CLASS_SHIFT = 18;
+    private static final int BUFFERS_PER_THREAD = 2;
+    private static final long MAX_SHARED_BYTES = 32 * 1024 * 1024;
+
+    private static final BufferPool DEFAULT = new BufferPool();
+
+    private final ThreadLocal<ByteBuffer[][]> threadBuffers = new ThreadLocal<ByteBuffer[][]>()
+    {
+        @Override
+        protected ByteBuffer[][] initialValue()
+        {
+            return new ByteBuffer[MAX_THREAD_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT + 1][BUFFERS_PER_THREAD];
+        }
+    };
+
+    private final List<ConcurrentLinkedQueue<ByteBuffer>> sharedBuffers = new ArrayList<ConcurrentLinkedQueue<ByteBuffer>>();
+    private final AtomicLong sharedBytes = new AtomicLong();
+    private final AtomicLong acquired = new AtomicLong();
+    private final AtomicLong threadHits = new AtomicLong();
+    private final AtomicLong sharedHits = new AtomicLong();
+    private final AtomicLong outstandingBytes = new AtomicLong();
+
+    private BufferPool()
+    {
+        for (int shift = MIN_SIZE_CLASS_SHIFT; shift <= MAX_SIZE_CLASS_SHIFT; shift++)
+        {
+            sharedBuffers.add(new ConcurrentLinkedQueue<ByteBuffer>());
+        }
+    }
+
+    /**
+     * @return the pool used by the readers and writers
+     */
+    public static BufferPool getDefault()
+    {
+        return DEFAULT;
+    }
+
+    /**
+     * @param size number of bytes
+     * @return index of the smallest size class holding size bytes, or -1 if larger than the largest class
+     */
+    private static int getSizeClass(int size)
+    {
+        int shift = Math.max(MIN_SIZE_CLASS_SHIFT, 32 - Integer.numberOfLeadingZeros(Math.max(size, 1) - 1));
+        if (shift > MAX_SIZE_CLASS_SHIFT)
+        {
+            return -1;
+        }
+        return shift - MIN_SIZE_CLASS_SHIFT;
+    }
+
+    /**
+     * @param size number of bytes required
+     * @return direct buffer positioned at zero with its limit set to size, its capacity may be larger and its
+     * contents are undefined
+     */
+    public ByteBuffer acquire(int size)
+    {
+        if (size < 0)
+        {
+            throw new IllegalArgumentException("Buffer size cannot be negative:" + size);
+        }
+        acquired.incrementAndGet();
+
+        ByteBuffer buffer = null;
+        boolean allocated = false;
+        int sizeClass = getSizeClass(size);
+        if (sizeClass == -1)
+        {
+            buffer = ByteBuffer.allocateDirect(size);
+            allocated = true;
+        }
+        else
+        {
+            if (sizeClass <= MAX_THREAD_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT)
+            {
+                ByteBuffer[] cached = threadBuffers.get()[sizeClass];
+                for (int i = 0; i < cached.length && buffer == null; i++)
+                {
+                    buffer = cached[i];
+                    cached[i] = null;
+                }
+                if (buffer != null)
+                {
+                    threadHits.incrementAndGet();
+                }
+            }
+
+            if (buffer == null)
+            {
+                buffer = sharedBuffers.get(sizeClass).poll();
+                if (buffer != null)
+                {
+                    sharedBytes.addAndGet(-buffer.capacity());
+                    sharedHits.incrementAndGet();
+                }
+            }
+
+            if (buffer == null)
+            {
+                buffer = ByteBuffer.allocateDirect(1 << (sizeClass + MIN_SIZE_CLASS_SHIFT));
+                allocated = true;
+            }
+        }
+        Instrumentation.recordBufferAcquired(allocated);
+
+        outstandingBytes.addAndGet(buffer.capacity());
+        buffer.clear();
+        buffer.limit(size);
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        return buffer;
+    }
+
+    /**
+     * Return a buffer acquired from this pool so it can be reused
+     *
+     * @param buffer buffer returned by {@link #acquire(int)}, does nothing if null
+     */
+    public void release(ByteBuffer buffer)
+    {
+        if (buffer == null || !buffer.isDirect())
+        {
+            return;
+        }
+
+        int capacity = buffer.capacity();
+        outstandingBytes.addAndGet(-capacity);
+        int sizeClass = getSizeClass(capacity);
+        if (sizeClass == -1 || capacity != 1 << (sizeClass + MIN_SIZE_CLASS_SHIFT))
+        {
+            return;
+        }
+
+        if (sizeClass <= MAX_THREAD_SIZE_CLASS_SHIFT - MIN_SIZE_CLASS_SHIFT)
+        {
+            ByteBuffer[] cached = threadBuffers.get()[sizeClass];
+            for (int i = 0; i < cached.length; i++)
+            {
+                if (cached[i] == null)
+                {
+                    cached[i] = buffer;
+                    return;
+                }
+            }
+        }
+
+        if (sharedBytes.addAndGet(capacity) <= MAX_SHARED_BYTES)
+        {
+            sharedBuffers.get(sizeClass).offer(buffer);
+        }
+        else
+        {
+            sharedBytes.addAndGet(-capacity);
+        }
+    }
+
+    /**
+     * @return snapshot of how well the pool is being reused
+     */
+    public BufferPoolMetrics getMetrics()
+    {
+        return new BufferPoolMetrics(acquired.get(), threadHits.get(), sharedHits.get(), outstandingBytes.get(), sharedBytes.get());
+    }
+}
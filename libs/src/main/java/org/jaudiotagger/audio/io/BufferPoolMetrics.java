@@ -0,0 +1,88 @@
+package org.jaudiotagger.audio.io;
+
+/**
+ * Snapshot of the state of a {@link BufferPool}
+ */
+public final class BufferPoolMetrics
+{
+    private final long acquired;
+    private final long threadHits;
+    private final long sharedHits;
+    private final long outstandingBytes;
+    private final long sharedBytes;
+
+    BufferPoolMetrics(long acquired, long threadHits, long sharedHits, long outstandingBytes, long sharedBytes)
+    {
+        this.acquired = acquired;
+        this.threadHits = threadHits;
+        this.sharedHits = sharedHits;
+        this.outstandingBytes = outstandingBytes;
+        this.sharedBytes = sharedBytes;
+    }
+
+    /**
+     * @return number of buffers acquired so far
+     */
+    public long getAcquired()
+    {
+        return acquired;
+    }
+
+    /**
+     * @return number of buffers acquired that were reused from the acquiring thread's own buffers
+     */
+    public long getThreadHits()
+    {
+        return threadHits;
+    }
+
+    /**
+     * @return number of buffers acquired that were reused from the shared pool
+     */
+    public long getSharedHits()
+    {
+        return sharedHits;
+    }
+
+    /**
+     * @return number of buffers acquired that had to be allocated
+     */
+    public long getMisses()
+    {
+        return acquired - threadHits - sharedHits;
+    }
+
+    /**
+     * @return proportion of buffers acquired that were reused, between 0 and 1
+     */
+    public double getHitRate()
+    {
+        if (acquired == 0)
+        {
+            return 0;
+        }
+        return (double) (threadHits + sharedHits) / acquired;
+    }
+
+    /**
+     * @return capacity in bytes of buffers acquired and not yet released
+     */
+    public long getOutstandingBytes()
+    {
+        return outstandingBytes;
+    }
+
+    /**
+     * @return capacity in bytes of buffers held in the shared pool ready for reuse
+     */
+    public long getSharedBytes()
+    {
+        return sharedBytes;
+    }
+
+    public String toString()
+    {
+        return "acquired:" + acquired + ":threadHits:" + threadHits + ":sharedHits:" + sharedHits
+                + ":outstandingBytes:" + outstandingBytes + ":sharedBytes:" + sharedBytes;
+    }
+}
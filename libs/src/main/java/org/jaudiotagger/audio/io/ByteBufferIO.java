@@ -0,0 +1,78 @@
+package org.jaudiotagger.audio.io;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+
+/**
+ * Read-only backend over an audio file already held in memory, for example an upload that has not been written to disk.
+ *
+ * The bytes between the position and limit of the buffer given to the constructor are treated as the whole file,
+ * the buffer itself is never modified.
+ */
+public final class ByteBufferIO implements SeekableInputOutput
+{
+    private final ByteBuffer buffer;
+    private long position;
+
+    public ByteBufferIO(ByteBuffer buffer)
+    {
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    public long position()
+    {
+        return position;
+    }
+
+    @Override
+    public void position(long newPosition)
+    {
+        this.position = newPosition;
+    }
+
+    @Override
+    public int read(ByteBuffer dst)
+    {
+        if (position >= buffer.limit())
+        {
+            return -1;
+        }
+
+        int count = (int) Math.min(dst.remaining(), buffer.limit() - position);
+        ByteBuffer slice = buffer.duplicate();
+        slice.position((int) position);
+        slice.limit((int) position + count);
+        dst.put(slice);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int write(ByteBuffer src)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long size()
+    {
+        return buffer.limit();
+    }
+
+    @Override
+    public void truncate(long size)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public void force()
+    {
+    }
+
+    @Override
+    public void close()
+    {
+    }
+}
@@ -3,6 +3,7 @@ package org.jaudiotagger.audio.io;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 
@@ -18,6 +19,14 @@ public final class FileChannelIO implements SeekableInputOutput
         this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
     }
 
+    /**
+     * Open with explicit options, e.g. {@link StandardOpenOption#READ} only for read sessions
+     */
+    public FileChannelIO(Path path, OpenOption... options) throws IOException
+    {
+        this.channel = FileChannel.open(path, options);
+    }
+
     public FileChannelIO(FileChannel channel)
     {
         this.channel = channel;
@@ -0,0 +1,184 @@
+package org.jaudiotagger.audio.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only backend that memory maps the head and tail of a file, where the metadata normally lives
+ * (ID3v2, FLAC metadata blocks, RIFF/IFF chunk headers at the start and ID3v1, Lyrics3, DSF ID3 chunk at the end).
+ *
+ * Reads falling inside a mapped region are plain memory copies, anything in between is read from the channel.
+ * If the file is no larger than the head and tail sizes combined the whole file is mapped.
+ *
+ * Note mapped regions are only released when garbage collected, on Windows the file cannot be modified until then.
+ */
+public final class MappedSeekableIO implements SeekableInputOutput
+{
+    /**
+     * Default number of bytes mapped at the start of the file
+     */
+    public static final int DEFAULT_HEAD_SIZE = 1024 * 1024;
+
+    /**
+     * Default number of bytes mapped at the end of the file
+     */
+    public static final int DEFAULT_TAIL_SIZE = 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final MappedByteBuffer head;
+    private final MappedByteBuffer tail;
+    private final long tailStart;
+    private long position;
+
+    public MappedSeekableIO(Path path) throws IOException
+    {
+        this(FileChannel.open(path, StandardOpenOption.READ), DEFAULT_HEAD_SIZE, DEFAULT_TAIL_SIZE);
+    }
+
+    /**
+     * @param channel  channel to map, it will be closed when this is closed or if it cannot be mapped
+     * @param headSize number of bytes to map at the start of the file
+     * @param tailSize number of bytes to map at the end of the file
+     * @throws IOException
+     */
+    public MappedSeekableIO(FileChannel channel, int headSize, int tailSize) throws IOException
+    {
+        this.channel = channel;
+        try
+        {
+            this.size = channel.size();
+
+            long headLength = Math.min(size, headSize);
+            this.head = headLength > 0 ? channel.map(FileChannel.MapMode.READ_ONLY, 0, headLength) : null;
+
+            long start = Math.max(headLength, size - tailSize);
+            if (start < size)
+            {
+                this.tail = channel.map(FileChannel.MapMode.READ_ONLY, start, size - start);
+                this.tailStart = start;
+            }
+            else
+            {
+                this.tail = null;
+                this.tailStart = size;
+            }
+        }
+        catch (IOException | RuntimeException e)
+        {
+            //Not returned to the caller so nothing else can close it
+            try
+            {
+                channel.close();
+            }
+            catch (IOException ce)
+            {
+                e.addSuppressed(ce);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return true if position lies in one of the mapped regions
+     */
+    public boolean isMapped(long position)
+    {
+        return (head != null && position < head.capacity()) || (tail != null && position >= tailStart && position < size);
+    }
+
+    @Override
+    public long position()
+    {
+        return position;
+    }
+
+    @Override
+    public void position(long newPosition)
+    {
+        this.position = newPosition;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException
+    {
+        if (position >= size)
+        {
+            return -1;
+        }
+
+        int total = 0;
+        while (dst.hasRemaining() && position < size)
+        {
+            int count;
+            if (head != null && position < head.capacity())
+            {
+                count = copy(head, (int) position, dst);
+            }
+            else if (tail != null && position >= tailStart)
+            {
+                count = copy(tail, (int) (position - tailStart), dst);
+            }
+            else
+            {
+                //Unmapped middle of the file, only read up to start of tail so rest can come from memory
+                int max = (int) Math.min(dst.remaining(), tailStart - position);
+                ByteBuffer part = dst.duplicate();
+                part.limit(part.position() + max);
+                count = channel.read(part, position);
+                if (count <= 0)
+                {
+                    break;
+                }
+                dst.position(dst.position() + count);
+            }
+            position += count;
+            total += count;
+        }
+        return total;
+    }
+
+    private static int copy(MappedByteBuffer region, int offset, ByteBuffer dst)
+    {
+        int count = Math.min(dst.remaining(), region.capacity() - offset);
+        ByteBuffer slice = region.duplicate();
+        slice.position(offset);
+        slice.limit(offset + count);
+        dst.put(slice);
+        return count;
+    }
+
+    @Override
+    public int write(ByteBuffer src)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long size()
+    {
+        return size;
+    }
+
+    @Override
+    public void truncate(long size)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public void force()
+    {
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
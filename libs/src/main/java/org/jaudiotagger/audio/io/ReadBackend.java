@@ -0,0 +1,48 @@
+package org.jaudiotagger.audio.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * How a {@link ReadSession} accesses the file being read
+ */
+public enum ReadBackend
+{
+    /**
+     * Read through a {@link java.nio.channels.FileChannel}, small reads are served from the session read-ahead window
+     */
+    FILE_CHANNEL,
+
+    /**
+     * Memory map the head and tail of the file, see {@link MappedSeekableIO}
+     */
+    MEMORY_MAPPED;
+
+    /**
+     * Open the file for reading using this backend
+     *
+     * @param path
+     * @return
+     * @throws IOException
+     */
+    public SeekableInputOutput open(Path path) throws IOException
+    {
+        switch (this)
+        {
+            case MEMORY_MAPPED:
+                return new MappedSeekableIO(path);
+
+            default:
+                return new FileChannelIO(path, StandardOpenOption.READ);
+        }
+    }
+
+    /**
+     * @return true if the backend already serves small reads from memory, so a read-ahead window would only add a copy
+     */
+    public boolean isInMemory()
+    {
+        return this == MEMORY_MAPPED;
+    }
+}
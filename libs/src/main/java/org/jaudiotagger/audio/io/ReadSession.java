@@ -0,0 +1,378 @@
+package org.jaudiotagger.audio.io;
+
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A single read of an audio file.
+ *
+ * The file is opened once (lazily, on first use) and the same {@link SeekableInputOutput} is shared by the
+ * encoding info and tag phases of a reader. Small reads are served from a read-ahead window so the many short
+ * header reads done by the parsers reuse bytes already fetched, rather than each costing a system call.
+ *
+ * Parsers are written against {@link FileChannel} so the session exposes a read-only channel view, see
+ * {@link #getChannel()}.
+ *
+ * The file is accessed through the chosen {@link ReadBackend}, when the backend is already memory based there is no
+ * read-ahead window.
+ *
+ * A session, and its channel, must only be used by one thread at a time, reads share the position of the underlying
+ * source and the read-ahead window.
+ */
+public class ReadSession implements Closeable
+{
+    /**
+     * Default size of the read-ahead window
+     */
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+
+    private static final AtomicLong totalOpens = new AtomicLong();
+    private static final AtomicLong totalReadCalls = new AtomicLong();
+    private static final AtomicLong totalBytesRead = new AtomicLong();
+
+    private final Path path;
+    private final ReadBackend backend;
+    private final int windowSize;
+    private final SeekableInputOutput source;
+    private final String loggingName;
+    private ReadOptions readOptions = ReadOptions.FULL;
+
+    private SeekableInputOutput io;
+    private ReadSessionChannel channel;
+    private long size;
+
+    private ByteBuffer window;
+    private long windowStart;
+
+    private int opens;
+    private long readCalls;
+    private long bytesRead;
+    private long bytesFromWindow;
+
+    public ReadSession(Path path)
+    {
+        this(path, ReadBackend.FILE_CHANNEL);
+    }
+
+    public ReadSession(Path path, ReadBackend backend)
+    {
+        this(path, backend, backend.isInMemory() ? 0 : DEFAULT_WINDOW_SIZE);
+    }
+
+    public ReadSession(Path path, int windowSize)
+    {
+        this(path, ReadBackend.FILE_CHANNEL, windowSize);
+    }
+
+    /**
+     * @param path
+     * @param backend
+     * @param windowSize size of the read-ahead window, zero to read directly from the backend
+     */
+    public ReadSession(Path path, ReadBackend backend, int windowSize)
+    {
+        this.path = path;
+        this.backend = backend;
+        this.windowSize = windowSize;
+        this.source = null;
+        this.loggingName = String.valueOf(path);
+    }
+
+    /**
+     * Session over a source that is already open and not backed by a file, such as a {@link ByteBufferIO}
+     *
+     * There is no read-ahead window and the source is closed when the session is closed.
+     *
+     * @param source
+     * @param loggingName name to identify the source in log messages
+     */
+    public ReadSession(SeekableInputOutput source, String loggingName)
+    {
+        this.path = null;
+        this.backend = null;
+        this.windowSize = 0;
+        this.source = source;
+        this.loggingName = loggingName;
+    }
+
+    /**
+     * Open the underlying file, only called once per session
+     *
+     * @return
+     * @throws IOException
+     */
+    protected SeekableInputOutput open() throws IOException
+    {
+        if (source != null)
+        {
+            return source;
+        }
+        return backend.open(path);
+    }
+
+    private SeekableInputOutput io() throws IOException
+    {
+        if (io == null)
+        {
+            io = open();
+            size = io.size();
+            if (source == null)
+            {
+                opens++;
+                totalOpens.incrementAndGet();
+            }
+        }
+        return io;
+    }
+
+    /**
+     * @return path of the file being read, may be null if session is not backed by a file
+     */
+    public Path getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return name to identify this session in log messages
+     */
+    public String getLoggingName()
+    {
+        return loggingName;
+    }
+
+    /**
+     * @return what the reader should read, by default both the audio header and the tag
+     */
+    public ReadOptions getReadOptions()
+    {
+        return readOptions;
+    }
+
+    public void setReadOptions(ReadOptions readOptions)
+    {
+        this.readOptions = readOptions;
+    }
+
+    /**
+     * @return the size of the file, only obtained once per session
+     * @throws IOException
+     */
+    public long size() throws IOException
+    {
+        io();
+        return size;
+    }
+
+    /**
+     * Read-only channel view onto this session, closing it does not close the session
+     *
+     * @return
+     * @throws IOException
+     */
+    public FileChannel getChannel() throws IOException
+    {
+        io();
+        if (channel == null)
+        {
+            channel = new ReadSessionChannel(this);
+        }
+        return channel;
+    }
+
+    /**
+     * Move the channel view back to the start of the file, called between read phases
+     *
+     * @throws IOException
+     */
+    public void rewind() throws IOException
+    {
+        if (channel != null)
+        {
+            channel.position(0);
+        }
+    }
+
+    /**
+     * Read into dst starting at the given file position, using the read-ahead window where possible
+     *
+     * @param dst
+     * @param position
+     * @return number of bytes read or -1 if position is at or beyond the end of the file
+     * @throws IOException
+     */
+    public int read(ByteBuffer dst, long position) throws IOException
+    {
+        SeekableInputOutput in = io();
+        if (position >= size)
+        {
+            return -1;
+        }
+
+        int total = 0;
+        while (dst.hasRemaining() && position < size)
+        {
+            int count;
+            if (window != null && position >= windowStart && position < windowStart + window.limit())
+            {
+                count = copyFromWindow(dst, position);
+                bytesFromWindow += count;
+            }
+            else if (dst.remaining() >= windowSize)
+            {
+                in.position(position);
+                count = readFromSource(in, dst);
+            }
+            else
+            {
+                if (fillWindow(in, position) <= 0)
+                {
+                    break;
+                }
+                continue;
+            }
+
+            if (count <= 0)
+            {
+                break;
+            }
+            position += count;
+            total += count;
+        }
+        return total == 0 && dst.hasRemaining() ? -1 : total;
+    }
+
+    private int copyFromWindow(ByteBuffer dst, long position)
+    {
+        int offset = (int) (position - windowStart);
+        int count = Math.min(dst.remaining(), window.limit() - offset);
+        ByteBuffer slice = window.duplicate();
+        slice.position(offset);
+        slice.limit(offset + count);
+        dst.put(slice);
+        return count;
+    }
+
+    private int fillWindow(SeekableInputOutput in, long position) throws IOException
+    {
+        if (window == null)
+        {
+            window = ByteBuffer.allocate(windowSize);
+        }
+        window.clear();
+        in.position(position);
+        while (window.hasRemaining())
+        {
+            if (readFromSource(in, window) <= 0)
+            {
+                break;
+            }
+        }
+        window.flip();
+        windowStart = position;
+        return window.limit();
+    }
+
+    private int readFromSource(SeekableInputOutput in, ByteBuffer dst) throws IOException
+    {
+        int count = in.read(dst);
+        readCalls++;
+        totalReadCalls.incrementAndGet();
+        if (count > 0)
+        {
+            bytesRead += count;
+            totalBytesRead.addAndGet(count);
+            if (Instrumentation.isActive())
+            {
+                Instrumentation.recordRead(in.position() - count, count);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return number of times the file was opened by this session, either 0 or 1
+     */
+    public int getOpens()
+    {
+        return opens;
+    }
+
+    /**
+     * @return number of read calls made against the underlying file
+     */
+    public long getReadCalls()
+    {
+        return readCalls;
+    }
+
+    /**
+     * @return number of bytes read from the underlying file
+     */
+    public long getBytesRead()
+    {
+        return bytesRead;
+    }
+
+    /**
+     * @return number of bytes given to parsers from the read-ahead window without any further file access
+     */
+    public long getBytesFromWindow()
+    {
+        return bytesFromWindow;
+    }
+
+    /**
+     * @return number of files opened by all sessions since start or last reset
+     */
+    public static long getTotalOpens()
+    {
+        return totalOpens.get();
+    }
+
+    /**
+     * @return number of read calls made by all sessions since start or last reset
+     */
+    public static long getTotalReadCalls()
+    {
+        return totalReadCalls.get();
+    }
+
+    /**
+     * @return number of bytes read by all sessions since start or last reset
+     */
+    public static long getTotalBytesRead()
+    {
+        return totalBytesRead.get();
+    }
+
+    public static void resetTotals()
+    {
+        totalOpens.set(0);
+        totalReadCalls.set(0);
+        totalBytesRead.set(0);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        window = null;
+        if (io != null)
+        {
+            io.close();
+            io = null;
+        }
+    }
+
+    public String toString()
+    {
+        return getLoggingName() + ":opens:" + opens + ":readCalls:" + readCalls + ":bytesRead:" + bytesRead + ":bytesFromWindow:" + bytesFromWindow;
+    }
+}
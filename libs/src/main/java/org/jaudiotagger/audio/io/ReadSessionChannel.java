@@ -0,0 +1,175 @@
+package org.jaudiotagger.audio.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Read-only {@link FileChannel} view of a {@link ReadSession} so that existing parsers can read through the session
+ * without change. Closing the view does not close the session.
+ *
+ * Unlike a channel opened on a file it is not safe for use by more than one thread, even for positional reads.
+ */
+class ReadSessionChannel extends FileChannel
+{
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    private final ReadSession session;
+    private long position;
+
+    ReadSessionChannel(ReadSession session)
+    {
+        this.session = session;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException
+    {
+        int count = session.read(dst, position);
+        if (count > 0)
+        {
+            position += count;
+        }
+        return count;
+    }
+
+    @Override
+    public long read(ByteBuffer[] dsts, int offset, int length) throws IOException
+    {
+        long total = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            if (!dsts[i].hasRemaining())
+            {
+                continue;
+            }
+            int count = read(dsts[i]);
+            if (count < 0)
+            {
+                return total == 0 ? -1 : total;
+            }
+            total += count;
+            if (dsts[i].hasRemaining())
+            {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int read(ByteBuffer dst, long position) throws IOException
+    {
+        return session.read(dst, position);
+    }
+
+    @Override
+    public long position()
+    {
+        return position;
+    }
+
+    @Override
+    public FileChannel position(long newPosition)
+    {
+        if (newPosition < 0)
+        {
+            throw new IllegalArgumentException("Negative position:" + newPosition);
+        }
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException
+    {
+        return session.size();
+    }
+
+    @Override
+    public long transferTo(long position, long count, WritableByteChannel target) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(count, TRANSFER_BUFFER_SIZE));
+        long transferred = 0;
+        while (transferred < count)
+        {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), count - transferred));
+            int read = session.read(buffer, position + transferred);
+            if (read <= 0)
+            {
+                break;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining())
+            {
+                target.write(buffer);
+            }
+            transferred += read;
+        }
+        return transferred;
+    }
+
+    @Override
+    public int write(ByteBuffer src)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long write(ByteBuffer[] srcs, int offset, int length)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int write(ByteBuffer src, long position)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public FileChannel truncate(long size)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long transferFrom(ReadableByteChannel src, long position, long count)
+    {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public void force(boolean metaData)
+    {
+    }
+
+    @Override
+    public MappedByteBuffer map(MapMode mode, long position, long size)
+    {
+        throw new UnsupportedOperationException("Mapping not supported by read session channel");
+    }
+
+    @Override
+    public FileLock lock(long position, long size, boolean shared)
+    {
+        throw new UnsupportedOperationException("Locking not supported by read session channel");
+    }
+
+    @Override
+    public FileLock tryLock(long position, long size, boolean shared)
+    {
+        throw new UnsupportedOperationException("Locking not supported by read session channel");
+    }
+
+    @Override
+    protected void implCloseChannel()
+    {
+    }
+}
@@ -0,0 +1,143 @@
+package org.jaudiotagger.audio.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Streaming implementation of the 64 bit xxHash, a fast non-cryptographic hash, giving the same values as the
+ * reference implementation XXH64.
+ *
+ * Data can be added in pieces of any size, the hash is the same as if it was added in one go.
+ */
+final class XXHash64
+{
+    private static final long PRIME1 = 0x9E3779B185EBCA87L;
+    private static final long PRIME2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long PRIME3 = 0x165667B19E3779F9L;
+    private static final long PRIME4 = 0x85EBCA77C2B2AE63L;
+    private static final long PRIME5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE_SIZE = 32;
+
+    private final long seed;
+    private long v1;
+    private long v2;
+    private long v3;
+    private long v4;
+    private long totalLength;
+
+    /**
+     * Bytes added that do not yet make up a whole stripe
+     */
+    private final ByteBuffer pending = ByteBuffer.allocate(STRIPE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    XXHash64(long seed)
+    {
+        this.seed = seed;
+        v1 = seed + PRIME1 + PRIME2;
+        v2 = seed + PRIME2;
+        v3 = seed;
+        v4 = seed - PRIME1;
+    }
+
+    /**
+     * Add the remaining bytes of the buffer, after which it has no bytes remaining
+     *
+     * @param bb
+     */
+    void update(ByteBuffer bb)
+    {
+        ByteBuffer data = bb.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        totalLength += data.remaining();
+
+        if (pending.position() > 0)
+        {
+            while (pending.hasRemaining() && data.hasRemaining())
+            {
+                pending.put(data.get());
+            }
+            if (pending.hasRemaining())
+            {
+                bb.position(bb.limit());
+                return;
+            }
+            pending.flip();
+            processStripe(pending);
+            pending.clear();
+        }
+
+        while (data.remaining() >= STRIPE_SIZE)
+        {
+            processStripe(data);
+        }
+        pending.put(data);
+        bb.position(bb.limit());
+    }
+
+    private void processStripe(ByteBuffer data)
+    {
+        v1 = round(v1, data.getLong());
+        v2 = round(v2, data.getLong());
+        v3 = round(v3, data.getLong());
+        v4 = round(v4, data.getLong());
+    }
+
+    /**
+     * @return hash of all the bytes added
+     */
+    long getValue()
+    {
+        long hash;
+        if (totalLength >= STRIPE_SIZE)
+        {
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        }
+        else
+        {
+            hash = seed + PRIME5;
+        }
+        hash += totalLength;
+
+        ByteBuffer tail = pending.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        tail.flip();
+        while (tail.remaining() >= 8)
+        {
+            hash ^= round(0, tail.getLong());
+            hash = Long.rotateLeft(hash, 27) * PRIME1 + PRIME4;
+        }
+        if (tail.remaining() >= 4)
+        {
+            hash ^= (tail.getInt() & 0xFFFFFFFFL) * PRIME1;
+            hash = Long.rotateLeft(hash, 23) * PRIME2 + PRIME3;
+        }
+        while (tail.hasRemaining())
+        {
+            hash ^= (tail.get() & 0xFF) * PRIME5;
+            hash = Long.rotateLeft(hash, 11) * PRIME1;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= PRIME2;
+        hash ^= hash >>> 29;
+        hash *= PRIME3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long round(long acc, long input)
+    {
+        acc += input * PRIME2;
+        acc = Long.rotateLeft(acc, 31);
+        return acc * PRIME1;
+    }
+
+    private static long mergeRound(long acc, long value)
+    {
+        acc ^= round(0, value);
+        return acc * PRIME1 + PRIME4;
+    }
+}
@@ -22,9 +22,12 @@ package org.jaudiotagger.audio.mp3;
 import org.jaudiotagger.audio.AudioHeader;
 import org.jaudiotagger.audio.SupportedFileFormat;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.io.BufferPool;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.logging.Hex;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.EOFException;
 import java.io.File;
@@ -32,6 +35,7 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Date;
@@ -79,6 +83,17 @@ public class MP3AudioHeader implements AudioHeader
     private long    numberOfFramesEstimate;
     private long    bitrate;
 
+    /**
+     * Frames counted by walking the file, null unless {@link TagOptionSingleton#isExactMp3Length()}
+     */
+    private MP3FrameCounter.Result frameCount;
+
+    /**
+     * File to open a channel of its own on to count frames in parallel, null to count them sequentially through the
+     * channel being read, which may not allow reads from more than one thread
+     */
+    private Path path;
+
     /**
      * Encoder retrieved from frame/Xing header
      */
@@ -97,6 +112,12 @@ public class MP3AudioHeader implements AudioHeader
      * why chosen as a default.
      */
     private final static int FILE_BUFFER_SIZE = 5000;
+
+    /**
+     * If no header is found in the first FILE_BUFFER_SIZE bytes the file starts with junk, so the rest of it is
+     * searched in larger reads
+     */
+    private final static int SCAN_BUFFER_SIZE = 64 * 1024;
     private final static int MIN_BUFFER_REMAINING_REQUIRED = MPEGFrameHeader.HEADER_SIZE + XingFrame.MAX_BUFFER_SIZE_NEEDED_TO_READ_XING;
     private static final int NO_SECONDS_IN_HOUR = 3600;
 
@@ -147,6 +168,40 @@ public class MP3AudioHeader implements AudioHeader
         }
     }
 
+    /**
+     * Search for the first MP3Header in the channel, starting from location startByte
+     *
+     * @param fc        channel to search, it is not closed
+     * @param startByte
+     * @param fileName  name used in messages
+     * @throws IOException
+     * @throws InvalidAudioFrameException
+     */
+    public MP3AudioHeader(final FileChannel fc, long startByte, String fileName) throws IOException, InvalidAudioFrameException
+    {
+        this(fc, startByte, fileName, null);
+    }
+
+    /**
+     * Search for the first MP3Header in the channel, starting from location startByte
+     *
+     * @param fc        channel to search, it is not closed
+     * @param startByte
+     * @param fileName  name used in messages
+     * @param path      the file being read, if not null frames are counted in parallel through a channel of their own
+     *                  rather than through fc, null if there is no file
+     * @throws IOException
+     * @throws InvalidAudioFrameException
+     */
+    public MP3AudioHeader(final FileChannel fc, long startByte, String fileName, Path path) throws IOException, InvalidAudioFrameException
+    {
+        this.path = path;
+        if (!seek(fc, startByte, fileName))
+        {
+            throw new InvalidAudioFrameException(ErrorMessage.NO_AUDIO_HEADER_FOUND.getMsg(fileName));
+        }
+    }
+
     /**
      * Returns true if the first MP3 frame can be found for the MP3 file
      *
@@ -158,6 +213,24 @@ public class MP3AudioHeader implements AudioHeader
      * @throws IOException on any I/O error
      */
     public boolean seek(final File seekFile, long startByte) throws IOException
+    {
+        path = seekFile.toPath();
+        try (FileInputStream fis = new FileInputStream(seekFile); FileChannel fc = fis.getChannel())
+        {
+            return seek(fc, startByte, seekFile.getName());
+        }
+    }
+
+    /**
+     * Returns true if the first MP3 frame can be found in the channel
+     *
+     * @param fc        channel to seek, it is not closed
+     * @param startByte if there is an ID3v2tag we dont want to start reading from the start of the tag
+     * @param fileName  name used in messages
+     * @return true if the first MP3 frame can be found
+     * @throws IOException on any I/O error
+     */
+    public boolean seek(final FileChannel fc, long startByte, String fileName) throws IOException
     {
         //References to Xing/VRbi Header
         ByteBuffer header;
@@ -165,25 +238,22 @@ public class MP3AudioHeader implements AudioHeader
         //This is substantially faster than updating the filechannels position
         long filePointerCount;
 
-        final FileInputStream fis = new FileInputStream(seekFile);
-        final FileChannel fc = fis.getChannel();
-
         //Read into Byte Buffer in Chunks
-        ByteBuffer bb = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
-
-        //Move FileChannel to the starting position (skipping over tag if any)
-        fc.position(startByte);
+        ByteBuffer bb = BufferPool.getDefault().acquire(FILE_BUFFER_SIZE);
 
         //Update filePointerCount
         filePointerCount = startByte;
 
-        //Read from here into the byte buffer , doesn't move location of filepointer
-        fc.read(bb, startByte);
-        bb.flip();
-
         boolean syncFound = false;
         try
         {
+            //Move FileChannel to the starting position (skipping over tag if any)
+            fc.position(startByte);
+
+            //Read from here into the byte buffer , doesn't move location of filepointer
+            fc.read(bb, startByte);
+            bb.flip();
+
             do
             {
                 //TODO remaining() is quite an expensive operation, isn't there a way we can work this out without
@@ -191,6 +261,11 @@ public class MP3AudioHeader implements AudioHeader
                 //by increasing FILE_BUFFER_SIZE
                 if (bb.remaining() <= MIN_BUFFER_REMAINING_REQUIRED)
                 {
+                    if (bb.capacity() < SCAN_BUFFER_SIZE)
+                    {
+                        BufferPool.getDefault().release(bb);
+                        bb = BufferPool.getDefault().acquire(SCAN_BUFFER_SIZE);
+                    }
                     bb.clear();
                     fc.position(filePointerCount);
                     fc.read(bb, fc.position());
@@ -202,7 +277,8 @@ public class MP3AudioHeader implements AudioHeader
                     }
                 }
                 //MP3File.logger.finest("fc:"+fc.position() + "bb"+bb.position());
-                if (MPEGFrameHeader.isMPEGFrame(bb))
+                //Checked without creating a header so only likely headers go on to be parsed
+                if (MPEGFrameHeader.isValidHeader(MPEGFrameHeader.getHeader(bb)))
                 {
                     try
                     {
@@ -261,7 +337,7 @@ public class MP3AudioHeader implements AudioHeader
                         // has been encoded with as Unicode LE because these have a BOM of 0xFF 0xFE
                         else
                         {
-                            syncFound = isNextFrameValid(seekFile, filePointerCount, bb, fc);
+                            syncFound = isNextFrameValid(fileName, filePointerCount, bb, fc);
                             if (syncFound)
                             {
                                 break;
@@ -276,11 +352,18 @@ public class MP3AudioHeader implements AudioHeader
                     }
                 }
 
-                //TODO position() is quite an expensive operation, isn't there a way we can work this out without
-                //interrogating the bytebuffer
-                bb.position(bb.position() + 1);
-                filePointerCount++;
-
+                //Skip to the next position that could be a header, or if there are none to where the buffer has to
+                //be refilled
+                int current = bb.position();
+                int refillAt = bb.limit() - MIN_BUFFER_REMAINING_REQUIRED;
+                bb.position(current + 1);
+                int next = MPEGSyncScanner.find(bb, refillAt);
+                if (next == -1)
+                {
+                    next = Math.max(refillAt, current + 1);
+                }
+                bb.position(next);
+                filePointerCount += next - current;
 
             }
             while (!syncFound);
@@ -298,15 +381,7 @@ public class MP3AudioHeader implements AudioHeader
         }
         finally
         {
-            if (fc != null)
-            {
-                fc.close();
-            }
-
-            if (fis != null)
-            {
-                fis.close();
-            }
+            BufferPool.getDefault().release(bb);
         }
 
         //Return to start of audio header
@@ -314,16 +389,25 @@ public class MP3AudioHeader implements AudioHeader
         {
             MP3AudioHeader.logger.finer("Return found matching mp3 header starting at" + filePointerCount);
         }
-        setFileSize(seekFile.length());
+        setFileSize(fc.size());
         setMp3StartByte(filePointerCount);
+        if (syncFound)
+        {
+            setAudioDataStartPosition(filePointerCount);
+            setAudioDataEndPosition(MP3FrameCounter.getAudioEnd(fc));
+        }
         setTimePerFrame();
         setNumberOfFrames();
+        if (syncFound && TagOptionSingleton.getInstance().isExactMp3Length())
+        {
+            countFrames(fc);
+        }
         setTrackLength();
         setBitRate();
         setEncoder();
         /*if((filePointerCount - startByte )>0)
         {
-            logger.severe(seekFile.getName()+"length:"+startByte+"Difference:"+(filePointerCount - startByte));
+            logger.severe(fileName+"length:"+startByte+"Difference:"+(filePointerCount - startByte));
         }
         */
         return syncFound;
@@ -332,18 +416,18 @@ public class MP3AudioHeader implements AudioHeader
     /**
      * Called in some circumstances to check the next frame to ensure we have the correct audio header
      *
-     * @param seekFile
+     * @param fileName
      * @param filePointerCount
      * @param bb
      * @param fc
      * @return true if frame is valid
      * @throws java.io.IOException
      */
-    private boolean isNextFrameValid(File seekFile, long filePointerCount, ByteBuffer bb, FileChannel fc) throws IOException
+    private boolean isNextFrameValid(String fileName, long filePointerCount, ByteBuffer bb, FileChannel fc) throws IOException
     {
         if (MP3AudioHeader.logger.isLoggable(Level.FINEST))
         {
-            MP3AudioHeader.logger.finer("Checking next frame" + seekFile.getName() + ":fpc:" + filePointerCount + "skipping to:" + (filePointerCount + mp3FrameHeader.getFrameLength()));
+            MP3AudioHeader.logger.finer("Checking next frame" + fileName + ":fpc:" + filePointerCount + "skipping to:" + (filePointerCount + mp3FrameHeader.getFrameLength()));
         }
         boolean result = false;
 
@@ -387,23 +471,14 @@ public class MP3AudioHeader implements AudioHeader
 
         //Position bb to the start of the alleged next frame
         bb.position(bb.position() + mp3FrameHeader.getFrameLength());
-        if (MPEGFrameHeader.isMPEGFrame(bb))
+        if (MPEGFrameHeader.isValidHeader(MPEGFrameHeader.getHeader(bb)))
         {
-            try
-            {
-                MPEGFrameHeader.parseMPEGHeader(bb);
-                MP3AudioHeader.logger.finer("Check next frame confirms is an audio header ");
-                result = true;
-            }
-            catch (InvalidAudioFrameException ex)
-            {
-                MP3AudioHeader.logger.finer("Check next frame has identified this is not an audio header");
-                result = false;
-            }
+            MP3AudioHeader.logger.finer("Check next frame confirms is an audio header ");
+            result = true;
         }
         else
         {
-            MP3AudioHeader.logger.finer("isMPEGFrame has identified this is not an audio header");
+            MP3AudioHeader.logger.finer("Check next frame has identified this is not an audio header");
         }
         //Set back to the start of the previous frame
         bb.position(currentPosition);
@@ -456,6 +531,110 @@ public class MP3AudioHeader implements AudioHeader
 
     }
 
+    /**
+     * Replace the number of frames with the number found by walking every frame, the Xing or VBRI frame if any is not
+     * counted as it holds no audio
+     *
+     * Channels such as those of a {@link org.jaudiotagger.audio.io.ReadSession} cannot be read from more than one
+     * thread, so large files are only counted in parallel through a channel opened on the file for the purpose.
+     *
+     * @param fc
+     * @throws IOException
+     */
+    private void countFrames(FileChannel fc) throws IOException
+    {
+        if (path != null)
+        {
+            try (FileChannel fileChannel = Instrumentation.open(path))
+            {
+                frameCount = MP3FrameCounter.count(fileChannel, getFirstAudioFrame(), mp3FrameHeader.getHeaderWord());
+            }
+        }
+        else
+        {
+            frameCount = MP3FrameCounter.count(fc, getFirstAudioFrame(), mp3FrameHeader.getHeaderWord(), Long.MAX_VALUE);
+        }
+        numberOfFrames = frameCount.getFrameCount();
+    }
+
+    /**
+     * @return start of the first frame holding audio, after the Xing or VBRI frame if any
+     */
+    private long getFirstAudioFrame()
+    {
+        if (mp3XingFrame != null || mp3VbriFrame != null)
+        {
+            return startByte + mp3FrameHeader.getFrameLength();
+        }
+        return startByte;
+    }
+
+    /**
+     * Seek index built from the table of contents of the Xing or VBRI frame, without reading the file again
+     *
+     * @return the index, or null if there is no Xing or VBRI frame or it has no table of contents
+     */
+    public MP3SeekIndex getSeekIndex()
+    {
+        if (mp3XingFrame != null && mp3XingFrame.isTocEnabled())
+        {
+            int[] toc = mp3XingFrame.getToc();
+            long audioSize = mp3XingFrame.isAudioSizeEnabled() && mp3XingFrame.getAudioSize() > 0
+                    ? mp3XingFrame.getAudioSize() : fileSize - startByte;
+            long[] times = new long[toc.length];
+            long[] positions = new long[toc.length];
+            for (int i = 0; i < toc.length; i++)
+            {
+                times[i] = Math.round(trackLength * 1000 * i / toc.length);
+                positions[i] = startByte + toc[i] * audioSize / 256;
+            }
+            return new MP3SeekIndex(MP3SeekIndex.Source.XING, times, positions);
+        }
+        else if (mp3VbriFrame != null && mp3VbriFrame.getToc() != null)
+        {
+            long[] toc = mp3VbriFrame.getToc();
+            long[] times = new long[toc.length + 1];
+            long[] positions = new long[toc.length + 1];
+            positions[0] = startByte;
+            for (int i = 0; i < toc.length; i++)
+            {
+                times[i + 1] = Math.round((i + 1) * (long) mp3VbriFrame.getFramesPerTocEntry() * timePerFrame * 1000);
+                positions[i + 1] = positions[i] + toc[i];
+            }
+            return new MP3SeekIndex(MP3SeekIndex.Source.VBRI, times, positions);
+        }
+        return null;
+    }
+
+    /**
+     * Seek index built by walking every frame of the file, with a position at the start of a frame
+     *
+     * @param fc             channel of the file this header was read from, its position is not changed
+     * @param intervalMillis time between entries, rounded to a whole number of frames
+     * @return the index
+     * @throws IOException
+     */
+    public MP3SeekIndex createSeekIndex(FileChannel fc, long intervalMillis) throws IOException
+    {
+        int framesPerEntry = (int) Math.max(1, Math.round(intervalMillis / (timePerFrame * 1000)));
+        return MP3FrameCounter.index(fc, getFirstAudioFrame(), mp3FrameHeader.getHeaderWord(), framesPerEntry, timePerFrame);
+    }
+
+    /**
+     * @param file           the file this header was read from
+     * @param intervalMillis time between entries, rounded to a whole number of frames
+     * @return the index
+     * @throws IOException
+     * @see #createSeekIndex(FileChannel, long)
+     */
+    public MP3SeekIndex createSeekIndex(File file, long intervalMillis) throws IOException
+    {
+        try (FileInputStream fis = new FileInputStream(file); FileChannel fc = fis.getChannel())
+        {
+            return createSeekIndex(fc, intervalMillis);
+        }
+    }
+
     /**
      * @return The number of frames within the Audio File, calculated as accurately as possible
      */
@@ -487,19 +666,6 @@ public class MP3AudioHeader implements AudioHeader
     protected void setTimePerFrame()
     {
         timePerFrame = mp3FrameHeader.getNoOfSamples() / mp3FrameHeader.getSamplingRate().doubleValue();
-
-        //Because when calculating framelength we may have altered the calculation slightly for MPEGVersion2
-        //to account for mono/stereo we seem to have to make a corresponding modification to get the correct time
-        if ((mp3FrameHeader.getVersion() == MPEGFrameHeader.VERSION_2) || (mp3FrameHeader.getVersion() == MPEGFrameHeader.VERSION_2_5))
-        {
-            if ((mp3FrameHeader.getLayer() == MPEGFrameHeader.LAYER_II) || (mp3FrameHeader.getLayer() == MPEGFrameHeader.LAYER_III))
-            {
-                if (mp3FrameHeader.getNumberOfChannels() == 1)
-                {
-                    timePerFrame = timePerFrame / 2;
-                }
-            }
-        }
     }
 
     /**
@@ -587,7 +753,11 @@ public class MP3AudioHeader implements AudioHeader
     protected void setBitRate()
     {
 
-        if (mp3XingFrame != null && mp3XingFrame.isVbr())
+        if (frameCount != null && frameCount.getFrameCount() > 0)
+        {
+            bitrate = (long) ((frameCount.getAudioSize() * BITS_IN_BYTE_MULTIPLIER) / (timePerFrame * getNumberOfFrames() * Utils.KILOBYTE_MULTIPLIER));
+        }
+        else if (mp3XingFrame != null && mp3XingFrame.isVbr())
         {
             if (mp3XingFrame.isAudioSizeEnabled() && mp3XingFrame.getAudioSize() > 0)
             {
@@ -737,6 +907,10 @@ public class MP3AudioHeader implements AudioHeader
         {
             return mp3VbriFrame.isVbr();
         }
+        else if (frameCount != null)
+        {
+            return frameCount.isVbr();
+        }
         else
         {
             return mp3FrameHeader.isVariableBitRate();
@@ -23,14 +23,21 @@ package org.jaudiotagger.audio.mp3;
 
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.*;
 import org.jaudiotagger.audio.generic.Permissions;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.io.BufferPool;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.logging.*;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
 import org.jaudiotagger.tag.TagNotFoundException;
 import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.TagOptions;
 import org.jaudiotagger.tag.id3.*;
+import org.jaudiotagger.tag.images.ImageDataSource;
 import org.jaudiotagger.tag.lyrics3.AbstractLyrics3;
 import org.jaudiotagger.tag.reference.ID3V2Version;
 
@@ -63,6 +70,12 @@ public class MP3File extends AudioFile
      */
     private ID3v24Tag id3v2Asv24tag = null;
 
+    /**
+     * True if the idv24 representation is only to be created when requested, so that frame bodies that are decoded
+     * lazily are not all decoded to create it
+     */
+    private boolean isId3v2Asv24tagDeferred = false;
+
     /**
      * The Lyrics3 tag that this file contains.
      */
@@ -129,19 +142,19 @@ public class MP3File extends AudioFile
     /**
      * Read v1 tag
      *
-     * @param file
-     * @param newFile
+     * @param fc
+     * @param fileName
      * @param loadOptions
      * @throws IOException
      */
-    private void readV1Tag(File file, RandomAccessFile newFile, int loadOptions) throws IOException
+    private void readV1Tag(FileChannel fc, String fileName, int loadOptions) throws IOException
     {
         if ((loadOptions & LOAD_IDV1TAG) != 0)
         {
             logger.finer("Attempting to read id3v1tags");
             try
             {
-                id3v1tag = new ID3v11Tag(newFile, file.getName());
+                id3v1tag = new ID3v11Tag(fc, fileName);
             }
             catch (TagNotFoundException ex)
             {
@@ -152,7 +165,7 @@ public class MP3File extends AudioFile
             {
                 if (id3v1tag == null)
                 {
-                    id3v1tag = new ID3v1Tag(newFile, file.getName());
+                    id3v1tag = new ID3v1Tag(fc, fileName);
                 }
             }
             catch (TagNotFoundException ex)
@@ -167,30 +180,38 @@ public class MP3File extends AudioFile
      *
      * TODO:shouldn't we be handing TagExceptions:when will they be thrown
      *
-     * @param file the file to read tags from
+     * @param fc the channel to read tags from
+     * @param fileName name used in messages
      * @param loadOptions load options
      * @throws IOException IO issues
      * @throws TagException tag issues
      */
-    private void readV2Tag(File file, int loadOptions, int startByte) throws IOException, TagException
+    private void readV2Tag(FileChannel fc, String fileName, int loadOptions, int startByte) throws IOException, TagException
     {
         //We know where the actual Audio starts so load all the file from start to that point into
         //a buffer then we can read the IDv2 information without needing any more File I/O
         if (startByte >= AbstractID3v2Tag.TAG_HEADER_LENGTH)
         {
-            logger.finer("Attempting to read id3v2tags");
-            try (final FileInputStream fis = new FileInputStream(file))
+            if ((loadOptions & LOAD_IDV2TAG) != 0)
             {
-                final ByteBuffer bb = ByteBuffer.allocateDirect(startByte);
-                fis.getChannel().read(bb,0);
-                bb.rewind();
-
-                if ((loadOptions & LOAD_IDV2TAG) != 0)
+                logger.finer("Attempting to read id3v2tags");
+                final ByteBuffer bb = BufferPool.getDefault().acquire(startByte);
+                try
                 {
+                    fc.read(bb,0);
+                    bb.rewind();
+
+                    //bb holds the start of the file so picture data can be located within the file
+                    ImageDataSource imageDataSource = null;
+                    if (file != null && TagOptionSingleton.getInstance().isLazyArtwork())
+                    {
+                        imageDataSource = ImageDataSource.of(file.toPath());
+                    }
+
                     logger.config("Attempting to read id3v2tags");
                     try
                     {
-                        this.setID3v2Tag(new ID3v24Tag(bb, file.getName()));
+                        this.setID3v2Tag(new ID3v24Tag(bb, fileName, imageDataSource));
                     }
                     catch (TagNotFoundException ex)
                     {
@@ -201,7 +222,7 @@ public class MP3File extends AudioFile
                     {
                         if (id3v2tag == null)
                         {
-                            this.setID3v2Tag(new ID3v23Tag(bb, file.getName()));
+                            this.setID3v2Tag(new ID3v23Tag(bb, fileName, imageDataSource));
                         }
                     }
                     catch (TagNotFoundException ex)
@@ -213,7 +234,7 @@ public class MP3File extends AudioFile
                     {
                         if (id3v2tag == null)
                         {
-                            this.setID3v2Tag(new ID3v22Tag(bb, file.getName()));
+                            this.setID3v2Tag(new ID3v22Tag(bb, fileName, imageDataSource));
                         }
                     }
                     catch (TagNotFoundException ex)
@@ -221,6 +242,10 @@ public class MP3File extends AudioFile
                         logger.config("No id3v22 tag found");
                     }
                 }
+                finally
+                {
+                    BufferPool.getDefault().release(bb);
+                }
             }
         }
         else
@@ -231,6 +256,7 @@ public class MP3File extends AudioFile
 
     /**
      *
+     * @param fc
      * @param startByte
      * @param endByte
      * @return
@@ -239,61 +265,45 @@ public class MP3File extends AudioFile
      * @return true if all the bytes between in the file between startByte and endByte are null, false
      * otherwise
      */
-    private boolean isFilePortionNull(int startByte, int endByte) throws IOException
+    private boolean isFilePortionNull(FileChannel fc, int startByte, int endByte) throws IOException
     {
         logger.config("Checking file portion:" + Hex.asHex(startByte) + ":" + Hex.asHex(endByte));
-        FileInputStream fis=null;
-        FileChannel     fc=null;
-        try
+        ByteBuffer bb = ByteBuffer.allocateDirect(endByte - startByte);
+        fc.read(bb, startByte);
+        while(bb.hasRemaining())
         {
-            fis = new FileInputStream(file);
-            fc = fis.getChannel();
-            fc.position(startByte);
-            ByteBuffer bb = ByteBuffer.allocateDirect(endByte - startByte);
-            fc.read(bb);
-            while(bb.hasRemaining())
+            if(bb.get()!=0)
             {
-                if(bb.get()!=0)
-                {
-                    return false;
-                }
-            }
-        }
-        finally
-        {
-            if (fc != null)
-            {
-                fc.close();
-            }
-
-            if (fis != null)
-            {
-                fis.close();
+                return false;
             }
         }
         return true;
     }
+
     /**
      * Regets the audio header starting from start of file, and write appropriate logging to indicate
      * potential problem to user.
      *
+     * @param fc
+     * @param path      file being read, null if not read from a file
+     * @param fileName
      * @param startByte
      * @param firstHeaderAfterTag
      * @return
      * @throws IOException
      * @throws InvalidAudioFrameException
      */
-    private MP3AudioHeader checkAudioStart(long startByte, MP3AudioHeader firstHeaderAfterTag) throws IOException, InvalidAudioFrameException
+    private MP3AudioHeader checkAudioStart(FileChannel fc, Path path, String fileName, long startByte, MP3AudioHeader firstHeaderAfterTag) throws IOException, InvalidAudioFrameException
     {
         MP3AudioHeader headerOne;
         MP3AudioHeader headerTwo;
 
-        logger.warning(ErrorMessage.MP3_ID3TAG_LENGTH_INCORRECT.getMsg(file.getPath(), Hex.asHex(startByte), Hex.asHex(firstHeaderAfterTag.getMp3StartByte())));
+        logger.warning(ErrorMessage.MP3_ID3TAG_LENGTH_INCORRECT.getMsg(fileName, Hex.asHex(startByte), Hex.asHex(firstHeaderAfterTag.getMp3StartByte())));
 
         //because we cant agree on start location we reread the audioheader from the start of the file, at least
         //this way we cant overwrite the audio although we might overwrite part of the tag if we write this file
         //back later
-        headerOne = new MP3AudioHeader(file, 0);
+        headerOne = new MP3AudioHeader(fc, 0, fileName, path);
         logger.config("Checking from start:" + headerOne);
 
         //Although the id3 tag size appears to be incorrect at least we have found the same location for the start
@@ -301,7 +311,7 @@ public class MP3File extends AudioFile
         //problem
         if (firstHeaderAfterTag.getMp3StartByte() == headerOne.getMp3StartByte())
         {
-            logger.config(ErrorMessage.MP3_START_OF_AUDIO_CONFIRMED.getMsg(file.getPath(),
+            logger.config(ErrorMessage.MP3_START_OF_AUDIO_CONFIRMED.getMsg(fileName,
                     Hex.asHex(headerOne.getMp3StartByte())));
             return firstHeaderAfterTag;
         }
@@ -309,13 +319,13 @@ public class MP3File extends AudioFile
         {
 
             //We get a different value if read from start, can't guarantee 100% correct lets do some more checks
-            logger.config((ErrorMessage.MP3_RECALCULATED_POSSIBLE_START_OF_MP3_AUDIO.getMsg(file.getPath(),
+            logger.config((ErrorMessage.MP3_RECALCULATED_POSSIBLE_START_OF_MP3_AUDIO.getMsg(fileName,
                             Hex.asHex(headerOne.getMp3StartByte()))));
 
             //Same frame count so probably both audio headers with newAudioHeader being the first one
             if (firstHeaderAfterTag.getNumberOfFrames() == headerOne.getNumberOfFrames())
             {
-                logger.warning((ErrorMessage.MP3_RECALCULATED_START_OF_MP3_AUDIO.getMsg(file.getPath(),
+                logger.warning((ErrorMessage.MP3_RECALCULATED_START_OF_MP3_AUDIO.getMsg(fileName,
                                 Hex.asHex(headerOne.getMp3StartByte()))));
                 return headerOne;
             }
@@ -323,20 +333,20 @@ public class MP3File extends AudioFile
             //If the size reported by the tag header is a little short and there is only nulls between the recorded value
             //and the start of the first audio found then we stick with the original header as more likely that currentHeader
             //DataInputStream not really a header
-            if(isFilePortionNull((int) startByte,(int) firstHeaderAfterTag.getMp3StartByte()))
+            if(isFilePortionNull(fc, (int) startByte,(int) firstHeaderAfterTag.getMp3StartByte()))
             {
                 return firstHeaderAfterTag;
             }
 
             //Skip to the next header (header 2, counting from start of file)
-            headerTwo = new MP3AudioHeader(file, headerOne.getMp3StartByte()
-                    + headerOne.mp3FrameHeader.getFrameLength());
+            headerTwo = new MP3AudioHeader(fc, headerOne.getMp3StartByte()
+                    + headerOne.mp3FrameHeader.getFrameLength(), fileName, path);
 
             //It matches the header we found when doing the original search from after the ID3Tag therefore it
             //seems that newAudioHeader was a false match and the original header was correct
             if (headerTwo.getMp3StartByte() == firstHeaderAfterTag.getMp3StartByte())
             {
-                logger.warning((ErrorMessage.MP3_START_OF_AUDIO_CONFIRMED.getMsg(file.getPath(),
+                logger.warning((ErrorMessage.MP3_START_OF_AUDIO_CONFIRMED.getMsg(fileName,
                                 Hex.asHex(firstHeaderAfterTag.getMp3StartByte()))));
                 return firstHeaderAfterTag;
             }
@@ -345,14 +355,14 @@ public class MP3File extends AudioFile
             //however it maybe that neither are really headers and just contain the same data being misrepresented as headers.
             if (headerTwo.getNumberOfFrames() == headerOne.getNumberOfFrames())
             {
-                logger.warning((ErrorMessage.MP3_RECALCULATED_START_OF_MP3_AUDIO.getMsg(file.getPath(),
+                logger.warning((ErrorMessage.MP3_RECALCULATED_START_OF_MP3_AUDIO.getMsg(fileName,
                                 Hex.asHex(headerOne.getMp3StartByte()))));
                 return headerOne;
             }
             ///Doesnt match the frameCount lets go back to the original header
             else
             {
-                logger.warning((ErrorMessage.MP3_RECALCULATED_START_OF_MP3_AUDIO.getMsg(file.getPath(),
+                logger.warning((ErrorMessage.MP3_RECALCULATED_START_OF_MP3_AUDIO.getMsg(fileName,
                                 Hex.asHex(firstHeaderAfterTag.getMp3StartByte()))));
                 return firstHeaderAfterTag;
             }
@@ -372,52 +382,132 @@ public class MP3File extends AudioFile
      * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
      */
     public MP3File(File file, int loadOptions, boolean readOnly) throws IOException, TagException, ReadOnlyFileException, CannotReadException, InvalidAudioFrameException
+    {
+        this(file, loadOptions, readOnly, ReadOptions.FULL);
+    }
+
+    /**
+     * Creates a new MP3File dataType and parse the parts of the file asked for by readOptions
+     *
+     * @param file        MP3 file
+     * @param loadOptions decide what tags to load, ignored if readOptions does not read the tag
+     * @param readOnly    causes the files to be opened readonly
+     * @param readOptions whether to read the audio header, the tags or both
+     * @throws IOException  on any I/O error
+     * @throws TagException on any exception generated by this library.
+     * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     * @throws org.jaudiotagger.audio.exceptions.CannotReadException
+     */
+    public MP3File(File file, int loadOptions, boolean readOnly, ReadOptions readOptions) throws IOException, TagException, ReadOnlyFileException, CannotReadException, InvalidAudioFrameException
     {
         RandomAccessFile newFile = null;
         try
         {
             this.file = file;
+            this.readOptions = readOptions;
 
             //Check File accessibility
             newFile = checkFilePermissions(file, readOnly);
 
-            //Read ID3v2 tag size (if tag exists) to allow audioHeader parsing to skip over tag
-            long tagSizeReportedByHeader = AbstractID3v2Tag.getV2TagSizeIfExists(file);
-            logger.config("TagHeaderSize:" + Hex.asHex(tagSizeReportedByHeader));
-            audioHeader = new MP3AudioHeader(file, tagSizeReportedByHeader);
-
-            //If the audio header is not straight after the end of the tag then search from start of file
-            if (tagSizeReportedByHeader != ((MP3AudioHeader) audioHeader).getMp3StartByte())
+            read(Instrumentation.instrument(newFile.getChannel()), file.toPath(), file.getPath(), file.getName(), loadOptions);
+        }
+        finally
+        {
+            if (newFile != null)
             {
-                logger.config("First header found after tag:" + audioHeader);
-                audioHeader = checkAudioStart(tagSizeReportedByHeader, (MP3AudioHeader) audioHeader);
+                newFile.close();
             }
+        }
+    }
 
-            //Read v1 tags (if any)
-            readV1Tag(file, newFile, loadOptions);
+    /**
+     * Creates a new MP3File dataType and parse the tag from a session that is not backed by a file, such as an
+     * in-memory buffer, the returned MP3File has no file.
+     *
+     * @param session     source to read
+     * @param loadOptions decide what tags to load
+     * @throws IOException  on any I/O error
+     * @throws TagException on any exception generated by this library.
+     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     */
+    public MP3File(ReadSession session, int loadOptions) throws IOException, TagException, InvalidAudioFrameException
+    {
+        this.readOptions = session.getReadOptions();
+        read(session.getChannel(), session.getPath(), session.getLoggingName(), session.getLoggingName(), loadOptions);
+    }
 
-            //Read v2 tags (if any)
-            readV2Tag(file, loadOptions, (int)((MP3AudioHeader) audioHeader).getMp3StartByte());
+    /**
+     * Read audio header and tags from the channel, as asked for by readOptions
+     *
+     * @param fc
+     * @param path        file being read, null if not read from a file
+     * @param filePath    full name used in messages
+     * @param fileName    short name used in tag messages
+     * @param loadOptions
+     * @throws IOException
+     * @throws TagException
+     * @throws InvalidAudioFrameException
+     */
+    private void read(FileChannel fc, Path path, String filePath, String fileName, int loadOptions) throws IOException, TagException, InvalidAudioFrameException
+    {
+        //Read ID3v2 tag size (if tag exists) to allow audioHeader parsing to skip over tag
+        long tagSizeReportedByHeader = AbstractID3v2Tag.getV2TagSizeIfExists(fc);
+        logger.config("TagHeaderSize:" + Hex.asHex(tagSizeReportedByHeader));
 
-            //If we have a v2 tag use that, if we do not but have v1 tag use that
-            //otherwise use nothing
-            //TODO:if have both should we merge
-            //rather than just returning specific ID3v22 tag, would it be better to return v24 version ?
-            if (this.getID3v2Tag() != null)
+        //Without the audio header trust the size given by the tag header rather than searching for the audio
+        long mp3StartByte = tagSizeReportedByHeader;
+        if (readOptions.isReadHeader())
+        {
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.HEADER);
+            try
             {
-                tag = this.getID3v2Tag();
+                audioHeader = new MP3AudioHeader(fc, tagSizeReportedByHeader, fileName, path);
+
+                //If the audio header is not straight after the end of the tag then search from start of file
+                if (tagSizeReportedByHeader != ((MP3AudioHeader) audioHeader).getMp3StartByte())
+                {
+                    logger.config("First header found after tag:" + audioHeader);
+                    audioHeader = checkAudioStart(fc, path, filePath, tagSizeReportedByHeader, (MP3AudioHeader) audioHeader);
+                }
             }
-            else if (id3v1tag != null)
+            finally
             {
-                tag = id3v1tag;
+                Instrumentation.endPhase(phase);
             }
+            mp3StartByte = ((MP3AudioHeader) audioHeader).getMp3StartByte();
+        }
+
+        if (!readOptions.isReadTag())
+        {
+            return;
+        }
+
+        Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.TAG);
+        try
+        {
+            //Read v1 tags (if any)
+            readV1Tag(fc, fileName, loadOptions);
+
+            //Read v2 tags (if any)
+            readV2Tag(fc, fileName, loadOptions, (int) mp3StartByte);
         }
         finally
         {
-            if (newFile != null)
-            {
-                newFile.close();
-            }
+            Instrumentation.endPhase(phase);
+        }
+
+        //If we have a v2 tag use that, if we do not but have v1 tag use that
+        //otherwise use nothing
+        //TODO:if have both should we merge
+        //rather than just returning specific ID3v22 tag, would it be better to return v24 version ?
+        if (this.getID3v2Tag() != null)
+        {
+            tag = this.getID3v2Tag();
+        }
+        else if (id3v1tag != null)
+        {
+            tag = id3v1tag;
         }
     }
 
@@ -433,16 +523,19 @@ public class MP3File extends AudioFile
     {
         try
         {
-            //Read ID3v2 tag size (if tag exists) to allow audio header parsing to skip over tag
-            long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(file);
-
-            MP3AudioHeader audioHeader = new MP3AudioHeader(file, startByte);
-            if (startByte != audioHeader.getMp3StartByte())
+            try (FileInputStream fis = new FileInputStream(file); FileChannel fc = fis.getChannel())
             {
-                logger.config("First header found after tag:" + audioHeader);
-                audioHeader = checkAudioStart(startByte, audioHeader);
+                //Read ID3v2 tag size (if tag exists) to allow audio header parsing to skip over tag
+                long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(fc);
+
+                MP3AudioHeader audioHeader = new MP3AudioHeader(fc, startByte, file.getName(), file.toPath());
+                if (startByte != audioHeader.getMp3StartByte())
+                {
+                    logger.config("First header found after tag:" + audioHeader);
+                    audioHeader = checkAudioStart(fc, file.toPath(), file.getPath(), startByte, audioHeader);
+                }
+                return audioHeader.getMp3StartByte();
             }
-            return audioHeader.getMp3StartByte();
         }
         catch (InvalidAudioFrameException iafe)
         {
@@ -710,10 +803,16 @@ public class MP3File extends AudioFile
     public void setID3v2Tag(AbstractID3v2Tag id3v2tag)
     {
         this.id3v2tag = id3v2tag;
+        this.isId3v2Asv24tagDeferred = false;
         if (id3v2tag instanceof ID3v24Tag)
         {
             this.id3v2Asv24tag = (ID3v24Tag) this.id3v2tag;
         }
+        else if (TagOptionSingleton.getInstance().isLazyId3FrameBodies())
+        {
+            this.id3v2Asv24tag = null;
+            this.isId3v2Asv24tagDeferred = true;
+        }
         else
         {
             this.id3v2Asv24tag = new ID3v24Tag(id3v2tag);
@@ -731,6 +830,7 @@ public class MP3File extends AudioFile
     {
         this.id3v2tag = id3v2tag;
         this.id3v2Asv24tag = null;
+        this.isId3v2Asv24tagDeferred = false;
     }
 
     /**
@@ -748,6 +848,11 @@ public class MP3File extends AudioFile
      */
     public ID3v24Tag getID3v2TagAsv24()
     {
+        if (isId3v2Asv24tagDeferred)
+        {
+            id3v2Asv24tag = new ID3v24Tag(id3v2tag);
+            isId3v2Asv24tagDeferred = false;
+        }
         return id3v2Asv24tag;
     }
 
@@ -889,12 +994,31 @@ public class MP3File extends AudioFile
      * @throws IOException           on any I/O error
      */
     public void save(File fileToSave) throws IOException
+    {
+        TagOptions.Scope scope = TagOptions.use(tagOptions);
+        try
+        {
+            saveTags(fileToSave);
+        }
+        finally
+        {
+            TagOptions.end(scope);
+        }
+    }
+
+    private void saveTags(File fileToSave) throws IOException
     {
         //Ensure we are dealing with absolute filepaths not relative ones
         File file = fileToSave.getAbsoluteFile();
 
         logger.config("Saving  : " + file.getPath());
 
+        if (!readOptions.isReadTag())
+        {
+            throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_TAG_NOT_READ.getMsg(file.getName()));
+        }
+        loadLazyArtwork();
+
         //Checks before starting write
         precheck(file);
 
@@ -917,9 +1041,10 @@ public class MP3File extends AudioFile
                 {
                     logger.config("Writing ID3v2 tag:"+file.getName());
                     final MP3AudioHeader mp3AudioHeader = (MP3AudioHeader) this.getAudioHeader();
-                    final long mp3StartByte = mp3AudioHeader.getMp3StartByte();
+                    //If only the tag was read find out where the audio starts now
+                    final long mp3StartByte = mp3AudioHeader != null ? mp3AudioHeader.getMp3StartByte() : getMP3StartByte(file);
                     final long newMp3StartByte = id3v2tag.write(file, mp3StartByte);
-                    if (mp3StartByte != newMp3StartByte) {
+                    if (mp3AudioHeader != null && mp3StartByte != newMp3StartByte) {
                         logger.config("New mp3 start byte: " + newMp3StartByte);
                         mp3AudioHeader.setMp3StartByte(newMp3StartByte);
                     }
@@ -962,6 +1087,11 @@ public class MP3File extends AudioFile
             logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(file.getName(), iex.getMessage()), iex);
             throw iex;
         }
+        catch (InvalidAudioFrameException iafe)
+        {
+            logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(file.getName(), iafe.getMessage()), iafe);
+            throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(file.getName(), iafe.getMessage()), iafe);
+        }
         catch (RuntimeException re)
         {
             logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(file.getName(), re.getMessage()), re);
@@ -1086,7 +1216,15 @@ public class MP3File extends AudioFile
         Tag tag = getID3v2Tag();
         if(tag==null)
         {
-            return createDefaultTag();
+            TagOptions.Scope scope = TagOptions.use(tagOptions);
+            try
+            {
+                return createDefaultTag();
+            }
+            finally
+            {
+                TagOptions.end(scope);
+            }
         }
         return tag;
     }
@@ -1102,7 +1240,16 @@ public class MP3File extends AudioFile
     public Tag getTagAndConvertOrCreateDefault()
     {
         Tag tag          = getTagOrCreateDefault();
-        Tag convertedTag = convertID3Tag((AbstractID3v2Tag)tag, TagOptionSingleton.getInstance().getID3V2Version());
+        Tag convertedTag;
+        TagOptions.Scope scope = TagOptions.use(tagOptions);
+        try
+        {
+            convertedTag = convertID3Tag((AbstractID3v2Tag)tag, TagOptionSingleton.getInstance().getID3V2Version());
+        }
+        finally
+        {
+            TagOptions.end(scope);
+        }
         if(convertedTag!=null)
         {
             return convertedTag;
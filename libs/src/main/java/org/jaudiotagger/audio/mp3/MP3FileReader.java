@@ -1,11 +1,13 @@
 package org.jaudiotagger.audio.mp3;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
 
@@ -48,6 +50,20 @@ public class MP3FileReader extends AudioFileReader
         return mp3File;
     }
 
+    @Override
+    public AudioFile read(Path path, ReadOptions readOptions) throws IOException, TagException, ReadOnlyFileException, CannotReadException, InvalidAudioFrameException
+    {
+        MP3File mp3File = new MP3File(path.toFile(), MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG, true, readOptions);
+        return mp3File;
+    }
+
+    @Override
+    public AudioFile read(ReadSession session) throws IOException, TagException, ReadOnlyFileException, CannotReadException, InvalidAudioFrameException
+    {
+        MP3File mp3File = new MP3File(session, MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG);
+        return mp3File;
+    }
+
     /**
      * Read
      *
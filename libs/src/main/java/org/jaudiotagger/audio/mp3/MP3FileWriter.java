@@ -3,9 +3,16 @@ package org.jaudiotagger.audio.mp3;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.audio.write.WritePlan;
+import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 
@@ -43,6 +50,70 @@ public class MP3FileWriter extends AudioFileWriter
         af.commit();
     }
 
+    /**
+     * Work out how {@link MP3File#save()} would write the tags without modifying the file
+     *
+     * The ID3v2 tag is rewritten in the space before the audio if it fits, otherwise the audio is shifted to make room
+     * for it. The ID3v1 tag is written at the end of the file.
+     *
+     * @param af
+     * @return the plan
+     * @throws CannotWriteException
+     */
+    @Override
+    public WritePlan planWrite(AudioFile af) throws CannotWriteException
+    {
+        MP3File mp3File = (MP3File) af;
+        File file = af.getFile();
+        long fileLength = file.length();
+        WritePlan.Strategy strategy = WritePlan.Strategy.TAIL_APPEND;
+        long bytesToRead = 0;
+        long bytesToWrite = 0;
+        try
+        {
+            if (TagOptionSingleton.getInstance().isId3v2Save())
+            {
+                AbstractID3v2Tag id3v2Tag = mp3File.getID3v2Tag();
+                if (id3v2Tag == null)
+                {
+                    //Deleting only overwrites the tag identifier
+                    strategy = WritePlan.Strategy.IN_PLACE;
+                    bytesToWrite += AbstractID3v2Tag.FIELD_TAGID_LENGTH;
+                }
+                else
+                {
+                    MP3AudioHeader mp3AudioHeader = mp3File.getMP3AudioHeader();
+                    long audioStart = mp3AudioHeader != null ? mp3AudioHeader.getMp3StartByte() : mp3File.getMP3StartByte(file);
+
+                    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+                    id3v2Tag.write(baos, 0);
+                    int sizeIncPadding = id3v2Tag.calculateTagSize(baos.size(), (int) audioStart);
+                    if (sizeIncPadding > audioStart
+                            || (TagOptionSingleton.getInstance().isId3v2PaddingWillShorten() && sizeIncPadding < audioStart))
+                    {
+                        strategy = WritePlan.Strategy.SHIFT;
+                        bytesToRead += fileLength - audioStart;
+                        bytesToWrite += fileLength - audioStart;
+                    }
+                    else
+                    {
+                        strategy = sizeIncPadding == baos.size() ? WritePlan.Strategy.IN_PLACE : WritePlan.Strategy.PADDING_CONSUMED;
+                    }
+                    bytesToWrite += sizeIncPadding;
+                }
+            }
+            if (TagOptionSingleton.getInstance().isId3v1Save() && mp3File.hasID3v1Tag())
+            {
+                bytesToWrite += mp3File.getID3v1Tag().getSize();
+            }
+        }
+        catch (IOException | InvalidAudioFrameException e)
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(file, e.getMessage()), e);
+        }
+        return new WritePlan(strategy, fileLength, bytesToRead, bytesToWrite);
+    }
+
     protected void writeTag(AudioFile audioFile, Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotWriteException, IOException
     {
         throw new RuntimeException("MP3FileReaderwriteTag should not be called");
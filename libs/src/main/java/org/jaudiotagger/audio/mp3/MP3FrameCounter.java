@@ -0,0 +1,469 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.audio.io.BufferPool;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the frames of an mp3 file by walking every frame header, for an exact track length when the file has no
+ * Xing or VBRI frame, or one that cannot be trusted.
+ *
+ * Only frames with the same version, layer and sampling rate as the first frame are counted. When a header is
+ * invalid the walk skips to the next position starting {@link #CONFIRM_FRAMES} valid frames in a row, so junk and
+ * unsynchronised data between frames are not counted.
+ *
+ * Large files are split into segments walked in parallel on a ForkJoinPool, each segment finds the first frame
+ * within it the same way. Where a segment turns out not to start at the frame the previous segment ended at, it is
+ * walked again from there, so the count is always the same as walking the whole file from the first frame.
+ */
+final class MP3FrameCounter
+{
+    /**
+     * Files larger than this are split into segments of about this size
+     */
+    static final long SEGMENT_SIZE = 8 * 1024 * 1024;
+
+    /**
+     * Number of valid frames in a row needed to accept a frame found by searching
+     */
+    static final int CONFIRM_FRAMES = 3;
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Sync, version, layer and sampling rate bits, which do not change within a stream
+     */
+    private static final int STREAM_MASK = 0xFFFE0C00;
+
+    private static final int BITRATE_MASK = 0x0000F000;
+
+    private static final int ID3V1_SIZE = 128;
+
+    private final FileChannel fc;
+    private final int firstHeader;
+    private final long audioEnd;
+    private final long segmentSize;
+
+    /**
+     * When building a seek index, the position of every framesPerEntry frames is recorded, the whole file is then
+     * walked as one segment
+     */
+    private final int framesPerEntry;
+    private long[] entries = new long[0];
+    private int entryCount;
+
+    /**
+     * Frames found in part of the file
+     */
+    static final class Result
+    {
+        private final long segmentStart;
+        private final long segmentEnd;
+
+        /**
+         * Start of the first frame counted, or the end of the audio if there are none
+         */
+        private final long first;
+
+        /**
+         * Where the walk stopped, the start of the first frame at or after segmentEnd, or the end of the audio
+         */
+        private final long end;
+
+        private final long frameCount;
+        private final long audioSize;
+        private final boolean isVbr;
+
+        private Result(long segmentStart, long segmentEnd, long first, long end, long frameCount, long audioSize, boolean isVbr)
+        {
+            this.segmentStart = segmentStart;
+            this.segmentEnd = segmentEnd;
+            this.first = first;
+            this.end = end;
+            this.frameCount = frameCount;
+            this.audioSize = audioSize;
+            this.isVbr = isVbr;
+        }
+
+        /**
+         * @return number of audio frames
+         */
+        long getFrameCount()
+        {
+            return frameCount;
+        }
+
+        /**
+         * @return total length in bytes of the frames
+         */
+        long getAudioSize()
+        {
+            return audioSize;
+        }
+
+        /**
+         * @return true if any frame has a different bitrate to the first frame
+         */
+        boolean isVbr()
+        {
+            return isVbr;
+        }
+    }
+
+    private MP3FrameCounter(FileChannel fc, int firstHeader, long audioEnd, long segmentSize, int framesPerEntry)
+    {
+        this.fc = fc;
+        this.firstHeader = firstHeader;
+        this.audioEnd = audioEnd;
+        this.segmentSize = segmentSize;
+        this.framesPerEntry = framesPerEntry;
+    }
+
+    /**
+     * Count the frames from start to the end of the file, or to the ID3v1 tag if there is one
+     *
+     * Large files are read from several threads at once, so fc must allow that, as a channel opened on a file does
+     * but the channel of a {@link org.jaudiotagger.audio.io.ReadSession} does not
+     *
+     * @param fc          channel to read, its position is not changed
+     * @param start       start of the first frame to count
+     * @param firstHeader header of the first audio frame, as read by {@link MPEGFrameHeader#getHeader(ByteBuffer)}
+     * @return the frames found
+     * @throws IOException
+     */
+    static Result count(FileChannel fc, long start, int firstHeader) throws IOException
+    {
+        return count(fc, start, firstHeader, SEGMENT_SIZE);
+    }
+
+    /**
+     * @param fc
+     * @param start
+     * @param firstHeader
+     * @param segmentSize files larger than this are walked in parallel, Long.MAX_VALUE to walk on the calling thread
+     * @return the frames found
+     * @throws IOException
+     */
+    static Result count(FileChannel fc, long start, int firstHeader, long segmentSize) throws IOException
+    {
+        MP3FrameCounter counter = new MP3FrameCounter(fc, firstHeader, getAudioEnd(fc), segmentSize, 0);
+        if (start >= counter.audioEnd)
+        {
+            return new Result(start, start, start, start, 0, 0, false);
+        }
+        if (counter.audioEnd - start <= segmentSize)
+        {
+            return counter.walkSegment(start, counter.audioEnd, true);
+        }
+        try
+        {
+            return new Segment(counter, start, counter.audioEnd, true).invoke();
+        }
+        catch (UncheckedIOException ex)
+        {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Build a seek index by walking every frame from start
+     *
+     * @param fc             channel to read, its position is not changed
+     * @param start          start of the first frame
+     * @param firstHeader    header of the first audio frame
+     * @param framesPerEntry number of frames between index entries
+     * @param timePerFrame   length of each frame in seconds
+     * @return the index, with an entry at the start of the first frame and every framesPerEntry frames after it
+     * @throws IOException
+     */
+    static MP3SeekIndex index(FileChannel fc, long start, int firstHeader, int framesPerEntry, double timePerFrame) throws IOException
+    {
+        MP3FrameCounter counter = new MP3FrameCounter(fc, firstHeader, getAudioEnd(fc), Long.MAX_VALUE, framesPerEntry);
+        if (start < counter.audioEnd)
+        {
+            counter.walkSegment(start, counter.audioEnd, true);
+        }
+        long[] times = new long[counter.entryCount];
+        for (int i = 0; i < times.length; i++)
+        {
+            times[i] = Math.round(i * framesPerEntry * timePerFrame * 1000);
+        }
+        return new MP3SeekIndex(MP3SeekIndex.Source.FRAMES, times, Arrays.copyOf(counter.entries, counter.entryCount));
+    }
+
+    /**
+     * @return end of the audio, excluding any ID3v1 tag at the end of the file
+     */
+    static long getAudioEnd(FileChannel fc) throws IOException
+    {
+        long size = fc.size();
+        if (size < ID3V1_SIZE)
+        {
+            return size;
+        }
+        ByteBuffer tag = ByteBuffer.allocate(3);
+        fc.read(tag, size - ID3V1_SIZE);
+        if (tag.get(0) == 'T' && tag.get(1) == 'A' && tag.get(2) == 'G')
+        {
+            return size - ID3V1_SIZE;
+        }
+        return size;
+    }
+
+    /**
+     * Walk the frames starting in a segment
+     *
+     * @param segmentStart
+     * @param segmentEnd
+     * @param isFirst      if true a frame starts at segmentStart, otherwise the first frame is searched for
+     * @return
+     * @throws IOException
+     */
+    private Result walkSegment(long segmentStart, long segmentEnd, boolean isFirst) throws IOException
+    {
+        Reader reader = new Reader();
+        try
+        {
+            long first = isFirst ? segmentStart : sync(reader, segmentStart);
+            return walk(reader, segmentStart, segmentEnd, first);
+        }
+        finally
+        {
+            reader.release();
+        }
+    }
+
+    /**
+     * Walk from a frame start until the first frame at or after segmentEnd
+     */
+    private Result walk(Reader reader, long segmentStart, long segmentEnd, long first) throws IOException
+    {
+        long frameCount = 0;
+        long audioSize = 0;
+        boolean isVbr = false;
+        long position = first;
+        while (position < segmentEnd && position + MPEGFrameHeader.HEADER_SIZE <= audioEnd)
+        {
+            int header = reader.getHeader(position);
+            if (isSameStream(header))
+            {
+                int frameLength = MPEGFrameHeader.getFrameLength(header);
+                if (framesPerEntry > 0 && frameCount % framesPerEntry == 0)
+                {
+                    addEntry(position);
+                }
+                frameCount++;
+                audioSize += frameLength;
+                isVbr |= (header & BITRATE_MASK) != (firstHeader & BITRATE_MASK);
+                position += frameLength;
+            }
+            else
+            {
+                position = sync(reader, position + 1);
+            }
+        }
+        long end = position + MPEGFrameHeader.HEADER_SIZE > audioEnd ? audioEnd : position;
+        return new Result(segmentStart, segmentEnd, first, end, frameCount, audioSize, isVbr);
+    }
+
+    private void addEntry(long position)
+    {
+        if (entryCount == entries.length)
+        {
+            entries = Arrays.copyOf(entries, Math.max(16, entryCount * 2));
+        }
+        entries[entryCount++] = position;
+    }
+
+    /**
+     * Combine the results of consecutive segments
+     */
+    private Result merge(Result left, Result right) throws IOException
+    {
+        if (left.end >= right.segmentEnd)
+        {
+            //The walk of the left segment went past all of the right segment
+            return new Result(left.segmentStart, right.segmentEnd, left.first, left.end, left.frameCount, left.audioSize, left.isVbr);
+        }
+        if (left.end != right.first)
+        {
+            //The right segment found a different first frame, walk it again from where the left segment stopped
+            Reader reader = new Reader();
+            try
+            {
+                right = walk(reader, right.segmentStart, right.segmentEnd, left.end);
+            }
+            finally
+            {
+                reader.release();
+            }
+        }
+        return new Result(left.segmentStart, right.segmentEnd, left.first, right.end,
+                left.frameCount + right.frameCount, left.audioSize + right.audioSize, left.isVbr || right.isVbr);
+    }
+
+    /**
+     * @return the first position at or after from starting {@link #CONFIRM_FRAMES} frames of this stream in a row,
+     * or the end of the audio if there is none
+     */
+    private long sync(Reader reader, long from) throws IOException
+    {
+        while ((from = reader.find(from)) != -1)
+        {
+            if (isConfirmed(reader, from))
+            {
+                return from;
+            }
+            from++;
+        }
+        return audioEnd;
+    }
+
+    private boolean isConfirmed(Reader reader, long position) throws IOException
+    {
+        for (int i = 0; i < CONFIRM_FRAMES; i++)
+        {
+            //A frame followed by the end of the audio is accepted
+            if (position + MPEGFrameHeader.HEADER_SIZE > audioEnd)
+            {
+                return i > 0;
+            }
+            int header = reader.getHeader(position);
+            if (!isSameStream(header))
+            {
+                return false;
+            }
+            position += MPEGFrameHeader.getFrameLength(header);
+        }
+        return true;
+    }
+
+    private boolean isSameStream(int header)
+    {
+        return (header & STREAM_MASK) == (firstHeader & STREAM_MASK) && MPEGFrameHeader.isValidHeader(header);
+    }
+
+    /**
+     * Reads the file through a pooled buffer
+     */
+    private final class Reader
+    {
+        private ByteBuffer bb = BufferPool.getDefault().acquire(READ_BUFFER_SIZE);
+
+        /**
+         * File position of the start of the buffer
+         */
+        private long bufferStart = -1;
+
+        private void load(long position) throws IOException
+        {
+            bb.clear();
+            bb.limit((int) Math.min(bb.capacity(), audioEnd - position));
+            while (bb.hasRemaining())
+            {
+                if (fc.read(bb, position + bb.position()) < 0)
+                {
+                    break;
+                }
+            }
+            bb.flip();
+            bufferStart = position;
+        }
+
+        private boolean isLoaded(long position)
+        {
+            return bufferStart != -1 && position >= bufferStart
+                    && position + MPEGFrameHeader.HEADER_SIZE <= bufferStart + bb.limit();
+        }
+
+        /**
+         * @param position start of the header, at least four bytes before the end of the audio
+         */
+        int getHeader(long position) throws IOException
+        {
+            if (!isLoaded(position))
+            {
+                load(position);
+            }
+            bb.position((int) (position - bufferStart));
+            return MPEGFrameHeader.getHeader(bb);
+        }
+
+        /**
+         * @return the first position at or after from that could be a frame header, or -1 if there is none
+         */
+        long find(long from) throws IOException
+        {
+            while (from + MPEGFrameHeader.HEADER_SIZE <= audioEnd)
+            {
+                if (!isLoaded(from))
+                {
+                    load(from);
+                }
+                bb.position((int) (from - bufferStart));
+                //Only positions with the whole header in the buffer are searched
+                int found = MPEGSyncScanner.find(bb, bb.limit() - MPEGFrameHeader.HEADER_SIZE + 1);
+                if (found != -1)
+                {
+                    return bufferStart + found;
+                }
+                from = bufferStart + bb.limit() - MPEGFrameHeader.HEADER_SIZE + 1;
+            }
+            return -1;
+        }
+
+        void release()
+        {
+            BufferPool.getDefault().release(bb);
+            bb = null;
+        }
+    }
+
+    /**
+     * Splits the file in half until the parts are no larger than the segment size
+     */
+    private static final class Segment extends RecursiveTask<Result>
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final MP3FrameCounter counter;
+        private final long start;
+        private final long end;
+        private final boolean isFirst;
+
+        Segment(MP3FrameCounter counter, long start, long end, boolean isFirst)
+        {
+            this.counter = counter;
+            this.start = start;
+            this.end = end;
+            this.isFirst = isFirst;
+        }
+
+        @Override
+        protected Result compute()
+        {
+            try
+            {
+                if (end - start <= counter.segmentSize)
+                {
+                    return counter.walkSegment(start, end, isFirst);
+                }
+                long middle = start + (end - start) / 2;
+                Segment left = new Segment(counter, start, middle, isFirst);
+                Segment right = new Segment(counter, middle, end, false);
+                right.fork();
+                Result leftResult = left.compute();
+                return counter.merge(leftResult, right.join());
+            }
+            catch (IOException ex)
+            {
+                throw new UncheckedIOException(ex);
+            }
+        }
+    }
+}
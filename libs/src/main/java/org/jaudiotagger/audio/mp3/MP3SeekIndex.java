@@ -0,0 +1,217 @@
+package org.jaudiotagger.audio.mp3;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Maps times in an mp3 file to the byte positions to seek to, for example to serve a byte range starting at a
+ * given time. Each entry is a time in milliseconds and the file position of the audio at that time, in increasing
+ * order of time.
+ *
+ * An index built from a Xing or VBRI table of contents is only as accurate as the table, positions may fall within
+ * a frame so the reader must search for the next frame header. An index built by walking the frames has positions
+ * at the start of a frame.
+ *
+ * The index can be saved with {@link #write(DataOutput)} and loaded again with {@link #read(DataInput)} so it does
+ * not have to be built every time.
+ */
+public final class MP3SeekIndex
+{
+    private static final int MAGIC = 0x4A534958;
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Most entries an index read by {@link #read(DataInput)} may have, more than an entry for every frame of a day long
+     * file
+     */
+    private static final int MAX_ENTRIES = 1 << 22;
+
+    /**
+     * Entries allocated before any are read, so a count from corrupt data does not cause a huge allocation
+     */
+    private static final int INITIAL_READ_ENTRIES = 1024;
+
+    /**
+     * What the index was built from
+     */
+    public enum Source
+    {
+        XING,
+        VBRI,
+        FRAMES
+    }
+
+    private final Source source;
+    private final long[] times;
+    private final long[] positions;
+
+    MP3SeekIndex(Source source, long[] times, long[] positions)
+    {
+        this.source = source;
+        this.times = times;
+        this.positions = positions;
+    }
+
+    /**
+     * @return what the index was built from
+     */
+    public Source getSource()
+    {
+        return source;
+    }
+
+    /**
+     * @return true if every position is the start of a frame
+     */
+    public boolean isFrameAccurate()
+    {
+        return source == Source.FRAMES;
+    }
+
+    public int getEntryCount()
+    {
+        return times.length;
+    }
+
+    /**
+     * @param entry
+     * @return time in milliseconds of the entry
+     */
+    public long getTimeMillis(int entry)
+    {
+        return times[entry];
+    }
+
+    /**
+     * @param entry
+     * @return position in the file of the audio at the time of the entry
+     */
+    public long getPosition(int entry)
+    {
+        return positions[entry];
+    }
+
+    /**
+     * @param timeMillis
+     * @return the last entry at or before the time, so playback from its position does not miss the time, or -1 if
+     * the index is empty
+     */
+    public int findEntry(long timeMillis)
+    {
+        int entry = Arrays.binarySearch(times, timeMillis);
+        if (entry < 0)
+        {
+            entry = Math.max(-entry - 2, 0);
+        }
+        //The first of equal times
+        while (entry > 0 && times[entry - 1] == times[entry])
+        {
+            entry--;
+        }
+        return times.length == 0 ? -1 : entry;
+    }
+
+    /**
+     * @param timeMillis
+     * @return position of the last entry at or before the time
+     */
+    public long getPosition(long timeMillis)
+    {
+        int entry = findEntry(timeMillis);
+        if (entry == -1)
+        {
+            throw new IllegalStateException("Seek index is empty");
+        }
+        return positions[entry];
+    }
+
+    /**
+     * Write the index in a compact binary form
+     *
+     * @param out
+     * @throws IOException
+     */
+    public void write(DataOutput out) throws IOException
+    {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeByte(source.ordinal());
+        out.writeInt(times.length);
+        for (int i = 0; i < times.length; i++)
+        {
+            out.writeLong(times[i]);
+            out.writeLong(positions[i]);
+        }
+    }
+
+    /**
+     * Read an index written by {@link #write(DataOutput)}
+     *
+     * @param in
+     * @return the index
+     * @throws IOException if the data is not an index written by this version, is truncated or has an implausible
+     * number of entries
+     */
+    public static MP3SeekIndex read(DataInput in) throws IOException
+    {
+        if (in.readInt() != MAGIC)
+        {
+            throw new IOException("Not an mp3 seek index");
+        }
+        int version = in.readInt();
+        if (version != FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported mp3 seek index version:" + version);
+        }
+        int sourceIndex = in.readByte();
+        int count = in.readInt();
+        if (sourceIndex < 0 || sourceIndex >= Source.values().length || count < 0 || count > MAX_ENTRIES)
+        {
+            throw new EOFException("Invalid mp3 seek index");
+        }
+        //Grown as entries are read, so truncated data fails before much is allocated
+        long[] times = new long[Math.min(count, INITIAL_READ_ENTRIES)];
+        long[] positions = new long[times.length];
+        for (int i = 0; i < count; i++)
+        {
+            if (i == times.length)
+            {
+                int length = (int) Math.min(count, times.length * 2L);
+                times = Arrays.copyOf(times, length);
+                positions = Arrays.copyOf(positions, length);
+            }
+            times[i] = in.readLong();
+            positions[i] = in.readLong();
+        }
+        return new MP3SeekIndex(Source.values()[sourceIndex], times, positions);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+        {
+            return true;
+        }
+        if (!(o instanceof MP3SeekIndex))
+        {
+            return false;
+        }
+        MP3SeekIndex that = (MP3SeekIndex) o;
+        return source == that.source && Arrays.equals(times, that.times) && Arrays.equals(positions, that.positions);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * (31 * source.hashCode() + Arrays.hashCode(times)) + Arrays.hashCode(positions);
+    }
+
+    public String toString()
+    {
+        return "MP3SeekIndex:" + source + ":entries:" + times.length;
+    }
+}
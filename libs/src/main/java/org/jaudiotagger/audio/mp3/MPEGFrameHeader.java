@@ -12,6 +12,7 @@ import org.jaudiotagger.FileConstants;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.logging.AbstractTagDisplayFormatter;
 
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.util.HashMap;
 import java.util.Map;
@@ -43,7 +44,10 @@ public class MPEGFrameHeader
     public static final int SYNC_BYTE2 = 0xE0;
     public static final int SYNC_BIT_ANDSAMPING_BYTE3 = 0xFC;
 
-    private static final byte[] header = new byte[HEADER_SIZE];
+    /**
+     * Sync bits of the header as a 32 bit word
+     */
+    private static final int SYNC_MASK = 0xFFE00000;
 
 
     /**
@@ -84,102 +88,103 @@ public class MPEGFrameHeader
     public final static int LAYER_III_SLOT_SIZE = 1;
 
     /**
-     * Bit Rates, the setBitrate varies for different Version and Layer
+     * Bit Rates, the setBitrate varies for different Version and Layer, indexed by the bitrate bits of the third byte
+     * combined with the id and layer bits of the second, zero if invalid
      */
-    private static final Map<Integer, Integer> bitrateMap = new HashMap<Integer, Integer>();
+    private static final int[] bitrates = new int[256];
 
     static
     {
         // MPEG-1, Layer I (E)
-        bitrateMap.put(0x1E, 32);
-        bitrateMap.put(0x2E, 64);
-        bitrateMap.put(0x3E, 96);
-        bitrateMap.put(0x4E, 128);
-        bitrateMap.put(0x5E, 160);
-        bitrateMap.put(0x6E, 192);
-        bitrateMap.put(0x7E, 224);
-        bitrateMap.put(0x8E, 256);
-        bitrateMap.put(0x9E, 288);
-        bitrateMap.put(0xAE, 320);
-        bitrateMap.put(0xBE, 352);
-        bitrateMap.put(0xCE, 384);
-        bitrateMap.put(0xDE, 416);
-        bitrateMap.put(0xEE, 448);
+        bitrates[0x1E] = 32;
+        bitrates[0x2E] = 64;
+        bitrates[0x3E] = 96;
+        bitrates[0x4E] = 128;
+        bitrates[0x5E] = 160;
+        bitrates[0x6E] = 192;
+        bitrates[0x7E] = 224;
+        bitrates[0x8E] = 256;
+        bitrates[0x9E] = 288;
+        bitrates[0xAE] = 320;
+        bitrates[0xBE] = 352;
+        bitrates[0xCE] = 384;
+        bitrates[0xDE] = 416;
+        bitrates[0xEE] = 448;
         // MPEG-1, Layer II (C)
-        bitrateMap.put(0x1C, 32);
-        bitrateMap.put(0x2C, 48);
-        bitrateMap.put(0x3C, 56);
-        bitrateMap.put(0x4C, 64);
-        bitrateMap.put(0x5C, 80);
-        bitrateMap.put(0x6C, 96);
-        bitrateMap.put(0x7C, 112);
-        bitrateMap.put(0x8C, 128);
-        bitrateMap.put(0x9C, 160);
-        bitrateMap.put(0xAC, 192);
-        bitrateMap.put(0xBC, 224);
-        bitrateMap.put(0xCC, 256);
-        bitrateMap.put(0xDC, 320);
-        bitrateMap.put(0xEC, 384);
+        bitrates[0x1C] = 32;
+        bitrates[0x2C] = 48;
+        bitrates[0x3C] = 56;
+        bitrates[0x4C] = 64;
+        bitrates[0x5C] = 80;
+        bitrates[0x6C] = 96;
+        bitrates[0x7C] = 112;
+        bitrates[0x8C] = 128;
+        bitrates[0x9C] = 160;
+        bitrates[0xAC] = 192;
+        bitrates[0xBC] = 224;
+        bitrates[0xCC] = 256;
+        bitrates[0xDC] = 320;
+        bitrates[0xEC] = 384;
         // MPEG-1, Layer III (A)
-        bitrateMap.put(0x1A, 32);
-        bitrateMap.put(0x2A, 40);
-        bitrateMap.put(0x3A, 48);
-        bitrateMap.put(0x4A, 56);
-        bitrateMap.put(0x5A, 64);
-        bitrateMap.put(0x6A, 80);
-        bitrateMap.put(0x7A, 96);
-        bitrateMap.put(0x8A, 112);
-        bitrateMap.put(0x9A, 128);
-        bitrateMap.put(0xAA, 160);
-        bitrateMap.put(0xBA, 192);
-        bitrateMap.put(0xCA, 224);
-        bitrateMap.put(0xDA, 256);
-        bitrateMap.put(0xEA, 320);
+        bitrates[0x1A] = 32;
+        bitrates[0x2A] = 40;
+        bitrates[0x3A] = 48;
+        bitrates[0x4A] = 56;
+        bitrates[0x5A] = 64;
+        bitrates[0x6A] = 80;
+        bitrates[0x7A] = 96;
+        bitrates[0x8A] = 112;
+        bitrates[0x9A] = 128;
+        bitrates[0xAA] = 160;
+        bitrates[0xBA] = 192;
+        bitrates[0xCA] = 224;
+        bitrates[0xDA] = 256;
+        bitrates[0xEA] = 320;
         // MPEG-2, Layer I (6)
-        bitrateMap.put(0x16, 32);
-        bitrateMap.put(0x26, 48);
-        bitrateMap.put(0x36, 56);
-        bitrateMap.put(0x46, 64);
-        bitrateMap.put(0x56, 80);
-        bitrateMap.put(0x66, 96);
-        bitrateMap.put(0x76, 112);
-        bitrateMap.put(0x86, 128);
-        bitrateMap.put(0x96, 144);
-        bitrateMap.put(0xA6, 160);
-        bitrateMap.put(0xB6, 176);
-        bitrateMap.put(0xC6, 192);
-        bitrateMap.put(0xD6, 224);
-        bitrateMap.put(0xE6, 256);
+        bitrates[0x16] = 32;
+        bitrates[0x26] = 48;
+        bitrates[0x36] = 56;
+        bitrates[0x46] = 64;
+        bitrates[0x56] = 80;
+        bitrates[0x66] = 96;
+        bitrates[0x76] = 112;
+        bitrates[0x86] = 128;
+        bitrates[0x96] = 144;
+        bitrates[0xA6] = 160;
+        bitrates[0xB6] = 176;
+        bitrates[0xC6] = 192;
+        bitrates[0xD6] = 224;
+        bitrates[0xE6] = 256;
         // MPEG-2, Layer II (4)
-        bitrateMap.put(0x14, 8);
-        bitrateMap.put(0x24, 16);
-        bitrateMap.put(0x34, 24);
-        bitrateMap.put(0x44, 32);
-        bitrateMap.put(0x54, 40);
-        bitrateMap.put(0x64, 48);
-        bitrateMap.put(0x74, 56);
-        bitrateMap.put(0x84, 64);
-        bitrateMap.put(0x94, 80);
-        bitrateMap.put(0xA4, 96);
-        bitrateMap.put(0xB4, 112);
-        bitrateMap.put(0xC4, 128);
-        bitrateMap.put(0xD4, 144);
-        bitrateMap.put(0xE4, 160);
+        bitrates[0x14] = 8;
+        bitrates[0x24] = 16;
+        bitrates[0x34] = 24;
+        bitrates[0x44] = 32;
+        bitrates[0x54] = 40;
+        bitrates[0x64] = 48;
+        bitrates[0x74] = 56;
+        bitrates[0x84] = 64;
+        bitrates[0x94] = 80;
+        bitrates[0xA4] = 96;
+        bitrates[0xB4] = 112;
+        bitrates[0xC4] = 128;
+        bitrates[0xD4] = 144;
+        bitrates[0xE4] = 160;
         // MPEG-2, Layer III (2)
-        bitrateMap.put(0x12, 8);
-        bitrateMap.put(0x22, 16);
-        bitrateMap.put(0x32, 24);
-        bitrateMap.put(0x42, 32);
-        bitrateMap.put(0x52, 40);
-        bitrateMap.put(0x62, 48);
-        bitrateMap.put(0x72, 56);
-        bitrateMap.put(0x82, 64);
-        bitrateMap.put(0x92, 80);
-        bitrateMap.put(0xA2, 96);
-        bitrateMap.put(0xB2, 112);
-        bitrateMap.put(0xC2, 128);
-        bitrateMap.put(0xD2, 144);
-        bitrateMap.put(0xE2, 160);
+        bitrates[0x12] = 8;
+        bitrates[0x22] = 16;
+        bitrates[0x32] = 24;
+        bitrates[0x42] = 32;
+        bitrates[0x52] = 40;
+        bitrates[0x62] = 48;
+        bitrates[0x72] = 56;
+        bitrates[0x82] = 64;
+        bitrates[0x92] = 80;
+        bitrates[0xA2] = 96;
+        bitrates[0xB2] = 112;
+        bitrates[0xC2] = 128;
+        bitrates[0xD2] = 144;
+        bitrates[0xE2] = 160;
     }
 
     /**
@@ -202,7 +207,7 @@ public class MPEGFrameHeader
     /**
      * Constants for Emphasis
      */
-    private static final Map<Integer, String> emphasisMap = new HashMap<Integer, String>();
+    private static final String[] emphasisNames = new String[4];
     public final static int EMPHASIS_NONE = 0;
     public final static int EMPHASIS_5015MS = 1;
     public final static int EMPHASIS_RESERVED = 2;
@@ -210,20 +215,20 @@ public class MPEGFrameHeader
 
     static
     {
-        emphasisMap.put(EMPHASIS_NONE, "None");
-        emphasisMap.put(EMPHASIS_5015MS, "5015MS");
-        emphasisMap.put(EMPHASIS_RESERVED, "Reserved");
-        emphasisMap.put(EMPHASIS_CCITT, "CCITT");
+        emphasisNames[EMPHASIS_NONE] = "None";
+        emphasisNames[EMPHASIS_5015MS] = "5015MS";
+        emphasisNames[EMPHASIS_RESERVED] = "Reserved";
+        emphasisNames[EMPHASIS_CCITT] = "CCITT";
     }
 
 
-    private static final Map<Integer, String> modeExtensionMap = new HashMap<Integer, String>();
+    private static final String[] modeExtensionNames = new String[4];
     private final static int MODE_EXTENSION_NONE = 0;
     private final static int MODE_EXTENSION_ONE = 1;
     private final static int MODE_EXTENSION_TWO = 2;
     private final static int MODE_EXTENSION_THREE = 3;
 
-    private static final Map<Integer, String> modeExtensionLayerIIIMap = new HashMap<Integer, String>();
+    private static final String[] modeExtensionLayerIIINames = new String[4];
     private final static int MODE_EXTENSION_OFF_OFF = 0;
     private final static int MODE_EXTENSION_ON_OFF = 1;
     private final static int MODE_EXTENSION_OFF_ON = 2;
@@ -231,68 +236,73 @@ public class MPEGFrameHeader
 
     static
     {
-        modeExtensionMap.put(MODE_EXTENSION_NONE, "4-31");
-        modeExtensionMap.put(MODE_EXTENSION_ONE, "8-31");
-        modeExtensionMap.put(MODE_EXTENSION_TWO, "12-31");
-        modeExtensionMap.put(MODE_EXTENSION_THREE, "16-31");
+        modeExtensionNames[MODE_EXTENSION_NONE] = "4-31";
+        modeExtensionNames[MODE_EXTENSION_ONE] = "8-31";
+        modeExtensionNames[MODE_EXTENSION_TWO] = "12-31";
+        modeExtensionNames[MODE_EXTENSION_THREE] = "16-31";
 
-        modeExtensionLayerIIIMap.put(MODE_EXTENSION_OFF_OFF, "off-off");
-        modeExtensionLayerIIIMap.put(MODE_EXTENSION_ON_OFF, "on-off");
-        modeExtensionLayerIIIMap.put(MODE_EXTENSION_OFF_ON, "off-on");
-        modeExtensionLayerIIIMap.put(MODE_EXTENSION_ON_ON, "on-on");
+        modeExtensionLayerIIINames[MODE_EXTENSION_OFF_OFF] = "off-off";
+        modeExtensionLayerIIINames[MODE_EXTENSION_ON_OFF] = "on-off";
+        modeExtensionLayerIIINames[MODE_EXTENSION_OFF_ON] = "off-on";
+        modeExtensionLayerIIINames[MODE_EXTENSION_ON_ON] = "on-on";
     }
 
     /**
-     * Sampling Rate in Hz
+     * Sampling Rate in Hz, indexed by version and then by the frequency bits, zero if invalid
      */
-    private static final Map<Integer, Map<Integer, Integer>> samplingRateMap = new HashMap<Integer, Map<Integer, Integer>>();
-    private static final Map<Integer, Integer> samplingV1Map = new HashMap<Integer, Integer>();
-    private static final Map<Integer, Integer> samplingV2Map = new HashMap<Integer, Integer>();
-    private static final Map<Integer, Integer> samplingV25Map = new HashMap<Integer, Integer>();
+    private static final int[][] samplingRates = new int[4][4];
 
     static
     {
-        samplingV1Map.put(0, 44100);
-        samplingV1Map.put(1, 48000);
-        samplingV1Map.put(2, 32000);
-
-        samplingV2Map.put(0, 22050);
-        samplingV2Map.put(1, 24000);
-        samplingV2Map.put(2, 16000);
+        samplingRates[VERSION_1][0] = 44100;
+        samplingRates[VERSION_1][1] = 48000;
+        samplingRates[VERSION_1][2] = 32000;
 
-        samplingV25Map.put(0, 11025);
-        samplingV25Map.put(1, 12000);
-        samplingV25Map.put(2, 8000);
+        samplingRates[VERSION_2][0] = 22050;
+        samplingRates[VERSION_2][1] = 24000;
+        samplingRates[VERSION_2][2] = 16000;
 
-        samplingRateMap.put(VERSION_1, samplingV1Map);
-        samplingRateMap.put(VERSION_2, samplingV2Map);
-        samplingRateMap.put(VERSION_2_5, samplingV25Map);
+        samplingRates[VERSION_2_5][0] = 11025;
+        samplingRates[VERSION_2_5][1] = 12000;
+        samplingRates[VERSION_2_5][2] = 8000;
     }
 
-    /* Samples Per Frame */
-    private static final Map<Integer, Map<Integer, Integer>> samplesPerFrameMap = new HashMap<Integer, Map<Integer, Integer>>();
-    private static final Map<Integer, Integer> samplesPerFrameV1Map = new HashMap<Integer, Integer>();
-    private static final Map<Integer, Integer> samplesPerFrameV2Map = new HashMap<Integer, Integer>();
-    private static final Map<Integer, Integer> samplesPerFrameV25Map = new HashMap<Integer, Integer>();
+    /**
+     * Samples Per Frame, indexed by version and then by layer, MPEG-2 and MPEG-2.5 Layer III frames hold half as many
+     * samples as MPEG-1
+     */
+    private static final int[][] samplesPerFrame = new int[4][4];
 
     static
     {
-        samplesPerFrameV1Map.put(LAYER_I, 384);
-        samplesPerFrameV1Map.put(LAYER_II, 1152);
-        samplesPerFrameV1Map.put(LAYER_III, 1152);
+        samplesPerFrame[VERSION_1][LAYER_I] = 384;
+        samplesPerFrame[VERSION_1][LAYER_II] = 1152;
+        samplesPerFrame[VERSION_1][LAYER_III] = 1152;
 
-        samplesPerFrameV2Map.put(LAYER_I, 384);
-        samplesPerFrameV2Map.put(LAYER_II, 1152);
-        samplesPerFrameV2Map.put(LAYER_III, 1152);
+        samplesPerFrame[VERSION_2][LAYER_I] = 384;
+        samplesPerFrame[VERSION_2][LAYER_II] = 1152;
+        samplesPerFrame[VERSION_2][LAYER_III] = 576;
 
-        samplesPerFrameV25Map.put(LAYER_I, 384);
-        samplesPerFrameV25Map.put(LAYER_II, 1152);
-        samplesPerFrameV25Map.put(LAYER_III, 1152);
+        samplesPerFrame[VERSION_2_5][LAYER_I] = 384;
+        samplesPerFrame[VERSION_2_5][LAYER_II] = 1152;
+        samplesPerFrame[VERSION_2_5][LAYER_III] = 576;
+    }
 
-        samplesPerFrameMap.put(VERSION_1, samplesPerFrameV1Map);
-        samplesPerFrameMap.put(VERSION_2, samplesPerFrameV2Map);
-        samplesPerFrameMap.put(VERSION_2_5, samplesPerFrameV25Map);
+    /**
+     * Names looked up by parsing, copied from the public maps so no boxing is needed
+     */
+    private static final String[] versionNames = new String[4];
+    private static final String[] layerNames = new String[4];
+    private static final String[] modeNames = new String[4];
 
+    static
+    {
+        for (int i = 0; i < 4; i++)
+        {
+            versionNames[i] = mpegVersionMap.get(i);
+            layerNames[i] = mpegLayerMap.get(i);
+            modeNames[i] = modeMap.get(i);
+        }
     }
 
 
@@ -300,6 +310,7 @@ public class MPEGFrameHeader
     private static final int LAYER_I_FRAME_SIZE_COEFFICIENT = 12;
     private static final int LAYER_II_FRAME_SIZE_COEFFICIENT = 144;
     private static final int LAYER_III_FRAME_SIZE_COEFFICIENT = 144;
+    private static final int LAYER_III_V2_FRAME_SIZE_COEFFICIENT = 72;
 
     /**
      * MP3 Frame Header bit mask
@@ -367,7 +378,10 @@ public class MPEGFrameHeader
     private static final int MASK_MP3_EMPHASIS = FileConstants.BIT1 | FileConstants.BIT0;
 
 
-    private byte[] mpegBytes;
+    /**
+     * The four header bytes as a big endian word
+     */
+    private int header;
 
     /**
      * The version of this MPEG frame (see the constants)
@@ -385,7 +399,7 @@ public class MPEGFrameHeader
     /**
      * Bitrate of this frame
      */
-    private Integer bitRate;
+    private int bitRate;
 
     /**
      * Channel Mode of this Frame (see constants)
@@ -438,7 +452,7 @@ public class MPEGFrameHeader
      */
     private boolean isPrivate;
 
-    private Integer samplingRate;
+    private int samplingRate;
 
 
     /**
@@ -461,7 +475,7 @@ public class MPEGFrameHeader
      */
     private void setCopyrighted()
     {
-        isCopyrighted = (mpegBytes[BYTE_4] & MASK_MP3_COPY) != 0;
+        isCopyrighted = (getByte(header, BYTE_4) & MASK_MP3_COPY) != 0;
     }
 
 
@@ -472,8 +486,8 @@ public class MPEGFrameHeader
     private void setVersion() throws InvalidAudioFrameException
     {
         //MPEG Version
-        version = (byte) ((mpegBytes[BYTE_2] & MASK_MP3_VERSION) >> 3);
-        versionAsString = mpegVersionMap.get(version);
+        version = getVersion(header);
+        versionAsString = versionNames[version];
         if (versionAsString == null)
         {
             throw new InvalidAudioFrameException("Invalid mpeg version");
@@ -485,7 +499,7 @@ public class MPEGFrameHeader
      */
     private void setOriginal()
     {
-        isOriginal = (mpegBytes[BYTE_4] & MASK_MP3_HOME) != 0;
+        isOriginal = (getByte(header, BYTE_4) & MASK_MP3_HOME) != 0;
     }
 
     /**
@@ -493,7 +507,7 @@ public class MPEGFrameHeader
      */
     private void setProtected()
     {
-        isProtected = (mpegBytes[BYTE_2] & MASK_MP3_PROTECTION) == 0x00;
+        isProtected = (getByte(header, BYTE_2) & MASK_MP3_PROTECTION) == 0x00;
     }
 
     /**
@@ -501,7 +515,7 @@ public class MPEGFrameHeader
      */
     private void setPrivate()
     {
-        isPrivate = (mpegBytes[BYTE_3] & MASK_MP3_PRIVACY) != 0;
+        isPrivate = (getByte(header, BYTE_3) & MASK_MP3_PRIVACY) != 0;
     }
 
     /**
@@ -511,10 +525,8 @@ public class MPEGFrameHeader
     private void setBitrate() throws InvalidAudioFrameException
     {
         /* BitRate, get by checking header setBitrate bits and MPEG Version and Layer */
-        int bitRateIndex = mpegBytes[BYTE_3] & MASK_MP3_BITRATE | mpegBytes[BYTE_2] & MASK_MP3_ID | mpegBytes[BYTE_2] & MASK_MP3_LAYER;
-
-        bitRate = bitrateMap.get(bitRateIndex);
-        if (bitRate == null)
+        bitRate = getBitRate(header);
+        if (bitRate == 0)
         {
             throw new InvalidAudioFrameException("Invalid bitrate");
         }
@@ -527,8 +539,8 @@ public class MPEGFrameHeader
      */
     private void setChannelMode() throws InvalidAudioFrameException
     {
-        channelMode = (mpegBytes[BYTE_4] & MASK_MP3_MODE) >>> 6;
-        channelModeAsString = modeMap.get(channelMode);
+        channelMode = getChannelMode(header);
+        channelModeAsString = modeNames[channelMode];
         if (channelModeAsString == null)
         {
             throw new InvalidAudioFrameException("Invalid channel mode");
@@ -541,8 +553,8 @@ public class MPEGFrameHeader
      */
     private void setEmphasis() throws InvalidAudioFrameException
     {
-        emphasis = mpegBytes[BYTE_4] & MASK_MP3_EMPHASIS;
-        emphasisAsString = emphasisMap.get(emphasis);
+        emphasis = getByte(header, BYTE_4) & MASK_MP3_EMPHASIS;
+        emphasisAsString = emphasisNames[emphasis];
         if (getEmphasisAsString() == null)
         {
             throw new InvalidAudioFrameException("Invalid emphasis");
@@ -555,7 +567,7 @@ public class MPEGFrameHeader
      */
     private void setPadding()
     {
-        isPadding = (mpegBytes[BYTE_3] & MASK_MP3_PADDING) != 0;
+        isPadding = (getByte(header, BYTE_3) & MASK_MP3_PADDING) != 0;
     }
 
 
@@ -565,8 +577,8 @@ public class MPEGFrameHeader
      */
     private void setLayer() throws InvalidAudioFrameException
     {
-        layer = (mpegBytes[BYTE_2] & MASK_MP3_LAYER) >>> 1;
-        layerAsString = mpegLayerMap.get(layer);
+        layer = getLayer(header);
+        layerAsString = layerNames[layer];
         if (layerAsString == null)
         {
             throw new InvalidAudioFrameException("Invalid Layer");
@@ -580,10 +592,10 @@ public class MPEGFrameHeader
      */
     private void setModeExtension() throws InvalidAudioFrameException
     {
-        int index = (mpegBytes[BYTE_4] & MASK_MP3_MODE_EXTENSION) >> 4;
+        int index = (getByte(header, BYTE_4) & MASK_MP3_MODE_EXTENSION) >> 4;
         if (layer == LAYER_III)
         {
-            modeExtension = modeExtensionLayerIIIMap.get(index);
+            modeExtension = modeExtensionLayerIIINames[index];
             if (getModeExtension() == null)
             {
                 throw new InvalidAudioFrameException("Invalid Mode Extension");
@@ -591,7 +603,7 @@ public class MPEGFrameHeader
         }
         else
         {
-            modeExtension = modeExtensionMap.get(index);
+            modeExtension = modeExtensionNames[index];
             if (getModeExtension() == null)
             {
                 throw new InvalidAudioFrameException("Invalid Mode Extension");
@@ -605,15 +617,8 @@ public class MPEGFrameHeader
      */
     private void setSamplingRate() throws InvalidAudioFrameException
     {
-        //Frequency
-        int index = (mpegBytes[BYTE_3] & MASK_MP3_FREQUENCY) >>> 2;
-        Map<Integer, Integer> samplingRateMapForVersion = samplingRateMap.get(version);
-        if (samplingRateMapForVersion == null)
-        {
-            throw new InvalidAudioFrameException("Invalid version");
-        }
-        samplingRate = samplingRateMapForVersion.get(index);
-        if (samplingRate == null)
+        samplingRate = getSamplingRate(header);
+        if (samplingRate == 0)
         {
             throw new InvalidAudioFrameException("Invalid sampling rate");
         }
@@ -702,6 +707,11 @@ public class MPEGFrameHeader
 
      */
     public int getFrameLength()
+    {
+        return getFrameLength(version, layer, bitRate, samplingRate, getPaddingLength());
+    }
+
+    private static int getFrameLength(int version, int layer, int bitRate, int samplingRate, int paddingLength)
     {
         switch (version)
         {
@@ -710,21 +720,14 @@ public class MPEGFrameHeader
                 switch (layer)
                 {
                     case LAYER_I:
-                        return (LAYER_I_FRAME_SIZE_COEFFICIENT * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength()) * LAYER_I_SLOT_SIZE;
+                        return (LAYER_I_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + paddingLength) * LAYER_I_SLOT_SIZE;
 
                     case LAYER_II:
-                        return (LAYER_II_FRAME_SIZE_COEFFICIENT ) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_II_SLOT_SIZE;
+                        return (LAYER_II_FRAME_SIZE_COEFFICIENT ) * (bitRate * SCALE_BY_THOUSAND) / samplingRate + paddingLength * LAYER_II_SLOT_SIZE;
 
                     case LAYER_III:
-                        if (this.getChannelMode() == MODE_MONO)
-                        {
-                            return (LAYER_III_FRAME_SIZE_COEFFICIENT / 2 ) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
-                        }
-                        else
-                        {
-                            return (LAYER_III_FRAME_SIZE_COEFFICIENT) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
-                        }
-
+                        //Half the samples of an MPEG-1 frame, whatever the channel mode
+                        return LAYER_III_V2_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + paddingLength * LAYER_III_SLOT_SIZE;
 
                     default:
                         throw new RuntimeException("Mp3 Unknown Layer:" + layer);
@@ -736,13 +739,13 @@ public class MPEGFrameHeader
                 switch (layer)
                 {
                     case LAYER_I:
-                        return (LAYER_I_FRAME_SIZE_COEFFICIENT * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength()) * LAYER_I_SLOT_SIZE;
+                        return (LAYER_I_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + paddingLength) * LAYER_I_SLOT_SIZE;
 
                     case LAYER_II:
-                        return LAYER_II_FRAME_SIZE_COEFFICIENT * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_II_SLOT_SIZE;
+                        return LAYER_II_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + paddingLength * LAYER_II_SLOT_SIZE;
 
                     case LAYER_III:
-                        return LAYER_III_FRAME_SIZE_COEFFICIENT * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
+                        return LAYER_III_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + paddingLength * LAYER_III_SLOT_SIZE;
 
                     default:
                         throw new RuntimeException("Mp3 Unknown Layer:" + layer);
@@ -762,11 +765,18 @@ public class MPEGFrameHeader
      */
     public int getNoOfSamples()
     {
-        Integer noOfSamples = samplesPerFrameMap.get(version).get(layer);
-        return noOfSamples;
+        return samplesPerFrame[version][layer];
     }
 
 
+    /**
+     * @return the four header bytes as a big endian word
+     */
+    int getHeaderWord()
+    {
+        return header;
+    }
+
     public boolean isPadding()
     {
         return isPadding;
@@ -826,12 +836,12 @@ public class MPEGFrameHeader
      * Try and create a new MPEG frame with the given byte array and decodes its contents
      * If decoding header causes a problem it is not a valid header
      *
-     * @param b the array of bytes representing this mpeg frame
+     * @param header the four bytes of the header as a big endian word
      * @throws InvalidAudioFrameException if does not match expected format
      */
-    private MPEGFrameHeader(byte[] b) throws InvalidAudioFrameException
+    private MPEGFrameHeader(int header) throws InvalidAudioFrameException
     {
-        mpegBytes = b;
+        this.header = header;
         setBitrate();
         setVersion();
         setLayer();
@@ -854,13 +864,90 @@ public class MPEGFrameHeader
      * @throws InvalidAudioFrameException if there is no header at this point
      */
     public static MPEGFrameHeader parseMPEGHeader(ByteBuffer bb) throws InvalidAudioFrameException
+    {
+        if (bb.remaining() < HEADER_SIZE)
+        {
+            throw new BufferUnderflowException();
+        }
+        return new MPEGFrameHeader(getHeader(bb));
+    }
+
+    /**
+     * Read the four header bytes at the position of the buffer, the position is not changed
+     *
+     * The header can then be checked with {@link #isValidHeader(int)} and its frame length found with
+     * {@link #getFrameLength(int)} without creating an MPEGFrameHeader, so checking candidate headers while searching
+     * for the first frame allocates nothing.
+     *
+     * @param bb buffer with at least four bytes remaining
+     * @return the header bytes as a big endian word, whatever the order of the buffer
+     */
+    public static int getHeader(ByteBuffer bb)
     {
         int position = bb.position();
-        bb.get(header, 0, HEADER_SIZE);
-        bb.position(position);
-        MPEGFrameHeader frameHeader = new MPEGFrameHeader(header);
+        return ((bb.get(position) & 0xFF) << 24)
+                | ((bb.get(position + 1) & 0xFF) << 16)
+                | ((bb.get(position + 2) & 0xFF) << 8)
+                | (bb.get(position + 3) & 0xFF);
+    }
 
-        return frameHeader;
+    /**
+     * @param header header word read by {@link #getHeader(ByteBuffer)}
+     * @return true if {@link #parseMPEGHeader(ByteBuffer)} would accept the header
+     */
+    public static boolean isValidHeader(int header)
+    {
+        return (header & SYNC_MASK) == SYNC_MASK
+                && getBitRate(header) != 0
+                && versionNames[getVersion(header)] != null
+                && layerNames[getLayer(header)] != null
+                && getSamplingRate(header) != 0;
+    }
+
+    /**
+     * @param header header word accepted by {@link #isValidHeader(int)}
+     * @return length in bytes of the frame starting with the header, as {@link #getFrameLength()} would return
+     */
+    public static int getFrameLength(int header)
+    {
+        return getFrameLength(getVersion(header), getLayer(header), getBitRate(header), getSamplingRate(header),
+                (getByte(header, BYTE_3) & MASK_MP3_PADDING) != 0 ? 1 : 0);
+    }
+
+    private static int getByte(int header, int index)
+    {
+        return (header >>> (24 - index * 8)) & 0xFF;
+    }
+
+    private static int getVersion(int header)
+    {
+        return (getByte(header, BYTE_2) & MASK_MP3_VERSION) >>> 3;
+    }
+
+    private static int getLayer(int header)
+    {
+        return (getByte(header, BYTE_2) & MASK_MP3_LAYER) >>> 1;
+    }
+
+    private static int getChannelMode(int header)
+    {
+        return (getByte(header, BYTE_4) & MASK_MP3_MODE) >>> 6;
+    }
+
+    /**
+     * @return bitrate in kbps, zero if invalid
+     */
+    private static int getBitRate(int header)
+    {
+        return bitrates[getByte(header, BYTE_3) & MASK_MP3_BITRATE | getByte(header, BYTE_2) & (MASK_MP3_ID | MASK_MP3_LAYER)];
+    }
+
+    /**
+     * @return sampling rate in Hz, zero if invalid
+     */
+    private static int getSamplingRate(int header)
+    {
+        return samplingRates[getVersion(header)][(getByte(header, BYTE_3) & MASK_MP3_FREQUENCY) >>> 2];
     }
 
     /**
@@ -896,10 +983,10 @@ public class MPEGFrameHeader
                 + "\tisOriginal:" + isCopyrighted +"\n"
                 + "\tisVariableBitRate" + this.isVariableBitRate() +"\n"
                 + "\theader as binary:" +"\n"
-                + "\t" + AbstractTagDisplayFormatter.displayAsBinary(mpegBytes[BYTE_1]) + " "
-                + "\t" + AbstractTagDisplayFormatter.displayAsBinary(mpegBytes[BYTE_2]) + " "
-                + "\t" + AbstractTagDisplayFormatter.displayAsBinary(mpegBytes[BYTE_3]) + " "
-                + "\t" + AbstractTagDisplayFormatter.displayAsBinary(mpegBytes[BYTE_4]) +"\n";
+                + "\t" + AbstractTagDisplayFormatter.displayAsBinary((byte) getByte(header, BYTE_1)) + " "
+                + "\t" + AbstractTagDisplayFormatter.displayAsBinary((byte) getByte(header, BYTE_2)) + " "
+                + "\t" + AbstractTagDisplayFormatter.displayAsBinary((byte) getByte(header, BYTE_3)) + " "
+                + "\t" + AbstractTagDisplayFormatter.displayAsBinary((byte) getByte(header, BYTE_4)) +"\n";
     }
 }
 
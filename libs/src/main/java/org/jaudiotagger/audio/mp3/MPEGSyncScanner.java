@@ -0,0 +1,124 @@
+package org.jaudiotagger.audio.mp3;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Finds the next position in a buffer that could be the start of an MPEG frame header, as tested by
+ * {@link MPEGFrameHeader#isMPEGFrame(ByteBuffer)}, without testing every position in turn.
+ *
+ * The buffer is copied in bulk into a byte array kept for each thread, which is searched eight bytes at a time for
+ * the first sync byte (0xFF) using word-at-a-time (SWAR) arithmetic, only positions holding a sync byte are checked
+ * further. Junk before the audio, such as unsynchronised tag data or garbage left by broken taggers, can then be
+ * skipped in a fraction of the time.
+ */
+public final class MPEGSyncScanner
+{
+    /**
+     * Largest part of the buffer copied to the array at once
+     */
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private static final ThreadLocal<Window> windows = new ThreadLocal<Window>()
+    {
+        @Override
+        protected Window initialValue()
+        {
+            return new Window();
+        }
+    };
+
+    /**
+     * Array the buffer is copied into, with a view to read it eight bytes at a time
+     */
+    private static final class Window
+    {
+        private final byte[] bytes = new byte[WINDOW_SIZE];
+        private final ByteBuffer words = ByteBuffer.wrap(bytes);
+    }
+
+    private MPEGSyncScanner()
+    {
+    }
+
+    /**
+     * Search the buffer from its position, the position of the buffer is not changed
+     *
+     * @param bb  buffer to search
+     * @param end index in the buffer to search up to, headers must start before it but may extend past it
+     * @return index in the buffer of the first position before end that {@link MPEGFrameHeader#isMPEGFrame(ByteBuffer)}
+     * would accept, or -1 if there is none
+     */
+    public static int find(ByteBuffer bb, int end)
+    {
+        //The two bytes following the sync byte must be in the buffer
+        end = Math.min(end, bb.limit() - 2);
+        Window window = windows.get();
+        ByteBuffer source = bb.duplicate();
+        int start = bb.position();
+        while (start < end)
+        {
+            //Windows overlap by the two bytes after the last sync byte searched
+            int count = Math.min(end - start, WINDOW_SIZE - 2);
+            source.limit(start + count + 2);
+            source.position(start);
+            source.get(window.bytes, 0, count + 2);
+
+            int found = find(window, count);
+            if (found != -1)
+            {
+                return start + found;
+            }
+            start += count;
+        }
+        return -1;
+    }
+
+    /**
+     * @param window array holding count bytes to search, followed by the two bytes needed to check the last of them
+     * @param count
+     * @return index of the first possible header, or -1 if there is none
+     */
+    private static int find(Window window, int count)
+    {
+        byte[] bytes = window.bytes;
+        int i = 0;
+        for (; i + 8 <= count; i += 8)
+        {
+            //Sync bytes become zero bytes, each zero byte then gets its top bit set in mask and every other byte is
+            //cleared, unlike the simpler (x - 0x01..) & ~x & 0x80.. this never flags a byte falsely
+            long inverted = ~window.words.getLong(i);
+            long mask = ~((((inverted & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | inverted) | LOW_SEVEN_BITS);
+            while (mask != 0)
+            {
+                //Words are big endian so the leading set bit is the earliest byte
+                int candidate = i + (Long.numberOfLeadingZeros(mask) >>> 3);
+                if (isHeader(bytes, candidate))
+                {
+                    return candidate;
+                }
+                mask ^= Long.highestOneBit(mask);
+            }
+        }
+        for (; i < count; i++)
+        {
+            if ((bytes[i] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1 && isHeader(bytes, i))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param bytes
+     * @param i     index of a sync byte
+     * @return true if the bytes after it complete the checks made by {@link MPEGFrameHeader#isMPEGFrame(ByteBuffer)}
+     */
+    private static boolean isHeader(byte[] bytes, int i)
+    {
+        return ((bytes[i + 1] & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2)
+                && ((bytes[i + 2] & MPEGFrameHeader.SYNC_BIT_ANDSAMPING_BYTE3) != MPEGFrameHeader.SYNC_BIT_ANDSAMPING_BYTE3);
+    }
+}
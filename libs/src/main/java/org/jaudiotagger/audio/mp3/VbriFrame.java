@@ -42,6 +42,8 @@ public class VbriFrame
     private static final int VBRI_IDENTIFIER_BUFFER_SIZE = 4;
     private static final int VBRI_AUDIOSIZE_BUFFER_SIZE = 4;
     private static final int VBRI_FRAMECOUNT_BUFFER_SIZE = 4;
+    private static final int VBRI_TOC_OFFSET = 26;
+    private static final int VBRI_MAX_TOC_ENTRY_SIZE = 4;
     public static final int MAX_BUFFER_SIZE_NEEDED_TO_READ_VBRI = VBRI_OFFSET + VBRI_HEADER_BUFFER_SIZE;
 
     private static final int BYTE_1 = 0;
@@ -59,6 +61,8 @@ public class VbriFrame
     private boolean vbr = false;
     private int frameCount = -1;
     private int audioSize = -1;
+    private int framesPerTocEntry;
+    private long[] toc;
     /**
      * Read the VBRI Properties from the buffer
      */
@@ -70,6 +74,56 @@ public class VbriFrame
         header.position(10);
         setAudioSize();
         setFrameCount();
+        setToc();
+    }
+
+    /**
+     * Set the table of contents if it is all in the buffer, copied because the buffer is not kept
+     */
+    private void setToc()
+    {
+        if (header.limit() < VBRI_TOC_OFFSET)
+        {
+            return;
+        }
+        int entryCount = header.getShort() & 0xFFFF;
+        int scale = header.getShort() & 0xFFFF;
+        int entrySize = header.getShort() & 0xFFFF;
+        framesPerTocEntry = header.getShort() & 0xFFFF;
+        if (entrySize < 1 || entrySize > VBRI_MAX_TOC_ENTRY_SIZE || framesPerTocEntry == 0
+                || header.limit() < VBRI_TOC_OFFSET + entryCount * entrySize)
+        {
+            return;
+        }
+        toc = new long[entryCount];
+        for (int i = 0; i < entryCount; i++)
+        {
+            long entry = 0;
+            for (int j = 0; j < entrySize; j++)
+            {
+                entry = (entry << 8) | (header.get() & 0xFF);
+            }
+            toc[i] = entry * scale;
+        }
+    }
+
+    /**
+     * @return number of frames covered by each entry of the table of contents
+     */
+    public final int getFramesPerTocEntry()
+    {
+        return framesPerTocEntry;
+    }
+
+    /**
+     * Entry i of the table of contents is the size in bytes of the audio in the frames it covers, starting from the
+     * VBRI frame
+     *
+     * @return copy of the table of contents, or null if it is missing or was not all read
+     */
+    public final long[] getToc()
+    {
+        return toc == null ? null : toc.clone();
     }
 
     /**
@@ -37,6 +37,7 @@ public class XingFrame
     private static final int XING_FLAG_BUFFER_SIZE = 4;
     private static final int XING_FRAMECOUNT_BUFFER_SIZE = 4;
     private static final int XING_AUDIOSIZE_BUFFER_SIZE = 4;
+    private static final int XING_TOC_BUFFER_SIZE = 100;
 
     public static final int MAX_BUFFER_SIZE_NEEDED_TO_READ_XING = MPEG_VERSION_1_MODE_STEREO_OFFSET + XING_HEADER_BUFFER_SIZE + LameFrame.LAME_HEADER_BUFFER_SIZE;
 
@@ -64,6 +65,7 @@ public class XingFrame
     private int frameCount = -1;
     private boolean isAudioSizeEnabled = false;
     private int audioSize = -1;
+    private byte[] toc;
     private LameFrame lameFrame;
 
     /**
@@ -95,7 +97,12 @@ public class XingFrame
             setAudioSize();
         }
 
-        //TODO TOC
+        //Read TOC if flag set, copied because the buffer is not kept
+        if ((flagBuffer[BYTE_4] & (byte) (1 << 2)) != 0)
+        {
+            setToc();
+        }
+
         //TODO VBR Quality
 
         //Look for LAME Header as long as we have enough bytes to do it properly
@@ -164,6 +171,46 @@ public class XingFrame
         audioSize = (frameSizeBuffer[BYTE_1] << 24) & 0xFF000000 | (frameSizeBuffer[BYTE_2] << 16) & 0x00FF0000 | (frameSizeBuffer[BYTE_3] << 8) & 0x0000FF00 | frameSizeBuffer[BYTE_4] & 0x000000FF;
     }
 
+    /**
+     * Set table of contents
+     */
+    private void setToc()
+    {
+        if (header.remaining() >= XING_TOC_BUFFER_SIZE)
+        {
+            toc = new byte[XING_TOC_BUFFER_SIZE];
+            header.get(toc);
+        }
+    }
+
+    /**
+     * @return true if the table of contents has been specified in header
+     */
+    public final boolean isTocEnabled()
+    {
+        return toc != null;
+    }
+
+    /**
+     * Entry i of the table of contents is the position of the audio i percent of the way through the track, as a
+     * fraction of the audio size scaled to 0-255
+     *
+     * @return copy of the 100 entries of the table of contents, or null if it has not been specified in header
+     */
+    public final int[] getToc()
+    {
+        if (toc == null)
+        {
+            return null;
+        }
+        int[] entries = new int[toc.length];
+        for (int i = 0; i < toc.length; i++)
+        {
+            entries[i] = toc[i] & 0xFF;
+        }
+        return entries;
+    }
+
     /**
      * @return true if audioSize has been specified in header
      */
@@ -267,6 +314,7 @@ public class XingFrame
                 + "\tframeCountEnabled:" + isFrameCountEnabled+"\n"
                 + "\tframeCount:" + frameCount +"\n"
                 + "\taudioSizeEnabled:" + isAudioSizeEnabled+"\n"
-                + "\taudioFileSize:" + audioSize+"\n";
+                + "\taudioFileSize:" + audioSize+"\n"
+                + "\ttocEnabled:" + isTocEnabled()+"\n";
     }
 }
@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.mp4;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.tag.Tag;
 
 import java.io.IOException;
@@ -47,4 +48,16 @@ public class Mp4FileReader extends AudioFileReader2
     {
         return tr.read(path);
     }
+
+    @Override
+    protected GenericAudioHeader getEncodingInfo(ReadSession session) throws CannotReadException, IOException
+    {
+        return ir.read(session.getChannel());
+    }
+
+    @Override
+    protected Tag getTag(ReadSession session) throws IOException, CannotReadException
+    {
+        return tr.read(session.getChannel(), session.getPath());
+    }
 }
@@ -20,6 +20,7 @@ package org.jaudiotagger.audio.mp4;
 
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter2;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.tag.Tag;
 
 import java.nio.file.Path;
@@ -37,6 +38,12 @@ public class Mp4FileWriter extends AudioFileWriter2
         new Mp4TagWriter(file.toString()).write(tag, file);
     }
 
+    @Override
+    protected WritePlan planWriteTag(Tag tag, Path file) throws CannotWriteException
+    {
+        return new Mp4TagWriter(file.toString()).planWrite(tag, file);
+    }
+
     @Override
     protected void deleteTag(Tag tag, Path file) throws CannotWriteException
     {
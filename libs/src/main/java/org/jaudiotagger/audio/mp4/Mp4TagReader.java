@@ -20,10 +20,14 @@ package org.jaudiotagger.audio.mp4;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.io.BufferPool;
 import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
 import org.jaudiotagger.audio.mp4.atom.Mp4MetaBox;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.images.ImageDataSource;
 import org.jaudiotagger.tag.mp4.Mp4FieldKey;
 import org.jaudiotagger.tag.mp4.Mp4NonStandardFieldKey;
 import org.jaudiotagger.tag.mp4.Mp4Tag;
@@ -35,7 +39,6 @@ import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.logging.Logger;
 
@@ -86,90 +89,147 @@ public class Mp4TagReader
      */
     public Mp4Tag read(Path file) throws CannotReadException, IOException
     {
-        try(SeekableByteChannel fc = Files.newByteChannel(file)) {
-            Mp4Tag tag = new Mp4Tag();
+        try(SeekableByteChannel fc = Instrumentation.open(file))
+        {
+            return read(fc, file);
+        }
+    }
+
+    /**
+     * Read from an already open channel positioned at the start of the file
+     *
+     * @param fc
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public Mp4Tag read(SeekableByteChannel fc) throws CannotReadException, IOException
+    {
+        return read(fc, null);
+    }
+
+    /**
+     * Read from an already open channel positioned at the start of the file
+     *
+     * @param fc
+     * @param path of the file fc reads, may be null in which case artwork is never read lazily
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public Mp4Tag read(SeekableByteChannel fc, Path path) throws CannotReadException, IOException
+    {
+        Mp4Tag tag = new Mp4Tag();
     
-            //Get to the facts everything we are interested in is within the moov box, so just load data from file
-            //once so no more file I/O needed
-            Mp4BoxHeader moovHeader = Mp4BoxHeader.seekWithinLevel(fc, Mp4AtomIdentifier.MOOV.getFieldName());
-            if (moovHeader == null)
-            {
-                throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
-            }
-            ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
+        //Get to the facts everything we are interested in is within the moov box, so just load data from file
+        //once so no more file I/O needed
+        Mp4BoxHeader moovHeader = Mp4BoxHeader.seekWithinLevel(fc, Mp4AtomIdentifier.MOOV.getFieldName());
+        if (moovHeader == null)
+        {
+            throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
+        }
+        long moovDataStart = fc.position();
+        ByteBuffer moovBuffer = BufferPool.getDefault().acquire(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
+        try
+        {
             fc.read(moovBuffer);
             moovBuffer.rewind();
-    
-            //Level 2-Searching for "udta" within "moov"
-            Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.UDTA.getFieldName());
-            if (boxHeader != null)
+            return read(tag, moovBuffer, moovDataStart, path);
+        }
+        finally
+        {
+            BufferPool.getDefault().release(moovBuffer);
+        }
+    }
+
+    /**
+     * Read the tag from the moov box data, fields must not keep a reference to moovBuffer
+     *
+     * @param tag to add the fields to
+     * @param moovBuffer data of the moov box
+     * @param moovDataStart file offset of the moov box data
+     * @param path of the file, may be null in which case artwork is never read lazily
+     * @return tag
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    private Mp4Tag read(Mp4Tag tag, ByteBuffer moovBuffer, long moovDataStart, Path path) throws CannotReadException, IOException
+    {
+        //Level 2-Searching for "udta" within "moov"
+        Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.UDTA.getFieldName());
+        if (boxHeader != null)
+        {
+            //Level 3-Searching for "meta" within udta
+            boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.META.getFieldName());
+            if (boxHeader == null)
             {
-                //Level 3-Searching for "meta" within udta
-                boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.META.getFieldName());
-                if (boxHeader == null)
-                {
-                    logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-                    return tag;
-                }
-                Mp4MetaBox meta = new Mp4MetaBox(boxHeader, moovBuffer);
-                meta.processData();
+                logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+                return tag;
+            }
+            Mp4MetaBox meta = new Mp4MetaBox(boxHeader, moovBuffer);
+            meta.processData();
     
-                //Level 4- Search for "ilst" within meta
-                boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.ILST.getFieldName());
-                 //This file does not actually contain a tag
-                if (boxHeader == null)
-                {
-                    logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-                    return tag;
-                }
+            //Level 4- Search for "ilst" within meta
+            boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.ILST.getFieldName());
+             //This file does not actually contain a tag
+            if (boxHeader == null)
+            {
+                logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+                return tag;
             }
-            else
+        }
+        else
+        {
+            //Level 2-Searching for "meta" not within udta
+            boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.META.getFieldName());
+            if (boxHeader == null)
             {
-                //Level 2-Searching for "meta" not within udta
-                boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.META.getFieldName());
-                if (boxHeader == null)
-                {
-                    logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-                    return tag;
-                }
-                Mp4MetaBox meta = new Mp4MetaBox(boxHeader, moovBuffer);
-                meta.processData();
+                logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+                return tag;
+            }
+            Mp4MetaBox meta = new Mp4MetaBox(boxHeader, moovBuffer);
+            meta.processData();
     
     
-                //Level 3- Search for "ilst" within meta
-                boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.ILST.getFieldName());
-                //This file does not actually contain a tag
-                if (boxHeader == null)
-                {
-                    logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
-                    return tag;
-                }
+            //Level 3- Search for "ilst" within meta
+            boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.ILST.getFieldName());
+            //This file does not actually contain a tag
+            if (boxHeader == null)
+            {
+                logger.warning(ErrorMessage.MP4_FILE_HAS_NO_METADATA.getMsg());
+                return tag;
             }
+        }
     
-            //Size of metadata (exclude the size of the ilst parentHeader), take a slice starting at
-            //metadata children to make things safer
-            int length = boxHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH;
-            ByteBuffer metadataBuffer = moovBuffer.slice();
-            //Datalength is longer are there boxes after ilst at this level?
-            logger.config("headerlengthsays:" + length + "datalength:" + metadataBuffer.limit());
-            int read = 0;
-            logger.config("Started to read metadata fields at position is in metadata buffer:" + metadataBuffer.position());
-            while (read < length)
-            {
-                //Read the boxHeader
-                boxHeader.update(metadataBuffer);
+        //Size of metadata (exclude the size of the ilst parentHeader), take a slice starting at
+        //metadata children to make things safer
+        int length = boxHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH;
+        long metadataFileOffset = moovDataStart + moovBuffer.position();
+        ByteBuffer metadataBuffer = moovBuffer.slice();
+        //Datalength is longer are there boxes after ilst at this level?
+        logger.config("headerlengthsays:" + length + "datalength:" + metadataBuffer.limit());
+        ImageDataSource imageDataSource = null;
+        if (path != null && TagOptionSingleton.getInstance().isLazyArtwork())
+        {
+            imageDataSource = ImageDataSource.of(path);
+        }
+        int read = 0;
+        logger.config("Started to read metadata fields at position is in metadata buffer:" + metadataBuffer.position());
+        while (read < length)
+        {
+            //Read the boxHeader
+            boxHeader.update(metadataBuffer);
     
-                //Create the corresponding datafield from the id, and slice the buffer so position of main buffer
-                //wont get affected
-                logger.config("Next position is at:" + metadataBuffer.position());
-                createMp4Field(tag, boxHeader, metadataBuffer.slice());
+            //Create the corresponding datafield from the id, and slice the buffer so position of main buffer
+            //wont get affected
+            logger.config("Next position is at:" + metadataBuffer.position());
+            createMp4Field(tag, boxHeader, metadataBuffer.slice(), imageDataSource, metadataFileOffset + metadataBuffer.position());
     
-                //Move position in buffer to the start of the next parentHeader
-                metadataBuffer.position(metadataBuffer.position() + boxHeader.getDataLength());
-                read += boxHeader.getLength();
-            }
-            return tag;
+            //Move position in buffer to the start of the next parentHeader
+            metadataBuffer.position(metadataBuffer.position() + boxHeader.getDataLength());
+            read += boxHeader.getLength();
         }
+        return tag;
     }
 
     /**
@@ -180,11 +240,13 @@ public class Mp4TagReader
      *
      * @param tag
      * @param header
-     * @param raw
+     * @param raw slice of the moov box data
+     * @param imageDataSource if not null artwork is read lazily from this file
+     * @param rawFileOffset file offset of the start of raw
      * @return
      * @throws UnsupportedEncodingException
      */
-    private void createMp4Field(Mp4Tag tag, Mp4BoxHeader header, ByteBuffer raw) throws UnsupportedEncodingException
+    private void createMp4Field(Mp4Tag tag, Mp4BoxHeader header, ByteBuffer raw, ImageDataSource imageDataSource, long rawFileOffset) throws UnsupportedEncodingException
     {
         //Header with no data #JAUDIOTAGGER-463
          if(header.getDataLength()==0)
@@ -251,7 +313,15 @@ public class Mp4TagReader
                                     processedDataSize + Mp4DataBox.TYPE_POS_INCLUDING_HEADER + Mp4DataBox.TYPE_LENGTH - 1);
                             fieldType = Mp4FieldType.getFieldType(type);
                         }
-                        Mp4TagCoverField field = new Mp4TagCoverField(raw,fieldType);
+                        Mp4TagCoverField field;
+                        if (imageDataSource != null)
+                        {
+                            field = new Mp4TagCoverField(raw, fieldType, imageDataSource, rawFileOffset);
+                        }
+                        else
+                        {
+                            field = new Mp4TagCoverField(raw,fieldType);
+                        }
                         tag.addField(field);
                         processedDataSize += field.getDataAndHeaderSize();
                         imageCount++;
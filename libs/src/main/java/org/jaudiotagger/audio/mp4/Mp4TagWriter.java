@@ -20,12 +20,15 @@ package org.jaudiotagger.audio.mp4;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 import org.jaudiotagger.audio.mp4.atom.*;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.mp4.Mp4Tag;
 import org.jaudiotagger.tag.mp4.Mp4TagCreator;
+import org.jaudiotagger.tag.options.PaddingPolicy;
 import org.jaudiotagger.utils.ShiftData;
 import org.jaudiotagger.utils.tree.DefaultMutableTreeNode;
 
@@ -343,7 +346,7 @@ public class Mp4TagWriter
     public void write(Tag tag, Path file) throws CannotWriteException
     {
         logger.config("Started writing tag data");
-        try(SeekableByteChannel fc = Files.newByteChannel(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        try(SeekableByteChannel fc = Instrumentation.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
         {
             int sizeOfExistingIlstAtom = 0;
             int sizeRequiredByNewIlstAtom;
@@ -459,16 +462,11 @@ public class Mp4TagWriter
             positionOfTopLevelFreeAtom = 0;
             sizeOfExistingTopLevelFreeAtom = 0;
             topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata = true;
-            for (DefaultMutableTreeNode freeNode : atomTree.getFreeNodes())
+            topLevelFreeHeader = getTopLevelFreeHeader(atomTree);
+            if (topLevelFreeHeader != null)
             {
-                DefaultMutableTreeNode parentNode = (DefaultMutableTreeNode) freeNode.getParent();
-                if (parentNode.isRoot())
-                {
-                    topLevelFreeHeader = ((Mp4BoxHeader) freeNode.getUserObject());
-                    sizeOfExistingTopLevelFreeAtom = topLevelFreeHeader.getLength();
-                    positionOfTopLevelFreeAtom = (int) topLevelFreeHeader.getFilePos();
-                    break;
-                }
+                sizeOfExistingTopLevelFreeAtom = topLevelFreeHeader.getLength();
+                positionOfTopLevelFreeAtom = (int) topLevelFreeHeader.getFilePos();
             }
 
             if (sizeOfExistingTopLevelFreeAtom > 0)
@@ -530,6 +528,21 @@ public class Mp4TagWriter
                 {
                     int additionalMetaSizeThatWontFitWithinMetaAtom = additionalSpaceRequiredForMetadata - sizeOfExistingMetaLevelFreeAtom;
 
+                    //If the audio has to be moved anyway reserve padding in a free atom after the ilst atom, so later
+                    //edits can use Option 5 instead
+                    int padding = getPaddingWhenShifting(
+                            sizeOfExistingTopLevelFreeAtom,
+                            topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
+                            getIncreaseInSizeOfMoovAtom(udtaHeader, metaHeader, sizeRequiredByNewIlstAtom, sizeOfExistingIlstAtom),
+                            moovHeader,
+                            mdatHeader);
+                    if (padding > 0)
+                    {
+                        newIlstData = addFreeAtom(newIlstData, padding);
+                        sizeRequiredByNewIlstAtom = newIlstData.limit();
+                        additionalMetaSizeThatWontFitWithinMetaAtom = sizeRequiredByNewIlstAtom - sizeOfExistingIlstAtom - sizeOfExistingMetaLevelFreeAtom;
+                    }
+
                     //Go up to position of start of Moov Header
                     fc.position(moovHeader.getFilePos());
 
@@ -1197,6 +1210,33 @@ public class Mp4TagWriter
                                                         List<Mp4StcoBox> stcos,
                                                         Mp4BoxHeader moovHeader,
                                                         Mp4BoxHeader mdatHeader)
+    {
+        if (isMdatMoved(topLevelFreeSize, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, additionalSizeRequired, moovHeader, mdatHeader))
+        {
+            for (final Mp4StcoBox stoc : stcos)
+            {
+                stoc.adjustOffsets(additionalSizeRequired);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Will the {@code mdat} atom have to be shifted further down to make room for additional metadata
+     *
+     * @param topLevelFreeSize
+     * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
+     * @param additionalSizeRequired
+     * @param moovHeader
+     * @param mdatHeader
+     * @return {@code true}, if unable to fit in new metadata without shifting {@code mdat} header further down
+     */
+    private boolean isMdatMoved(int topLevelFreeSize,
+                                boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
+                                int additionalSizeRequired,
+                                Mp4BoxHeader moovHeader,
+                                Mp4BoxHeader mdatHeader)
     {
         //We don't bother using the top level free atom because not big enough anyway, we need to adjust offsets
         //by the amount mdat is going to be shifted as long as mdat is after moov
@@ -1205,23 +1245,178 @@ public class Mp4TagWriter
             //Edit stco atoms within moov header, if the free atom comes after mdat OR
             //(there is not enough space in the top level free atom
             //or special case (of not matching exactly the free atom plus header so could remove free atom completely)
-            if (
+            return
                     (!topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata)
                     ||
                     (
                             (topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH < additionalSizeRequired)
                             &&
                             (topLevelFreeSize != additionalSizeRequired)
-                    )
-            )
+                    );
+        }
+        return false;
+    }
+
+    /**
+     * Amount the {@code moov} atom grows by when the new metadata does not fit in the existing {@code meta} level
+     * free atom, matching the structure {@link #writeNoExistingUdtaAtom} and {@link #writeNoExistingMetaAtom} create
+     *
+     * @param udtaHeader
+     * @param metaHeader
+     * @param sizeRequiredByNewIlstAtom
+     * @param sizeOfExistingIlstAtom
+     * @return
+     */
+    private int getIncreaseInSizeOfMoovAtom(Mp4BoxHeader udtaHeader, Mp4BoxHeader metaHeader, int sizeRequiredByNewIlstAtom, int sizeOfExistingIlstAtom)
+    {
+        if (udtaHeader == null || metaHeader == null)
+        {
+            Mp4HdlrBox hdlrBox = Mp4HdlrBox.createiTunesStyleHdlrBox();
+            Mp4MetaBox metaBox = Mp4MetaBox.createiTunesStyleMetaBox(hdlrBox.getHeader().getLength() + sizeRequiredByNewIlstAtom);
+            return metaBox.getHeader().getLength() + (udtaHeader == null ? Mp4BoxHeader.HEADER_LENGTH : 0);
+        }
+        return sizeRequiredByNewIlstAtom - sizeOfExistingIlstAtom;
+    }
+
+    /**
+     * @param topLevelFreeSize
+     * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
+     * @param increaseInSizeOfMoovAtom
+     * @param moovHeader
+     * @param mdatHeader
+     * @return size of {@code free} atom to add after the {@code ilst} atom as set by the padding policy, only if the
+     * {@code mdat} atom has to be moved anyway
+     */
+    private int getPaddingWhenShifting(int topLevelFreeSize,
+                                       boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
+                                       int increaseInSizeOfMoovAtom,
+                                       Mp4BoxHeader moovHeader,
+                                       Mp4BoxHeader mdatHeader)
+    {
+        PaddingPolicy paddingPolicy = TagOptionSingleton.getInstance().getPaddingPolicy();
+        if (paddingPolicy == null
+                || !isMdatMoved(topLevelFreeSize, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, increaseInSizeOfMoovAtom, moovHeader, mdatHeader))
+        {
+            return 0;
+        }
+        return paddingPolicy.getPadding(moovHeader.getLength() + increaseInSizeOfMoovAtom, Mp4BoxHeader.HEADER_LENGTH);
+    }
+
+    /**
+     * @param ilstData
+     * @param size
+     * @return the {@code ilst} data followed by a {@code free} atom of the given size
+     */
+    private ByteBuffer addFreeAtom(ByteBuffer ilstData, int size)
+    {
+        Mp4FreeBox freeBox = new Mp4FreeBox(size - Mp4BoxHeader.HEADER_LENGTH);
+        ByteBuffer data = ByteBuffer.allocate(ilstData.limit() + size);
+        ilstData.rewind();
+        data.put(ilstData);
+        data.put(freeBox.getHeader().getHeaderData());
+        data.put(freeBox.getData());
+        data.flip();
+        return data;
+    }
+
+    /**
+     * @param atomTree
+     * @return header of the first {@code free} atom at the top level of the file, or null if none
+     */
+    private Mp4BoxHeader getTopLevelFreeHeader(Mp4AtomTree atomTree)
+    {
+        for (DefaultMutableTreeNode freeNode : atomTree.getFreeNodes())
+        {
+            DefaultMutableTreeNode parentNode = (DefaultMutableTreeNode) freeNode.getParent();
+            if (parentNode.isRoot())
+            {
+                return (Mp4BoxHeader) freeNode.getUserObject();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Work out how {@link #write(Tag, Path)} would write the tag without modifying the file.
+     *
+     * Follows the same choices as write, the estimate of bytes written includes rewriting the whole {@code moov} atom
+     * when its size changes.
+     *
+     * @param tag
+     * @param file
+     * @return the plan
+     * @throws CannotWriteException
+     */
+    public WritePlan planWrite(Tag tag, Path file) throws CannotWriteException
+    {
+        try(SeekableByteChannel fc = Files.newByteChannel(file, StandardOpenOption.READ))
+        {
+            Mp4AtomTree atomTree;
+            try
+            {
+                atomTree = new Mp4AtomTree(fc, false);
+            }
+            catch (CannotReadException cre)
             {
-                for (final Mp4StcoBox stoc : stcos)
+                throw new CannotWriteException(cre.getMessage());
+            }
+
+            Mp4BoxHeader mdatHeader = atomTree.getBoxHeader(atomTree.getMdatNode());
+            if (mdatHeader == null)
+            {
+                throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED_CANNOT_FIND_AUDIO.getMsg());
+            }
+
+            long fileLength = fc.size();
+            int sizeRequiredByNewIlstAtom = tc.convertMetadata(tag).limit();
+            Mp4BoxHeader moovHeader = atomTree.getBoxHeader(atomTree.getMoovNode());
+            Mp4BoxHeader ilstHeader = atomTree.getBoxHeader(atomTree.getIlstNode());
+            Mp4BoxHeader udtaHeader = atomTree.getBoxHeader(atomTree.getUdtaNode());
+            Mp4BoxHeader metaHeader = atomTree.getBoxHeader(atomTree.getMetaNode());
+            int sizeOfExistingIlstAtom = (udtaHeader != null && metaHeader != null && ilstHeader != null) ? ilstHeader.getLength() : 0;
+            int sizeOfExistingMetaLevelFreeAtom = getMetaLevelFreeAtomSize(atomTree);
+            long dataAfterMoov = fileLength - moovHeader.getFileEndPos();
+
+            if (sizeOfExistingIlstAtom == sizeRequiredByNewIlstAtom)
+            {
+                return new WritePlan(WritePlan.Strategy.IN_PLACE, fileLength, 0, sizeRequiredByNewIlstAtom);
+            }
+            else if (sizeOfExistingIlstAtom > sizeRequiredByNewIlstAtom)
+            {
+                if (sizeOfExistingMetaLevelFreeAtom > 0 || sizeOfExistingIlstAtom - sizeRequiredByNewIlstAtom > Mp4BoxHeader.HEADER_LENGTH)
                 {
-                    stoc.adjustOffsets(additionalSizeRequired);
+                    return new WritePlan(WritePlan.Strategy.PADDING_CONSUMED, fileLength, 0, sizeOfExistingIlstAtom + sizeOfExistingMetaLevelFreeAtom);
                 }
-                return true;
+                return new WritePlan(WritePlan.Strategy.SHIFT, fileLength, dataAfterMoov, moovHeader.getLength() + dataAfterMoov);
             }
+
+            int additionalSpaceRequiredForMetadata = sizeRequiredByNewIlstAtom - sizeOfExistingIlstAtom;
+            if (additionalSpaceRequiredForMetadata <= (sizeOfExistingMetaLevelFreeAtom - Mp4BoxHeader.HEADER_LENGTH))
+            {
+                return new WritePlan(WritePlan.Strategy.PADDING_CONSUMED, fileLength, 0, sizeOfExistingIlstAtom + sizeOfExistingMetaLevelFreeAtom);
+            }
+
+            int increaseInSizeOfMoovAtom = getIncreaseInSizeOfMoovAtom(udtaHeader, metaHeader, sizeRequiredByNewIlstAtom, sizeOfExistingIlstAtom);
+            Mp4BoxHeader topLevelFreeHeader = getTopLevelFreeHeader(atomTree);
+            int sizeOfExistingTopLevelFreeAtom = topLevelFreeHeader != null ? topLevelFreeHeader.getLength() : 0;
+            boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata = topLevelFreeHeader == null
+                    || (topLevelFreeHeader.getFilePos() <= mdatHeader.getFilePos() && topLevelFreeHeader.getFilePos() >= moovHeader.getFilePos());
+            long moovBytesWritten = moovHeader.getLength() + increaseInSizeOfMoovAtom;
+            if (isMdatMoved(sizeOfExistingTopLevelFreeAtom, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, increaseInSizeOfMoovAtom, moovHeader, mdatHeader))
+            {
+                int padding = getPaddingWhenShifting(sizeOfExistingTopLevelFreeAtom, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, increaseInSizeOfMoovAtom, moovHeader, mdatHeader);
+                return new WritePlan(WritePlan.Strategy.SHIFT, fileLength, dataAfterMoov, moovBytesWritten + padding + dataAfterMoov);
+            }
+            //Audio comes before metadata so the larger moov atom just extends the file
+            if (mdatHeader.getFilePos() < moovHeader.getFilePos())
+            {
+                return new WritePlan(WritePlan.Strategy.TAIL_APPEND, fileLength, dataAfterMoov, moovBytesWritten + dataAfterMoov);
+            }
+            return new WritePlan(WritePlan.Strategy.PADDING_CONSUMED, fileLength, 0, moovBytesWritten);
+        }
+        catch(IOException ioe)
+        {
+            throw new CannotWriteException(file + ":" + ioe.getMessage());
         }
-        return false;
     }
 }
\ No newline at end of file
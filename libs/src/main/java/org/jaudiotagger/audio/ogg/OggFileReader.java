@@ -19,6 +19,7 @@
 package org.jaudiotagger.audio.ogg;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.NoReadPermissionsException;
@@ -26,6 +27,9 @@ import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.audio.generic.Permissions;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.audio.ogg.util.OggInfoReader;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
 import org.jaudiotagger.logging.ErrorMessage;
@@ -36,6 +40,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.logging.Level;
@@ -72,6 +77,12 @@ public class OggFileReader extends AudioFileReader
 
     @Override
     public AudioFile read(Path path) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return read(path, ReadOptions.FULL);
+    }
+
+    @Override
+    public AudioFile read(Path path, ReadOptions readOptions) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         File file = path.toFile();
         if (logger.isLoggable(Level.CONFIG))
@@ -94,13 +105,10 @@ public class OggFileReader extends AudioFileReader
             throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(file.getAbsolutePath()));
         }
 
-        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        try (ReadSession session = new ReadSession(path))
         {
-            raf.seek(0);
-            GenericAudioHeader info = getEncodingInfo(raf);
-            raf.seek(0);
-            Tag tag = vtr.read(raf, path);
-            return new AudioFile(file, info, tag);
+            session.setReadOptions(readOptions);
+            return read(file, session);
         }
         catch (CannotReadException cre)
         {
@@ -113,6 +121,67 @@ public class OggFileReader extends AudioFileReader
         }
     }
 
+    @Override
+    public AudioFile read(ReadSession session) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        if (logger.isLoggable(Level.CONFIG))
+        {
+            logger.config(ErrorMessage.GENERAL_READ.getMsg(session.getLoggingName()));
+        }
+
+        if (session.size() <= MINIMUM_SIZE_FOR_VALID_AUDIO_FILE)
+        {
+            throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(session.getLoggingName()));
+        }
+
+        try
+        {
+            return read(null, session);
+        }
+        catch (CannotReadException cre)
+        {
+            throw cre;
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.SEVERE, ErrorMessage.GENERAL_READ.getMsg(session.getLoggingName()), e);
+            throw new CannotReadException(session.getLoggingName() + ":" + e.getMessage(), e);
+        }
+    }
+
+    private AudioFile read(File file, ReadSession session) throws CannotReadException, IOException
+    {
+        FileChannel fc = session.getChannel();
+        GenericAudioHeader info = null;
+        if (session.getReadOptions().isReadHeader())
+        {
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.HEADER);
+            try
+            {
+                info = ir.read(fc);
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
+            fc.position(0);
+        }
+        Tag tag = null;
+        if (session.getReadOptions().isReadTag())
+        {
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.TAG);
+            try
+            {
+                tag = vtr.read(fc, session.getPath());
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
+        }
+        return new AudioFile(file, info, tag);
+    }
+
     /**
      * Return count Ogg Page header, count starts from zero
      *
@@ -243,7 +243,8 @@ public class OggVorbisTagWriter
         raf.getChannel().read(secondPageBuffer);
         calculateChecksumOverPage(secondPageBuffer);
         rafTemp.getChannel().write(secondPageBuffer);
-        rafTemp.getChannel().transferFrom(raf.getChannel(), rafTemp.getFilePointer(), raf.length() - raf.getFilePointer());
+        //Copy the audio unchanged without reading it into memory
+        Utils.transferFully(raf.getChannel(), raf.getFilePointer(), raf.length() - raf.getFilePointer(), rafTemp.getChannel());
     }
 
     /**
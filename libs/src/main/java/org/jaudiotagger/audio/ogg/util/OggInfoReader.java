@@ -28,6 +28,8 @@ import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.logging.Logger;
 
@@ -39,25 +41,39 @@ public class OggInfoReader
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg.atom");
 
+    /**
+     * Size of the blocks read when searching backwards from the end of the file for the last ogg page
+     */
+    private static final int LAST_PAGE_SEARCH_BUFFER_SIZE = 8192;
+
+    /**
+     * Identification, comment and setup headers
+     */
+    private static final int VORBIS_HEADER_PACKETS = 3;
+
     public GenericAudioHeader read(RandomAccessFile raf) throws CannotReadException, IOException
     {
-        long start = raf.getFilePointer();
+        return read(raf.getChannel());
+    }
+
+    public GenericAudioHeader read(FileChannel fc) throws CannotReadException, IOException
+    {
+        long start = fc.position();
         GenericAudioHeader info = new GenericAudioHeader();
         logger.fine("Started");
-        long oldPos;
 
         //Check start of file does it have Ogg pattern
         byte[] b = new byte[OggPageHeader.CAPTURE_PATTERN.length];
-        raf.read(b);
+        Utils.read(fc, b);
         if (!(Arrays.equals(b, OggPageHeader.CAPTURE_PATTERN)))
         {
-            raf.seek(0);
-            if(AbstractID3v2Tag.isId3Tag(raf))
+            fc.position(0);
+            if(AbstractID3v2Tag.isId3Tag(fc))
             {
-                raf.read(b);
+                Utils.read(fc, b);
                 if ((Arrays.equals(b, OggPageHeader.CAPTURE_PATTERN)))
                 {
-                    start=raf.getFilePointer();
+                    start=fc.position();
                 }
             }
             else
@@ -68,36 +84,21 @@ public class OggInfoReader
 
         //Now work backwards from file looking for the last ogg page, it reads the granule position for this last page
         //which must be set.
-        //TODO should do buffering to cut down the number of file reads
-        raf.seek(start);
+        fc.position(start);
         double pcmSamplesNumber = -1;
-        raf.seek(raf.length() - 2);
-        while (raf.getFilePointer() >= 4)
+        long lastPageStart = findLastPage(fc);
+        if (lastPageStart != -1)
         {
-            if (raf.read() == OggPageHeader.CAPTURE_PATTERN[3])
-            {
-                raf.seek(raf.getFilePointer() - OggPageHeader.FIELD_CAPTURE_PATTERN_LENGTH);
-                byte[] ogg = new byte[3];
-                raf.readFully(ogg);
-                if (ogg[0] == OggPageHeader.CAPTURE_PATTERN[0] && ogg[1] == OggPageHeader.CAPTURE_PATTERN[1] && ogg[2] == OggPageHeader.CAPTURE_PATTERN[2])
-                {
-                    raf.seek(raf.getFilePointer() - 3);
-
-                    oldPos = raf.getFilePointer();
-                    raf.seek(raf.getFilePointer() + OggPageHeader.FIELD_PAGE_SEGMENTS_POS);
-                    int pageSegments = raf.readByte() & 0xFF; //Unsigned
-                    raf.seek(oldPos);
+            fc.position(lastPageStart + OggPageHeader.FIELD_PAGE_SEGMENTS_POS);
+            int pageSegments = Utils.readByte(fc) & 0xFF; //Unsigned
+            fc.position(lastPageStart);
 
-                    b = new byte[OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments];
-                    raf.readFully(b);
+            b = new byte[OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments];
+            Utils.readFully(fc, b);
 
-                    OggPageHeader pageHeader = new OggPageHeader(b);
-                    raf.seek(0);
-                    pcmSamplesNumber = pageHeader.getAbsoluteGranulePosition();
-                    break;
-                }
-            }
-            raf.seek(raf.getFilePointer() - 2);
+            OggPageHeader pageHeader = new OggPageHeader(b);
+            fc.position(0);
+            pcmSamplesNumber = pageHeader.getAbsoluteGranulePosition();
         }
 
         if (pcmSamplesNumber == -1)
@@ -107,16 +108,23 @@ public class OggInfoReader
         }
 
         //1st page = Identification Header
-        OggPageHeader pageHeader = OggPageHeader.read(raf);
+        OggPageHeader pageHeader = OggPageHeader.read(fc);
         byte[] vorbisData = new byte[pageHeader.getPageLength()];
 
         if(vorbisData.length < OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH)
         {
             throw new CannotReadException("Invalid Identification header for this Ogg File");
         }
-        raf.read(vorbisData);
+        Utils.read(fc, vorbisData);
         VorbisIdentificationHeader vorbisIdentificationHeader = new VorbisIdentificationHeader(vorbisData);
 
+        long audioStart = findAudioStart(fc);
+        if (audioStart != -1)
+        {
+            info.setAudioDataStartPosition(audioStart);
+            info.setAudioDataEndPosition(fc.size());
+        }
+
         //Map to generic encodingInfo
         info.setPreciseLength((float) (pcmSamplesNumber / vorbisIdentificationHeader.getSamplingRate()));
         info.setChannelNumber(vorbisIdentificationHeader.getChannelNumber());
@@ -144,12 +152,99 @@ public class OggInfoReader
         else
         {
             //TODO need to remove comment from raf.getLength()
-            info.setBitRate(computeBitrate(info.getTrackLength(), raf.length()));
+            info.setBitRate(computeBitrate(info.getTrackLength(), fc.size()));
             info.setVariableBitRate(true);
         }
         return info;
     }
 
+    /**
+     * The audio starts on the page after the one the setup header ends on, the setup header being the last of the
+     * three header packets
+     *
+     * @param fc positioned at the end of the identification header page
+     * @return start of the first audio page or -1 if the end of the header packets cannot be found
+     * @throws IOException
+     */
+    private long findAudioStart(FileChannel fc) throws IOException
+    {
+        long position = fc.position();
+        try
+        {
+            int headerPackets = 1;
+            while (headerPackets < VORBIS_HEADER_PACKETS)
+            {
+                if (fc.size() - fc.position() < OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH)
+                {
+                    return -1;
+                }
+                OggPageHeader pageHeader = OggPageHeader.read(fc);
+                fc.position(fc.position() + pageHeader.getPageLength());
+                //Each segment shorter than the maximum ends a packet
+                for (byte segment : pageHeader.getSegmentTable())
+                {
+                    if ((segment & 0xFF) < OggPageHeader.MAXIMUM_SEGMENT_SIZE)
+                    {
+                        headerPackets++;
+                    }
+                }
+            }
+            return fc.position();
+        }
+        catch (CannotReadException cre)
+        {
+            logger.warning("Unable to find start of audio:" + cre.getMessage());
+            return -1;
+        }
+        finally
+        {
+            fc.position(position);
+        }
+    }
+
+    /**
+     * Search backwards from the end of the file for the capture pattern of the last ogg page, reading the file
+     * in blocks rather than a byte at a time
+     *
+     * @param fc
+     * @return start of the last page or -1 if none found
+     * @throws IOException
+     */
+    private long findLastPage(FileChannel fc) throws IOException
+    {
+        int patternLength = OggPageHeader.CAPTURE_PATTERN.length;
+        ByteBuffer buffer = ByteBuffer.allocate(LAST_PAGE_SEARCH_BUFFER_SIZE);
+
+        //Last possible page start, a page cannot start at zero because we have already read the first page there
+        long candidate = fc.size() - patternLength - 1;
+        while (candidate >= 1)
+        {
+            long blockStart = Math.max(1, candidate - (LAST_PAGE_SEARCH_BUFFER_SIZE - patternLength));
+            buffer.clear();
+            buffer.limit((int) (candidate - blockStart) + patternLength);
+            while (buffer.hasRemaining())
+            {
+                if (fc.read(buffer, blockStart + buffer.position()) < 0)
+                {
+                    return -1;
+                }
+            }
+
+            for (int i = (int) (candidate - blockStart); i >= 0; i--)
+            {
+                if (buffer.get(i + 3) == OggPageHeader.CAPTURE_PATTERN[3]
+                        && buffer.get(i) == OggPageHeader.CAPTURE_PATTERN[0]
+                        && buffer.get(i + 1) == OggPageHeader.CAPTURE_PATTERN[1]
+                        && buffer.get(i + 2) == OggPageHeader.CAPTURE_PATTERN[2])
+                {
+                    return blockStart + i;
+                }
+            }
+            candidate = blockStart - 1;
+        }
+        return -1;
+    }
+
     private int computeBitrate(int length, long size)
     {
         //Protect against audio less than 0.5 seconds that can be rounded to zero causing Arithmetic Exception
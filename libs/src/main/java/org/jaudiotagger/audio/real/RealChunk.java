@@ -7,6 +7,8 @@ import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 
 public class RealChunk {
 
@@ -23,22 +25,28 @@ public class RealChunk {
 
 	public static RealChunk readChunk(RandomAccessFile raf)
 			throws CannotReadException, IOException {
-		final String id = Utils.readString(raf, 4);
-		final int size = (int)Utils.readUint32(raf);
+		return readChunk(raf.getChannel());
+	}
+
+	public static RealChunk readChunk(FileChannel fc)
+			throws CannotReadException, IOException {
+		final DataInputStream dis = new DataInputStream(Channels.newInputStream(fc));
+		final String id = Utils.readString(dis, 4);
+		final int size = (int)Utils.readUint32(dis);
 		if (size < 8) {
 			throw new CannotReadException(
 					"Corrupt file: RealAudio chunk length at position "
-							+ (raf.getFilePointer() - 4)
+							+ (fc.position() - 4)
 							+ " cannot be less than 8");
 		}
-		if (size > (raf.length() - raf.getFilePointer() + 8)) {
+		if (size > (fc.size() - fc.position() + 8)) {
 			throw new CannotReadException(
 					"Corrupt file: RealAudio chunk length of " + size
-							+ " at position " + (raf.getFilePointer() - 4)
+							+ " at position " + (fc.position() - 4)
 							+ " extends beyond the end of the file");
 		}
 		final byte[] bytes = new byte[size - 8];
-		raf.readFully(bytes);
+		dis.readFully(bytes);
 		return new RealChunk(id, size, bytes);
 	}
 
@@ -1,6 +1,7 @@
 package org.jaudiotagger.audio.real;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.SupportedFileFormat;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
@@ -10,6 +11,9 @@ import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.audio.generic.Permissions;
 import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.FieldDataInvalidException;
 import org.jaudiotagger.tag.FieldKey;
@@ -21,6 +25,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.logging.Level;
@@ -35,6 +40,12 @@ public class RealFileReader extends AudioFileReader
 
     @Override
     public AudioFile read(Path path) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return read(path, ReadOptions.FULL);
+    }
+
+    @Override
+    public AudioFile read(Path path, ReadOptions readOptions) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         File file = path.toFile();
         if (logger.isLoggable(Level.CONFIG))
@@ -57,13 +68,10 @@ public class RealFileReader extends AudioFileReader
             throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(file.getAbsolutePath()));
         }
 
-        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        try (ReadSession session = new ReadSession(path))
         {
-            raf.seek(0);
-            GenericAudioHeader info = getEncodingInfo(raf);
-            raf.seek(0);
-            Tag tag = getTag(raf);
-            return new AudioFile(file, info, tag);
+            session.setReadOptions(readOptions);
+            return read(file, session);
         }
         catch (CannotReadException cre)
         {
@@ -76,12 +84,84 @@ public class RealFileReader extends AudioFileReader
         }
     }
 
-    @SuppressWarnings("unused")
-	@Override
+    @Override
+    public AudioFile read(ReadSession session) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        if (logger.isLoggable(Level.CONFIG))
+        {
+            logger.config(ErrorMessage.GENERAL_READ.getMsg(session.getLoggingName()));
+        }
+
+        if (session.size() <= MINIMUM_SIZE_FOR_VALID_AUDIO_FILE)
+        {
+            throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(session.getLoggingName()));
+        }
+
+        try
+        {
+            return read(null, session);
+        }
+        catch (CannotReadException cre)
+        {
+            throw cre;
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.SEVERE, ErrorMessage.GENERAL_READ.getMsg(session.getLoggingName()), e);
+            throw new CannotReadException(session.getLoggingName() + ":" + e.getMessage(), e);
+        }
+    }
+
+    private AudioFile read(File file, ReadSession session) throws CannotReadException, IOException
+    {
+        FileChannel fc = session.getChannel();
+        GenericAudioHeader info = null;
+        if (session.getReadOptions().isReadHeader())
+        {
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.HEADER);
+            try
+            {
+                info = getEncodingInfo(fc);
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
+            fc.position(0);
+        }
+        Tag tag = null;
+        if (session.getReadOptions().isReadTag())
+        {
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.TAG);
+            try
+            {
+                tag = getTag(fc);
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
+        }
+        return new AudioFile(file, info, tag);
+    }
+
+    @Override
     protected GenericAudioHeader getEncodingInfo(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return getEncodingInfo(raf.getChannel());
+    }
+
+    @Override
+    protected Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return getTag(raf.getChannel());
+    }
+
+    @SuppressWarnings("unused")
+    private GenericAudioHeader getEncodingInfo(FileChannel fc) throws CannotReadException, IOException
     {
         final GenericAudioHeader info = new GenericAudioHeader();
-        final RealChunk prop = findPropChunk(raf);
+        final RealChunk prop = findPropChunk(fc);
         final DataInputStream dis = prop.getDataInputStream();
         final int objVersion = Utils.readUint16(dis);
         if (objVersion == 0)
@@ -105,29 +185,28 @@ public class RealFileReader extends AudioFileReader
         return info;
     }
 
-    private RealChunk findPropChunk(RandomAccessFile raf) throws IOException, CannotReadException
+    private RealChunk findPropChunk(FileChannel fc) throws IOException, CannotReadException
     {
     	@SuppressWarnings("unused")
-		final RealChunk rmf = RealChunk.readChunk(raf);
-        final RealChunk prop = RealChunk.readChunk(raf);
+		final RealChunk rmf = RealChunk.readChunk(fc);
+        final RealChunk prop = RealChunk.readChunk(fc);
         return prop;
     }
 
-    private RealChunk findContChunk(RandomAccessFile raf) throws IOException, CannotReadException
+    private RealChunk findContChunk(FileChannel fc) throws IOException, CannotReadException
     {
     	@SuppressWarnings("unused")
-		final RealChunk rmf = RealChunk.readChunk(raf);
+		final RealChunk rmf = RealChunk.readChunk(fc);
     	@SuppressWarnings("unused")
-		final RealChunk prop = RealChunk.readChunk(raf);
-        RealChunk rv = RealChunk.readChunk(raf);
-        while (!rv.isCONT()) rv = RealChunk.readChunk(raf);
+		final RealChunk prop = RealChunk.readChunk(fc);
+        RealChunk rv = RealChunk.readChunk(fc);
+        while (!rv.isCONT()) rv = RealChunk.readChunk(fc);
         return rv;
     }
 
-    @Override
-    protected Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException
+    private Tag getTag(FileChannel fc) throws CannotReadException, IOException
     {
-        final RealChunk cont = findContChunk(raf);
+        final RealChunk cont = findContChunk(fc);
         final DataInputStream dis = cont.getDataInputStream();
         final String title = Utils.readString(dis, Utils.readUint16(dis));
         final String author = Utils.readString(dis, Utils.readUint16(dis));
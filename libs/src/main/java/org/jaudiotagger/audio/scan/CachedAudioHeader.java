@@ -0,0 +1,288 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.AudioHeader;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Audio header values held by a {@link FileSnapshot}, copied from the header of the file when it was read
+ */
+final class CachedAudioHeader implements AudioHeader
+{
+    private static final int VBR = 1;
+    private static final int LOSSLESS = 2;
+
+    private final String format;
+    private final String encodingType;
+    private final String channels;
+    private final long bitRate;
+    private final int sampleRate;
+    private final int bitsPerSample;
+    private final boolean variableBitRate;
+    private final boolean lossless;
+    private final double trackLength;
+    private final Integer byteRate;
+    private final Long noOfSamples;
+    private final Long audioDataLength;
+    private final Long audioDataStartPosition;
+    private final Long audioDataEndPosition;
+
+    private CachedAudioHeader(String format, String encodingType, String channels, long bitRate, int sampleRate,
+                              int bitsPerSample, boolean variableBitRate, boolean lossless, double trackLength,
+                              Integer byteRate, Long noOfSamples, Long audioDataLength, Long audioDataStartPosition,
+                              Long audioDataEndPosition)
+    {
+        this.format = format;
+        this.encodingType = encodingType;
+        this.channels = channels;
+        this.bitRate = bitRate;
+        this.sampleRate = sampleRate;
+        this.bitsPerSample = bitsPerSample;
+        this.variableBitRate = variableBitRate;
+        this.lossless = lossless;
+        this.trackLength = trackLength;
+        this.byteRate = byteRate;
+        this.noOfSamples = noOfSamples;
+        this.audioDataLength = audioDataLength;
+        this.audioDataStartPosition = audioDataStartPosition;
+        this.audioDataEndPosition = audioDataEndPosition;
+    }
+
+    /**
+     * Copy the values of a header, values the header cannot provide are left empty rather than failing because not
+     * every format implements every value
+     *
+     * @param header
+     * @return
+     */
+    static CachedAudioHeader of(final AudioHeader header)
+    {
+        long bitRate = 0;
+        int sampleRate = 0;
+        int bitsPerSample = -1;
+        boolean variableBitRate = false;
+        boolean lossless = false;
+        double trackLength = 0;
+        try
+        {
+            bitRate = header.getBitRateAsNumber();
+        }
+        catch (RuntimeException re)
+        {
+            //Not known
+        }
+        try
+        {
+            sampleRate = header.getSampleRateAsNumber();
+        }
+        catch (RuntimeException re)
+        {
+            //Not known
+        }
+        try
+        {
+            bitsPerSample = header.getBitsPerSample();
+        }
+        catch (RuntimeException re)
+        {
+            //Not known
+        }
+        try
+        {
+            variableBitRate = header.isVariableBitRate();
+        }
+        catch (RuntimeException re)
+        {
+            //Not known
+        }
+        try
+        {
+            lossless = header.isLossless();
+        }
+        catch (RuntimeException re)
+        {
+            //Not known
+        }
+        try
+        {
+            trackLength = header.getPreciseTrackLength();
+        }
+        catch (RuntimeException re)
+        {
+            //Not known
+        }
+
+        Integer byteRate = null;
+        Long noOfSamples = null;
+        Long audioDataLength = null;
+        Long audioDataStartPosition = null;
+        Long audioDataEndPosition = null;
+        try
+        {
+            byteRate = header.getByteRate();
+            noOfSamples = header.getNoOfSamples();
+            audioDataLength = header.getAudioDataLength();
+            audioDataStartPosition = header.getAudioDataStartPosition();
+            audioDataEndPosition = header.getAudioDataEndPosition();
+        }
+        catch (RuntimeException re)
+        {
+            //Not known
+        }
+
+        String format = null;
+        String encodingType = null;
+        String channels = null;
+        try
+        {
+            format = header.getFormat();
+            encodingType = header.getEncodingType();
+            channels = header.getChannels();
+        }
+        catch (RuntimeException re)
+        {
+            //Not known
+        }
+        return new CachedAudioHeader(format, encodingType, channels, bitRate, sampleRate, bitsPerSample,
+                variableBitRate, lossless, trackLength, byteRate, noOfSamples, audioDataLength,
+                audioDataStartPosition, audioDataEndPosition);
+    }
+
+    static CachedAudioHeader read(DataInputStream in) throws IOException
+    {
+        String format = ScanCache.readString(in);
+        String encodingType = ScanCache.readString(in);
+        String channels = ScanCache.readString(in);
+        long bitRate = in.readLong();
+        int sampleRate = in.readInt();
+        int bitsPerSample = in.readInt();
+        int flags = in.readByte();
+        double trackLength = in.readDouble();
+        int byteRate = in.readInt();
+        return new CachedAudioHeader(format, encodingType, channels, bitRate, sampleRate, bitsPerSample,
+                (flags & VBR) != 0, (flags & LOSSLESS) != 0, trackLength,
+                byteRate < 0 ? null : byteRate,
+                readOptionalLong(in), readOptionalLong(in), readOptionalLong(in), readOptionalLong(in));
+    }
+
+    void write(DataOutputStream out) throws IOException
+    {
+        ScanCache.writeString(out, format);
+        ScanCache.writeString(out, encodingType);
+        ScanCache.writeString(out, channels);
+        out.writeLong(bitRate);
+        out.writeInt(sampleRate);
+        out.writeInt(bitsPerSample);
+        out.writeByte((variableBitRate ? VBR : 0) | (lossless ? LOSSLESS : 0));
+        out.writeDouble(trackLength);
+        out.writeInt(byteRate == null ? -1 : byteRate);
+        writeOptionalLong(out, noOfSamples);
+        writeOptionalLong(out, audioDataLength);
+        writeOptionalLong(out, audioDataStartPosition);
+        writeOptionalLong(out, audioDataEndPosition);
+    }
+
+    private static Long readOptionalLong(DataInputStream in) throws IOException
+    {
+        long value = in.readLong();
+        return value < 0 ? null : value;
+    }
+
+    private static void writeOptionalLong(DataOutputStream out, Long value) throws IOException
+    {
+        out.writeLong(value == null ? -1 : value);
+    }
+
+    public String getEncodingType()
+    {
+        return encodingType;
+    }
+
+    public Integer getByteRate()
+    {
+        return byteRate;
+    }
+
+    public String getBitRate()
+    {
+        return String.valueOf(bitRate);
+    }
+
+    public long getBitRateAsNumber()
+    {
+        return bitRate;
+    }
+
+    public Long getAudioDataLength()
+    {
+        return audioDataLength;
+    }
+
+    public Long getAudioDataStartPosition()
+    {
+        return audioDataStartPosition;
+    }
+
+    public Long getAudioDataEndPosition()
+    {
+        return audioDataEndPosition;
+    }
+
+    public String getSampleRate()
+    {
+        return String.valueOf(sampleRate);
+    }
+
+    public int getSampleRateAsNumber()
+    {
+        return sampleRate;
+    }
+
+    public String getFormat()
+    {
+        return format;
+    }
+
+    public String getChannels()
+    {
+        return channels;
+    }
+
+    public boolean isVariableBitRate()
+    {
+        return variableBitRate;
+    }
+
+    public int getTrackLength()
+    {
+        return (int) Math.round(trackLength);
+    }
+
+    public double getPreciseTrackLength()
+    {
+        return trackLength;
+    }
+
+    public int getBitsPerSample()
+    {
+        return bitsPerSample;
+    }
+
+    public boolean isLossless()
+    {
+        return lossless;
+    }
+
+    public Long getNoOfSamples()
+    {
+        return noOfSamples;
+    }
+
+    public String toString()
+    {
+        return "Encoding:" + encodingType + ":Format:" + format + ":Bitrate:" + bitRate + ":Sample Rate:" + sampleRate
+                + ":Channels:" + channels + ":Length:" + trackLength;
+    }
+}
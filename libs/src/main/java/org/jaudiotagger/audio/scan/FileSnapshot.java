@@ -0,0 +1,139 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioHeader;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The audio header values and common tag fields of a file, as held by a {@link ScanCache} so that a file that has
+ * not changed does not have to be read again
+ */
+public final class FileSnapshot
+{
+    private final boolean headerRead;
+    private final boolean tagRead;
+    private final CachedAudioHeader audioHeader;
+    private final Map<FieldKey, String> fields;
+
+    FileSnapshot(boolean headerRead, boolean tagRead, CachedAudioHeader audioHeader, Map<FieldKey, String> fields)
+    {
+        this.headerRead = headerRead;
+        this.tagRead = tagRead;
+        this.audioHeader = audioHeader;
+        this.fields = fields;
+    }
+
+    /**
+     * Take a snapshot of the file, the fields the tag does not support or has no value for are left out
+     *
+     * @param audioFile
+     * @param fieldKeys fields to hold
+     * @return
+     */
+    static FileSnapshot of(AudioFile audioFile, List<FieldKey> fieldKeys)
+    {
+        ReadOptions readOptions = audioFile.getReadOptions();
+        AudioHeader header = audioFile.getAudioHeader();
+        Tag tag = audioFile.getTag();
+        Map<FieldKey, String> fields = null;
+        if (tag != null)
+        {
+            fields = new EnumMap<FieldKey, String>(FieldKey.class);
+            for (FieldKey key : fieldKeys)
+            {
+                try
+                {
+                    String value = tag.getFirst(key);
+                    if (value != null && value.length() > 0)
+                    {
+                        fields.put(key, value);
+                    }
+                }
+                catch (RuntimeException re)
+                {
+                    //Field not supported by this format
+                }
+            }
+        }
+        return new FileSnapshot(readOptions.isReadHeader(), readOptions.isReadTag(),
+                header != null ? CachedAudioHeader.of(header) : null, fields);
+    }
+
+    /**
+     * @param readOptions
+     * @return true if the file was read with at least the parts that these read options read
+     */
+    public boolean isSufficientFor(ReadOptions readOptions)
+    {
+        return (headerRead || !readOptions.isReadHeader()) && (tagRead || !readOptions.isReadTag());
+    }
+
+    boolean isHeaderRead()
+    {
+        return headerRead;
+    }
+
+    boolean isTagRead()
+    {
+        return tagRead;
+    }
+
+    /**
+     * @return the audio header values, null if the header was not read
+     */
+    public AudioHeader getAudioHeader()
+    {
+        return audioHeader;
+    }
+
+    CachedAudioHeader getCachedAudioHeader()
+    {
+        return audioHeader;
+    }
+
+    /**
+     * @return true if the file has a tag, false if it has none or the tag was not read
+     */
+    public boolean hasTag()
+    {
+        return fields != null;
+    }
+
+    /**
+     * @param key
+     * @return the first value of the field, empty if the file has no value or the field is not held by the cache
+     */
+    public String getFirst(FieldKey key)
+    {
+        if (fields == null)
+        {
+            return "";
+        }
+        String value = fields.get(key);
+        return value != null ? value : "";
+    }
+
+    /**
+     * @return the fields with values, empty if the file has no tag
+     */
+    public Map<FieldKey, String> getFields()
+    {
+        if (fields == null)
+        {
+            return Collections.emptyMap();
+        }
+        return Collections.unmodifiableMap(fields);
+    }
+
+    public String toString()
+    {
+        return "Header:" + audioHeader + ":Fields:" + fields;
+    }
+}
@@ -0,0 +1,74 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.AudioFile;
+
+import java.nio.file.Path;
+
+/**
+ * A change to an audio file found by a {@link LibraryWatcher}, with the file as read after the change.
+ */
+public final class LibraryChange
+{
+    /**
+     * What happened to the file
+     *
+     * A file replaced by renaming another file over it is reported as {@link #CREATED} because the watch service
+     * does not distinguish this from a new file, so {@link #CREATED} and {@link #MODIFIED} should both be treated as
+     * meaning the file may not have been seen before.
+     */
+    public enum Kind
+    {
+        CREATED,
+        MODIFIED,
+        DELETED
+    }
+
+    private final Kind kind;
+    private final Path path;
+    private final AudioFile audioFile;
+    private final Exception error;
+
+    LibraryChange(Kind kind, Path path, AudioFile audioFile, Exception error)
+    {
+        this.kind = kind;
+        this.path = path;
+        this.audioFile = audioFile;
+        this.error = error;
+    }
+
+    public Kind getKind()
+    {
+        return kind;
+    }
+
+    public Path getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return the file as read after the change, null if deleted or the read failed
+     */
+    public AudioFile getAudioFile()
+    {
+        return audioFile;
+    }
+
+    /**
+     * @return the reason the file could not be read, or null
+     */
+    public Exception getError()
+    {
+        return error;
+    }
+
+    public boolean isSuccess()
+    {
+        return error == null;
+    }
+
+    public String toString()
+    {
+        return kind + ":" + path + (error == null ? "" : ":failed:" + error.getMessage());
+    }
+}
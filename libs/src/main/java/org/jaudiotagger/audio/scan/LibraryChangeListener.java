@@ -0,0 +1,14 @@
+package org.jaudiotagger.audio.scan;
+
+/**
+ * Notified of changes to audio files found by a {@link LibraryWatcher}.
+ *
+ * Called from the watcher thread, which does not look for further changes until this returns.
+ */
+public interface LibraryChangeListener
+{
+    /**
+     * @param change the file that changed, read again unless deleted
+     */
+    void libraryChanged(LibraryChange change);
+}
@@ -0,0 +1,538 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads many audio files in parallel, see {@link AudioFileIO#readAll(Stream, ScanOptions)}
+ *
+ * Paths are taken from the path stream by a dispatcher thread and queued by storage device, each device has at most
+ * {@link ScanOptions#getMaxConcurrencyPerDevice()} reads running at once on the executor. Every path produces exactly
+ * one {@link ScanResult}, read failures are reported in the result rather than thrown.
+ *
+ * At most {@link ScanOptions#getMaxPending()} paths are taken from the path stream ahead of the consumer, so the
+ * results must be consumed (or the scan closed) for the scan to progress.
+ *
+ * Each worker thread reads with its own {@link AudioFileIO} so readers are never shared between threads, sharing the
+ * listeners of {@link AudioFileIO#getDefaultAudioFileIO()}.
+ *
+ * If {@link ScanOptions#getCache()} is set files that have not changed since they were last read are taken from
+ * the cache instead of being read.
+ */
+public class LibraryScan implements Closeable
+{
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.scan");
+
+    private static final String DISPATCHER_THREAD_NAME = "jaudiotagger-scan";
+
+    /**
+     * How long the dispatcher waits for room in the window before checking for cancellation
+     */
+    private static final long WINDOW_POLL_MILLIS = 100;
+
+    /**
+     * Number of directories whose device is remembered when using the default device resolver
+     */
+    private static final int DEVICE_CACHE_SIZE = 1024;
+
+    /**
+     * Marks the end of the results
+     */
+    private static final ScanResult END = new ScanResult(null, null, null, 0);
+
+    private final ScanOptions options;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Stream<Path> paths;
+
+    private final Semaphore window;
+    private final LinkedBlockingQueue<ScanResult> results = new LinkedBlockingQueue<ScanResult>();
+
+    private final Object lock = new Object();
+    private final Map<Object, DeviceQueue> devices = new HashMap<Object, DeviceQueue>();
+    private final Map<Path, Object> deviceCache = new LinkedHashMap<Path, Object>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Path, Object> eldest)
+        {
+            return size() > DEVICE_CACHE_SIZE;
+        }
+    };
+
+    private final ThreadLocal<AudioFileIO> audioFileIO = new ThreadLocal<AudioFileIO>()
+    {
+        @Override
+        protected AudioFileIO initialValue()
+        {
+            AudioFileIO afio = new AudioFileIO(AudioFileIO.getDefaultAudioFileIO());
+            afio.setReadBackend(options.getReadBackend());
+            afio.setTagOptions(options.getTagOptions());
+            return afio;
+        }
+    };
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong cached = new AtomicLong();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong outstanding = new AtomicLong();
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean resultsTaken = new AtomicBoolean();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private volatile boolean dispatchDone;
+    private volatile boolean cancelled;
+
+    /**
+     * Paths waiting to be read from one device and the number of reads running on it, guarded by lock
+     */
+    private static class DeviceQueue
+    {
+        private final ArrayDeque<Path> pending = new ArrayDeque<Path>();
+        private int running;
+    }
+
+    /**
+     * Create a scan, it does not start until {@link #start()} is called
+     *
+     * @param paths   files to read, closed when the scan has taken all its paths
+     * @param options
+     */
+    public LibraryScan(Stream<Path> paths, ScanOptions options)
+    {
+        this.paths = paths;
+        this.options = options;
+        this.window = new Semaphore(options.getMaxPending());
+        if (options.getExecutor() != null)
+        {
+            this.executor = options.getExecutor();
+            this.ownsExecutor = false;
+        }
+        else
+        {
+            this.executor = new ForkJoinPool(options.getParallelism());
+            this.ownsExecutor = true;
+        }
+    }
+
+    /**
+     * Start taking paths from the path stream
+     *
+     * @return this scan
+     */
+    public LibraryScan start()
+    {
+        if (!started.compareAndSet(false, true))
+        {
+            throw new IllegalStateException("Scan already started");
+        }
+        Thread dispatcher = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                dispatch();
+            }
+        }, DISPATCHER_THREAD_NAME);
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        return this;
+    }
+
+    /**
+     * The results in the order the reads complete, one for each path. The stream blocks waiting for reads, closing it
+     * cancels the scan.
+     *
+     * Can only be called once.
+     *
+     * @return
+     */
+    public Stream<ScanResult> results()
+    {
+        if (!resultsTaken.compareAndSet(false, true))
+        {
+            throw new IllegalStateException("Results already taken");
+        }
+        Iterator<ScanResult> iterator = new Iterator<ScanResult>()
+        {
+            private ScanResult next;
+
+            @Override
+            public boolean hasNext()
+            {
+                if (next == null && !cancelled)
+                {
+                    try
+                    {
+                        next = results.take();
+                    }
+                    catch (InterruptedException ie)
+                    {
+                        Thread.currentThread().interrupt();
+                        cancel();
+                        return false;
+                    }
+                    if (next == END)
+                    {
+                        //Leave END in place so later calls also see the end
+                        results.offer(END);
+                        next = null;
+                        return false;
+                    }
+                    if (next.getPath() != null)
+                    {
+                        window.release();
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public ScanResult next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                ScanResult result = next;
+                next = null;
+                return result;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        cancel();
+                    }
+                });
+    }
+
+    /**
+     * Stop the scan, no more paths are taken and reads not yet started are dropped. Reads already running complete
+     * but the results stream ends straight away.
+     */
+    public void cancel()
+    {
+        if (cancelled)
+        {
+            return;
+        }
+        cancelled = true;
+        synchronized (lock)
+        {
+            for (DeviceQueue dq : devices.values())
+            {
+                int dropped = dq.pending.size();
+                dq.pending.clear();
+                window.release(dropped);
+                outstanding.addAndGet(-dropped);
+            }
+        }
+        //Wake a consumer waiting for results
+        results.offer(END);
+        checkFinished();
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * @return true once every path taken has been read, or the scan was cancelled and the reads that were running
+     * have completed
+     */
+    public boolean isFinished()
+    {
+        return finished.get();
+    }
+
+    /**
+     * @return snapshot of the progress of the scan
+     */
+    public ScanProgress getProgress()
+    {
+        return new ScanProgress(submitted.get(), completed.get(), failed.get(), cached.get(), inFlight.get(), finished.get(), cancelled);
+    }
+
+    /**
+     * Cancels the scan if still running
+     */
+    @Override
+    public void close()
+    {
+        cancel();
+    }
+
+    private void dispatch()
+    {
+        try (Stream<Path> source = paths)
+        {
+            Iterator<Path> iterator = source.iterator();
+            while (!cancelled && iterator.hasNext())
+            {
+                Path path = iterator.next();
+                while (!window.tryAcquire(WINDOW_POLL_MILLIS, TimeUnit.MILLISECONDS))
+                {
+                    if (cancelled)
+                    {
+                        return;
+                    }
+                }
+                if (cancelled)
+                {
+                    window.release();
+                    return;
+                }
+                submitted.incrementAndGet();
+                outstanding.incrementAndGet();
+                enqueue(resolveDevice(path), path);
+            }
+        }
+        catch (InterruptedException ie)
+        {
+            cancel();
+        }
+        catch (RuntimeException re)
+        {
+            //The path stream itself failed, e.g. an unreadable directory during a walk
+            logger.log(Level.WARNING, "Unable to get paths to scan:" + re.getMessage(), re);
+            Exception cause = re.getCause() instanceof Exception ? (Exception) re.getCause() : re;
+            outstanding.incrementAndGet();
+            complete(new ScanResult(null, null, cause, 0));
+        }
+        finally
+        {
+            dispatchDone = true;
+            checkFinished();
+        }
+    }
+
+    private Object resolveDevice(Path path)
+    {
+        Function<Path, Object> resolver = options.getDeviceResolver();
+        if (resolver == null)
+        {
+            return ScanOptions.class;
+        }
+        if (resolver != ScanOptions.FILE_STORE_DEVICE_RESOLVER)
+        {
+            Object device = resolver.apply(path);
+            return device != null ? device : ScanOptions.class;
+        }
+
+        //Files in the same directory are on the same device so only look up the store once per directory
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir == null)
+        {
+            return resolver.apply(path);
+        }
+        Object device = deviceCache.get(dir);
+        if (device == null)
+        {
+            device = resolver.apply(path);
+            deviceCache.put(dir, device);
+        }
+        return device;
+    }
+
+    private void enqueue(Object device, Path path)
+    {
+        List<ScanResult> rejected = new ArrayList<>();
+        synchronized (lock)
+        {
+            if (cancelled)
+            {
+                window.release();
+                outstanding.decrementAndGet();
+                return;
+            }
+            DeviceQueue dq = devices.get(device);
+            if (dq == null)
+            {
+                dq = new DeviceQueue();
+                devices.put(device, dq);
+            }
+            dq.pending.add(path);
+            drain(dq, rejected);
+        }
+        completeAll(rejected);
+    }
+
+    /**
+     * Start as many reads for the device as its limit allows, must hold lock
+     *
+     * Reads the executor will not run are added to rejected, these must be completed once the lock is released
+     * so the progress listener is not called while holding it
+     *
+     * @param dq
+     * @param rejected
+     */
+    private void drain(final DeviceQueue dq, List<ScanResult> rejected)
+    {
+        while (!cancelled && dq.running < options.getMaxConcurrencyPerDevice() && !dq.pending.isEmpty())
+        {
+            final Path path = dq.pending.poll();
+            dq.running++;
+            try
+            {
+                executor.execute(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        read(dq, path);
+                    }
+                });
+            }
+            catch (RejectedExecutionException ree)
+            {
+                dq.running--;
+                rejected.add(new ScanResult(path, null, ree, 0));
+            }
+        }
+    }
+
+    private void completeAll(List<ScanResult> results)
+    {
+        for (ScanResult result : results)
+        {
+            complete(result);
+        }
+    }
+
+    private void read(DeviceQueue dq, Path path)
+    {
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        AudioFile audioFile = null;
+        FileSnapshot snapshot = null;
+        boolean isCached = false;
+        Exception error = null;
+        try
+        {
+            ScanCache cache = options.getCache();
+            if (cache != null)
+            {
+                //Attributes are read before the file so a change during the read is not mistaken as read
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                snapshot = cache.get(path, attributes, options.getReadOptions());
+                isCached = snapshot != null;
+                if (!isCached)
+                {
+                    audioFile = audioFileIO.get().readFile(path, options.getReadOptions());
+                    snapshot = cache.put(path, attributes, audioFile);
+                }
+            }
+            else
+            {
+                audioFile = audioFileIO.get().readFile(path, options.getReadOptions());
+            }
+        }
+        catch (Exception e)
+        {
+            error = e;
+        }
+        catch (Error e)
+        {
+            //Still report the file so the scan can finish, but the error is not ours to swallow
+            error = new ExecutionException(e);
+            throw e;
+        }
+        finally
+        {
+            long duration = System.nanoTime() - start;
+            inFlight.decrementAndGet();
+
+            //Let the next read on this device start before reporting this one
+            List<ScanResult> rejected = new ArrayList<>();
+            synchronized (lock)
+            {
+                dq.running--;
+                drain(dq, rejected);
+            }
+            completeAll(rejected);
+            if (isCached)
+            {
+                cached.incrementAndGet();
+            }
+            complete(new ScanResult(path, audioFile, snapshot, isCached, error, duration));
+        }
+    }
+
+    private void complete(ScanResult result)
+    {
+        completed.incrementAndGet();
+        if (!result.isSuccess())
+        {
+            failed.incrementAndGet();
+            logger.log(Level.FINE, "Unable to read:" + result.getPath() + ":" + result.getError().getMessage());
+        }
+        ScanProgressListener listener = options.getProgressListener();
+        if (listener != null)
+        {
+            try
+            {
+                listener.fileScanned(result, getProgress());
+            }
+            catch (RuntimeException re)
+            {
+                logger.log(Level.WARNING, "Scan progress listener failed:" + re.getMessage(), re);
+            }
+        }
+        if (!cancelled)
+        {
+            results.add(result);
+        }
+        if (outstanding.decrementAndGet() == 0)
+        {
+            checkFinished();
+        }
+    }
+
+    private void checkFinished()
+    {
+        if (dispatchDone && outstanding.get() == 0 && finished.compareAndSet(false, true))
+        {
+            results.offer(END);
+            if (ownsExecutor)
+            {
+                executor.shutdown();
+            }
+        }
+    }
+}
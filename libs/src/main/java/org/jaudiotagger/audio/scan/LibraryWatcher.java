@@ -0,0 +1,562 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileFilter;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.audio.io.ReadBackend;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Watches a directory tree for audio files being created, modified or deleted and reads each changed file again,
+ * so a library can be kept up to date without crawling the whole tree.
+ *
+ * Changes are debounced, a file is only read once no further change to it has been seen for
+ * {@link #getDebounceMillis()}, so a burst of events such as a file being written in several steps, or deleted and
+ * replaced by renaming a new file over it, results in a single change. A file created where one was known to exist,
+ * because it was there when watching started, has been reported since or is in the cache, is reported as modified,
+ * as happens when a new file is renamed over an existing one. Only files supported by {@link AudioFileFilter} are
+ * reported, and the temporary files written by {@link AudioFileWriter} are ignored.
+ *
+ * If the watch service loses events because too many occur at once the files in the affected directory are all
+ * reported as modified, deletions in that directory may be missed.
+ *
+ * Changes are read and reported on a single watcher thread.
+ */
+public class LibraryWatcher implements Closeable
+{
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.scan");
+
+    private static final String WATCHER_THREAD_NAME = "jaudiotagger-watch";
+
+    /**
+     * Default time a file must be left unchanged before it is read
+     */
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 500;
+
+    /**
+     * How long the watcher waits for events when no changes are pending before checking whether it has been closed
+     */
+    private static final long WATCH_POLL_MILLIS = 1000;
+
+    /**
+     * How long close waits for the watcher thread to finish
+     */
+    private static final long CLOSE_WAIT_MILLIS = 1000;
+
+    private final Path root;
+    private final LibraryChangeListener listener;
+    private final AudioFileFilter fileFilter = new AudioFileFilter(false);
+
+    private long debounceMillis = DEFAULT_DEBOUNCE_MILLIS;
+    private boolean recursive = true;
+    private ReadOptions readOptions = ReadOptions.FULL;
+    private ReadBackend readBackend = ReadBackend.FILE_CHANNEL;
+    private ScanCache cache;
+
+    private WatchService watchService;
+    private Thread watcher;
+    private AudioFileIO audioFileIO;
+    private volatile boolean closed;
+
+    /**
+     * Directories being watched, only used by the watcher thread once started
+     */
+    private final Map<WatchKey, Path> directories = new HashMap<WatchKey, Path>();
+
+    /**
+     * Files changed but not yet read, in the order first changed, only used by the watcher thread
+     */
+    private final Map<Path, PendingChange> pending = new LinkedHashMap<Path, PendingChange>();
+
+    /**
+     * Audio files known to exist, only used by the watcher thread once started
+     */
+    private final Set<Path> known = new HashSet<Path>();
+
+    /**
+     * A file with changes seen since it was last read
+     */
+    private static class PendingChange
+    {
+        //If the first change was a file being created where none was known to exist
+        private final boolean created;
+        private long deadline;
+
+        private PendingChange(boolean created)
+        {
+            this.created = created;
+        }
+    }
+
+    /**
+     * Create a watcher, it does not start watching until {@link #start()} is called
+     *
+     * @param root     directory to watch
+     * @param listener notified of each change
+     */
+    public LibraryWatcher(Path root, LibraryChangeListener listener)
+    {
+        this.root = root;
+        this.listener = listener;
+    }
+
+    public Path getRoot()
+    {
+        return root;
+    }
+
+    public long getDebounceMillis()
+    {
+        return debounceMillis;
+    }
+
+    /**
+     * How long a file must be left unchanged before it is read and the change reported
+     *
+     * @param debounceMillis
+     * @return
+     */
+    public LibraryWatcher setDebounceMillis(long debounceMillis)
+    {
+        if (debounceMillis < 0)
+        {
+            throw new IllegalArgumentException("Debounce cannot be negative:" + debounceMillis);
+        }
+        this.debounceMillis = debounceMillis;
+        return this;
+    }
+
+    public boolean isRecursive()
+    {
+        return recursive;
+    }
+
+    /**
+     * Whether to watch subdirectories, including ones created after the watcher has started
+     *
+     * @param recursive
+     * @return
+     */
+    public LibraryWatcher setRecursive(boolean recursive)
+    {
+        this.recursive = recursive;
+        return this;
+    }
+
+    public ReadOptions getReadOptions()
+    {
+        return readOptions;
+    }
+
+    /**
+     * Whether to read the audio header, the tag or both from each changed file
+     *
+     * @param readOptions
+     * @return
+     */
+    public LibraryWatcher setReadOptions(ReadOptions readOptions)
+    {
+        this.readOptions = readOptions;
+        return this;
+    }
+
+    public ReadBackend getReadBackend()
+    {
+        return readBackend;
+    }
+
+    public LibraryWatcher setReadBackend(ReadBackend readBackend)
+    {
+        this.readBackend = readBackend;
+        return this;
+    }
+
+    public ScanCache getCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Cache to keep up to date, changed files are added to it and deleted files removed, so a later
+     * {@link LibraryScan} using the cache does not need to read them
+     *
+     * @param cache
+     * @return
+     */
+    public LibraryWatcher setCache(ScanCache cache)
+    {
+        this.cache = cache;
+        return this;
+    }
+
+    /**
+     * Start watching
+     *
+     * @return this watcher
+     * @throws IOException if the directory cannot be watched
+     */
+    public LibraryWatcher start() throws IOException
+    {
+        if (watcher != null)
+        {
+            throw new IllegalStateException("Watcher already started");
+        }
+        audioFileIO = new AudioFileIO(AudioFileIO.getDefaultAudioFileIO());
+        audioFileIO.setReadBackend(readBackend);
+        watchService = root.getFileSystem().newWatchService();
+        try
+        {
+            if (recursive)
+            {
+                registerTree(root, false);
+            }
+            else
+            {
+                register(root);
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(root))
+                {
+                    for (Path file : files)
+                    {
+                        if (fileFilter.acceptName(file))
+                        {
+                            known.add(file);
+                        }
+                    }
+                }
+            }
+        }
+        catch (IOException ioe)
+        {
+            watchService.close();
+            throw ioe;
+        }
+
+        watcher = new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                watch();
+            }
+        }, WATCHER_THREAD_NAME);
+        watcher.setDaemon(true);
+        watcher.start();
+        return this;
+    }
+
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     * Stop watching, changes not yet reported are dropped
+     */
+    @Override
+    public void close() throws IOException
+    {
+        if (closed)
+        {
+            return;
+        }
+        closed = true;
+        if (watchService != null)
+        {
+            watchService.close();
+        }
+        if (watcher != null && watcher != Thread.currentThread())
+        {
+            try
+            {
+                watcher.join(CLOSE_WAIT_MILLIS);
+            }
+            catch (InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void watch()
+    {
+        try
+        {
+            while (!closed)
+            {
+                WatchKey key = watchService.poll(timeUntilNextDeadline(), TimeUnit.MILLISECONDS);
+                while (key != null)
+                {
+                    processEvents(key);
+                    key = watchService.poll();
+                }
+                reportDueChanges();
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e)
+        {
+            //Closing
+        }
+        catch (RuntimeException re)
+        {
+            logger.log(Level.SEVERE, "Library watcher failed:" + re.getMessage(), re);
+        }
+    }
+
+    private long timeUntilNextDeadline()
+    {
+        if (pending.isEmpty())
+        {
+            return WATCH_POLL_MILLIS;
+        }
+        long now = System.nanoTime();
+        long next = Long.MAX_VALUE;
+        for (PendingChange change : pending.values())
+        {
+            next = Math.min(next, change.deadline - now);
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(next) + 1);
+    }
+
+    private void processEvents(WatchKey key)
+    {
+        Path dir = directories.get(key);
+        if (dir == null)
+        {
+            key.cancel();
+            return;
+        }
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            WatchEvent.Kind<?> kind = event.kind();
+            if (kind == StandardWatchEventKinds.OVERFLOW)
+            {
+                logger.warning("Events lost for:" + dir + " so checking all files");
+                changedDirectory(dir);
+                continue;
+            }
+
+            Path child = dir.resolve((Path) event.context());
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE && recursive && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS))
+            {
+                //Directory may have been moved in with files already in it
+                try
+                {
+                    registerTree(child, true);
+                }
+                catch (IOException ioe)
+                {
+                    logger.log(Level.WARNING, "Unable to watch:" + child + ":" + ioe.getMessage());
+                }
+                continue;
+            }
+            changed(child, kind == StandardWatchEventKinds.ENTRY_CREATE);
+        }
+        if (!key.reset())
+        {
+            //Directory deleted or no longer accessible
+            directories.remove(key);
+        }
+    }
+
+    /**
+     * Record a change to a file, it is not read until left unchanged for the debounce period
+     *
+     * @param file
+     * @param created
+     */
+    private void changed(Path file, boolean created)
+    {
+        Path name = file.getFileName();
+        if (name == null || name.toString().endsWith(AudioFileWriter.TEMP_FILENAME_SUFFIX) || !fileFilter.acceptName(file))
+        {
+            return;
+        }
+        PendingChange change = pending.get(file);
+        if (change == null)
+        {
+            //A file renamed over an existing one only raises a create event
+            change = new PendingChange(created && !isKnown(file));
+            pending.put(file, change);
+        }
+        change.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+    }
+
+    private boolean isKnown(Path file)
+    {
+        return known.contains(file) || (cache != null && cache.contains(file));
+    }
+
+    private void changedDirectory(Path dir)
+    {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir))
+        {
+            for (Path file : files)
+            {
+                changed(file, false);
+            }
+        }
+        catch (IOException ioe)
+        {
+            logger.log(Level.WARNING, "Unable to list:" + dir + ":" + ioe.getMessage());
+        }
+    }
+
+    private void reportDueChanges()
+    {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<Path, PendingChange>> i = pending.entrySet().iterator();
+        Map<Path, PendingChange> due = new LinkedHashMap<Path, PendingChange>();
+        while (i.hasNext())
+        {
+            Map.Entry<Path, PendingChange> next = i.next();
+            if (next.getValue().deadline - now <= 0)
+            {
+                due.put(next.getKey(), next.getValue());
+                i.remove();
+            }
+        }
+        for (Map.Entry<Path, PendingChange> next : due.entrySet())
+        {
+            if (closed)
+            {
+                return;
+            }
+            report(next.getKey(), next.getValue());
+        }
+    }
+
+    private void report(Path file, PendingChange change)
+    {
+        LibraryChange libraryChange;
+        if (Files.exists(file))
+        {
+            if (!fileFilter.accept(file.toFile()))
+            {
+                return;
+            }
+            known.add(file);
+            libraryChange = read(file, change.created ? LibraryChange.Kind.CREATED : LibraryChange.Kind.MODIFIED);
+        }
+        else
+        {
+            if (change.created)
+            {
+                //Created and deleted again before being read
+                return;
+            }
+            known.remove(file);
+            if (cache != null)
+            {
+                cache.remove(file);
+            }
+            libraryChange = new LibraryChange(LibraryChange.Kind.DELETED, file, null, null);
+        }
+
+        try
+        {
+            listener.libraryChanged(libraryChange);
+        }
+        catch (RuntimeException re)
+        {
+            logger.log(Level.WARNING, "Library change listener failed:" + re.getMessage(), re);
+        }
+    }
+
+    private LibraryChange read(Path file, LibraryChange.Kind kind)
+    {
+        try
+        {
+            AudioFile audioFile;
+            if (cache != null)
+            {
+                //Attributes are read before the file so a change during the read is not mistaken as read
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                audioFile = audioFileIO.readFile(file, readOptions);
+                cache.put(file, attributes, audioFile);
+            }
+            else
+            {
+                audioFile = audioFileIO.readFile(file, readOptions);
+            }
+            return new LibraryChange(kind, file, audioFile, null);
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.FINE, "Unable to read:" + file + ":" + e.getMessage());
+            return new LibraryChange(kind, file, null, e);
+        }
+    }
+
+    private void register(Path dir) throws IOException
+    {
+        WatchKey key = dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        directories.put(key, dir);
+    }
+
+    /**
+     * Watch a directory and all directories below it
+     *
+     * @param start
+     * @param announce true to report the audio files already in the directories as created
+     * @throws IOException
+     */
+    private void registerTree(Path start, final boolean announce) throws IOException
+    {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException
+            {
+                register(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+            {
+                if (announce)
+                {
+                    changed(file, true);
+                }
+                else if (fileFilter.acceptName(file))
+                {
+                    known.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exc)
+            {
+                logger.log(Level.WARNING, "Unable to watch:" + file + ":" + exc.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -0,0 +1,488 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Remembers the audio header values and common fields of files that have been read so that rescanning a library does
+ * not have to read files that have not changed, see {@link ScanOptions#setCache(ScanCache)}
+ *
+ * Files are identified by their path and are only taken from the cache if their size, modification time and file
+ * key (where the file system provides one) are the same as when they were read, so a file that has been edited or
+ * replaced is read again.
+ *
+ * The cache holds at most {@link #getMaxEntries()} files, the least recently used are evicted when it is full. It can
+ * be saved to and loaded from a file so that it survives between runs, it is not saved automatically.
+ *
+ * Safe for use by multiple threads.
+ */
+public class ScanCache
+{
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.scan");
+
+    /**
+     * Default maximum number of files held
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100000;
+
+    /**
+     * Fields held by default
+     */
+    public static final List<FieldKey> DEFAULT_FIELDS = Collections.unmodifiableList(Arrays.asList(
+            FieldKey.ARTIST, FieldKey.ALBUM_ARTIST, FieldKey.ALBUM, FieldKey.TITLE, FieldKey.TRACK,
+            FieldKey.TRACK_TOTAL, FieldKey.DISC_NO, FieldKey.DISC_TOTAL, FieldKey.YEAR, FieldKey.GENRE,
+            FieldKey.COMPOSER, FieldKey.MUSICBRAINZ_TRACK_ID, FieldKey.MUSICBRAINZ_RELEASEID));
+
+    /**
+     * Start of a saved cache file, 'JATC'
+     */
+    private static final int MAGIC = 0x4A415443;
+    private static final int FORMAT_VERSION = 1;
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Fewest bytes a saved entry can take, its key and file key lengths, size, modified time and flags
+     */
+    private static final int MIN_ENTRY_SIZE = 4 + 8 + 8 + 4 + 1;
+
+    /**
+     * Entries allocated for before any are loaded, so a count from a corrupt file does not cause a huge allocation
+     */
+    private static final int INITIAL_LOAD_ENTRIES = 1024;
+
+    private static final int HEADER_READ = 1;
+    private static final int TAG_READ = 2;
+    private static final int HAS_HEADER = 4;
+    private static final int HAS_TAG = 8;
+
+    private final int maxEntries;
+    private final List<FieldKey> fieldKeys;
+    private final Map<String, CacheEntry> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * A file as it was when read
+     */
+    private static class CacheEntry
+    {
+        private final long size;
+        private final long modified;
+        private final String fileKey;
+        private final FileSnapshot snapshot;
+
+        private CacheEntry(long size, long modified, String fileKey, FileSnapshot snapshot)
+        {
+            this.size = size;
+            this.modified = modified;
+            this.fileKey = fileKey;
+            this.snapshot = snapshot;
+        }
+
+        private boolean matches(long size, long modified, String fileKey)
+        {
+            return this.size == size && this.modified == modified
+                    && (this.fileKey == null ? fileKey == null : this.fileKey.equals(fileKey));
+        }
+    }
+
+    /**
+     * Create an empty cache of {@link #DEFAULT_MAX_ENTRIES} holding the {@link #DEFAULT_FIELDS}
+     */
+    public ScanCache()
+    {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_FIELDS);
+    }
+
+    /**
+     * Create an empty cache
+     *
+     * @param maxEntries maximum number of files held
+     * @param fieldKeys  fields to hold for each file
+     */
+    public ScanCache(final int maxEntries, List<FieldKey> fieldKeys)
+    {
+        if (maxEntries < 1)
+        {
+            throw new IllegalArgumentException("Max entries must be at least 1:" + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.fieldKeys = Collections.unmodifiableList(new ArrayList<FieldKey>(fieldKeys));
+        this.entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest)
+            {
+                if (size() > maxEntries)
+                {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public int getMaxEntries()
+    {
+        return maxEntries;
+    }
+
+    public List<FieldKey> getFieldKeys()
+    {
+        return fieldKeys;
+    }
+
+    /**
+     * Get the snapshot of a file if it has not changed since it was read
+     *
+     * @param path
+     * @param readOptions the parts of the file wanted
+     * @return the snapshot or null if the file is not in the cache, has changed, or was not read with the parts wanted
+     * @throws IOException if the attributes of the file cannot be read
+     */
+    public FileSnapshot get(Path path, ReadOptions readOptions) throws IOException
+    {
+        return get(path, Files.readAttributes(path, BasicFileAttributes.class), readOptions);
+    }
+
+    /**
+     * As {@link #get(Path, ReadOptions)} using attributes already read
+     *
+     * @param path
+     * @param attributes  of the file now
+     * @param readOptions the parts of the file wanted
+     * @return
+     */
+    public synchronized FileSnapshot get(Path path, BasicFileAttributes attributes, ReadOptions readOptions)
+    {
+        String key = toKey(path);
+        CacheEntry entry = entries.get(key);
+        if (entry != null && !entry.matches(attributes.size(), toModified(attributes), toFileKey(attributes)))
+        {
+            logger.finest("Cached entry out of date:" + key);
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null || !entry.snapshot.isSufficientFor(readOptions))
+        {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.snapshot;
+    }
+
+    /**
+     * Add a file that has just been read
+     *
+     * @param path
+     * @param attributes of the file read before it was read, so that if it was modified during the read the entry
+     *                   does not match the modified file
+     * @param audioFile
+     * @return snapshot of the file
+     */
+    public FileSnapshot put(Path path, BasicFileAttributes attributes, AudioFile audioFile)
+    {
+        FileSnapshot snapshot = FileSnapshot.of(audioFile, fieldKeys);
+        CacheEntry entry = new CacheEntry(attributes.size(), toModified(attributes), toFileKey(attributes), snapshot);
+        synchronized (this)
+        {
+            entries.put(toKey(path), entry);
+        }
+        return snapshot;
+    }
+
+    /**
+     * @param path
+     * @return true if the cache has an entry for the path, whether or not it is still up to date
+     */
+    public synchronized boolean contains(Path path)
+    {
+        return entries.containsKey(toKey(path));
+    }
+
+    /**
+     * Remove a file, for example because it has been deleted
+     *
+     * @param path
+     */
+    public synchronized void remove(Path path)
+    {
+        entries.remove(toKey(path));
+    }
+
+    public synchronized void clear()
+    {
+        entries.clear();
+    }
+
+    public synchronized int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * @return number of times a file was found in the cache unchanged
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return number of times a file was not in the cache or had changed
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return number of files evicted because the cache was full
+     */
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Save the cache, the file is written in full alongside and then moved into place so an interrupted save does
+     * not lose the previously saved cache
+     *
+     * @param file
+     * @throws IOException
+     */
+    public void save(Path file) throws IOException
+    {
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE)))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeShort(fieldKeys.size());
+            for (FieldKey fieldKey : fieldKeys)
+            {
+                writeString(out, fieldKey.name());
+            }
+            synchronized (this)
+            {
+                //Least recently used first so that the order is the same once loaded
+                out.writeInt(entries.size());
+                for (Map.Entry<String, CacheEntry> next : entries.entrySet())
+                {
+                    writeEntry(out, next.getKey(), next.getValue());
+                }
+            }
+        }
+        try
+        {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException amnse)
+        {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Add the files of a saved cache to this cache, if the saved cache does not exist nothing is added. If the saved
+     * cache was written by a different version or held different fields it is ignored, because its entries would not
+     * match what a read of the file would now give.
+     *
+     * @param file
+     * @return number of files added
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public int load(Path file) throws IOException
+    {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE)))
+        {
+            if (in.readInt() != MAGIC)
+            {
+                throw new IOException("Not a scan cache:" + file);
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION)
+            {
+                logger.info("Ignoring scan cache:" + file + " written by version:" + version);
+                return 0;
+            }
+            int fieldCount = in.readUnsignedShort();
+            if (fieldCount > FieldKey.values().length)
+            {
+                throw new EOFException("Invalid field count:" + fieldCount);
+            }
+            List<String> savedFields = new ArrayList<String>(fieldCount);
+            for (int i = 0; i < fieldCount; i++)
+            {
+                savedFields.add(readString(in));
+            }
+            List<String> currentFields = new ArrayList<String>(fieldKeys.size());
+            for (FieldKey fieldKey : fieldKeys)
+            {
+                currentFields.add(fieldKey.name());
+            }
+            if (!savedFields.equals(currentFields))
+            {
+                logger.info("Ignoring scan cache:" + file + " holding different fields:" + savedFields);
+                return 0;
+            }
+
+            int count = in.readInt();
+            if (count < 0 || count > Files.size(file) / MIN_ENTRY_SIZE)
+            {
+                throw new EOFException("Invalid entry count:" + count);
+            }
+            List<String> keys = new ArrayList<String>(Math.min(count, INITIAL_LOAD_ENTRIES));
+            List<CacheEntry> loaded = new ArrayList<CacheEntry>(Math.min(count, INITIAL_LOAD_ENTRIES));
+            for (int i = 0; i < count; i++)
+            {
+                keys.add(readString(in));
+                loaded.add(readEntry(in));
+            }
+            synchronized (this)
+            {
+                for (int i = 0; i < count; i++)
+                {
+                    entries.put(keys.get(i), loaded.get(i));
+                }
+            }
+            return count;
+        }
+        catch (NoSuchFileException nsfe)
+        {
+            return 0;
+        }
+        catch (EOFException | IndexOutOfBoundsException e)
+        {
+            logger.log(Level.WARNING, "Scan cache corrupt:" + file + ":" + e.getMessage());
+            throw new IOException("Scan cache corrupt:" + file, e);
+        }
+    }
+
+    private void writeEntry(DataOutputStream out, String key, CacheEntry entry) throws IOException
+    {
+        FileSnapshot snapshot = entry.snapshot;
+        writeString(out, key);
+        out.writeLong(entry.size);
+        out.writeLong(entry.modified);
+        writeString(out, entry.fileKey);
+        int flags = (snapshot.isHeaderRead() ? HEADER_READ : 0)
+                | (snapshot.isTagRead() ? TAG_READ : 0)
+                | (snapshot.getCachedAudioHeader() != null ? HAS_HEADER : 0)
+                | (snapshot.hasTag() ? HAS_TAG : 0);
+        out.writeByte(flags);
+        if (snapshot.getCachedAudioHeader() != null)
+        {
+            snapshot.getCachedAudioHeader().write(out);
+        }
+        if (snapshot.hasTag())
+        {
+            Map<FieldKey, String> fields = snapshot.getFields();
+            out.writeShort(fields.size());
+            for (Map.Entry<FieldKey, String> field : fields.entrySet())
+            {
+                out.writeShort(fieldKeys.indexOf(field.getKey()));
+                writeString(out, field.getValue());
+            }
+        }
+    }
+
+    private CacheEntry readEntry(DataInputStream in) throws IOException
+    {
+        long size = in.readLong();
+        long modified = in.readLong();
+        String fileKey = readString(in);
+        int flags = in.readByte();
+        CachedAudioHeader header = (flags & HAS_HEADER) != 0 ? CachedAudioHeader.read(in) : null;
+        Map<FieldKey, String> fields = null;
+        if ((flags & HAS_TAG) != 0)
+        {
+            fields = new EnumMap<FieldKey, String>(FieldKey.class);
+            int fieldCount = in.readUnsignedShort();
+            for (int i = 0; i < fieldCount; i++)
+            {
+                fields.put(fieldKeys.get(in.readUnsignedShort()), readString(in));
+            }
+        }
+        FileSnapshot snapshot = new FileSnapshot((flags & HEADER_READ) != 0, (flags & TAG_READ) != 0, header, fields);
+        return new CacheEntry(size, modified, fileKey, snapshot);
+    }
+
+    private static String toKey(Path path)
+    {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    private static long toModified(BasicFileAttributes attributes)
+    {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    private static String toFileKey(BasicFileAttributes attributes)
+    {
+        Object fileKey = attributes.fileKey();
+        return fileKey != null ? fileKey.toString() : null;
+    }
+
+    /**
+     * Write a string that may be null or longer than {@link DataOutputStream#writeUTF(String)} allows
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException
+    {
+        if (value == null)
+        {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+
+    static String readString(DataInputStream in) throws IOException
+    {
+        int length = in.readInt();
+        if (length < 0)
+        {
+            return null;
+        }
+        if (length > MAX_STRING_LENGTH)
+        {
+            throw new EOFException("Invalid string length:" + length);
+        }
+        byte[] data = new byte[length];
+        in.readFully(data);
+        return new String(data, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,234 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.audio.io.ReadBackend;
+import org.jaudiotagger.tag.TagOptions;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * Options controlling a {@link LibraryScan}
+ *
+ * Reads are spread over a pool of worker threads but the number of concurrent reads on any one storage device is
+ * capped, because too many outstanding reads against a spinning disk or network share lowers its throughput.
+ */
+public class ScanOptions
+{
+    /**
+     * Default maximum number of files read at the same time from one storage device
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_DEVICE = 4;
+
+    /**
+     * Default maximum number of paths taken from the path stream but not yet consumed as results
+     */
+    public static final int DEFAULT_MAX_PENDING = 1024;
+
+    /**
+     * Identifies the storage device by its {@link java.nio.file.FileStore}, paths whose store cannot be found are
+     * grouped together
+     */
+    public static final Function<Path, Object> FILE_STORE_DEVICE_RESOLVER = new Function<Path, Object>()
+    {
+        @Override
+        public Object apply(Path path)
+        {
+            try
+            {
+                return Files.getFileStore(path);
+            }
+            catch (IOException | SecurityException e)
+            {
+                return ScanOptions.class;
+            }
+        }
+    };
+
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private int maxConcurrencyPerDevice = DEFAULT_MAX_CONCURRENCY_PER_DEVICE;
+    private int maxPending = DEFAULT_MAX_PENDING;
+    private ExecutorService executor;
+    private ReadBackend readBackend = ReadBackend.FILE_CHANNEL;
+    private ReadOptions readOptions = ReadOptions.FULL;
+    private TagOptions tagOptions;
+    private Function<Path, Object> deviceResolver = FILE_STORE_DEVICE_RESOLVER;
+    private ScanProgressListener progressListener;
+    private ScanCache cache;
+
+    public int getParallelism()
+    {
+        return parallelism;
+    }
+
+    /**
+     * Number of worker threads, only used if no executor is set
+     *
+     * @param parallelism
+     * @return
+     */
+    public ScanOptions setParallelism(int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("Parallelism must be at least 1:" + parallelism);
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public int getMaxConcurrencyPerDevice()
+    {
+        return maxConcurrencyPerDevice;
+    }
+
+    /**
+     * Maximum number of files read at the same time from one storage device
+     *
+     * @param maxConcurrencyPerDevice
+     * @return
+     */
+    public ScanOptions setMaxConcurrencyPerDevice(int maxConcurrencyPerDevice)
+    {
+        if (maxConcurrencyPerDevice < 1)
+        {
+            throw new IllegalArgumentException("Concurrency per device must be at least 1:" + maxConcurrencyPerDevice);
+        }
+        this.maxConcurrencyPerDevice = maxConcurrencyPerDevice;
+        return this;
+    }
+
+    public int getMaxPending()
+    {
+        return maxPending;
+    }
+
+    /**
+     * Maximum number of paths taken from the path stream whose results have not yet been consumed, once reached
+     * the scan waits for the consumer, this bounds memory when results are consumed slower than they are read.
+     *
+     * @param maxPending
+     * @return
+     */
+    public ScanOptions setMaxPending(int maxPending)
+    {
+        if (maxPending < 1)
+        {
+            throw new IllegalArgumentException("Max pending must be at least 1:" + maxPending);
+        }
+        this.maxPending = maxPending;
+        return this;
+    }
+
+    public ExecutorService getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * Executor to run the reads on, if not set a ForkJoinPool of {@link #getParallelism()} threads is created for the
+     * scan and shut down when it finishes. An executor set here is not shut down.
+     *
+     * @param executor
+     * @return
+     */
+    public ScanOptions setExecutor(ExecutorService executor)
+    {
+        this.executor = executor;
+        return this;
+    }
+
+    public ReadBackend getReadBackend()
+    {
+        return readBackend;
+    }
+
+    public ScanOptions setReadBackend(ReadBackend readBackend)
+    {
+        this.readBackend = readBackend;
+        return this;
+    }
+
+    public ReadOptions getReadOptions()
+    {
+        return readOptions;
+    }
+
+    /**
+     * Whether to read the audio header, the tag or both from each file
+     *
+     * @param readOptions
+     * @return
+     */
+    public ScanOptions setReadOptions(ReadOptions readOptions)
+    {
+        this.readOptions = readOptions;
+        return this;
+    }
+
+    public TagOptions getTagOptions()
+    {
+        return tagOptions;
+    }
+
+    /**
+     * Options to read each file with, kept with the files read so they are also written with them, by default the
+     * global options
+     *
+     * @param tagOptions
+     * @return
+     */
+    public ScanOptions setTagOptions(TagOptions tagOptions)
+    {
+        this.tagOptions = tagOptions;
+        return this;
+    }
+
+    public Function<Path, Object> getDeviceResolver()
+    {
+        return deviceResolver;
+    }
+
+    /**
+     * Maps a path to a key identifying its storage device, paths with equal keys share the per device limit
+     *
+     * @param deviceResolver
+     * @return
+     */
+    public ScanOptions setDeviceResolver(Function<Path, Object> deviceResolver)
+    {
+        this.deviceResolver = deviceResolver;
+        return this;
+    }
+
+    public ScanProgressListener getProgressListener()
+    {
+        return progressListener;
+    }
+
+    public ScanOptions setProgressListener(ScanProgressListener progressListener)
+    {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    public ScanCache getCache()
+    {
+        return cache;
+    }
+
+    /**
+     * Cache to take unchanged files from rather than reading them, files that are read are added to it
+     *
+     * @param cache
+     * @return
+     */
+    public ScanOptions setCache(ScanCache cache)
+    {
+        this.cache = cache;
+        return this;
+    }
+}
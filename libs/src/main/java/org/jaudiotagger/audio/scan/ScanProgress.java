@@ -0,0 +1,85 @@
+package org.jaudiotagger.audio.scan;
+
+/**
+ * Snapshot of the state of a {@link LibraryScan}
+ */
+public final class ScanProgress
+{
+    private final long submitted;
+    private final long completed;
+    private final long failed;
+    private final long cached;
+    private final int inFlight;
+    private final boolean finished;
+    private final boolean cancelled;
+
+    ScanProgress(long submitted, long completed, long failed, long cached, int inFlight, boolean finished, boolean cancelled)
+    {
+        this.submitted = submitted;
+        this.completed = completed;
+        this.failed = failed;
+        this.cached = cached;
+        this.inFlight = inFlight;
+        this.finished = finished;
+        this.cancelled = cancelled;
+    }
+
+    /**
+     * @return number of paths taken from the path stream so far
+     */
+    public long getSubmitted()
+    {
+        return submitted;
+    }
+
+    /**
+     * @return number of files read, successfully or not
+     */
+    public long getCompleted()
+    {
+        return completed;
+    }
+
+    /**
+     * @return number of files that could not be read, included in {@link #getCompleted()}
+     */
+    public long getFailed()
+    {
+        return failed;
+    }
+
+    /**
+     * @return number of files taken from the {@link ScanCache} rather than read, included in {@link #getCompleted()}
+     */
+    public long getCached()
+    {
+        return cached;
+    }
+
+    /**
+     * @return number of files being read at the time of the snapshot
+     */
+    public int getInFlight()
+    {
+        return inFlight;
+    }
+
+    /**
+     * @return true once no more results will be produced
+     */
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    public String toString()
+    {
+        return "submitted:" + submitted + ":completed:" + completed + ":failed:" + failed + ":cached:" + cached + ":inFlight:" + inFlight
+                + (cancelled ? ":cancelled" : "") + (finished ? ":finished" : "");
+    }
+}
@@ -0,0 +1,15 @@
+package org.jaudiotagger.audio.scan;
+
+/**
+ * Notified as a {@link LibraryScan} progresses.
+ *
+ * Called from the scan worker threads after each file is read, so implementations must be thread safe and quick.
+ */
+public interface ScanProgressListener
+{
+    /**
+     * @param result   the file just read
+     * @param progress state of the scan including this file
+     */
+    void fileScanned(ScanResult result, ScanProgress progress);
+}
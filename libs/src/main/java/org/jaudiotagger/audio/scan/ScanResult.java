@@ -0,0 +1,93 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.audio.AudioFile;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of reading one file during a {@link LibraryScan}, either the AudioFile or the exception that prevented it
+ * being read. Errors are reported here rather than thrown so one bad file does not stop the scan.
+ */
+public final class ScanResult
+{
+    private final Path path;
+    private final AudioFile audioFile;
+    private final FileSnapshot snapshot;
+    private final boolean cached;
+    private final Exception error;
+    private final long durationNanos;
+
+    ScanResult(Path path, AudioFile audioFile, Exception error, long durationNanos)
+    {
+        this(path, audioFile, null, false, error, durationNanos);
+    }
+
+    ScanResult(Path path, AudioFile audioFile, FileSnapshot snapshot, boolean cached, Exception error, long durationNanos)
+    {
+        this.path = path;
+        this.audioFile = audioFile;
+        this.snapshot = snapshot;
+        this.cached = cached;
+        this.error = error;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return the path that was read, null only if the path source itself failed
+     */
+    public Path getPath()
+    {
+        return path;
+    }
+
+    /**
+     * @return the file read or null if the read failed or the file was taken from the cache
+     */
+    public AudioFile getAudioFile()
+    {
+        return audioFile;
+    }
+
+    /**
+     * @return snapshot of the file if scanning with a {@link ScanCache}, taken from the cache or from the file just
+     * read, otherwise null
+     */
+    public FileSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+
+    /**
+     * @return true if the file was unchanged so was taken from the cache rather than read
+     */
+    public boolean isCached()
+    {
+        return cached;
+    }
+
+    /**
+     * @return the reason the read failed or null if successful
+     */
+    public Exception getError()
+    {
+        return error;
+    }
+
+    public boolean isSuccess()
+    {
+        return error == null;
+    }
+
+    /**
+     * @return time taken to read the file
+     */
+    public long getDurationNanos()
+    {
+        return durationNanos;
+    }
+
+    public String toString()
+    {
+        return path + (error == null ? (cached ? ":cached" : ":ok") : ":failed:" + error.getMessage());
+    }
+}
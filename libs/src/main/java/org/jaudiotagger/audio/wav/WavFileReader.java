@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.wav;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.io.ReadSession;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.wav.WavTag;
@@ -47,7 +48,23 @@ public class WavFileReader extends AudioFileReader2
     @Override
     protected Tag getTag(Path path) throws IOException, CannotReadException
     {           
-        WavTag tag =  new WavTagReader(path.toString()).read(path);
+        return syncTagsAfterRead(new WavTagReader(path.toString()).read(path));
+    }
+
+    @Override
+    protected GenericAudioHeader getEncodingInfo(ReadSession session) throws CannotReadException, IOException
+    {
+        return new WavInfoReader(session.getLoggingName()).read(session.getChannel());
+    }
+
+    @Override
+    protected Tag getTag(ReadSession session) throws IOException, CannotReadException
+    {
+        return syncTagsAfterRead(new WavTagReader(session.getLoggingName()).read(session.getChannel()));
+    }
+
+    private WavTag syncTagsAfterRead(WavTag tag)
+    {
         switch (TagOptionSingleton.getInstance().getWavOptions())
         {
             case READ_ID3_ONLY_AND_SYNC:
@@ -20,6 +20,7 @@ package org.jaudiotagger.audio.wav;
 
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter2;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.tag.Tag;
 
 import java.nio.file.Path;
@@ -32,6 +33,12 @@ public class WavFileWriter extends AudioFileWriter2
         new WavTagWriter(file.toString()).write(tag, file);
     }
 
+    @Override
+    protected WritePlan planWriteTag(Tag tag, Path file) throws CannotWriteException
+    {
+        return new WavTagWriter(file.toString()).planWrite(tag, file);
+    }
+
     @Override
     protected void deleteTag(Tag tag, Path file) throws CannotWriteException
     {
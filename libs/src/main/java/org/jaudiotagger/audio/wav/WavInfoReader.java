@@ -25,6 +25,7 @@ import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.Chunk;
 import org.jaudiotagger.audio.iff.ChunkHeader;
 import org.jaudiotagger.audio.iff.IffHeaderChunk;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 import org.jaudiotagger.audio.wav.chunk.WavCorruptChunkType;
 import org.jaudiotagger.audio.wav.chunk.WavFactChunk;
 import org.jaudiotagger.audio.wav.chunk.WavFormatChunk;
@@ -55,25 +56,38 @@ public class WavInfoReader
     }
 
     public GenericAudioHeader read(Path path) throws CannotReadException, IOException
+    {
+        try(FileChannel fc = Instrumentation.open(path))
+        {
+            return read(fc);
+        }
+    }
+
+    /**
+     * Read from an already open channel positioned at the start of the file
+     *
+     * @param fc
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public GenericAudioHeader read(FileChannel fc) throws CannotReadException, IOException
     {
         GenericAudioHeader info = new GenericAudioHeader();
-        try(FileChannel fc = FileChannel.open(path))
+        if(WavRIFFHeader.isValidHeader(loggingName, fc))
         {
-            if(WavRIFFHeader.isValidHeader(loggingName, fc))
+            while (fc.position() < fc.size())
             {
-                while (fc.position() < fc.size())
+                //Problem reading chunk and no way to workround it so exit loop
+                if (!readChunk(fc, info))
                 {
-                    //Problem reading chunk and no way to workround it so exit loop
-                    if (!readChunk(fc, info))
-                    {
-                        break;
-                    }
+                    break;
                 }
             }
-            else
-            {
-                throw new CannotReadException(loggingName + " Wav RIFF Header not valid");
-            }
+        }
+        else
+        {
+            throw new CannotReadException(loggingName + " Wav RIFF Header not valid");
         }
 
         if(isFoundFormat && isFoundAudio)
@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.wav;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.*;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 import org.jaudiotagger.audio.wav.chunk.WavCorruptChunkType;
 import org.jaudiotagger.audio.wav.chunk.WavId3Chunk;
 import org.jaudiotagger.audio.wav.chunk.WavListChunk;
@@ -59,26 +60,40 @@ public class WavTagReader
      * @throws IOException
      */
     public WavTag read(Path path) throws CannotReadException, IOException
+    {
+        try(FileChannel fc = Instrumentation.open(path))
+        {
+            return read(fc);
+        }
+    }
+
+    /**
+     * Read from an already open channel positioned at the start of the file
+     *
+     * @param fc
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public WavTag read(FileChannel fc) throws CannotReadException, IOException
     {
         logger.config(loggingName + " Read Tag:start");
         WavTag tag = new WavTag(TagOptionSingleton.getInstance().getWavOptions());
-        try(FileChannel fc = FileChannel.open(path))
+        if (WavRIFFHeader.isValidHeader(loggingName, fc))
         {
-            if (WavRIFFHeader.isValidHeader(loggingName, fc))
+            while (fc.position() < fc.size())
             {
-                while (fc.position() < fc.size())
+                if (!readChunk(fc, tag))
                 {
-                    if (!readChunk(fc, tag))
-                    {
-                        break;
-                    }
+                    break;
                 }
             }
-            else
-            {
-                throw new CannotReadException(loggingName+ " Wav RIFF Header not valid");
-            }
         }
+        else
+        {
+            throw new CannotReadException(loggingName+ " Wav RIFF Header not valid");
+        }
+
         createDefaultMetadataTagsIfMissing(tag);
         logger.config(loggingName + " Read Tag:end");
         return tag;
@@ -26,8 +26,10 @@ import org.jaudiotagger.audio.iff.ChunkHeader;
 import org.jaudiotagger.audio.iff.ChunkSummary;
 import org.jaudiotagger.audio.iff.IffHeaderChunk;
 import org.jaudiotagger.audio.iff.PaddingChunkSummary;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 import org.jaudiotagger.audio.wav.chunk.WavChunkSummary;
 import org.jaudiotagger.audio.wav.chunk.WavInfoIdentifier;
+import org.jaudiotagger.audio.write.WritePlan;
 import org.jaudiotagger.tag.*;
 import org.jaudiotagger.tag.wav.WavInfoTag;
 import org.jaudiotagger.tag.wav.WavTag;
@@ -183,7 +185,7 @@ public class WavTagWriter
     public void delete (Tag tag, Path file) throws CannotWriteException
     {
         logger.info(loggingName + ":Deleting metadata from file");
-        try(FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
+        try(FileChannel fc = Instrumentation.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
             WavTag existingTag = getExistingMetadata(file);
 
@@ -365,6 +367,68 @@ public class WavTagWriter
         fc.truncate(newLength);
     }
 
+    /**
+     * Work out how {@link #write(Tag, Path)} would write the tag without modifying the file.
+     *
+     * Metadata chunks are written at the end of the file, if there are other chunks after the existing metadata
+     * chunks they are moved down when the metadata chunks are deleted.
+     *
+     * @param tag
+     * @param file
+     * @return the plan
+     * @throws CannotWriteException
+     */
+    public WritePlan planWrite(final Tag tag, Path file) throws CannotWriteException
+    {
+        try
+        {
+            WavTag existingTag = getExistingMetadata(file);
+            if(existingTag.isBadChunkData())
+            {
+                throw new CannotWriteException("Unable to make changes to this file because contains bad chunk data");
+            }
+
+            final WavTag wavTag = (WavTag) tag;
+            WavSaveOptions wso = TagOptionSingleton.getInstance().getWavSaveOptions();
+            boolean isInfoActive = wavTag.getActiveTag() instanceof WavInfoTag;
+            boolean isSaveInfo = isInfoActive;
+            boolean isSaveId3 = !isInfoActive;
+            if (wso == WavSaveOptions.SAVE_BOTH || wso == WavSaveOptions.SAVE_BOTH_AND_SYNC)
+            {
+                isSaveInfo = true;
+                isSaveId3 = true;
+            }
+            else if (wso == WavSaveOptions.SAVE_EXISTING_AND_ACTIVE || wso == WavSaveOptions.SAVE_EXISTING_AND_ACTIVE_AND_SYNC)
+            {
+                isSaveInfo = isSaveInfo || existingTag.isExistingInfoTag();
+                isSaveId3 = isSaveId3 || existingTag.isExistingId3Tag();
+            }
+
+            long newTagSize = 0;
+            if (isSaveInfo)
+            {
+                newTagSize += convertInfoChunk(wavTag).limit() + ChunkHeader.CHUNK_HEADER_SIZE;
+            }
+            if (isSaveId3)
+            {
+                newTagSize += convertID3Chunk(wavTag, existingTag).limit() + ChunkHeader.CHUNK_HEADER_SIZE;
+            }
+
+            long fileLength = file.toFile().length();
+            long startOfMetadata = WavChunkSummary.getStartLocationOfFirstMetadataChunk(existingTag);
+            if (startOfMetadata == -1 || WavChunkSummary.isOnlyMetadataTagsAfterStartingMetadataTag(existingTag))
+            {
+                return new WritePlan(WritePlan.Strategy.TAIL_APPEND, fileLength, 0, newTagSize);
+            }
+            long dataAfterMetadata = fileLength - startOfMetadata;
+            return new WritePlan(WritePlan.Strategy.SHIFT, fileLength, dataAfterMetadata, dataAfterMetadata + newTagSize);
+        }
+        catch(IOException ioe)
+        {
+            throw new CannotWriteException(file + ":" + ioe.getMessage());
+        }
+    }
+
     /**
      *
      * @param tag
@@ -393,7 +457,7 @@ public class WavTagWriter
             throw new CannotWriteException("Unable to make changes to this file because contains bad chunk data");
         }
 
-        try(FileChannel fc = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
+        try(FileChannel fc = Instrumentation.open(file, StandardOpenOption.WRITE, StandardOpenOption.READ))
         {
             final WavTag wavTag = (WavTag) tag;
             if (wso == WavSaveOptions.SAVE_BOTH)
@@ -747,6 +811,12 @@ public class WavTagWriter
                 tag.setID3Tag(WavTag.createDefaultID3Tag());
             }
 
+            //A new ID3 chunk gets any padding the padding policy reserves
+            if (existingTagSize == 0)
+            {
+                existingTagSize = tag.getID3Tag().getNewTagSize();
+            }
+
             //Write Tag to buffer
             tag.getID3Tag().write(baos, (int)existingTagSize);
 
@@ -0,0 +1,126 @@
+package org.jaudiotagger.audio.write;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the state of a {@link WriteScheduler}
+ */
+public final class WriteMetrics
+{
+    private final long submitted;
+    private final long completed;
+    private final long failed;
+    private final int queued;
+    private final int running;
+    private final long totalWaitNanos;
+    private final long totalWriteNanos;
+    private final long maxLatencyNanos;
+
+    WriteMetrics(long submitted, long completed, long failed, int queued, int running, long totalWaitNanos,
+                 long totalWriteNanos, long maxLatencyNanos)
+    {
+        this.submitted = submitted;
+        this.completed = completed;
+        this.failed = failed;
+        this.queued = queued;
+        this.running = running;
+        this.totalWaitNanos = totalWaitNanos;
+        this.totalWriteNanos = totalWriteNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    /**
+     * @return number of writes submitted so far
+     */
+    public long getSubmitted()
+    {
+        return submitted;
+    }
+
+    /**
+     * @return number of writes finished, successfully or not, cancelled writes are not included
+     */
+    public long getCompleted()
+    {
+        return completed;
+    }
+
+    /**
+     * @return number of writes that failed, included in {@link #getCompleted()}
+     */
+    public long getFailed()
+    {
+        return failed;
+    }
+
+    /**
+     * @return number of writes waiting to start, either for an earlier write to the same file or for the device
+     */
+    public int getQueued()
+    {
+        return queued;
+    }
+
+    /**
+     * @return number of writes running at the time of the snapshot
+     */
+    public int getRunning()
+    {
+        return running;
+    }
+
+    /**
+     * @return total time completed writes spent queued before starting, in nanoseconds
+     */
+    public long getTotalWaitNanos()
+    {
+        return totalWaitNanos;
+    }
+
+    /**
+     * @return total time completed writes spent writing, in nanoseconds
+     */
+    public long getTotalWriteNanos()
+    {
+        return totalWriteNanos;
+    }
+
+    /**
+     * @return longest time from submission to completion of any write, in nanoseconds
+     */
+    public long getMaxLatencyNanos()
+    {
+        return maxLatencyNanos;
+    }
+
+    /**
+     * @return average time from submission to completion of completed writes, in milliseconds
+     */
+    public double getAverageLatencyMillis()
+    {
+        if (completed == 0)
+        {
+            return 0;
+        }
+        return (double) (totalWaitNanos + totalWriteNanos) / completed / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return average time completed writes spent queued, in milliseconds
+     */
+    public double getAverageWaitMillis()
+    {
+        if (completed == 0)
+        {
+            return 0;
+        }
+        return (double) totalWaitNanos / completed / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public String toString()
+    {
+        return "submitted:" + submitted + ":completed:" + completed + ":failed:" + failed + ":queued:" + queued
+                + ":running:" + running + ":averageLatencyMillis:" + getAverageLatencyMillis()
+                + ":maxLatencyMillis:" + TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos);
+    }
+}
@@ -0,0 +1,105 @@
+package org.jaudiotagger.audio.write;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+
+/**
+ * How writing the tag of an {@link AudioFile} would change the file, see {@link AudioFileIO#planWrite(AudioFile)}
+ *
+ * The byte counts are estimates worked out from the existing layout of the file, they do not include reading the
+ * existing metadata to find out the layout.
+ */
+public final class WritePlan
+{
+    /**
+     * The way the format writer would write the tag
+     */
+    public enum Strategy
+    {
+        /**
+         * The metadata is overwritten in exactly the space it already takes up, nothing else in the file changes
+         */
+        IN_PLACE,
+
+        /**
+         * The metadata is overwritten in the space reserved for it, padding or free space making up the difference in
+         * size so the audio does not move
+         */
+        PADDING_CONSUMED,
+
+        /**
+         * The metadata is stored at the end of the file and is written there, the audio does not move
+         */
+        TAIL_APPEND,
+
+        /**
+         * The metadata does not fit in the space available so the audio after it is moved within the file
+         */
+        SHIFT,
+
+        /**
+         * The whole file is rewritten to a temporary file
+         */
+        FULL_COPY
+    }
+
+    private final Strategy strategy;
+    private final long fileLength;
+    private final long bytesToRead;
+    private final long bytesToWrite;
+
+    public WritePlan(Strategy strategy, long fileLength, long bytesToRead, long bytesToWrite)
+    {
+        this.strategy = strategy;
+        this.fileLength = fileLength;
+        this.bytesToRead = bytesToRead;
+        this.bytesToWrite = bytesToWrite;
+    }
+
+    /**
+     * @return the way the tag would be written
+     */
+    public Strategy getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * @return length of the file before writing
+     */
+    public long getFileLength()
+    {
+        return fileLength;
+    }
+
+    /**
+     * @return estimated number of bytes that would be read from disk, such as audio data being moved
+     */
+    public long getBytesToRead()
+    {
+        return bytesToRead;
+    }
+
+    /**
+     * @return estimated number of bytes that would be written to disk, including the new metadata
+     */
+    public long getBytesToWrite()
+    {
+        return bytesToWrite;
+    }
+
+    /**
+     * @return true if the audio data would be moved or copied, so the cost of the write grows with the size of the file
+     * rather than the size of the metadata
+     */
+    public boolean isAudioRewritten()
+    {
+        return strategy == Strategy.SHIFT || strategy == Strategy.FULL_COPY;
+    }
+
+    public String toString()
+    {
+        return "strategy:" + strategy + ":fileLength:" + fileLength + ":bytesToRead:" + bytesToRead
+                + ":bytesToWrite:" + bytesToWrite;
+    }
+}
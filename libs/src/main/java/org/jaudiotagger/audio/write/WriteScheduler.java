@@ -0,0 +1,492 @@
+package org.jaudiotagger.audio.write;
+
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.scan.ScanOptions;
+
+import java.io.Closeable;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes audio files in the background, see {@link AudioFileIO#writeAsync(AudioFile)}
+ *
+ * Writes to the same file run one at a time in the order they were submitted, writes to different files run in
+ * parallel but at most {@link #getMaxConcurrencyPerDevice()} at once on any one storage device, because rewriting
+ * many files at once on a spinning disk or network share is slower than rewriting them a few at a time.
+ *
+ * The {@link AudioFile} must not be modified until its write has completed. Each worker thread writes with its own
+ * {@link AudioFileIO} so writers are never shared between threads, sharing the listeners of
+ * {@link AudioFileIO#getDefaultAudioFileIO()} so they are told of, and can veto, background writes.
+ */
+public class WriteScheduler implements Closeable
+{
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.write");
+
+    private static final String WORKER_THREAD_NAME = "jaudiotagger-write-";
+
+    /**
+     * Default maximum number of files written at the same time on one storage device
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_DEVICE = 2;
+
+    /**
+     * How long an idle worker thread is kept, worker threads are not daemon threads so that the application does not
+     * exit part way through a write, but they do not keep it running once idle for this long
+     */
+    private static final long WORKER_KEEP_ALIVE_SECONDS = 1;
+
+    private static WriteScheduler defaultInstance;
+
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int maxConcurrencyPerDevice;
+    private final Function<Path, Object> deviceResolver;
+
+    private final Object lock = new Object();
+
+    /**
+     * Writes for each file, the first is running or waiting for its device and the rest wait for it, guarded by lock
+     */
+    private final Map<Path, ArrayDeque<Write>> files = new HashMap<Path, ArrayDeque<Write>>();
+    private final Map<Object, DeviceQueue> devices = new HashMap<Object, DeviceQueue>();
+
+    private final ThreadLocal<AudioFileIO> audioFileIO = new ThreadLocal<AudioFileIO>()
+    {
+        @Override
+        protected AudioFileIO initialValue()
+        {
+            return new AudioFileIO(AudioFileIO.getDefaultAudioFileIO());
+        }
+    };
+
+    //Metrics, guarded by lock
+    private long submitted;
+    private long completed;
+    private long failed;
+    private int queued;
+    private int running;
+    private long totalWaitNanos;
+    private long totalWriteNanos;
+    private long maxLatencyNanos;
+
+    private boolean closed;
+
+    /**
+     * One write of one file
+     */
+    private static class Write
+    {
+        private final AudioFile audioFile;
+        private final Path file;
+        private final Object device;
+        private final CompletableFuture<AudioFile> future = new CompletableFuture<AudioFile>();
+        private final long submittedNanos = System.nanoTime();
+
+        private Write(AudioFile audioFile, Path file, Object device)
+        {
+            this.audioFile = audioFile;
+            this.file = file;
+            this.device = device;
+        }
+    }
+
+    /**
+     * Writes ready to start on one device and the number of writes running on it, guarded by lock
+     */
+    private static class DeviceQueue
+    {
+        private final ArrayDeque<Write> ready = new ArrayDeque<Write>();
+        private int running;
+    }
+
+    /**
+     * The scheduler used by {@link AudioFileIO#writeAsync(AudioFile)}
+     *
+     * @return
+     */
+    public static synchronized WriteScheduler getDefaultWriteScheduler()
+    {
+        if (defaultInstance == null)
+        {
+            defaultInstance = new WriteScheduler();
+        }
+        return defaultInstance;
+    }
+
+    /**
+     * Create a scheduler with a worker thread per processor and the default limit per device
+     */
+    public WriteScheduler()
+    {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_CONCURRENCY_PER_DEVICE);
+    }
+
+    /**
+     * Create a scheduler with its own worker threads, shut down when the scheduler is closed
+     *
+     * @param parallelism             number of worker threads
+     * @param maxConcurrencyPerDevice maximum number of files written at the same time on one storage device
+     */
+    public WriteScheduler(int parallelism, int maxConcurrencyPerDevice)
+    {
+        this(createExecutor(parallelism), true, maxConcurrencyPerDevice, ScanOptions.FILE_STORE_DEVICE_RESOLVER);
+    }
+
+    /**
+     * Create a scheduler that writes on the given executor, the executor is not shut down when the scheduler is closed
+     *
+     * @param executor
+     * @param maxConcurrencyPerDevice maximum number of files written at the same time on one storage device
+     * @param deviceResolver          maps a path to a key identifying its storage device, paths with equal keys share
+     *                                the per device limit
+     */
+    public WriteScheduler(ExecutorService executor, int maxConcurrencyPerDevice, Function<Path, Object> deviceResolver)
+    {
+        this(executor, false, maxConcurrencyPerDevice, deviceResolver);
+    }
+
+    private WriteScheduler(ExecutorService executor, boolean ownsExecutor, int maxConcurrencyPerDevice, Function<Path, Object> deviceResolver)
+    {
+        if (maxConcurrencyPerDevice < 1)
+        {
+            if (ownsExecutor)
+            {
+                executor.shutdown();
+            }
+            throw new IllegalArgumentException("Concurrency per device must be at least 1:" + maxConcurrencyPerDevice);
+        }
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.maxConcurrencyPerDevice = maxConcurrencyPerDevice;
+        this.deviceResolver = deviceResolver;
+    }
+
+    private static ExecutorService createExecutor(int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("Parallelism must be at least 1:" + parallelism);
+        }
+        final AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelism, parallelism,
+                WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory()
+                {
+                    @Override
+                    public Thread newThread(Runnable r)
+                    {
+                        return new Thread(r, WORKER_THREAD_NAME + threadCount.incrementAndGet());
+                    }
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    public int getMaxConcurrencyPerDevice()
+    {
+        return maxConcurrencyPerDevice;
+    }
+
+    /**
+     * Queue the audio file to be written back to its file.
+     *
+     * The future completes with the audio file once written, or exceptionally with the {@link CannotWriteException}
+     * if the write failed. Cancelling the future before the write has started stops it from being written.
+     *
+     * @param audioFile
+     * @return
+     */
+    public CompletableFuture<AudioFile> write(AudioFile audioFile)
+    {
+        if (audioFile.getFile() == null)
+        {
+            CompletableFuture<AudioFile> future = new CompletableFuture<AudioFile>();
+            future.completeExceptionally(new CannotWriteException("AudioFile was not read from a file so cannot be written back"));
+            return future;
+        }
+        Path file = audioFile.getFile().toPath().toAbsolutePath().normalize();
+        Write write = new Write(audioFile, file, resolveDevice(file));
+        synchronized (lock)
+        {
+            if (closed)
+            {
+                write.future.completeExceptionally(new RejectedExecutionException("Write scheduler closed"));
+                return write.future;
+            }
+            submitted++;
+            queued++;
+            ArrayDeque<Write> fileQueue = files.get(file);
+            if (fileQueue == null)
+            {
+                fileQueue = new ArrayDeque<Write>();
+                files.put(file, fileQueue);
+                fileQueue.add(write);
+                ready(write);
+            }
+            else
+            {
+                //Waits for the earlier writes to the same file
+                fileQueue.add(write);
+            }
+        }
+        return write.future;
+    }
+
+    /**
+     * @return snapshot of the writes queued, running and completed
+     */
+    public WriteMetrics getMetrics()
+    {
+        synchronized (lock)
+        {
+            return new WriteMetrics(submitted, completed, failed, queued, running, totalWaitNanos, totalWriteNanos, maxLatencyNanos);
+        }
+    }
+
+    /**
+     * Stop accepting writes, writes already queued are still written
+     */
+    @Override
+    public void close()
+    {
+        synchronized (lock)
+        {
+            closed = true;
+            shutdownIfIdle();
+        }
+    }
+
+    public boolean isClosed()
+    {
+        synchronized (lock)
+        {
+            return closed;
+        }
+    }
+
+    private Object resolveDevice(Path file)
+    {
+        if (deviceResolver == null)
+        {
+            return ScanOptions.class;
+        }
+        Object device = deviceResolver.apply(file);
+        return device != null ? device : ScanOptions.class;
+    }
+
+    /**
+     * The write is next for its file so can start once its device allows, must hold lock
+     *
+     * @param write
+     */
+    private void ready(Write write)
+    {
+        DeviceQueue dq = devices.get(write.device);
+        if (dq == null)
+        {
+            dq = new DeviceQueue();
+            devices.put(write.device, dq);
+        }
+        dq.ready.add(write);
+        drain(dq);
+    }
+
+    /**
+     * Start as many writes for the device as its limit allows, must hold lock
+     *
+     * @param dq
+     */
+    private void drain(final DeviceQueue dq)
+    {
+        while (dq.running < maxConcurrencyPerDevice && !dq.ready.isEmpty())
+        {
+            final Write write = dq.ready.poll();
+            dq.running++;
+            queued--;
+            running++;
+            try
+            {
+                executor.execute(new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        runWrites(dq, write);
+                    }
+                });
+            }
+            catch (RejectedExecutionException ree)
+            {
+                dq.running--;
+                running--;
+                record(write, 0, 0, ree);
+                write.future.completeExceptionally(ree);
+                Write next = next(write);
+                if (next != null)
+                {
+                    ready(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Write and then carry on with the next write to the same file, or else the next write ready for the same device,
+     * rather than handing it to another thread, until there are none ready
+     *
+     * @param dq
+     * @param first
+     */
+    private void runWrites(DeviceQueue dq, Write first)
+    {
+        Write write = first;
+        Error fatal = null;
+        try
+        {
+            while (write != null)
+            {
+                long start = System.nanoTime();
+                Exception error = null;
+                //Not written if cancelled while queued
+                if (!write.future.isDone())
+                {
+                    try
+                    {
+                        audioFileIO.get().writeFile(write.audioFile, (Path) null);
+                    }
+                    catch (CannotWriteException | RuntimeException e)
+                    {
+                        error = e;
+                    }
+                    catch (Error e)
+                    {
+                        fatal = e;
+                        throw e;
+                    }
+                }
+                long end = System.nanoTime();
+
+                Write next;
+                synchronized (lock)
+                {
+                    record(write, start - write.submittedNanos, end - start, error);
+                    next = next(write);
+                    if (next == null || devices.get(next.device) != dq)
+                    {
+                        if (next != null)
+                        {
+                            ready(next);
+                        }
+                        next = dq.ready.poll();
+                    }
+                    if (next != null)
+                    {
+                        queued--;
+                    }
+                    else
+                    {
+                        dq.running--;
+                        running--;
+                        shutdownIfIdle();
+                    }
+                }
+
+                //Completed outside the lock because dependent stages may run on this thread
+                if (error == null)
+                {
+                    write.future.complete(write.audioFile);
+                }
+                else
+                {
+                    logger.log(Level.FINE, "Unable to write:" + write.file + ":" + error.getMessage());
+                    write.future.completeExceptionally(error);
+                }
+                write = next;
+            }
+        }
+        finally
+        {
+            if (fatal != null)
+            {
+                //Give up the device and let the next write to the file go ahead before the error propagates
+                synchronized (lock)
+                {
+                    record(write, 0, 0, fatal);
+                    Write next = next(write);
+                    if (next != null)
+                    {
+                        ready(next);
+                    }
+                    dq.running--;
+                    running--;
+                    drain(dq);
+                    shutdownIfIdle();
+                }
+                write.future.completeExceptionally(fatal);
+            }
+        }
+    }
+
+    /**
+     * Must hold lock
+     */
+    private void record(Write write, long waitNanos, long writeNanos, Throwable error)
+    {
+        if (write.future.isCancelled())
+        {
+            return;
+        }
+        completed++;
+        if (error != null)
+        {
+            failed++;
+        }
+        totalWaitNanos += waitNanos;
+        totalWriteNanos += writeNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, waitNanos + writeNanos);
+    }
+
+    /**
+     * The write has finished so the next write to the same file can start, must hold lock
+     *
+     * @param write
+     * @return the next write to the same file, null if none
+     */
+    private Write next(Write write)
+    {
+        ArrayDeque<Write> fileQueue = files.get(write.file);
+        fileQueue.poll();
+        if (fileQueue.isEmpty())
+        {
+            files.remove(write.file);
+            return null;
+        }
+        return fileQueue.peek();
+    }
+
+    /**
+     * Must hold lock
+     */
+    private void shutdownIfIdle()
+    {
+        if (closed && ownsExecutor && queued == 0 && running == 0)
+        {
+            executor.shutdown();
+        }
+    }
+}
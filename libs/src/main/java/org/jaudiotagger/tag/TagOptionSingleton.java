@@ -37,6 +37,7 @@ import org.jaudiotagger.tag.id3.framebody.ID3v24FrameBody;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.tag.lyrics3.Lyrics3v2Fields;
 import org.jaudiotagger.tag.options.PadNumberOption;
+import org.jaudiotagger.tag.options.PaddingPolicy;
 import org.jaudiotagger.tag.reference.GenreTypes;
 import org.jaudiotagger.tag.reference.ID3V2Version;
 import org.jaudiotagger.tag.reference.Languages;
@@ -46,8 +47,10 @@ import org.jaudiotagger.tag.vorbiscomment.VorbisAlbumArtistSaveOptions;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class TagOptionSingleton
+public class TagOptionSingleton implements Cloneable
 {
     private boolean   isWriteWavForTwonky = false;
 
@@ -114,7 +117,7 @@ public class TagOptionSingleton
     /**
      *
      */
-    private static HashMap<String, TagOptionSingleton> tagOptionTable = new HashMap<String, TagOptionSingleton>();
+    private static ConcurrentHashMap<String, TagOptionSingleton> tagOptionTable = new ConcurrentHashMap<String, TagOptionSingleton>();
 
     /**
      *
@@ -126,6 +129,11 @@ public class TagOptionSingleton
      */
     private static String defaultOptions = DEFAULT;
 
+    /**
+     * Instance for defaultOptions, kept so that getInstance() does not look it up in the table each time
+     */
+    private static volatile TagOptionSingleton defaultInstance;
+
     /**
      *
      */
@@ -380,6 +388,31 @@ public class TagOptionSingleton
      */
     private boolean preserveFileIdentity = true;
 
+    /**
+     * Read artwork data from the file only when it is needed
+     */
+    private boolean isLazyArtwork = false;
+
+    /**
+     * Decode ID3v2 frame bodies only when they are needed
+     */
+    private boolean isLazyId3FrameBodies = false;
+
+    /**
+     * Padding reserved when metadata has to be moved, null for each format's own default
+     */
+    private PaddingPolicy paddingPolicy = null;
+
+    /**
+     * Largest region moved through a memory mapping when audio is shifted to make space, 0 disables mapping
+     */
+    private long maxMappedShiftSize = 0;
+
+    /**
+     * Count every mp3 frame for the track length rather than estimating it
+     */
+    private boolean isExactMp3Length = false;
+
     /**
      * 
      */
@@ -395,11 +428,23 @@ public class TagOptionSingleton
 
 
     /**
-     * @return
+     * @return the options of the read or write in progress on the calling thread if it was given {@link TagOptions},
+     * otherwise the default options
      */
     public static TagOptionSingleton getInstance()
     {
-        return getInstance(defaultOptions);
+        TagOptionSingleton tagOptions = TagOptions.current();
+        if (tagOptions != null)
+        {
+            return tagOptions;
+        }
+        tagOptions = defaultInstance;
+        if (tagOptions == null)
+        {
+            tagOptions = getInstance(defaultOptions);
+            defaultInstance = tagOptions;
+        }
+        return tagOptions;
     }
 
     /**
@@ -413,12 +458,41 @@ public class TagOptionSingleton
         if (tagOptions == null)
         {
             tagOptions = new TagOptionSingleton();
-            tagOptionTable.put(instanceKey, tagOptions);
+            TagOptionSingleton existing = tagOptionTable.putIfAbsent(instanceKey, tagOptions);
+            if (existing != null)
+            {
+                tagOptions = existing;
+            }
         }
 
         return tagOptions;
     }
 
+    /**
+     * @return copy of these options, changes to either are not seen by the other
+     */
+    TagOptionSingleton copy()
+    {
+        TagOptionSingleton copy;
+        try
+        {
+            copy = (TagOptionSingleton) clone();
+        }
+        catch (CloneNotSupportedException e)
+        {
+            throw new AssertionError(e);
+        }
+        copy.keywordMap = new HashMap<Class<? extends ID3v24FrameBody>, LinkedList<String>>();
+        for (Map.Entry<Class<? extends ID3v24FrameBody>, LinkedList<String>> entry : keywordMap.entrySet())
+        {
+            copy.keywordMap.put(entry.getKey(), new LinkedList<String>(entry.getValue()));
+        }
+        copy.lyrics3SaveFieldMap = new HashMap<String, Boolean>(lyrics3SaveFieldMap);
+        copy.parenthesisMap = new HashMap<String, String>(parenthesisMap);
+        copy.replaceWordMap = new HashMap<String, String>(replaceWordMap);
+        return copy;
+    }
+
     /**
      * @param filenameTagSave
      */
@@ -458,6 +532,7 @@ public class TagOptionSingleton
     public void setInstanceKey(String instanceKey)
     {
         TagOptionSingleton.defaultOptions = instanceKey;
+        defaultInstance = getInstance(instanceKey);
     }
 
     /**
@@ -950,6 +1025,11 @@ public class TagOptionSingleton
         padNumbers = false;
         isAPICDescriptionITunesCompatible=false;
         isAndroid = false;
+        isLazyArtwork = false;
+        isLazyId3FrameBodies = false;
+        paddingPolicy = null;
+        maxMappedShiftSize = 0;
+        isExactMp3Length = false;
         isEncodeUTF16BomAsLittleEndian = true;
         writeChunkSize=5000000;
         isWriteMp4GenresAsText=false;
@@ -1409,6 +1489,127 @@ public class TagOptionSingleton
         this.preserveFileIdentity = preserveFileIdentity;
     }
 
+    /**
+     * If set to {@code true} artwork data in Flac picture blocks, ID3v2 APIC/PIC frames of Mp3 files and Mp4 covr
+     * atoms is not held in memory when a file is read, only its offset and length within the file. The data is
+     * read from the file the first time it is needed, for example by {@link org.jaudiotagger.tag.images.Artwork#getBinaryData()},
+     * whilst the mime type, picture type and (for Flac) dimensions are available straight away.
+     *
+     * Only applies to files read from a path, if the file is modified by another program before the data is read
+     * the data cannot be read.
+     *
+     * @return {@code true} or {@code false}. Default is {@code false}.
+     */
+    public boolean isLazyArtwork()
+    {
+        return isLazyArtwork;
+    }
+
+    /**
+     * @param isLazyArtwork {@code true} to read artwork data only when needed
+     * @see #isLazyArtwork()
+     */
+    public void setLazyArtwork(boolean isLazyArtwork)
+    {
+        this.isLazyArtwork = isLazyArtwork;
+    }
+
+    /**
+     * If set to {@code true} the bodies of ID3v2 frames are not decoded when a tag is read, the frame just holds the
+     * body data as read (after removing any unsynchronization) until {@link org.jaudiotagger.tag.id3.AbstractID3v2Frame#getBody()}
+     * is first called. A frame whose body has never been decoded is written back exactly as it was read, so when only
+     * a few fields are read or modified most frames are never decoded.
+     *
+     * Compressed and encrypted frames are always decoded when read. A body that cannot be decoded is held as a
+     * {@link org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported} rather than the frame being discarded as it
+     * would be when decoded on read.
+     *
+     * @return {@code true} or {@code false}. Default is {@code false}.
+     */
+    public boolean isLazyId3FrameBodies()
+    {
+        return isLazyId3FrameBodies;
+    }
+
+    /**
+     * @param isLazyId3FrameBodies {@code true} to decode ID3v2 frame bodies only when needed
+     * @see #isLazyId3FrameBodies()
+     */
+    public void setLazyId3FrameBodies(boolean isLazyId3FrameBodies)
+    {
+        this.isLazyId3FrameBodies = isLazyId3FrameBodies;
+    }
+
+    /**
+     * Padding reserved after the metadata when it no longer fits in the space available, so that later edits can be
+     * written in place rather than moving the audio again.
+     *
+     * Honoured by ID3v2 tags (Mp3, and ID3 chunks in Wav, Aiff and Dsf), Flac padding blocks and Mp4 free atoms. When
+     * the metadata still fits in the space already available it is rewritten in place whatever the policy.
+     *
+     * @return the policy, or null if each format uses its own default. Default is null.
+     */
+    public PaddingPolicy getPaddingPolicy()
+    {
+        return paddingPolicy;
+    }
+
+    /**
+     * @param paddingPolicy the policy, or null for each format's own default
+     * @see #getPaddingPolicy()
+     */
+    public void setPaddingPolicy(PaddingPolicy paddingPolicy)
+    {
+        this.paddingPolicy = paddingPolicy;
+    }
+
+    /**
+     * When audio is shifted later in the file to make space for metadata and the data moved plus the space made is no
+     * larger than this, the file is memory mapped and the data moved in memory rather than read and written in chunks.
+     *
+     * A mapping stays open until it is garbage collected, and on Windows a file cannot be deleted or truncated while
+     * it is mapped, so mapping is disabled by default.
+     *
+     * @return size in bytes, 0 if mapping is disabled. Default is 0.
+     */
+    public long getMaxMappedShiftSize()
+    {
+        return maxMappedShiftSize;
+    }
+
+    /**
+     * @param maxMappedShiftSize size in bytes, 0 to disable mapping
+     * @see #getMaxMappedShiftSize()
+     */
+    public void setMaxMappedShiftSize(long maxMappedShiftSize)
+    {
+        this.maxMappedShiftSize = maxMappedShiftSize;
+    }
+
+    /**
+     * If set to {@code true} the frames of an mp3 file are counted by walking every frame header when the audio
+     * header is read, so the track length and average bitrate are exact even for variable bitrate files without a
+     * Xing or VBRI frame. Otherwise the number of frames is taken from the Xing or VBRI frame, or estimated from the
+     * file size and the length of the first frame.
+     *
+     * Every frame header in the file is read, large files are read in parallel segments.
+     *
+     * @return {@code true} or {@code false}. Default is {@code false}.
+     */
+    public boolean isExactMp3Length()
+    {
+        return isExactMp3Length;
+    }
+
+    /**
+     * @param isExactMp3Length {@code true} to count every frame of mp3 files
+     * @see #isExactMp3Length()
+     */
+    public void setExactMp3Length(boolean isExactMp3Length)
+    {
+        this.isExactMp3Length = isExactMp3Length;
+    }
+
     public boolean isWriteWavForTwonky()
     {
         return isWriteWavForTwonky;
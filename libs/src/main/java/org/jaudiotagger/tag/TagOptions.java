@@ -0,0 +1,143 @@
+package org.jaudiotagger.tag;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Immutable options for reading and writing, passed to the {@link org.jaudiotagger.audio.AudioFileIO} read and write
+ * calls instead of changing the global {@link TagOptionSingleton}, so reads and writes needing different options,
+ * such as for different users of a service, can run at the same time.
+ *
+ * The options are copied when created, later changes to the {@link TagOptionSingleton} they were copied from are not
+ * seen. While a read or write made with them is in progress {@link TagOptionSingleton#getInstance()} returns a
+ * private copy of them on that thread, so every reader and writer uses them without them being passed down. Each
+ * scope has its own copy, so changing the options returned by getInstance() within a scope only affects that scope,
+ * never these options or other reads and writes using them. Reads and writes made without TagOptions use the global
+ * options as before.
+ *
+ * Only the read or write itself is made with these options. Changes made to a tag outside of a read or write, such
+ * as setting a field on the tag of a file that has been read, use the global options even if the file was read with
+ * TagOptions.
+ *
+ * Options that change state shared by the whole library, such as
+ * {@link TagOptionSingleton#setId3v2ITunes12_6WorkGroupingMode(boolean)}, cannot be set per call.
+ */
+public final class TagOptions
+{
+    /**
+     * Number of scopes open on all threads
+     */
+    private static final AtomicInteger active = new AtomicInteger();
+
+    private static final ThreadLocal<TagOptionSingleton> current = new ThreadLocal<TagOptionSingleton>();
+
+    private final TagOptionSingleton options;
+
+    private TagOptions(TagOptionSingleton options)
+    {
+        this.options = options;
+    }
+
+    /**
+     * @return copy of the options currently returned by {@link TagOptionSingleton#getInstance()}
+     */
+    public static TagOptions getDefault()
+    {
+        return copyOf(TagOptionSingleton.getInstance());
+    }
+
+    /**
+     * @param options
+     * @return copy of options
+     */
+    public static TagOptions copyOf(TagOptionSingleton options)
+    {
+        return new TagOptions(options.copy());
+    }
+
+    /**
+     * Create options differing from these, for example
+     * {@code TagOptions.getDefault().with(o -> o.setID3V2Version(ID3V2Version.ID3_V24))}
+     *
+     * @param change applied to a copy of these options
+     * @return the changed copy, these options are unchanged
+     */
+    public TagOptions with(Consumer<TagOptionSingleton> change)
+    {
+        TagOptionSingleton changed = options.copy();
+        change.accept(changed);
+        //Copied again so keeping hold of the instance given to change cannot alter the result
+        return copyOf(changed);
+    }
+
+    /**
+     * Make these the options returned by {@link TagOptionSingleton#getInstance()} on the calling thread until the
+     * scope is closed, the scope must be closed by the same thread.
+     *
+     * @param options options to use, or null to keep using the current options
+     * @return the scope, or null if options is null
+     */
+    public static Scope use(TagOptions options)
+    {
+        if (options == null)
+        {
+            return null;
+        }
+        Scope scope = new Scope(current.get());
+        current.set(options.options.copy());
+        active.incrementAndGet();
+        return scope;
+    }
+
+    /**
+     * Close the scope, for use in a finally block
+     *
+     * @param scope as returned by {@link #use(TagOptions)}, may be null
+     */
+    public static void end(Scope scope)
+    {
+        if (scope != null)
+        {
+            scope.close();
+        }
+    }
+
+    /**
+     * @return the options in use on the calling thread, or null if no scope is open
+     */
+    static TagOptionSingleton current()
+    {
+        if (active.get() == 0)
+        {
+            return null;
+        }
+        return current.get();
+    }
+
+    /**
+     * Restores the options that were in use before {@link #use(TagOptions)} when closed
+     */
+    public static final class Scope implements AutoCloseable
+    {
+        private final TagOptionSingleton previous;
+
+        private Scope(TagOptionSingleton previous)
+        {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close()
+        {
+            if (previous == null)
+            {
+                current.remove();
+            }
+            else
+            {
+                current.set(previous);
+            }
+            active.decrementAndGet();
+        }
+    }
+}
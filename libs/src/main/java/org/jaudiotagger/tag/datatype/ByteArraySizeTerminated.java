@@ -25,6 +25,7 @@ package org.jaudiotagger.tag.datatype;
 
 import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.id3.AbstractTagFrameBody;
+import org.jaudiotagger.tag.images.LazyImageData;
 
 import java.util.logging.Level;
 
@@ -34,6 +35,12 @@ import java.util.logging.Level;
  */
 public class ByteArraySizeTerminated extends AbstractDataType
 {
+    /**
+     * Location of the data within the file when it has not been read yet, see
+     * {@link org.jaudiotagger.tag.TagOptionSingleton#isLazyArtwork()}
+     */
+    private LazyImageData lazyValue;
+
     public ByteArraySizeTerminated(String identifier, AbstractTagFrameBody frameBody)
     {
         super(identifier, frameBody);
@@ -42,6 +49,64 @@ public class ByteArraySizeTerminated extends AbstractDataType
     public ByteArraySizeTerminated(ByteArraySizeTerminated object)
     {
         super(object);
+        this.lazyValue = object.lazyValue;
+    }
+
+    /**
+     * Hold the location of the data within the file instead of the data itself, the data is read from the file
+     * the first time {@link #getValue()} is called.
+     *
+     * @param lazyValue
+     */
+    public void setLazyValue(LazyImageData lazyValue)
+    {
+        this.value = null;
+        this.lazyValue = lazyValue;
+    }
+
+    /**
+     * @return location of the data within the file if not yet read, otherwise null
+     */
+    public LazyImageData getLazyValue()
+    {
+        return lazyValue;
+    }
+
+    /**
+     * Take the value of another instance, without reading it if held lazily
+     *
+     * @param object
+     */
+    public void copyValue(ByteArraySizeTerminated object)
+    {
+        if (object.lazyValue != null)
+        {
+            setLazyValue(object.lazyValue);
+        }
+        else
+        {
+            setValue(object.value);
+        }
+    }
+
+    public void setValue(Object value)
+    {
+        this.lazyValue = null;
+        super.setValue(value);
+    }
+
+    /**
+     * @return the data, reading it from the file if it was held lazily
+     * @throws java.io.UncheckedIOException if the data cannot be read from the file
+     */
+    public Object getValue()
+    {
+        if (lazyValue != null)
+        {
+            value = lazyValue.getData();
+            lazyValue = null;
+        }
+        return value;
     }
 
     /**
@@ -53,7 +118,11 @@ public class ByteArraySizeTerminated extends AbstractDataType
     {
         int len = 0;
 
-        if (value != null)
+        if (lazyValue != null)
+        {
+            len = lazyValue.getLength();
+        }
+        else if (value != null)
         {
             len = ((byte[]) value).length;
         }
@@ -63,7 +132,14 @@ public class ByteArraySizeTerminated extends AbstractDataType
 
     public boolean equals(Object obj)
     {
-        return obj instanceof ByteArraySizeTerminated && super.equals(obj);
+        if (!(obj instanceof ByteArraySizeTerminated))
+        {
+            return false;
+        }
+        //Compare the data itself
+        getValue();
+        ((ByteArraySizeTerminated) obj).getValue();
+        return super.equals(obj);
 
     }
 
@@ -86,6 +162,7 @@ public class ByteArraySizeTerminated extends AbstractDataType
         }
 
         //Empty Byte Array
+        lazyValue = null;
         if (offset >= arr.length)
         {
             value = null;
@@ -119,6 +196,6 @@ public class ByteArraySizeTerminated extends AbstractDataType
         {
             logger.config("Writing byte array" + this.getIdentifier());
         }
-        return (byte[]) value;
+        return (byte[]) getValue();
     }
 }
@@ -53,6 +53,12 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
     //when processing many files
     private String loggingFilename = "";
 
+    //Body data as read from file that has not been decoded yet, only used when decoding frame bodies lazily
+    private byte[] rawBody;
+
+    //The identifier to decode the raw body with, may not be the same as the frame identifier for v2.2 and v2.3 frames
+    private String rawBodyIdentifier;
+
     /**
      *
      * @return size in bytes of the frameid field
@@ -230,6 +236,117 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
         }
     }
 
+    /**
+     * If {@link TagOptionSingleton#isLazyId3FrameBodies()} keep a copy of the body data so it can be decoded the first time
+     * the body is needed rather than decoding it now
+     *
+     * @param identifier to decode the body with
+     * @param frameBodyBuffer containing just the body of this frame
+     * @param frameSize size of the body
+     * @return true if the body will be decoded later, false if it should be decoded now
+     */
+    protected boolean deferBody(String identifier, ByteBuffer frameBodyBuffer, int frameSize)
+    {
+        if (!TagOptionSingleton.getInstance().isLazyId3FrameBodies())
+        {
+            return false;
+        }
+        rawBody = new byte[frameSize];
+        frameBodyBuffer.duplicate().get(rawBody);
+        rawBodyIdentifier = identifier;
+        frameBody = null;
+        return true;
+    }
+
+    /**
+     * Frames of each version can only hold bodies that are valid for that version, convert a body that has just
+     * been read if it is not.
+     *
+     * @param body just read
+     * @return body to be held by this frame
+     */
+    protected AbstractTagFrameBody toVersionBody(AbstractTagFrameBody body)
+    {
+        return body;
+    }
+
+    /**
+     * Decode the body data held since the frame was read
+     */
+    private void decodeBody()
+    {
+        logger.finest(getLoggingFilename() + ":" + "Decoding deferred framebody:" + identifier);
+        try
+        {
+            frameBody = toVersionBody(readBody(rawBodyIdentifier, ByteBuffer.wrap(rawBody), rawBody.length));
+        }
+        catch (InvalidFrameException | InvalidDataTypeException e)
+        {
+            logger.warning(getLoggingFilename() + ":" + "Unable to decode frame body:" + identifier + ":" + e.getMessage() + " so using FrameBodyUnsupported");
+            frameBody = new FrameBodyUnsupported(identifier, rawBody);
+            frameBody.setHeader(this);
+        }
+        rawBody = null;
+        rawBodyIdentifier = null;
+    }
+
+    /**
+     * @return true unless the body is still held as read from file because it has not been needed yet
+     */
+    public boolean isBodyDecoded()
+    {
+        return rawBody == null;
+    }
+
+    /**
+     * Returns the body, decoding it first if it has not yet been decoded
+     *
+     * @return the body datatype
+     */
+    @Override
+    public AbstractTagFrameBody getBody()
+    {
+        if (rawBody != null)
+        {
+            decodeBody();
+        }
+        return frameBody;
+    }
+
+    @Override
+    public void setBody(AbstractTagFrameBody frameBody)
+    {
+        rawBody = null;
+        rawBodyIdentifier = null;
+        super.setBody(frameBody);
+    }
+
+    /**
+     * @return size of the body, without decoding it
+     */
+    protected int getBodySize()
+    {
+        if (rawBody != null)
+        {
+            return rawBody.length;
+        }
+        return frameBody.getSize();
+    }
+
+    /**
+     * @return the body data to write, the data as read from file if the body has never been decoded
+     */
+    protected byte[] getBodyBytes()
+    {
+        if (rawBody != null)
+        {
+            return rawBody;
+        }
+        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
+        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        return bodyOutputStream.toByteArray();
+    }
+
     protected boolean isPadding(byte[] buffer)
     {
         if(
@@ -890,6 +1007,10 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
 
     public boolean isEmpty()
     {
+        if (rawBody != null)
+        {
+            return false;
+        }
         AbstractTagFrameBody body = this.getBody();
         if (body == null)
         {
@@ -18,15 +18,21 @@ package org.jaudiotagger.tag.id3;
 import org.jaudiotagger.audio.exceptions.UnableToCreateFileException;
 import org.jaudiotagger.audio.exceptions.UnableToModifyFileException;
 import org.jaudiotagger.audio.generic.Utils;
+import org.jaudiotagger.audio.instrument.Instrumentation;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.logging.FileSystemMessage;
 import org.jaudiotagger.tag.*;
+import org.jaudiotagger.tag.datatype.AbstractDataType;
+import org.jaudiotagger.tag.datatype.ByteArraySizeTerminated;
 import org.jaudiotagger.tag.datatype.DataTypes;
 import org.jaudiotagger.tag.datatype.Pair;
 import org.jaudiotagger.tag.id3.framebody.*;
 import org.jaudiotagger.tag.id3.valuepair.ID3NumberTotalFields;
 import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ImageDataSource;
+import org.jaudiotagger.tag.images.LazyImageData;
+import org.jaudiotagger.tag.options.PaddingPolicy;
 import org.jaudiotagger.tag.reference.Languages;
 import org.jaudiotagger.tag.reference.PictureTypes;
 import org.jaudiotagger.utils.ShiftData;
@@ -36,7 +42,6 @@ import java.nio.ByteBuffer;
 import java.nio.channels.*;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.logging.Level;
@@ -120,6 +125,17 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
     protected static final String TYPE_INVALIDFRAMES = "invalidFrames";
     protected int invalidFrames = 0;
 
+    /**
+     * If not null picture data is not held in memory once read, just its location within this file, only set
+     * whilst the tag is being read
+     */
+    protected ImageDataSource imageDataSource;
+
+    /**
+     * Offset within the file of the start of the buffer frames are read from
+     */
+    protected long framesFileOffset;
+
     /**
      * True if files has a ID3v2 header
      *
@@ -1160,35 +1176,29 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      */
     public static long getV2TagSizeIfExists(File file) throws IOException
     {
-        FileInputStream fis = null;
-        FileChannel fc = null;
-        ByteBuffer bb = null;
-        try
+        try (FileInputStream fis = new FileInputStream(file); FileChannel fc = fis.getChannel())
         {
-            //Files
-            fis = new FileInputStream(file);
-            fc = fis.getChannel();
-
-            //Read possible Tag header  Byte Buffer
-            bb = ByteBuffer.allocate(TAG_HEADER_LENGTH);
-            fc.read(bb);
-            bb.flip();
-            if (bb.limit() < (TAG_HEADER_LENGTH))
-            {
-                return 0;
-            }
+            return getV2TagSizeIfExists(fc);
         }
-        finally
-        {
-            if (fc != null)
-            {
-                fc.close();
-            }
+    }
 
-            if (fis != null)
-            {
-                fis.close();
-            }
+    /**
+     * Checks to see if the channel starts with an ID3tag and if so return its size as reported in
+     * the tag header (including header), if no such tag exists return zero.
+     *
+     * @param fc
+     * @return the end of the tag in the file or zero if no tag exists.
+     * @throws java.io.IOException
+     */
+    public static long getV2TagSizeIfExists(FileChannel fc) throws IOException
+    {
+        //Read possible Tag header  Byte Buffer
+        ByteBuffer bb = ByteBuffer.allocate(TAG_HEADER_LENGTH);
+        fc.read(bb, 0);
+        bb.flip();
+        if (bb.limit() < (TAG_HEADER_LENGTH))
+        {
+            return 0;
         }
 
         //ID3 identifier
@@ -1253,16 +1263,20 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      * preferred size is the location of the audio, for other formats
      * preferred size is the size of the existing tag
      *
+     * If a padding policy is set it decides the padding added when the tag
+     * has to grow, otherwise {@link #TAG_SIZE_INCREMENT} is added
+     *
      * @param tagSize
      * @param preferredSize
      * @return
      */
-    protected int calculateTagSize(int tagSize, int preferredSize)
+    public int calculateTagSize(int tagSize, int preferredSize)
     {
+        PaddingPolicy paddingPolicy = TagOptionSingleton.getInstance().getPaddingPolicy();
         if(TagOptionSingleton.getInstance().isId3v2PaddingWillShorten())
         {
-            //We just use required size
-            return tagSize;
+            //We just use required size, plus any padding the policy reserves
+            return paddingPolicy == null ? tagSize : tagSize + paddingPolicy.getPadding(tagSize);
         }
         else
         {
@@ -1273,10 +1287,29 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
             }
             //There is not enough room as we need to move the audio file we might
             //as well increase it more than necessary for future changes
-            return tagSize + TAG_SIZE_INCREMENT;
+            return paddingPolicy == null ? tagSize + TAG_SIZE_INCREMENT : tagSize + paddingPolicy.getPadding(tagSize);
         }
     }
 
+    /**
+     * Size to write this tag as when it is added to a Wav or Aiff file that has no ID3 chunk, so the new
+     * chunk gets any padding the padding policy reserves
+     *
+     * @return tag size including padding, or 0 for no padding if there is no padding policy
+     * @throws IOException
+     */
+    public int getNewTagSize() throws IOException
+    {
+        PaddingPolicy paddingPolicy = TagOptionSingleton.getInstance().getPaddingPolicy();
+        if (paddingPolicy == null)
+        {
+            return 0;
+        }
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        write(baos, 0);
+        return baos.size() + paddingPolicy.getPadding(baos.size());
+    }
+
     /**
      * Write the data from the buffer to the file
      *
@@ -1290,7 +1323,7 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      */
     protected void writeBufferToFile(File file, ByteBuffer headerBuffer, byte[] bodyByteBuffer, int padding, int sizeIncPadding, long audioStartLocation) throws IOException
     {
-        try(SeekableByteChannel fc = Files.newByteChannel(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE))
+        try(SeekableByteChannel fc = Instrumentation.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE))
         {
             //We need to adjust location of audio file if true
             if (sizeIncPadding > audioStartLocation)
@@ -1371,6 +1404,81 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
     	existing.add(newFrame);
     }
 
+    /**
+     * If reading artwork lazily replace the picture data of a just read APIC/PIC frame with its location within
+     * the file.
+     *
+     * The picture data is the last field of the frame so should be found at the end of the frame within the buffer,
+     * it is only replaced if found there unaltered which will not be the case if the frame has been compressed,
+     * encrypted or unsynchronized.
+     *
+     * @param frame the frame just read
+     * @param buffer the frame was read from, positioned at the end of the frame
+     * @param bufferFileOffset offset within the file of the start of buffer
+     */
+    protected void deferPictureData(AbstractID3v2Frame frame, ByteBuffer buffer, long bufferFileOffset)
+    {
+        if (imageDataSource == null)
+        {
+            return;
+        }
+        if (!frame.isBodyDecoded()
+                && !frame.getIdentifier().equals(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE)
+                && !frame.getIdentifier().equals(ID3v22Frames.FRAME_ID_V2_ATTACHED_PICTURE))
+        {
+            return;
+        }
+        if (!(frame.getBody() instanceof FrameBodyAPIC || frame.getBody() instanceof FrameBodyPIC))
+        {
+            return;
+        }
+
+        AbstractDataType pictureData = frame.getBody().getObject(DataTypes.OBJ_PICTURE_DATA);
+        if (!(pictureData instanceof ByteArraySizeTerminated) || pictureData.getValue() == null)
+        {
+            return;
+        }
+        byte[] data = (byte[]) pictureData.getValue();
+        int start = buffer.position() - data.length;
+        if (start < 0)
+        {
+            return;
+        }
+
+        ByteBuffer raw = buffer.duplicate();
+        raw.limit(buffer.position());
+        raw.position(start);
+        if (raw.equals(ByteBuffer.wrap(data)))
+        {
+            LazyImageData lazyImageData = imageDataSource.create(bufferFileOffset + start, data.length);
+            ((ByteArraySizeTerminated) pictureData).setLazyValue(lazyImageData);
+        }
+        else
+        {
+            logger.config(getLoggingFilename() + ":Picture data of " + frame.getIdentifier() + " not stored as is, so held in memory");
+        }
+    }
+
+    /**
+     * Set the image data of artwork from an APIC/PIC frame, sharing the image data location if it has not been
+     * read yet
+     *
+     * @param artwork
+     * @param body
+     */
+    protected void setArtworkImageData(Artwork artwork, AbstractTagFrameBody body)
+    {
+        AbstractDataType pictureData = body.getObject(DataTypes.OBJ_PICTURE_DATA);
+        if (pictureData instanceof ByteArraySizeTerminated && ((ByteArraySizeTerminated) pictureData).getLazyValue() != null)
+        {
+            artwork.setLazyBinaryData(((ByteArraySizeTerminated) pictureData).getLazyValue());
+        }
+        else
+        {
+            artwork.setBinaryData((byte[]) body.getObjectValue(DataTypes.OBJ_PICTURE_DATA));
+        }
+    }
+
     /**
      * Add frame to the frame map
      *
@@ -1379,7 +1487,8 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      */
     protected void loadFrameIntoMap(String frameId, AbstractID3v2Frame next)
     {
-        if (next.getBody() instanceof FrameBodyEncrypted)
+        //Encrypted frames are never left undecoded
+        if (next.isBodyDecoded() && next.getBody() instanceof FrameBodyEncrypted)
         {
             loadFrameIntoSpecifiedMap(encryptedFrameMap, frameId, next);
         }
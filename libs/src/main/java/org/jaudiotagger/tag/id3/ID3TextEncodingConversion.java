@@ -26,15 +26,16 @@ public class ID3TextEncodingConversion
      */
     public static byte  getTextEncoding(AbstractTagFrame header, byte textEncoding)
     {
+        TagOptionSingleton options = TagOptionSingleton.getInstance();
 
         //Should not happen, assume v23 and provide a warning
         if (header == null)
         {
             logger.warning("Header has not yet been set for this framebody");
 
-            if (TagOptionSingleton.getInstance().isResetTextEncodingForExistingFrames())
+            if (options.isResetTextEncodingForExistingFrames())
             {
-                return TagOptionSingleton.getInstance().getId3v23DefaultTextEncoding();
+                return options.getId3v23DefaultTextEncoding();
             }
             else
             {
@@ -43,10 +44,10 @@ public class ID3TextEncodingConversion
         }
         else if (header instanceof ID3v24Frame)
         {
-            if (TagOptionSingleton.getInstance().isResetTextEncodingForExistingFrames())
+            if (options.isResetTextEncodingForExistingFrames())
             {
                 //Replace with default
-                return TagOptionSingleton.getInstance().getId3v24DefaultTextEncoding();
+                return options.getId3v24DefaultTextEncoding();
             }
             else
             {
@@ -56,10 +57,10 @@ public class ID3TextEncodingConversion
         }
         else
         {
-            if (TagOptionSingleton.getInstance().isResetTextEncodingForExistingFrames())
+            if (options.isResetTextEncodingForExistingFrames())
             {
                 //Replace with default
-                return TagOptionSingleton.getInstance().getId3v23DefaultTextEncoding();
+                return options.getId3v23DefaultTextEncoding();
             }
             else
             {
@@ -237,21 +237,30 @@ public class ID3v11Tag extends ID3v1Tag
      * @throws IOException
      */
     public ID3v11Tag(RandomAccessFile file, String loggingFilename) throws TagNotFoundException, IOException
+    {
+        this(file.getChannel(), loggingFilename);
+    }
+
+    /**
+     * Creates a new ID3v11 datatype from the end of the channel.
+     *
+     * @param fc
+     * @param loggingFilename
+     * @throws TagNotFoundException
+     * @throws IOException
+     */
+    public ID3v11Tag(FileChannel fc, String loggingFilename) throws TagNotFoundException, IOException
     {
         setLoggingFilename(loggingFilename);
-        FileChannel fc;
         ByteBuffer byteBuffer = ByteBuffer.allocate(TAG_LENGTH);
-        if(file.length() < TAG_LENGTH)
+        if(fc.size() < TAG_LENGTH)
         {
             throw new IOException("File not large enough to contain a tag");
         }
-        fc = file.getChannel();
-        fc.position(file.length() - TAG_LENGTH);
-
+        fc.position(fc.size() - TAG_LENGTH);
         fc.read(byteBuffer);
         byteBuffer.flip();
         read(byteBuffer);
-
     }
 
     /**
@@ -185,19 +185,26 @@ public class ID3v1Tag extends AbstractID3v1Tag implements Tag
      */
     public ID3v1Tag(RandomAccessFile file, String loggingFilename) throws TagNotFoundException, IOException
     {
-        setLoggingFilename(loggingFilename);
-        FileChannel fc;
-        ByteBuffer byteBuffer;
-
-        fc = file.getChannel();
+        this(file.getChannel(), loggingFilename);
+    }
 
-        if(file.length() < TAG_LENGTH)
+    /**
+     * Creates a new ID3v1 datatype from the end of the channel.
+     *
+     * @param fc
+     * @param loggingFilename
+     * @throws TagNotFoundException
+     * @throws IOException
+     */
+    public ID3v1Tag(FileChannel fc, String loggingFilename) throws TagNotFoundException, IOException
+    {
+        setLoggingFilename(loggingFilename);
+        ByteBuffer byteBuffer = ByteBuffer.allocate(TAG_LENGTH);
+        if(fc.size() < TAG_LENGTH)
         {
             throw new IOException("File not large enough to contain a tag");
         }
-
-        fc.position(file.length() - TAG_LENGTH);
-        byteBuffer = ByteBuffer.allocate(TAG_LENGTH);
+        fc.position(fc.size() - TAG_LENGTH);
         fc.read(byteBuffer);
         byteBuffer.flip();
         read(byteBuffer);
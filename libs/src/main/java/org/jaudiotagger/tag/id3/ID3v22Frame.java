@@ -304,7 +304,7 @@ public class ID3v22Frame extends AbstractID3v2Frame
      */
     public int getSize()
     {
-        return frameBody.getSize() + getFrameHeaderSize();
+        return getBodySize() + getFrameHeaderSize();
     }
 
     @Override 
@@ -390,7 +390,10 @@ public class ID3v22Frame extends AbstractID3v2Frame
 
             try
             {
-                frameBody = readBody(id, frameBodyBuffer, frameSize);
+                if (!deferBody(id, frameBodyBuffer, frameSize))
+                {
+                    frameBody = readBody(id, frameBodyBuffer, frameSize);
+                }
             }
             finally
             {
@@ -428,14 +431,13 @@ public class ID3v22Frame extends AbstractID3v2Frame
         //write body
         ByteBuffer headerBuffer = ByteBuffer.allocate(getFrameHeaderSize());
 
-        //Write Frame Body Data
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        //Write Frame Body Data, as read if never decoded
+        byte[] bodyBuffer = getBodyBytes();
 
         //Write Frame Header
         //Write Frame ID must adjust can only be 3 bytes long
         headerBuffer.put(getIdentifier().getBytes(StandardCharsets.ISO_8859_1), 0, getFrameIdSize());
-        encodeSize(headerBuffer, frameBody.getSize());
+        encodeSize(headerBuffer, bodyBuffer.length);
 
         //Add header to the Byte Array Output Stream
         try
@@ -443,7 +445,7 @@ public class ID3v22Frame extends AbstractID3v2Frame
             tagBuffer.write(headerBuffer.array());
 
             //Add body to the Byte Array Output Stream
-            tagBuffer.write(bodyOutputStream.toByteArray());
+            tagBuffer.write(bodyBuffer);
         }
         catch (IOException ioe)
         {
@@ -486,7 +488,7 @@ public class ID3v22Frame extends AbstractID3v2Frame
     {
         MP3File.getStructureFormatter().openHeadingElement(TYPE_FRAME, getIdentifier());
         MP3File.getStructureFormatter().addElement(TYPE_FRAME_SIZE, frameSize);
-        frameBody.createStructure();
+        getBody().createStructure();
         MP3File.getStructureFormatter().closeHeadingElement(TYPE_FRAME);
     }
 
@@ -24,6 +24,7 @@ import org.jaudiotagger.tag.id3.framebody.*;
 import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
 import org.jaudiotagger.tag.images.Artwork;
 import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.images.ImageDataSource;
 import org.jaudiotagger.tag.reference.PictureTypes;
 
 import java.io.File;
@@ -198,9 +199,31 @@ public class ID3v22Tag extends AbstractID3v2Tag
      * @throws TagException
      */
     public ID3v22Tag(ByteBuffer buffer, String loggingFilename) throws TagException
+    {
+        this(buffer, loggingFilename, null);
+    }
+
+    /**
+     * Creates a new ID3v2_2 datatype, if imageDataSource is not null picture data is not held in memory but
+     * read from the file when needed.
+     *
+     * @param buffer holding the file imageDataSource refers to from its start
+     * @param loggingFilename
+     * @param imageDataSource
+     * @throws TagException
+     */
+    public ID3v22Tag(ByteBuffer buffer, String loggingFilename, ImageDataSource imageDataSource) throws TagException
     {
         setLoggingFilename(loggingFilename);
-        this.read(buffer);
+        this.imageDataSource = imageDataSource;
+        try
+        {
+            this.read(buffer);
+        }
+        finally
+        {
+            this.imageDataSource = null;
+        }
     }
 
 
@@ -380,12 +403,15 @@ public class ID3v22Tag extends AbstractID3v2Tag
         size = ID3SyncSafeInteger.bufferToValue(byteBuffer);
 
         //Slice Buffer, so position markers tally with size (i.e do not include tagheader)
+        framesFileOffset = byteBuffer.position();
         ByteBuffer bufferWithoutHeader = byteBuffer.slice();
 
         //We need to synchronize the buffer
         if (unsynchronization)
         {
             bufferWithoutHeader = ID3Unsynchronization.synchronize(bufferWithoutHeader);
+            //Positions no longer tally with the file
+            imageDataSource = null;
         }
         readFrames(bufferWithoutHeader, size);
         logger.config(getLoggingFilename() + ":" + "Loaded Frames,there are:" + frameMap.keySet().size());
@@ -418,6 +444,7 @@ public class ID3v22Tag extends AbstractID3v2Tag
                 //Read Frame
                 logger.config(getLoggingFilename() + ":" + "looking for next frame at:" + byteBuffer.position());
                 next = new ID3v22Frame(byteBuffer, getLoggingFilename());
+                deferPictureData(next, byteBuffer, framesFileOffset);
                 String id = next.getIdentifier();
                 loadFrameIntoMap(id, next);
             }
@@ -790,7 +817,7 @@ public class ID3v22Tag extends AbstractID3v2Tag
             }
             else
             {
-                artwork.setBinaryData(coverArt.getImageData());
+                setArtworkImageData(artwork, coverArt);
             }
             artworkList.add(artwork);
         }
@@ -898,7 +925,8 @@ public class ID3v22Tag extends AbstractID3v2Tag
 
     protected void loadFrameIntoMap(String frameId, AbstractID3v2Frame next)
     {
-        if (next.getBody() instanceof FrameBodyTCON)
+        //Only decode the genre frame if not yet decoded
+        if ((next.isBodyDecoded() || frameId.equals(ID3v22Frames.FRAME_ID_V2_GENRE)) && next.getBody() instanceof FrameBodyTCON)
         {
             ((FrameBodyTCON)next.getBody()).setV23Format();
         }
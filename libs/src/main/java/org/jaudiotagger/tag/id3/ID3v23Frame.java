@@ -321,7 +321,7 @@ public class ID3v23Frame extends AbstractID3v2Frame
      */
     public int getSize()
     {
-        return frameBody.getSize() + ID3v23Frame.FRAME_HEADER_SIZE;
+        return getBodySize() + ID3v23Frame.FRAME_HEADER_SIZE;
     }
 
     /**
@@ -499,15 +499,14 @@ public class ID3v23Frame extends AbstractID3v2Frame
                 //Create Buffer that only contains the body of this frame rather than the remainder of tag
                 frameBodyBuffer = byteBuffer.slice();
                 frameBodyBuffer.limit(realFrameSize);
-                frameBody = readBody(id, frameBodyBuffer, realFrameSize);
+                if (!deferBody(id, frameBodyBuffer, realFrameSize))
+                {
+                    frameBody = readBody(id, frameBodyBuffer, realFrameSize);
+                }
             }
-            //TODO code seems to assume that if the frame created is not a v23FrameBody
-            //it should be deprecated, but what about if somehow a V24Frame has been put into a V23 Tag, shouldn't
-            //it then be created as FrameBodyUnsupported
-            if (!(frameBody instanceof ID3v23FrameBody))
+            if (isBodyDecoded())
             {
-                logger.config(getLoggingFilename() + ":Converted frameBody with:" + identifier + " to deprecated frameBody");
-                frameBody = new FrameBodyDeprecated((AbstractID3v2FrameBody) frameBody);
+                frameBody = toVersionBody(frameBody);
             }
         }
         finally
@@ -517,6 +516,26 @@ public class ID3v23Frame extends AbstractID3v2Frame
         }
     }
 
+    /**
+     * Bodies that are not valid for v2.3 are held as deprecated bodies
+     *
+     * @param body just read
+     * @return body to be held by this frame
+     */
+    //TODO code seems to assume that if the frame created is not a v23FrameBody
+    //it should be deprecated, but what about if somehow a V24Frame has been put into a V23 Tag, shouldn't
+    //it then be created as FrameBodyUnsupported
+    @Override
+    protected AbstractTagFrameBody toVersionBody(AbstractTagFrameBody body)
+    {
+        if (!(body instanceof ID3v23FrameBody))
+        {
+            logger.config(getLoggingFilename() + ":Converted frameBody with:" + identifier + " to deprecated frameBody");
+            return new FrameBodyDeprecated((AbstractID3v2FrameBody) body);
+        }
+        return body;
+    }
+
     /**
      * Write the frame to bufferOutputStream
      *
@@ -528,9 +547,8 @@ public class ID3v23Frame extends AbstractID3v2Frame
         //write body
         ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
 
-        //Write Frame Body Data
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        //Write Frame Body Data, as read if never decoded
+        byte[] bodyBuffer = getBodyBytes();
         //Write Frame Header write Frame ID
         if (getIdentifier().length() == 3)
         {
@@ -538,9 +556,9 @@ public class ID3v23Frame extends AbstractID3v2Frame
         }
         headerBuffer.put(getIdentifier().getBytes(StandardCharsets.ISO_8859_1), 0, FRAME_ID_SIZE);
         //Write Frame Size
-        int size = frameBody.getSize();
+        int size = bodyBuffer.length;
         logger.fine("Frame Size Is:" + size);
-        headerBuffer.putInt(frameBody.getSize());
+        headerBuffer.putInt(size);
 
         //Write the Flags
         //Status Flags:leave as they were when we read
@@ -569,7 +587,7 @@ public class ID3v23Frame extends AbstractID3v2Frame
             }
 
             //Add body to the Byte Array Output Stream
-            tagBuffer.write(bodyOutputStream.toByteArray());
+            tagBuffer.write(bodyBuffer);
         }
         catch (IOException ioe)
         {
@@ -848,7 +866,7 @@ public class ID3v23Frame extends AbstractID3v2Frame
         MP3File.getStructureFormatter().addElement(TYPE_FRAME_SIZE, frameSize);
         statusFlags.createStructure();
         encodingFlags.createStructure();
-        frameBody.createStructure();
+        getBody().createStructure();
         MP3File.getStructureFormatter().closeHeadingElement(TYPE_FRAME);
     }
 
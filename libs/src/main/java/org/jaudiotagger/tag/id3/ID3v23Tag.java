@@ -25,6 +25,7 @@ import org.jaudiotagger.tag.datatype.PairedTextEncodedStringNullTerminated;
 import org.jaudiotagger.tag.id3.framebody.*;
 import org.jaudiotagger.tag.images.Artwork;
 import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.images.ImageDataSource;
 import org.jaudiotagger.tag.reference.PictureTypes;
 
 import java.io.File;
@@ -356,9 +357,31 @@ public class ID3v23Tag extends AbstractID3v2Tag
      * @throws TagException
      */
     public ID3v23Tag(ByteBuffer buffer, String loggingFilename) throws TagException
+    {
+        this(buffer, loggingFilename, null);
+    }
+
+    /**
+     * Creates a new ID3v2_3 datatype, if imageDataSource is not null picture data is not held in memory but
+     * read from the file when needed.
+     *
+     * @param buffer holding the file imageDataSource refers to from its start
+     * @param loggingFilename
+     * @param imageDataSource
+     * @throws TagException
+     */
+    public ID3v23Tag(ByteBuffer buffer, String loggingFilename, ImageDataSource imageDataSource) throws TagException
     {
         setLoggingFilename(loggingFilename);
-        this.read(buffer);
+        this.imageDataSource = imageDataSource;
+        try
+        {
+            this.read(buffer);
+        }
+        finally
+        {
+            this.imageDataSource = null;
+        }
     }
 
 
@@ -586,11 +609,14 @@ public class ID3v23Tag extends AbstractID3v2Tag
         }
 
         //Slice Buffer, so position markers tally with size (i.e do not include tagHeader)
+        framesFileOffset = buffer.position();
         ByteBuffer bufferWithoutHeader = buffer.slice();
         //We need to synchronize the buffer
         if (isUnsynchronization())
         {
             bufferWithoutHeader = ID3Unsynchronization.synchronize(bufferWithoutHeader);
+            //Positions no longer tally with the file
+            imageDataSource = null;
         }
 
         readFrames(bufferWithoutHeader, size);
@@ -630,6 +656,7 @@ public class ID3v23Tag extends AbstractID3v2Tag
                 int posBeforeRead = byteBuffer.position();
                 logger.config(getLoggingFilename() + ":Looking for next frame at:" + posBeforeRead);
                 next = new ID3v23Frame(byteBuffer, getLoggingFilename());
+                deferPictureData(next, byteBuffer, framesFileOffset);
                 id = next.getIdentifier();
                 logger.config(getLoggingFilename() + ":Found "+ id+ " at frame at:" + posBeforeRead);
                 loadFrameIntoMap(id, next);
@@ -997,7 +1024,7 @@ public class ID3v23Tag extends AbstractID3v2Tag
             }
             else
             {
-                artwork.setBinaryData(coverArt.getImageData());
+                setArtworkImageData(artwork, coverArt);
             }
             artworkList.add(artwork);
         }
@@ -1227,7 +1254,8 @@ public class ID3v23Tag extends AbstractID3v2Tag
 
     protected void loadFrameIntoMap(String frameId, AbstractID3v2Frame next)
     {
-        if (next.getBody() instanceof FrameBodyTCON)
+        //Only decode the genre frame if not yet decoded
+        if ((next.isBodyDecoded() || frameId.equals(ID3v23Frames.FRAME_ID_V3_GENRE)) && next.getBody() instanceof FrameBodyTCON)
         {
             ((FrameBodyTCON)next.getBody()).setV23Format();
         }
@@ -391,7 +391,7 @@ public class ID3v24Frame extends AbstractID3v2Frame
      */
     public int getSize()
     {
-        return frameBody.getSize() + ID3v24Frame.FRAME_HEADER_SIZE;
+        return getBodySize() + ID3v24Frame.FRAME_HEADER_SIZE;
     }
 
     /**
@@ -670,14 +670,13 @@ public class ID3v24Frame extends AbstractID3v2Frame
                 frameBodyBuffer.limit(realFrameSize);
                 frameBody = readEncryptedBody(identifier, byteBuffer, frameSize);
             }
-            else
+            else if (!deferBody(identifier, frameBodyBuffer, syncSize))
             {
                 frameBody = readBody(identifier, frameBodyBuffer, syncSize);
             }
-            if (!(frameBody instanceof ID3v24FrameBody))
+            if (isBodyDecoded())
             {
-                logger.config(getLoggingFilename() + ":" + "Converted frame body with:" + identifier + " to deprecated framebody");
-                frameBody = new FrameBodyDeprecated((AbstractID3v2FrameBody) frameBody);
+                frameBody = toVersionBody(frameBody);
             }
         }
         finally
@@ -687,6 +686,23 @@ public class ID3v24Frame extends AbstractID3v2Frame
         }
     }
 
+    /**
+     * Bodies that are not valid for v2.4 are held as deprecated bodies
+     *
+     * @param body just read
+     * @return body to be held by this frame
+     */
+    @Override
+    protected AbstractTagFrameBody toVersionBody(AbstractTagFrameBody body)
+    {
+        if (!(body instanceof ID3v24FrameBody))
+        {
+            logger.config(getLoggingFilename() + ":" + "Converted frame body with:" + identifier + " to deprecated framebody");
+            return new FrameBodyDeprecated((AbstractID3v2FrameBody) body);
+        }
+        return body;
+    }
+
     /**
      * Write the frame. Writes the frame header but writing the data is delegated to the
      * frame body.
@@ -701,12 +717,10 @@ public class ID3v24Frame extends AbstractID3v2Frame
         //write bodybuffer
         ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
 
-        //Write Frame Body Data to a new stream
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        //Write Frame Body Data, as read if never decoded
+        byte[] bodyBuffer = getBodyBytes();
 
         //Does it need unsynchronizing, and are we allowing unsychronizing
-        byte[] bodyBuffer = bodyOutputStream.toByteArray();
         unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyBuffer);
         if (unsynchronization)
         {
@@ -1128,7 +1142,7 @@ public class ID3v24Frame extends AbstractID3v2Frame
         MP3File.getStructureFormatter().addElement(TYPE_FRAME_SIZE, frameSize);
         statusFlags.createStructure();
         encodingFlags.createStructure();
-        frameBody.createStructure();
+        getBody().createStructure();
         MP3File.getStructureFormatter().closeHeadingElement(TYPE_FRAME);
     }
 
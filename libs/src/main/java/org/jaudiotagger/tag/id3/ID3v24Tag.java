@@ -24,6 +24,7 @@ import org.jaudiotagger.tag.datatype.Pair;
 import org.jaudiotagger.tag.id3.framebody.*;
 import org.jaudiotagger.tag.images.Artwork;
 import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.images.ImageDataSource;
 import org.jaudiotagger.tag.lyrics3.AbstractLyrics3;
 import org.jaudiotagger.tag.lyrics3.Lyrics3v2;
 import org.jaudiotagger.tag.lyrics3.Lyrics3v2Field;
@@ -629,12 +630,34 @@ public class ID3v24Tag extends AbstractID3v2Tag
      * @throws TagException
      */
     public ID3v24Tag(ByteBuffer buffer, String loggingFilename) throws TagException
+    {
+        this(buffer, loggingFilename, null);
+    }
+
+    /**
+     * Creates a new ID3v2_4 datatype, if imageDataSource is not null picture data is not held in memory but
+     * read from the file when needed.
+     *
+     * @param buffer holding the file imageDataSource refers to from its start
+     * @param loggingFilename
+     * @param imageDataSource
+     * @throws TagException
+     */
+    public ID3v24Tag(ByteBuffer buffer, String loggingFilename, ImageDataSource imageDataSource) throws TagException
     {
         frameMap = new LinkedHashMap<>();
         encryptedFrameMap = new LinkedHashMap<>();
 
         setLoggingFilename(loggingFilename);
-        this.read(buffer);
+        this.imageDataSource = imageDataSource;
+        try
+        {
+            this.read(buffer);
+        }
+        finally
+        {
+            this.imageDataSource = null;
+        }
     }
 
 
@@ -881,6 +904,7 @@ public class ID3v24Tag extends AbstractID3v2Tag
 
         //Note if there was an extended header the size value has padding taken
         //off so we dont search it.
+        framesFileOffset = 0;
         readFrames(byteBuffer, size);
     }
 
@@ -909,6 +933,7 @@ public class ID3v24Tag extends AbstractID3v2Tag
                 //Read Frame
                 logger.config(getLoggingFilename() + ":" + "looking for next frame at:" + byteBuffer.position());
                 next = new ID3v24Frame(byteBuffer, getLoggingFilename());
+                deferPictureData(next, byteBuffer, framesFileOffset);
                 id = next.getIdentifier();
                 loadFrameIntoMap(id, next);
             }
@@ -1319,7 +1344,7 @@ public class ID3v24Tag extends AbstractID3v2Tag
             }
             else
             {
-                artwork.setBinaryData(coverArt.getImageData());
+                setArtworkImageData(artwork, coverArt);
             }
             artworkList.add(artwork);
         }
@@ -116,7 +116,7 @@ public class FrameBodyAPIC extends AbstractID3v2FrameBody implements ID3v24Frame
         this.setObjectValue(DataTypes.OBJ_MIME_TYPE, ImageFormats.getMimeTypeForFormat((String) body.getObjectValue(DataTypes.OBJ_IMAGE_FORMAT)));
         this.setObjectValue(DataTypes.OBJ_PICTURE_TYPE, body.getObjectValue(DataTypes.OBJ_PICTURE_TYPE));
         this.setObjectValue(DataTypes.OBJ_DESCRIPTION, body.getDescription());
-        this.setObjectValue(DataTypes.OBJ_PICTURE_DATA, body.getObjectValue(DataTypes.OBJ_PICTURE_DATA));
+        ((ByteArraySizeTerminated) this.getObject(DataTypes.OBJ_PICTURE_DATA)).copyValue((ByteArraySizeTerminated) body.getObject(DataTypes.OBJ_PICTURE_DATA));
 
     }
 
@@ -152,14 +152,8 @@ public class FrameBodyAPIC extends AbstractID3v2FrameBody implements ID3v24Frame
 
     public String getUserFriendlyValue()
     {
-        if(getImageData()!=null)
-        {
-            return getMimeType() + ":" + getDescription() + ":" + getImageData().length;
-        }
-        else
-        {
-            return getMimeType() + ":" + getDescription() + ":0";
-        }
+        //Size of the picture data, without reading it if held lazily
+        return getMimeType() + ":" + getDescription() + ":" + getObject(DataTypes.OBJ_PICTURE_DATA).getSize();
     }
 
 
@@ -124,9 +124,8 @@ public class FrameBodyPIC extends AbstractID3v2FrameBody implements ID3v22FrameB
     {
         this.setObjectValue(DataTypes.OBJ_TEXT_ENCODING, body.getTextEncoding());
         this.setObjectValue(DataTypes.OBJ_IMAGE_FORMAT, ImageFormats.getFormatForMimeType((String) body.getObjectValue(DataTypes.OBJ_MIME_TYPE)));
-        this.setObjectValue(DataTypes.OBJ_PICTURE_DATA, body.getObjectValue(DataTypes.OBJ_PICTURE_DATA));
+        ((ByteArraySizeTerminated) this.getObject(DataTypes.OBJ_PICTURE_DATA)).copyValue((ByteArraySizeTerminated) body.getObject(DataTypes.OBJ_PICTURE_DATA));
         this.setDescription(body.getDescription());
-        this.setImageData(body.getImageData());
     }
 
     /**
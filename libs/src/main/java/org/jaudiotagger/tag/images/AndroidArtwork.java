@@ -14,6 +14,7 @@ import java.io.RandomAccessFile;
 public class AndroidArtwork implements Artwork
 {
     private byte[]          binaryData;
+    private LazyImageData   lazyBinaryData;
     private String          mimeType="";
     private String          description="";
     private boolean         isLinked=false;
@@ -28,12 +29,28 @@ public class AndroidArtwork implements Artwork
     }
     public byte[] getBinaryData()
     {
+        if (binaryData == null && lazyBinaryData != null)
+        {
+            return lazyBinaryData.getData();
+        }
         return binaryData;
     }
 
     public void setBinaryData(byte[] binaryData)
     {
         this.binaryData = binaryData;
+        this.lazyBinaryData = null;
+    }
+
+    public void setLazyBinaryData(LazyImageData lazyBinaryData)
+    {
+        this.binaryData = null;
+        this.lazyBinaryData = lazyBinaryData;
+    }
+
+    public LazyImageData getLazyBinaryData()
+    {
+        return lazyBinaryData;
     }
 
     public String getMimeType()
@@ -193,6 +210,10 @@ public class AndroidArtwork implements Artwork
             setLinked(coverArt.isImageUrl());
             setImageUrl(coverArt.getImageUrl());
         }
+        else if (coverArt.getLazyImageData() != null)
+        {
+            setLazyBinaryData(coverArt.getLazyImageData());
+        }
         else
         {
             setBinaryData(coverArt.getImageData());
@@ -10,11 +10,29 @@ import java.io.IOException;
  */
 public interface Artwork
 {
+    /**
+     * If the artwork was read lazily this reads the image data from the file the first time it is called
+     *
+     * @return the image data
+     * @throws java.io.UncheckedIOException if lazily read image data cannot be read from the file
+     */
     public byte[] getBinaryData();
 
 
     public void setBinaryData(byte[] binaryData);
 
+    /**
+     * Set image data that will be read from the file when {@link #getBinaryData()} is first called
+     *
+     * @param lazyBinaryData
+     */
+    public void setLazyBinaryData(LazyImageData lazyBinaryData);
+
+    /**
+     * @return the lazily read image data, or null if the image data was set directly
+     */
+    public LazyImageData getLazyBinaryData();
+
     public String getMimeType();
 
     public void setMimeType(String mimeType);
@@ -0,0 +1,74 @@
+package org.jaudiotagger.tag.images;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * The file artwork is read from when artwork is loaded lazily, see
+ * {@link org.jaudiotagger.tag.TagOptionSingleton#setLazyArtwork(boolean)}
+ *
+ * The size and modification time of the file are recorded when the tag is read so that if the file is changed
+ * afterwards the image data is not read from the wrong place.
+ */
+public final class ImageDataSource
+{
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+
+    private ImageDataSource(Path path, long size, long lastModified)
+    {
+        this.path = path;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * @param path
+     * @return source for the file as it is now
+     * @throws IOException
+     */
+    public static ImageDataSource of(Path path) throws IOException
+    {
+        return new ImageDataSource(path, Files.size(path), Files.getLastModifiedTime(path).toMillis());
+    }
+
+    /**
+     * @param offset of the image data within the file
+     * @param length of the image data
+     * @return handle for image data that is not read until needed
+     */
+    public LazyImageData create(long offset, int length)
+    {
+        return new LazyImageData(this, offset, length);
+    }
+
+    public Path getPath()
+    {
+        return path;
+    }
+
+    byte[] read(long offset, int length) throws IOException
+    {
+        if (Files.size(path) != size || Files.getLastModifiedTime(path).toMillis() != lastModified)
+        {
+            throw new IOException("Unable to read image data, " + path + " has been modified since it was read");
+        }
+
+        ByteBuffer data = ByteBuffer.allocate(length);
+        try (FileChannel fc = FileChannel.open(path))
+        {
+            while (data.hasRemaining())
+            {
+                if (fc.read(data, offset + data.position()) < 0)
+                {
+                    throw new IOException("Unable to read image data, end of " + path + " reached at " + (offset + data.position()));
+                }
+            }
+        }
+        return data.array();
+    }
+}
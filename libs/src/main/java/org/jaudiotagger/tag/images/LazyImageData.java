@@ -0,0 +1,98 @@
+package org.jaudiotagger.tag.images;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Image data held as an offset and length within a file, the data is only read when first needed.
+ *
+ * The same instance is shared by the field it was read from and any {@link Artwork} created from that field, so
+ * the data is only read once and held once.
+ */
+public final class LazyImageData
+{
+    private final ImageDataSource source;
+    private final long offset;
+    private final int length;
+    private volatile byte[] data;
+
+    LazyImageData(ImageDataSource source, long offset, int length)
+    {
+        this.source = source;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public ImageDataSource getSource()
+    {
+        return source;
+    }
+
+    public long getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * @return length of the image data, available without reading it
+     */
+    public int getLength()
+    {
+        return length;
+    }
+
+    /**
+     * @return true if the image data has been read from the file
+     */
+    public boolean isLoaded()
+    {
+        return data != null;
+    }
+
+    /**
+     * Read the image data if not already read
+     *
+     * @return the image data
+     * @throws IOException if the file cannot be read or has been modified since the tag was read
+     */
+    public byte[] load() throws IOException
+    {
+        byte[] result = data;
+        if (result == null)
+        {
+            synchronized (this)
+            {
+                result = data;
+                if (result == null)
+                {
+                    result = source.read(offset, length);
+                    data = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * As {@link #load()} for callers that cannot throw IOException
+     *
+     * @return the image data
+     * @throws UncheckedIOException
+     */
+    public byte[] getData()
+    {
+        try
+        {
+            return load();
+        }
+        catch (IOException ioe)
+        {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    public String toString()
+    {
+        return source.getPath() + ":" + offset + ":" + length + (isLoaded() ? ":loaded" : "");
+    }
+}
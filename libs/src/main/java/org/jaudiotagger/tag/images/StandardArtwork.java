@@ -14,6 +14,7 @@ import java.io.RandomAccessFile;
 public class StandardArtwork implements Artwork
 {
     private byte[] binaryData;
+    private LazyImageData lazyBinaryData;
     private String mimeType = "";
     private String description = "";
     private boolean isLinked = false;
@@ -28,12 +29,28 @@ public class StandardArtwork implements Artwork
 
     public byte[] getBinaryData()
     {
+        if (binaryData == null && lazyBinaryData != null)
+        {
+            return lazyBinaryData.getData();
+        }
         return binaryData;
     }
 
     public void setBinaryData(byte[] binaryData)
     {
         this.binaryData = binaryData;
+        this.lazyBinaryData = null;
+    }
+
+    public void setLazyBinaryData(LazyImageData lazyBinaryData)
+    {
+        this.binaryData = null;
+        this.lazyBinaryData = lazyBinaryData;
+    }
+
+    public LazyImageData getLazyBinaryData()
+    {
+        return lazyBinaryData;
     }
 
     public String getMimeType()
@@ -157,6 +174,10 @@ public class StandardArtwork implements Artwork
             setLinked(coverArt.isImageUrl());
             setImageUrl(coverArt.getImageUrl());
         }
+        else if (coverArt.getLazyImageData() != null)
+        {
+            setLazyBinaryData(coverArt.getLazyImageData());
+        }
         else
         {
             setBinaryData(coverArt.getImageData());
@@ -947,7 +947,14 @@ public class Mp4Tag extends AbstractTag
         {
             Mp4TagCoverField mp4CoverArt = (Mp4TagCoverField)next;
             Artwork artwork = ArtworkFactory.getNew();
-            artwork.setBinaryData(mp4CoverArt.getData());
+            if (mp4CoverArt.getLazyImageData() != null)
+            {
+                artwork.setLazyBinaryData(mp4CoverArt.getLazyImageData());
+            }
+            else
+            {
+                artwork.setBinaryData(mp4CoverArt.getData());
+            }
             artwork.setMimeType(Mp4TagCoverField.getMimeTypeForImageType(mp4CoverArt.getFieldType()));
             artworkList.add(artwork);
         }
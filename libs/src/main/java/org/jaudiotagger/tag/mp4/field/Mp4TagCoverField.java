@@ -21,6 +21,8 @@ package org.jaudiotagger.tag.mp4.field;
 import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+import org.jaudiotagger.tag.images.ImageDataSource;
+import org.jaudiotagger.tag.images.LazyImageData;
 import org.jaudiotagger.tag.mp4.Mp4FieldKey;
 import org.jaudiotagger.tag.mp4.atom.Mp4DataBox;
 import org.jaudiotagger.tag.mp4.atom.Mp4NameBox;
@@ -45,6 +47,13 @@ public class Mp4TagCoverField extends Mp4TagBinaryField
     //may have data and name atom
     private int dataAndHeaderSize;
 
+    //Only set whilst building a field whose image data is read lazily
+    private ImageDataSource imageDataSource;
+    private long rawFileOffset;
+
+    //Location of the image data if read lazily
+    private LazyImageData lazyImageData;
+
     /**
      * Empty CoverArt Field
      */
@@ -78,6 +87,29 @@ public class Mp4TagCoverField extends Mp4TagBinaryField
         }
     }
 
+    /**
+     * Construct CoverField by reading the fields from audio file, but not the image data itself, just its location
+     * within the file so it can be read when needed
+     *
+     * @param raw
+     * @param imageType
+     * @param imageDataSource the file raw was read from
+     * @param rawFileOffset offset within the file of the start of raw (not of its position)
+     */
+    public Mp4TagCoverField(ByteBuffer raw, Mp4FieldType imageType, ImageDataSource imageDataSource, long rawFileOffset)
+    {
+        super(Mp4FieldKey.ARTWORK.getFieldName());
+        this.imageType=imageType;
+        this.imageDataSource=imageDataSource;
+        this.rawFileOffset=rawFileOffset;
+        build(raw);
+        this.imageDataSource=null;
+        if(!Mp4FieldType.isCoverArtType(imageType))
+        {
+            logger.warning(ErrorMessage.MP4_IMAGE_FORMAT_IS_NOT_TO_EXPECTED_TYPE.getMsg(imageType));
+        }
+    }
+
     /**
      * Construct new cover art with binarydata provided
      *
@@ -132,9 +164,57 @@ public class Mp4TagCoverField extends Mp4TagBinaryField
     }
 
 
+    /**
+     * If the image data was read lazily it is read from the file the first time this is called
+     *
+     * @return the image data
+     * @throws java.io.UncheckedIOException if the image data cannot be read from the file
+     */
+    public byte[] getData()
+    {
+        if (dataBytes == null && lazyImageData != null)
+        {
+            return lazyImageData.getData();
+        }
+        return dataBytes;
+    }
+
+    public void setData(byte[] d)
+    {
+        this.dataBytes = d;
+        this.lazyImageData = null;
+    }
+
+    /**
+     * @return the image data location within the file if read lazily, otherwise null
+     */
+    public LazyImageData getLazyImageData()
+    {
+        return lazyImageData;
+    }
+
+    protected byte[] getDataBytes() throws UnsupportedEncodingException
+    {
+        return getData();
+    }
+
+    public boolean isEmpty()
+    {
+        return getImageDataLength() == 0;
+    }
+
+    private int getImageDataLength()
+    {
+        if (dataBytes == null && lazyImageData != null)
+        {
+            return lazyImageData.getLength();
+        }
+        return dataBytes.length;
+    }
+
     public String toString()
     {
-        return imageType +":" + dataBytes.length + "bytes";
+        return imageType +":" + getImageDataLength() + "bytes";
     }
 
     protected void build(ByteBuffer raw)
@@ -146,9 +226,18 @@ public class Mp4TagCoverField extends Mp4TagBinaryField
         //Skip the version and length fields
         raw.position(raw.position() + Mp4DataBox.PRE_DATA_LENGTH);
 
-        //Read the raw data into byte array
-        this.dataBytes = new byte[dataSize - Mp4DataBox.PRE_DATA_LENGTH];
-        raw.get(dataBytes,0,dataBytes.length);
+        //Read the raw data into byte array, or just record where it is
+        if (imageDataSource != null)
+        {
+            int length = dataSize - Mp4DataBox.PRE_DATA_LENGTH;
+            this.lazyImageData = imageDataSource.create(rawFileOffset + raw.position(), length);
+            raw.position(raw.position() + length);
+        }
+        else
+        {
+            this.dataBytes = new byte[dataSize - Mp4DataBox.PRE_DATA_LENGTH];
+            raw.get(dataBytes,0,dataBytes.length);
+        }
 
         //Is there room for another atom (remember actually passed all the data so unless Covr is last atom
         //there will be room even though more likely to be for the text top level atom)
@@ -0,0 +1,154 @@
+package org.jaudiotagger.tag.options;
+
+import java.util.Arrays;
+
+/**
+ * How much padding to reserve after the metadata when a tag no longer fits in the space available and the audio has
+ * to be moved anyway, so that later edits can be written in place.
+ *
+ * Used by the ID3v2, Flac, Mp4, Wav and Aiff writers, see
+ * {@link org.jaudiotagger.tag.TagOptionSingleton#setPaddingPolicy(PaddingPolicy)}. The ID3 chunk of a Wav or Aiff
+ * file also gets padding when it is first added, so later edits can be written in place.
+ *
+ * <ul>
+ * <li>{@link #fixed(int)} reserves the same number of bytes whatever the size of the metadata</li>
+ * <li>{@link #percentage(int, int)} reserves a percentage of the size of the metadata</li>
+ * <li>{@link #sizeClasses(int...)} rounds the total size up to the next size class, so tags of similar size end up the
+ * same size and a file can be retagged many times before the audio has to be moved again</li>
+ * </ul>
+ */
+public final class PaddingPolicy
+{
+    public enum Type
+    {
+        FIXED,
+        PERCENTAGE,
+        SIZE_CLASSES
+    }
+
+    private final Type type;
+    private final int amount;
+    private final int minimum;
+    private final int[] sizeClasses;
+
+    private PaddingPolicy(Type type, int amount, int minimum, int[] sizeClasses)
+    {
+        this.type = type;
+        this.amount = amount;
+        this.minimum = minimum;
+        this.sizeClasses = sizeClasses;
+    }
+
+    /**
+     * @param bytes padding to reserve
+     * @return policy always reserving the given number of bytes
+     */
+    public static PaddingPolicy fixed(int bytes)
+    {
+        if (bytes < 0)
+        {
+            throw new IllegalArgumentException("Padding cannot be negative:" + bytes);
+        }
+        return new PaddingPolicy(Type.FIXED, bytes, 0, null);
+    }
+
+    /**
+     * @param percent percentage of the metadata size to reserve
+     * @param minimum least padding to reserve, used for small tags
+     * @return policy reserving padding in proportion to the size of the metadata
+     */
+    public static PaddingPolicy percentage(int percent, int minimum)
+    {
+        if (percent < 0 || minimum < 0)
+        {
+            throw new IllegalArgumentException("Padding cannot be negative:" + percent + ":" + minimum);
+        }
+        return new PaddingPolicy(Type.PERCENTAGE, percent, minimum, null);
+    }
+
+    /**
+     * Metadata larger than the largest class is rounded up to a multiple of the largest class.
+     *
+     * @param sizeClasses total sizes in bytes that metadata plus padding is rounded up to
+     * @return policy rounding the size of the metadata up to the next size class
+     */
+    public static PaddingPolicy sizeClasses(int... sizeClasses)
+    {
+        if (sizeClasses.length == 0)
+        {
+            throw new IllegalArgumentException("No size classes");
+        }
+        int[] sorted = sizeClasses.clone();
+        Arrays.sort(sorted);
+        if (sorted[0] <= 0)
+        {
+            throw new IllegalArgumentException("Size classes must be positive:" + Arrays.toString(sizeClasses));
+        }
+        return new PaddingPolicy(Type.SIZE_CLASSES, 0, 0, sorted);
+    }
+
+    public Type getType()
+    {
+        return type;
+    }
+
+    /**
+     * @param metadataSize size of the metadata that is written without any padding
+     * @return number of padding bytes to reserve after it
+     */
+    public int getPadding(int metadataSize)
+    {
+        switch (type)
+        {
+            case FIXED:
+                return amount;
+
+            case PERCENTAGE:
+                return (int) Math.max(minimum, (long) metadataSize * amount / 100);
+
+            default:
+                for (int sizeClass : sizeClasses)
+                {
+                    if (sizeClass >= metadataSize)
+                    {
+                        return sizeClass - metadataSize;
+                    }
+                }
+                int largest = sizeClasses[sizeClasses.length - 1];
+                return (int) ((((long) metadataSize + largest - 1) / largest) * largest - metadataSize);
+        }
+    }
+
+    /**
+     * Formats that need a header for the padding, such as a Flac padding block or Mp4 free atom, can only reserve
+     * padding at least as large as the header.
+     *
+     * @param metadataSize size of the metadata that is written without any padding
+     * @param headerLength size of the header the padding needs
+     * @return number of padding bytes to reserve including the header, either zero or at least the header length
+     */
+    public int getPadding(int metadataSize, int headerLength)
+    {
+        int padding = getPadding(metadataSize);
+        if (padding == 0)
+        {
+            return 0;
+        }
+        return Math.max(padding, headerLength);
+    }
+
+    public String toString()
+    {
+        switch (type)
+        {
+            case FIXED:
+                return type + ":" + amount;
+
+            case PERCENTAGE:
+                return type + ":" + amount + "%:minimum:" + minimum;
+
+            default:
+                return type + ":" + Arrays.toString(sizeClasses);
+        }
+    }
+}
@@ -1,19 +1,86 @@
 package org.jaudiotagger.utils;
 
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.instrument.Instrumentation;
+import org.jaudiotagger.audio.instrument.Phase;
+import org.jaudiotagger.audio.io.BufferPool;
 import org.jaudiotagger.tag.TagOptionSingleton;
 
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /** Shift Data to allow metadata to be fitted inside existing file
+ *
+ * When the channel is a {@link FileChannel} the data is moved by the cheapest means available
+ * <ul>
+ * <li>through a memory mapping if the file is growing and the region fits within
+ * {@link TagOptionSingleton#getMaxMappedShiftSize()}</li>
+ * <li>with {@link FileChannel#transferTo} if the data moves far enough that each chunk copied does not overlap where
+ * it is copied to, so the copy is done by the operating system</li>
+ * <li>otherwise through two direct buffers, the next chunk being read while the current one is written</li>
+ * </ul>
+ * Other channels are shifted a chunk at a time.
  */
 public class ShiftData
 {
+    /**
+     * Data moving at least this far is copied with transferTo, smaller moves would need too many small transfers
+     */
+    static final int MIN_TRANSFER_DISTANCE = 256 * 1024;
+
+    private static final String READER_THREAD_NAME = "jaudiotagger-shift-";
+
+    /**
+     * How the data was moved, as reported to {@link Instrumentation#setStrategy(String)}
+     */
+    public static final String STRATEGY_MAPPED = "mapped";
+    public static final String STRATEGY_TRANSFER = "transfer";
+    public static final String STRATEGY_DOUBLE_BUFFERED = "double-buffered";
+    public static final String STRATEGY_SEQUENTIAL = "sequential";
+
+    /**
+     * Reads the next chunk while the current chunk is written, threads are daemon threads so an idle reader never
+     * stops the application from exiting
+     */
+    private static class Reader
+    {
+        private static final ExecutorService EXECUTOR;
+
+        static
+        {
+            final AtomicInteger threadCount = new AtomicInteger();
+            EXECUTOR = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(),
+                    new ThreadFactory()
+                    {
+                        @Override
+                        public Thread newThread(Runnable r)
+                        {
+                            Thread thread = new Thread(r, READER_THREAD_NAME + threadCount.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    });
+        }
+    }
+
     /**
      * Shift the remainder of data from current position to position + offset
-     * Reads/writes starting from end of file in chunks so works on large files on low memory systems
+     * Works on chunks of at most the write chunk size so works on large files on low memory systems
      *
      * @param  fc
      * @param  offset (if negative writes the data earlier (i,e smaller file)
@@ -24,111 +91,281 @@ public class ShiftData
     {
         long origFileSize = fc.size();
         long startPos = fc.position();
-        long amountToBeWritten = fc.size() - startPos;
-        int chunkSize = (int) TagOptionSingleton.getInstance().getWriteChunkSize();
-        long count = amountToBeWritten / chunkSize;
-        long mod = amountToBeWritten % chunkSize;
+        move(fc, startPos, startPos + offset, origFileSize - startPos);
 
-        //Buffer to hold a chunk
-        ByteBuffer chunkBuffer = ByteBuffer.allocate(chunkSize);
+        if(offset < 0)
+        {
+            fc.truncate(origFileSize + offset);
+        }
+    }
 
-        //Start from end of file
-        long readPos = fc.size() - chunkSize;
-        long writePos = (fc.size() - chunkSize) + offset;
+    /**
+     * Used by ID3 to shrink space by shrinkBy bytes before current position
+     * @param fc
+     * @param shrinkBy
+     * @throws IOException
+     */
+    public static void shiftDataByOffsetToShrinkSpace(SeekableByteChannel fc, int shrinkBy) throws IOException
+    {
+        long origFileSize = fc.size();
+        long startPos = fc.position();
+        move(fc, startPos, startPos - shrinkBy, origFileSize - startPos);
+        fc.truncate(origFileSize - shrinkBy);
+    }
 
-        for (int i = 0; i < count; i++)
+    /**
+     * Move length bytes from one position to another, the regions may overlap. On return the channel is positioned
+     * at the end of the moved data.
+     */
+    private static void move(SeekableByteChannel fc, long from, long to, long length) throws IOException
+    {
+        if (length > 0 && from != to)
         {
-            //Read Data Into Buffer starting from end of file
-            fc.position(readPos);
-            fc.read(chunkBuffer);
+            boolean backwards = to > from;
+            long distance = Math.abs(to - from);
+            TagOptionSingleton options = TagOptionSingleton.getInstance();
+            int chunkSize = (int) Math.min(options.getWriteChunkSize(), length);
+            Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.SHIFT);
+            try
+            {
+                if (fc instanceof FileChannel)
+                {
+                    FileChannel fileChannel = (FileChannel) fc;
+                    long mappedSize = length + distance;
+                    if (backwards
+                            && mappedSize <= options.getMaxMappedShiftSize()
+                            && mappedSize <= Integer.MAX_VALUE)
+                    {
+                        Instrumentation.setStrategy(STRATEGY_MAPPED);
+                        moveMapped(fileChannel, from, to, length, chunkSize);
+                    }
+                    else if (distance >= MIN_TRANSFER_DISTANCE)
+                    {
+                        Instrumentation.setStrategy(STRATEGY_TRANSFER);
+                        moveByTransfer(fileChannel, from, to, length, (int) Math.min(chunkSize, distance), backwards);
+                    }
+                    else
+                    {
+                        Instrumentation.setStrategy(STRATEGY_DOUBLE_BUFFERED);
+                        moveDoubleBuffered(fileChannel, from, to, length, chunkSize, backwards);
+                    }
+                }
+                else
+                {
+                    Instrumentation.setStrategy(STRATEGY_SEQUENTIAL);
+                    moveSequential(fc, from, to, length, chunkSize, backwards);
+                }
+            }
+            finally
+            {
+                Instrumentation.endPhase(phase);
+            }
+        }
+        fc.position(to + Math.max(length, 0));
+    }
 
-            //Now write to new location
-            chunkBuffer.flip();
-            fc.position(writePos);
-            fc.write(chunkBuffer);
+    /**
+     * Chunks are copied starting from the end when moving data later in the file and from the start when moving it
+     * earlier, so no chunk is overwritten before it has been read
+     */
+    private static long getChunkCount(long length, int chunkSize)
+    {
+        return (length + chunkSize - 1) / chunkSize;
+    }
 
-            //Rewind so can use in next iteration of loop
-            chunkBuffer.rewind();
+    private static int getChunkLength(long chunk, long length, int chunkSize)
+    {
+        return (int) Math.min(chunkSize, length - chunk * chunkSize);
+    }
 
-            readPos -= chunkSize;
-            writePos -= chunkSize;
+    private static long getChunkOffset(long chunk, long length, int chunkSize, boolean backwards)
+    {
+        if (backwards)
+        {
+            return length - chunk * chunkSize - getChunkLength(chunk, length, chunkSize);
         }
+        return chunk * chunkSize;
+    }
 
-        if (mod > 0)
+    private static void moveMapped(FileChannel fc, long from, long to, long length, int chunkSize) throws IOException
+    {
+        //Mapping beyond the end of the file grows the file to make the space
+        MappedByteBuffer mapped = fc.map(FileChannel.MapMode.READ_WRITE, from, to - from + length);
+        ByteBuffer chunkBuffer = BufferPool.getDefault().acquire(chunkSize);
+        try
         {
-            chunkBuffer = ByteBuffer.allocate((int) mod);
-            fc.position(startPos);
-            fc.read(chunkBuffer);
+            long count = getChunkCount(length, chunkSize);
+            for (long i = 0; i < count; i++)
+            {
+                int offset = (int) getChunkOffset(i, length, chunkSize, true);
+                ByteBuffer source = mapped.duplicate();
+                source.limit(offset + getChunkLength(i, length, chunkSize));
+                source.position(offset);
+
+                chunkBuffer.clear();
+                chunkBuffer.put(source);
+                chunkBuffer.flip();
 
-            //Now write to new location
-            chunkBuffer.flip();
-            fc.position(startPos + offset);
-            fc.write(chunkBuffer);
+                ByteBuffer target = mapped.duplicate();
+                target.position((int) (to - from) + offset);
+                target.put(chunkBuffer);
+            }
         }
+        finally
+        {
+            BufferPool.getDefault().release(chunkBuffer);
+        }
+        //Data moved through the mapping is not seen by the channel
+        Instrumentation.recordRead(from, length);
+        Instrumentation.recordWrite(to, length);
+    }
 
-        if(fc instanceof SeekableByteChannel)
+    private static void moveByTransfer(FileChannel fc, long from, long to, long length, int chunkSize, boolean backwards) throws IOException
+    {
+        long count = getChunkCount(length, chunkSize);
+        for (long i = 0; i < count; i++)
         {
-            if(offset < 0)
+            long offset = getChunkOffset(i, length, chunkSize, backwards);
+            int chunkLength = getChunkLength(i, length, chunkSize);
+            long transferred = 0;
+            while (transferred < chunkLength)
             {
-                fc.truncate(origFileSize + offset);
+                //transferTo writes to the target at its current position
+                fc.position(to + offset + transferred);
+                long n = fc.transferTo(from + offset + transferred, chunkLength - transferred, fc);
+                if (n <= 0)
+                {
+                    throw new EOFException("Unable to move data from:" + (from + offset + transferred));
+                }
+                transferred += n;
             }
         }
     }
 
-    /**
-     * Used by ID3 to shrink space by shrinkBy bytes before current position
-     * @param fc
-     * @param shrinkBy
-     * @throws IOException
-     */
-    public static void shiftDataByOffsetToShrinkSpace(SeekableByteChannel fc, int shrinkBy) throws IOException
+    private static void moveDoubleBuffered(FileChannel fc, long from, long to, long length, int chunkSize, boolean backwards) throws IOException
     {
-        long startPos = fc.position();
-        long amountToBeWritten = fc.size() - startPos;
-        int chunkSize = (int) TagOptionSingleton.getInstance().getWriteChunkSize();
-        long count = amountToBeWritten / chunkSize;
-        long mod = amountToBeWritten % chunkSize;
-
-        //Buffer to hold a chunk
-        ByteBuffer chunkBuffer = ByteBuffer.allocate(chunkSize);
+        long count = getChunkCount(length, chunkSize);
+        ByteBuffer current = BufferPool.getDefault().acquire(chunkSize);
+        ByteBuffer next = count > 1 ? BufferPool.getDefault().acquire(chunkSize) : null;
+        Future<Void> pending = null;
+        try
+        {
+            readChunk(fc, current, from + getChunkOffset(0, length, chunkSize, backwards), getChunkLength(0, length, chunkSize));
+            for (long i = 0; i < count; i++)
+            {
+                //Reading the next chunk cannot touch data being written, it is further from the destination
+                pending = null;
+                if (i + 1 < count)
+                {
+                    pending = submitReadChunk(fc, next, from + getChunkOffset(i + 1, length, chunkSize, backwards),
+                            getChunkLength(i + 1, length, chunkSize));
+                }
 
-        //Start from start of data that needs to be shifted
-        long readPos  = startPos;
-        long writePos = startPos - shrinkBy;
+                long writePos = to + getChunkOffset(i, length, chunkSize, backwards);
+                while (current.hasRemaining())
+                {
+                    writePos += fc.write(current, writePos);
+                }
 
-        for (int i = 0; i < count; i++)
+                if (pending != null)
+                {
+                    await(pending);
+                    ByteBuffer written = current;
+                    current = next;
+                    next = written;
+                }
+            }
+        }
+        finally
         {
-            //Read Data Into Buffer starting from start of data that has to be copied
-            fc.position(readPos);
-            fc.read(chunkBuffer);
+            BufferPool.getDefault().release(current);
+            //If the write failed the next chunk may still be being read into, so it cannot be reused
+            if (pending == null || pending.isDone())
+            {
+                BufferPool.getDefault().release(next);
+            }
+        }
+    }
 
-            //Now write to new location
-            chunkBuffer.flip();
-            fc.position(writePos);
-            fc.write(chunkBuffer);
+    private static void moveSequential(SeekableByteChannel fc, long from, long to, long length, int chunkSize, boolean backwards) throws IOException
+    {
+        ByteBuffer chunkBuffer = BufferPool.getDefault().acquire(chunkSize);
+        try
+        {
+            long count = getChunkCount(length, chunkSize);
+            for (long i = 0; i < count; i++)
+            {
+                long offset = getChunkOffset(i, length, chunkSize, backwards);
+                chunkBuffer.clear();
+                chunkBuffer.limit(getChunkLength(i, length, chunkSize));
+                fc.position(from + offset);
+                while (chunkBuffer.hasRemaining())
+                {
+                    if (fc.read(chunkBuffer) < 0)
+                    {
+                        throw new EOFException("Unable to read data at:" + fc.position());
+                    }
+                }
 
-            //Rewind so can use in next iteration of loop
-            chunkBuffer.rewind();
+                chunkBuffer.flip();
+                fc.position(to + offset);
+                while (chunkBuffer.hasRemaining())
+                {
+                    fc.write(chunkBuffer);
+                }
+            }
+        }
+        finally
+        {
+            BufferPool.getDefault().release(chunkBuffer);
+        }
+    }
 
-            readPos += chunkSize;
-            writePos += chunkSize;
+    private static void readChunk(FileChannel fc, ByteBuffer buffer, long position, int length) throws IOException
+    {
+        buffer.clear();
+        buffer.limit(length);
+        while (buffer.hasRemaining())
+        {
+            if (fc.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new EOFException("Unable to read data at:" + (position + buffer.position()));
+            }
         }
+        buffer.flip();
+    }
 
-        if (mod > 0)
+    private static Future<Void> submitReadChunk(final FileChannel fc, final ByteBuffer buffer, final long position, final int length)
+    {
+        return Reader.EXECUTOR.submit(new Callable<Void>()
         {
-            chunkBuffer = ByteBuffer.allocate((int) mod);
-            fc.position(readPos);
-            fc.read(chunkBuffer);
+            @Override
+            public Void call() throws IOException
+            {
+                readChunk(fc, buffer, position, length);
+                return null;
+            }
+        });
+    }
 
-            //Now write to new location
-            chunkBuffer.flip();
-            fc.position(writePos);
-            fc.write(chunkBuffer);
+    private static void await(Future<Void> pending) throws IOException
+    {
+        try
+        {
+            pending.get();
         }
-
-        if(fc instanceof SeekableByteChannel)
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted whilst shifting data");
+        }
+        catch (ExecutionException ee)
         {
-            fc.truncate(fc.position());
+            if (ee.getCause() instanceof IOException)
+            {
+                throw (IOException) ee.getCause();
+            }
+            throw new IOException(ee.getCause());
         }
     }
 }
@@ -0,0 +1,115 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+public class AudioFileIOByteBufferApiTest extends AbstractTestCase
+{
+    private static final String[] SOURCES =
+            {
+                    "01.mp3", "test.ogg", "test.flac", "test.m4a", "test1.wma", "test.wav", "test119.aif",
+                    "test122.dsf", "test01.ra", "test05.rm"
+            };
+
+    public void testReadEveryFormatFromBuffer() throws Exception
+    {
+        for (String source : SOURCES)
+        {
+            File file = copyAudioToTmp(source, new File("buffer-api-" + source));
+            AudioFile fromFile = AudioFileIO.read(file.toPath());
+            AudioFile fromBuffer = AudioFileIO.read(ByteBuffer.wrap(Files.readAllBytes(file.toPath())), source);
+
+            assertNull(source, fromBuffer.getFile());
+            assertEquals(source, fromFile.getExt(), fromBuffer.getExt());
+            assertEquals(source, fromFile.getAudioHeader().toString(), fromBuffer.getAudioHeader().toString());
+            assertSameTag(source, fromFile.getTag(), fromBuffer.getTag());
+        }
+    }
+
+    public void testReadFromSliceOfLargerBuffer() throws Exception
+    {
+        File file = copyAudioToTmp("test.flac", new File("buffer-api-slice.flac"));
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 200);
+        buffer.position(100);
+        buffer.put(bytes);
+        buffer.position(100);
+        buffer.limit(100 + bytes.length);
+
+        AudioFile audioFile = AudioFileIO.read(buffer, "flac");
+        assertEquals(AudioFileIO.read(file.toPath()).getTag().getFirst(FieldKey.ARTIST), audioFile.getTag().getFirst(FieldKey.ARTIST));
+
+        //Buffer is left as it was
+        assertEquals(100, buffer.position());
+        assertEquals(100 + bytes.length, buffer.limit());
+    }
+
+    public void testExtensionTakenFromDisplayName() throws Exception
+    {
+        File file = copyAudioToTmp("01.mp3", new File("buffer-api-display-name.mp3"));
+        AudioFile audioFile = AudioFileIO.read(ByteBuffer.wrap(Files.readAllBytes(file.toPath())), "Upload 01.MP3");
+        assertEquals("mp3", audioFile.getExt());
+    }
+
+    public void testUnsupportedExtension() throws Exception
+    {
+        try
+        {
+            AudioFileIO.read(ByteBuffer.allocate(1000), "xyz");
+            fail("Expected CannotReadException");
+        }
+        catch (CannotReadException expected)
+        {
+            //No reader for extension
+        }
+    }
+
+    public void testTooSmall() throws Exception
+    {
+        try
+        {
+            AudioFileIO.read(ByteBuffer.allocate(10), "flac");
+            fail("Expected CannotReadException");
+        }
+        catch (CannotReadException expected)
+        {
+            //Too small to be audio
+        }
+    }
+
+    public void testCannotWriteBufferBackedAudioFile() throws Exception
+    {
+        File file = copyAudioToTmp("test.flac", new File("buffer-api-write.flac"));
+        AudioFile audioFile = AudioFileIO.read(ByteBuffer.wrap(Files.readAllBytes(file.toPath())), "flac");
+        audioFile.getTag().setField(FieldKey.ALBUM, "Buffer");
+        try
+        {
+            AudioFileIO.write(audioFile);
+            fail("Expected CannotWriteException");
+        }
+        catch (CannotWriteException expected)
+        {
+            //No file to write to
+        }
+    }
+
+    private static void assertSameTag(String source, Tag expected, Tag actual)
+    {
+        if (expected == null)
+        {
+            assertNull(source, actual);
+            return;
+        }
+        assertEquals(source, expected.getFieldCount(), actual.getFieldCount());
+        assertEquals(source, expected.getFirst(FieldKey.ARTIST), actual.getFirst(FieldKey.ARTIST));
+        assertEquals(source, expected.getFirst(FieldKey.TITLE), actual.getFirst(FieldKey.TITLE));
+        assertEquals(source, expected.getFirst(FieldKey.ALBUM), actual.getFirst(FieldKey.ALBUM));
+    }
+}
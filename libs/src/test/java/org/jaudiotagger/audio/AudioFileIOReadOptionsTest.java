@@ -0,0 +1,114 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+public class AudioFileIOReadOptionsTest extends AbstractTestCase
+{
+    private static final String[] SOURCES =
+            {
+                    "01.mp3", "test.ogg", "test.flac", "test.m4a", "test1.wma", "test.wav", "test119.aif",
+                    "test122.dsf", "test229.dff", "test01.ra", "test05.rm"
+            };
+
+    public void testHeaderOnlyEveryFormat() throws Exception
+    {
+        for (String source : SOURCES)
+        {
+            File file = copyAudioToTmp(source, new File("read-options-header-" + source));
+            AudioFile full = AudioFileIO.read(file.toPath());
+            AudioFile headerOnly = AudioFileIO.read(file.toPath(), ReadOptions.HEADER_ONLY);
+
+            assertEquals(source, ReadOptions.HEADER_ONLY, headerOnly.getReadOptions());
+            assertNull(source, headerOnly.getTag());
+            assertEquals(source, full.getAudioHeader().toString(), headerOnly.getAudioHeader().toString());
+        }
+    }
+
+    public void testTagOnlyEveryFormat() throws Exception
+    {
+        for (String source : SOURCES)
+        {
+            File file = copyAudioToTmp(source, new File("read-options-tag-" + source));
+            AudioFile full = AudioFileIO.read(file.toPath());
+            AudioFile tagOnly = AudioFileIO.read(file.toPath(), ReadOptions.TAG_ONLY);
+
+            assertEquals(source, ReadOptions.TAG_ONLY, tagOnly.getReadOptions());
+            assertNull(source, tagOnly.getAudioHeader());
+            assertSameTag(source, full.getTag(), tagOnly.getTag());
+        }
+    }
+
+    public void testReadOptionsFromBuffer() throws Exception
+    {
+        File file = copyAudioToTmp("test.ogg", new File("read-options-buffer.ogg"));
+        AudioFile full = AudioFileIO.read(file.toPath());
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+
+        AudioFile headerOnly = AudioFileIO.read(buffer, "ogg", ReadOptions.HEADER_ONLY);
+        assertNull(headerOnly.getTag());
+        assertEquals(full.getAudioHeader().toString(), headerOnly.getAudioHeader().toString());
+
+        AudioFile tagOnly = AudioFileIO.read(buffer, "ogg", ReadOptions.TAG_ONLY);
+        assertNull(tagOnly.getAudioHeader());
+        assertSameTag("ogg", full.getTag(), tagOnly.getTag());
+    }
+
+    public void testCannotWriteHeaderOnly() throws Exception
+    {
+        for (String source : new String[]{"test.flac", "01.mp3"})
+        {
+            File file = copyAudioToTmp(source, new File("read-options-write-header-" + source));
+            long length = file.length();
+            AudioFile headerOnly = AudioFileIO.read(file.toPath(), ReadOptions.HEADER_ONLY);
+            headerOnly.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Header Only");
+            try
+            {
+                headerOnly.commit();
+                fail("Expected CannotWriteException:" + source);
+            }
+            catch (CannotWriteException expected)
+            {
+                //Existing tag would be lost
+            }
+            assertEquals(source, length, file.length());
+        }
+    }
+
+    public void testWriteTagOnly() throws Exception
+    {
+        for (String source : new String[]{"test.flac", "01.mp3", "test.m4a"})
+        {
+            File file = copyAudioToTmp(source, new File("read-options-write-tag-" + source));
+            AudioFile before = AudioFileIO.read(file.toPath());
+
+            AudioFile tagOnly = AudioFileIO.read(file.toPath(), ReadOptions.TAG_ONLY);
+            tagOnly.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Tag Only");
+            tagOnly.commit();
+
+            AudioFile after = AudioFileIO.read(file.toPath());
+            assertEquals(source, "Tag Only", after.getTag().getFirst(FieldKey.ALBUM));
+            assertEquals(source, before.getAudioHeader().getTrackLength(), after.getAudioHeader().getTrackLength());
+            assertEquals(source, before.getTagOrCreateDefault().getFirst(FieldKey.ARTIST), after.getTag().getFirst(FieldKey.ARTIST));
+        }
+    }
+
+    private static void assertSameTag(String source, Tag expected, Tag actual)
+    {
+        if (expected == null)
+        {
+            assertNull(source, actual);
+            return;
+        }
+        assertEquals(source, expected.getFieldCount(), actual.getFieldCount());
+        assertEquals(source, expected.getFirst(FieldKey.ARTIST), actual.getFirst(FieldKey.ARTIST));
+        assertEquals(source, expected.getFirst(FieldKey.TITLE), actual.getFirst(FieldKey.TITLE));
+        assertEquals(source, expected.getFirst(FieldKey.ALBUM), actual.getFirst(FieldKey.ALBUM));
+    }
+}
@@ -3,10 +3,18 @@ package org.jaudiotagger.audio.generic;
 import junit.framework.TestCase;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
 
 
 public class UtilsTest  extends TestCase {
@@ -145,4 +153,122 @@ public class UtilsTest  extends TestCase {
         System.out.println(val);
     }
 
+    /**
+     * A target that takes no bytes from transferTo is copied to through a buffer rather than retried forever
+     */
+    public void testTransferFullyWhenTransferMakesNoProgress() throws IOException
+    {
+        File source = File.createTempFile("transfer", ".src");
+        try
+        {
+            byte[] data = new byte[100000];
+            new Random(1).nextBytes(data);
+            Files.write(source.toPath(), data);
+            try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ))
+            {
+                //Refuses the first write, as transferTo makes, then accepts a little at a time
+                final ByteArrayOutputStream copied = new ByteArrayOutputStream();
+                WritableByteChannel slow = new WritableByteChannel()
+                {
+                    private int writes;
+
+                    public int write(ByteBuffer src)
+                    {
+                        if (writes++ == 0)
+                        {
+                            return 0;
+                        }
+                        int length = Math.min(src.remaining(), 1000);
+                        for (int i = 0; i < length; i++)
+                        {
+                            copied.write(src.get());
+                        }
+                        return length;
+                    }
+
+                    public boolean isOpen()
+                    {
+                        return true;
+                    }
+
+                    public void close()
+                    {
+                    }
+                };
+                Utils.transferFully(in, 10, data.length - 10, slow);
+                assertTrue(Arrays.equals(Arrays.copyOfRange(data, 10, data.length), copied.toByteArray()));
+
+                WritableByteChannel full = new WritableByteChannel()
+                {
+                    public int write(ByteBuffer src)
+                    {
+                        return 0;
+                    }
+
+                    public boolean isOpen()
+                    {
+                        return true;
+                    }
+
+                    public void close()
+                    {
+                    }
+                };
+                try
+                {
+                    Utils.transferFully(in, 0, data.length, full);
+                    fail("Expected IOException");
+                }
+                catch (IOException expected)
+                {
+                    //Target never accepts any bytes
+                }
+            }
+        }
+        finally
+        {
+            source.delete();
+        }
+    }
+
+    public void testTransferFully() throws IOException
+    {
+        File source = File.createTempFile("transfer", ".src");
+        File target = File.createTempFile("transfer", ".dst");
+        try
+        {
+            byte[] data = new byte[3 * 1024 * 1024 + 17];
+            for (int i = 0; i < data.length; i++)
+            {
+                data[i] = (byte) i;
+            }
+            Files.write(source.toPath(), data);
+            try (FileChannel in = FileChannel.open(source.toPath(), StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(target.toPath(), StandardOpenOption.WRITE))
+            {
+                out.write(ByteBuffer.wrap(new byte[]{9, 9}));
+                Utils.transferFully(in, 5, data.length - 5, out);
+                assertEquals(0, in.position());
+                assertEquals(data.length - 3, out.position());
+
+                try
+                {
+                    Utils.transferFully(in, data.length - 4, 5, out);
+                    fail("Expected EOFException");
+                }
+                catch (EOFException expected)
+                {
+                    //Source too short
+                }
+            }
+            byte[] copied = Files.readAllBytes(target.toPath());
+            assertEquals(9, copied[1]);
+            assertTrue(Arrays.equals(Arrays.copyOfRange(data, 5, data.length), Arrays.copyOfRange(copied, 2, data.length - 3)));
+        }
+        finally
+        {
+            source.delete();
+            target.delete();
+        }
+    }
 }
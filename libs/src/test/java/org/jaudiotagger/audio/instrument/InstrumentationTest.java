@@ -0,0 +1,169 @@
+package org.jaudiotagger.audio.instrument;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.utils.ShiftData;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InstrumentationTest extends AbstractTestCase
+{
+    private AggregatingInstrumentationListener aggregating;
+
+    @Override
+    public void setUp()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+        aggregating = new AggregatingInstrumentationListener();
+        AudioFileIO.getDefaultAudioFileIO().addInstrumentationListener(aggregating);
+    }
+
+    @Override
+    public void tearDown()
+    {
+        AudioFileIO.getDefaultAudioFileIO().removeInstrumentationListener(aggregating);
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    public void testReadReportsHeaderAndTagPhases() throws Exception
+    {
+        for (String source : new String[]{"01.mp3", "test.flac", "test.m4a", "test.ogg"})
+        {
+            File file = copyAudioToTmp(source, new File("instrument-read-" + source));
+            AudioFileIO.read(file);
+        }
+        assertFalse(Instrumentation.isActive());
+
+        for (String format : new String[]{"mp3", "flac", "m4a", "ogg"})
+        {
+            PhaseSummary header = aggregating.getSummary(format, Phase.HEADER);
+            PhaseSummary tag = aggregating.getSummary(format, Phase.TAG);
+            assertNotNull(format, header);
+            assertNotNull(format, tag);
+            assertEquals(format, 1, header.getCount());
+            assertEquals(format, 1, tag.getCount());
+            assertTrue(format, header.getPercentileNanos(50) > 0);
+        }
+        //Formats read through channels report their I/O
+        assertTrue(aggregating.report(), aggregating.getSummary("mp3", Phase.HEADER).getBytesRead() > 0);
+        assertTrue(aggregating.report(), aggregating.getSummary("flac", Phase.HEADER).getBytesRead() > 0);
+        assertTrue(aggregating.report(), aggregating.getSummary("m4a", Phase.HEADER).getBytesRead() > 0);
+    }
+
+    public void testMagicDetectionReported() throws Exception
+    {
+        File file = copyAudioToTmp("01.mp3", new File("instrument-magic.mp3"));
+        AudioFileIO.readMagic(file);
+        PhaseSummary magic = aggregating.getSummary("mp3", Phase.MAGIC_DETECTION);
+        assertNotNull(aggregating.report(), magic);
+        assertEquals(1, magic.getCount());
+    }
+
+    public void testWriteReportsBytesWritten() throws Exception
+    {
+        for (String source : new String[]{"01.mp3", "test.flac", "test.m4a", "test.ogg"})
+        {
+            File file = copyAudioToTmp(source, new File("instrument-write-" + source));
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Instrumented");
+            AudioFileIO.write(audioFile);
+        }
+
+        for (String format : new String[]{"mp3", "flac", "m4a", "ogg"})
+        {
+            PhaseSummary write = aggregating.getSummary(format, Phase.WRITE);
+            assertNotNull(aggregating.report(), write);
+            assertEquals(format, 1, write.getCount());
+            assertTrue(aggregating.report(), write.getBytesWritten() > 0);
+        }
+        //Ogg writes a copy which then replaces the original
+        assertNotNull(aggregating.report(), aggregating.getSummary("ogg", Phase.RENAME));
+        assertNull(aggregating.report(), aggregating.getSummary("flac", Phase.RENAME));
+    }
+
+    public void testNoEventsOnceRemoved() throws Exception
+    {
+        final List<PhaseEvent> events = new ArrayList<PhaseEvent>();
+        InstrumentationListener listener = new InstrumentationListener()
+        {
+            @Override
+            public void phaseCompleted(PhaseEvent event)
+            {
+                events.add(event);
+            }
+        };
+        File file = copyAudioToTmp("test.m4a", new File("instrument-remove.m4a"));
+        AudioFileIO.getDefaultAudioFileIO().addInstrumentationListener(listener);
+        AudioFileIO.read(file);
+        assertEquals(2, events.size());
+        assertEquals(file.toPath(), events.get(0).getPath());
+        assertEquals("m4a", events.get(0).getFormat());
+
+        AudioFileIO.getDefaultAudioFileIO().removeInstrumentationListener(listener);
+        AudioFileIO.read(file);
+        assertEquals(2, events.size());
+    }
+
+    public void testShiftReportsStrategyAndAddsToWrite() throws Exception
+    {
+        final List<PhaseEvent> events = new ArrayList<PhaseEvent>();
+        InstrumentationListener listener = new InstrumentationListener()
+        {
+            @Override
+            public void phaseCompleted(PhaseEvent event)
+            {
+                events.add(event);
+            }
+        };
+        File file = copyAudioToTmp("test.flac", new File("instrument-shift.flac"));
+        long size = file.length();
+        try (Instrumentation.Operation operation = Instrumentation.begin(listener, "flac", file.toPath());
+             Instrumentation.PhaseRecorder phase = Instrumentation.startPhase(Phase.WRITE);
+             FileChannel fc = Instrumentation.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            fc.position(100);
+            ShiftData.shiftDataByOffsetToMakeSpace(fc, 1000);
+        }
+        assertFalse(Instrumentation.isActive());
+        assertEquals(size + 1000, file.length());
+
+        assertEquals(2, events.size());
+        PhaseEvent shift = events.get(0);
+        assertEquals(Phase.SHIFT, shift.getPhase());
+        assertEquals(ShiftData.STRATEGY_DOUBLE_BUFFERED, shift.getStrategy());
+        assertEquals(size - 100, shift.getBytesRead());
+        assertEquals(size - 100, shift.getBytesWritten());
+        assertTrue(shift.getBuffersAcquired() > 0);
+
+        PhaseEvent write = events.get(1);
+        assertEquals(Phase.WRITE, write.getPhase());
+        assertEquals(shift.getBytesWritten(), write.getBytesWritten());
+        assertTrue(write.getWallNanos() >= shift.getWallNanos());
+    }
+
+    public void testPercentiles() throws Exception
+    {
+        AggregatingInstrumentationListener listener = new AggregatingInstrumentationListener(100);
+        for (int i = 1; i <= 200; i++)
+        {
+            listener.phaseCompleted(new PhaseEvent("mp3", Phase.TAG, null, -1, null, i, 10, 0, 1, 2, 1));
+        }
+        PhaseSummary summary = listener.getSummary("mp3", Phase.TAG);
+        assertEquals(200, summary.getCount());
+        //Only the most recent 100 samples are kept
+        assertEquals(150, summary.getPercentileNanos(50));
+        assertEquals(190, summary.getPercentileNanos(90));
+        assertEquals(199, summary.getPercentileNanos(99));
+        assertEquals(200, summary.getMaxNanos());
+        assertEquals(2000, summary.getBytesRead());
+        assertEquals(400, summary.getBuffersAcquired());
+        assertEquals(200, summary.getBufferAllocations());
+    }
+}
@@ -0,0 +1,149 @@
+package org.jaudiotagger.audio.io;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Random;
+
+public class AudioDataHasherTest extends AbstractTestCase
+{
+    private static long xxHash64(byte[] data)
+    {
+        XXHash64 xxHash = new XXHash64(0);
+        xxHash.update(ByteBuffer.wrap(data));
+        return xxHash.getValue();
+    }
+
+    public void testXXHash64KnownValues()
+    {
+        assertEquals(0xEF46DB3751D8E999L, xxHash64(new byte[0]));
+        assertEquals(0xD24EC4F1A98C6E5BL, xxHash64("a".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0x44BC2CF5AD770999L, xxHash64("abc".getBytes(StandardCharsets.US_ASCII)));
+        assertEquals(0xFBCEA83C8A378BF1L, xxHash64("Nobody inspects the spammish repetition".getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    /**
+     * However the data is split the hash is the same as hashing it in one go
+     */
+    public void testXXHash64InPieces()
+    {
+        Random random = new Random(1);
+        byte[] data = new byte[1000];
+        random.nextBytes(data);
+        long whole = xxHash64(data);
+        for (int pieceSize : new int[]{1, 3, 31, 32, 33, 100})
+        {
+            XXHash64 xxHash = new XXHash64(0);
+            for (int i = 0; i < data.length; i += pieceSize)
+            {
+                ByteBuffer piece = ByteBuffer.wrap(data, i, Math.min(pieceSize, data.length - i));
+                xxHash.update(piece);
+                assertFalse(piece.hasRemaining());
+            }
+            assertEquals(whole, xxHash.getValue());
+        }
+    }
+
+    public void testHashRange() throws Exception
+    {
+        Random random = new Random(2);
+        byte[] data = new byte[600000];
+        random.nextBytes(data);
+        File file = new File("testdatatmp", "testHashRange.bin");
+        file.getParentFile().mkdirs();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            raf.setLength(0);
+            raf.write(data);
+            FileChannel fc = raf.getChannel();
+
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            md5.update(data, 1000, data.length - 2000);
+            assertTrue(Arrays.equals(md5.digest(), AudioDataHasher.hash(fc, 1000, data.length - 1000, "MD5")));
+
+            //CRC-32C check value
+            byte[] check = "123456789".getBytes(StandardCharsets.US_ASCII);
+            raf.seek(0);
+            raf.write(check);
+            assertTrue(Arrays.equals(new byte[]{(byte) 0xE3, 0x06, (byte) 0x92, (byte) 0x83}, AudioDataHasher.hash(fc, 0, check.length, AudioDataHasher.CRC32C)));
+
+            //Range past the end of the file is cut short
+            assertTrue(Arrays.equals(AudioDataHasher.hash(fc, 10, data.length, AudioDataHasher.XXH64), AudioDataHasher.hash(fc, 10, data.length + 5000, AudioDataHasher.XXH64)));
+            assertEquals(8, AudioDataHasher.hash(fc, 10, 20, AudioDataHasher.XXH64).length);
+        }
+    }
+
+    /**
+     * Changing the metadata does not change the hash of the audio
+     */
+    public void testHashUnchangedByRetagging() throws Exception
+    {
+        for (String name : new String[]{"testV1.mp3", "test.m4a", "test.flac", "test.wav", "test119.aif", "test122.dsf", "test.ogg", "testlargeimage.ogg"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(name);
+            AudioFile af = AudioFileIO.read(testFile);
+            byte[] md5 = af.computeAudioDataHash("MD5");
+            byte[] xxHash = af.computeAudioDataHash(AudioDataHasher.XXH64);
+            byte[] crc = af.computeAudioDataHash(AudioDataHasher.CRC32C);
+
+            af.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, "A much longer title than the file had before, so the metadata changes size");
+            af.commit();
+
+            af = AudioFileIO.read(testFile);
+            assertEquals(name, "A much longer title than the file had before, so the metadata changes size", af.getTag().getFirst(FieldKey.TITLE));
+            assertTrue(name, Arrays.equals(md5, af.computeAudioDataHash("MD5")));
+            assertTrue(name, Arrays.equals(xxHash, af.computeAudioDataHash(AudioDataHasher.XXH64)));
+            assertTrue(name, Arrays.equals(crc, af.computeAudioDataHash(AudioDataHasher.CRC32C)));
+        }
+    }
+
+    /**
+     * A comment large enough to need more pages renumbers the ogg audio pages, which does not change the hash
+     */
+    public void testOggHashUnchangedByMorePages() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testOggHashUnchangedByMorePages.ogg"));
+        AudioFile af = AudioFileIO.read(testFile);
+        long audioStart = af.getAudioHeader().getAudioDataStartPosition();
+        byte[] xxHash = af.computeAudioDataHash(AudioDataHasher.XXH64);
+
+        af.getTag().setField(FieldKey.COMMENT, new String(new char[200000]).replace('\0', 'c'));
+        af.commit();
+
+        af = AudioFileIO.read(testFile);
+        assertTrue(af.getAudioHeader().getAudioDataStartPosition() > audioStart + 200000);
+        assertTrue(Arrays.equals(xxHash, af.computeAudioDataHash(AudioDataHasher.XXH64)));
+    }
+
+    public void testMp3HashMatchesGetHash() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3");
+        MP3File mp3File = (MP3File) AudioFileIO.read(testFile);
+        assertTrue(Arrays.equals(mp3File.getHash("MD5"), mp3File.computeAudioDataHash("MD5")));
+    }
+
+    public void testPositionNotKnown() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test1.wma");
+        try
+        {
+            AudioFileIO.read(testFile).computeAudioDataHash(AudioDataHasher.XXH64);
+            fail("Expected CannotReadException");
+        }
+        catch (CannotReadException ex)
+        {
+            //Expected
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.jaudiotagger.audio.io;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class BufferPoolTest extends AbstractTestCase
+{
+    public void testBufferReusedBySameThread() throws Exception
+    {
+        BufferPool pool = BufferPool.getDefault();
+        ByteBuffer buffer = pool.acquire(5000);
+        assertTrue(buffer.isDirect());
+        assertEquals(0, buffer.position());
+        assertEquals(5000, buffer.limit());
+        assertEquals(8192, buffer.capacity());
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.position(100);
+        pool.release(buffer);
+
+        BufferPoolMetrics before = pool.getMetrics();
+        ByteBuffer reused = pool.acquire(6000);
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(6000, reused.limit());
+        assertEquals(ByteOrder.BIG_ENDIAN, reused.order());
+        BufferPoolMetrics after = pool.getMetrics();
+        assertEquals(before.getThreadHits() + 1, after.getThreadHits());
+        assertEquals(before.getOutstandingBytes() + 8192, after.getOutstandingBytes());
+        pool.release(reused);
+        assertEquals(before.getOutstandingBytes(), pool.getMetrics().getOutstandingBytes());
+    }
+
+    public void testLargeBufferSharedBetweenThreads() throws Exception
+    {
+        final BufferPool pool = BufferPool.getDefault();
+        final AtomicReference<ByteBuffer> released = new AtomicReference<ByteBuffer>();
+        Thread thread = new Thread(new Runnable()
+        {
+            public void run()
+            {
+                ByteBuffer buffer = pool.acquire(3 * 1024 * 1024);
+                released.set(buffer);
+                pool.release(buffer);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        BufferPoolMetrics before = pool.getMetrics();
+        ByteBuffer buffer = pool.acquire(4 * 1024 * 1024);
+        assertSame(released.get(), buffer);
+        assertEquals(before.getSharedHits() + 1, pool.getMetrics().getSharedHits());
+        assertEquals(before.getSharedBytes() - buffer.capacity(), pool.getMetrics().getSharedBytes());
+        pool.release(buffer);
+    }
+
+    public void testOversizedBufferNotPooled() throws Exception
+    {
+        BufferPool pool = BufferPool.getDefault();
+        BufferPoolMetrics before = pool.getMetrics();
+        ByteBuffer buffer = pool.acquire(9 * 1024 * 1024);
+        assertEquals(9 * 1024 * 1024, buffer.capacity());
+        pool.release(buffer);
+        BufferPoolMetrics after = pool.getMetrics();
+        assertEquals(before.getMisses() + 1, after.getMisses());
+        assertEquals(before.getOutstandingBytes(), after.getOutstandingBytes());
+        assertEquals(before.getSharedBytes(), after.getSharedBytes());
+    }
+
+    /**
+     * Reading and writing files releases every buffer acquired, and reading the same files again reuses them
+     */
+    public void testReadersReleaseBuffers() throws Exception
+    {
+        BufferPool pool = BufferPool.getDefault();
+        for (String source : new String[]{"01.mp3", "test.m4a"})
+        {
+            File file = copyAudioToTmp(source, new File("buffer-pool-" + source));
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Pooled");
+            audioFile.commit();
+            AudioFileIO.read(file);
+        }
+
+        BufferPoolMetrics before = pool.getMetrics();
+        for (String source : new String[]{"01.mp3", "test.m4a"})
+        {
+            AudioFile audioFile = AudioFileIO.read(new File("testdatatmp", "buffer-pool-" + source));
+            assertEquals(source, "Pooled", audioFile.getTag().getFirst(FieldKey.ALBUM));
+        }
+        BufferPoolMetrics after = pool.getMetrics();
+        assertTrue(after.toString(), after.getAcquired() > before.getAcquired());
+        assertEquals(after.toString(), before.getMisses(), after.getMisses());
+        assertEquals(after.toString(), before.getOutstandingBytes(), after.getOutstandingBytes());
+        assertTrue(after.toString(), after.getHitRate() > 0);
+    }
+}
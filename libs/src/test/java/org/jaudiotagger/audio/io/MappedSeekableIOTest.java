@@ -0,0 +1,85 @@
+package org.jaudiotagger.audio.io;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonReadableChannelException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class MappedSeekableIOTest extends AbstractTestCase
+{
+    public void testReadAcrossMappedAndUnmappedRegions() throws Exception
+    {
+        File testFile = copyAudioToTmp("test.flac", new File("mapped-regions.flac"));
+        byte[] expected = Files.readAllBytes(testFile.toPath());
+        try (MappedSeekableIO io = new MappedSeekableIO(FileChannel.open(testFile.toPath(), StandardOpenOption.READ), 4096, 4096))
+        {
+            assertEquals(expected.length, io.size());
+            assertTrue(io.isMapped(0));
+            assertFalse(io.isMapped(4096));
+            assertTrue(io.isMapped(expected.length - 1));
+
+            //Starts in head, crosses unmapped middle, ends in tail
+            ByteBuffer all = ByteBuffer.allocate(expected.length);
+            assertEquals(expected.length, io.read(all));
+            assertTrue(Arrays.equals(expected, all.array()));
+            assertEquals(-1, io.read(ByteBuffer.allocate(1)));
+
+            io.position(expected.length - 10);
+            ByteBuffer tail = ByteBuffer.allocate(10);
+            assertEquals(10, io.read(tail));
+            assertTrue(Arrays.equals(Arrays.copyOfRange(expected, expected.length - 10, expected.length), tail.array()));
+        }
+    }
+
+    public void testChannelClosedIfNotMapped() throws Exception
+    {
+        File testFile = copyAudioToTmp("test.flac", new File("mapped-not-readable.flac"));
+        FileChannel channel = FileChannel.open(testFile.toPath(), StandardOpenOption.WRITE);
+        try
+        {
+            new MappedSeekableIO(channel, 4096, 4096);
+            fail("Expected NonReadableChannelException");
+        }
+        catch (NonReadableChannelException expected)
+        {
+            //Cannot map for reading a channel opened only for writing
+        }
+        assertFalse(channel.isOpen());
+    }
+
+    public void testReadUsingMappedBackend() throws Exception
+    {
+        File testFile = copyAudioToTmp("test.flac", new File("mapped-backend.flac"));
+        AudioFileIO audioFileIO = new AudioFileIO();
+        audioFileIO.setReadBackend(ReadBackend.MEMORY_MAPPED);
+        AudioFile mapped = audioFileIO.readFile(testFile.toPath());
+        AudioFile plain = new AudioFileIO().readFile(testFile.toPath());
+
+        assertEquals(plain.getAudioHeader().getTrackLength(), mapped.getAudioHeader().getTrackLength());
+        assertEquals(plain.getAudioHeader().getSampleRate(), mapped.getAudioHeader().getSampleRate());
+        assertEquals(plain.getTag().getFirst(FieldKey.ARTIST), mapped.getTag().getFirst(FieldKey.ARTIST));
+        assertEquals(plain.getTag().getFirst(FieldKey.ALBUM), mapped.getTag().getFirst(FieldKey.ALBUM));
+    }
+
+    public void testMappedBackendIsReadOnly() throws Exception
+    {
+        File testFile = copyAudioToTmp("test.flac", new File("mapped-readonly.flac"));
+        try (MappedSeekableIO io = new MappedSeekableIO(testFile.toPath()))
+        {
+            io.write(ByteBuffer.allocate(1));
+            fail("Expected NonWritableChannelException");
+        }
+        catch (java.nio.channels.NonWritableChannelException expected)
+        {
+            //Read only
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.jaudiotagger.audio.io;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class ReadSessionTest extends AbstractTestCase
+{
+    public void testFlacReadOpensFileOnce() throws Exception
+    {
+        assertOpensOnce("test.flac", "read-session.flac");
+    }
+
+    public void testWavReadOpensFileOnce() throws Exception
+    {
+        assertOpensOnce("test.wav", "read-session.wav");
+    }
+
+    public void testAiffReadOpensFileOnce() throws Exception
+    {
+        assertOpensOnce("test119.aif", "read-session.aif");
+    }
+
+    public void testDsfReadOpensFileOnce() throws Exception
+    {
+        assertOpensOnce("test122.dsf", "read-session.dsf");
+    }
+
+    private void assertOpensOnce(String source, String target) throws Exception
+    {
+        File testFile = copyAudioToTmp(source, new File(target));
+        long opensBefore = ReadSession.getTotalOpens();
+        AudioFile af = AudioFileIO.read(testFile.toPath());
+        assertNotNull(af.getAudioHeader());
+        assertNotNull(af.getTag());
+        assertEquals(1, ReadSession.getTotalOpens() - opensBefore);
+    }
+
+    public void testSmallReadsAreServedFromWindow() throws Exception
+    {
+        File testFile = copyAudioToTmp("test.flac", new File("read-session-window.flac"));
+        byte[] expected = Files.readAllBytes(testFile.toPath());
+        try (ReadSession session = new ReadSession(testFile.toPath(), 1024))
+        {
+            FileChannel fc = session.getChannel();
+            ByteBuffer header = ByteBuffer.allocate(4);
+            fc.read(header);
+            assertTrue(Arrays.equals(Arrays.copyOfRange(expected, 0, 4), header.array()));
+
+            //Spans the end of the window so needs a second fill
+            fc.position(1020);
+            ByteBuffer spanning = ByteBuffer.allocate(10);
+            assertEquals(10, fc.read(spanning));
+            assertTrue(Arrays.equals(Arrays.copyOfRange(expected, 1020, 1030), spanning.array()));
+            assertEquals(1030, fc.position());
+
+            //Large read bypasses the window
+            ByteBuffer large = ByteBuffer.allocate(4096);
+            fc.position(2048);
+            assertEquals(4096, fc.read(large));
+            assertTrue(Arrays.equals(Arrays.copyOfRange(expected, 2048, 2048 + 4096), large.array()));
+
+            fc.position(expected.length);
+            assertEquals(-1, fc.read(ByteBuffer.allocate(1)));
+
+            assertEquals(1, session.getOpens());
+            assertEquals(expected.length, session.size());
+            assertTrue(session.getBytesFromWindow() > 0);
+            assertEquals(3, session.getReadCalls());
+        }
+    }
+}
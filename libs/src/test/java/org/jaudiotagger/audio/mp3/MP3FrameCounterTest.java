@@ -0,0 +1,220 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.io.ReadSession;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+
+public class MP3FrameCounterTest extends AbstractTestCase
+{
+    /**
+     * Mpeg 1 Layer III bitrates in kbps by bitrate index
+     */
+    private static final int[] BITRATES = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+
+    private static final int FRAME_COUNT = 2000;
+
+    private static final int MPEG2_STEREO_HEADER = 0xFFF38000;
+    private static final int MPEG2_MONO_HEADER = 0xFFF380C0;
+
+    @Override
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    /**
+     * Variable bitrate frames with random audio data, junk between some frames and an ID3v1 tag at the end
+     */
+    private static File createFile(String name, long seed) throws Exception
+    {
+        return createFile(name, seed, FRAME_COUNT);
+    }
+
+    private static File createFile(String name, long seed, int frameCount) throws Exception
+    {
+        Random random = new Random(seed);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < frameCount; i++)
+        {
+            int bitrateIndex = 1 + random.nextInt(BITRATES.length - 1);
+            boolean padding = random.nextBoolean();
+            byte[] frame = new byte[144 * BITRATES[bitrateIndex] * 1000 / 44100 + (padding ? 1 : 0)];
+            random.nextBytes(frame);
+            frame[0] = (byte) 0xFF;
+            frame[1] = (byte) 0xFB;
+            frame[2] = (byte) ((bitrateIndex << 4) | (padding ? 2 : 0));
+            frame[3] = (byte) 0x44;
+            out.write(frame);
+            if (i % 500 == 250)
+            {
+                byte[] junk = new byte[1 + random.nextInt(3000)];
+                random.nextBytes(junk);
+                for (int j = 0; j < junk.length; j++)
+                {
+                    if (junk[j] == (byte) 0xFF)
+                    {
+                        junk[j] = 0;
+                    }
+                }
+                out.write(junk);
+            }
+        }
+        byte[] id3v1 = new byte[128];
+        id3v1[0] = 'T';
+        id3v1[1] = 'A';
+        id3v1[2] = 'G';
+        out.write(id3v1);
+
+        File file = new File("testdatatmp", name);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream fos = new FileOutputStream(file))
+        {
+            fos.write(out.toByteArray());
+        }
+        return file;
+    }
+
+    /**
+     * MPEG-2 Layer III frames of 64 kbps at 22050 Hz with random padding, which are 576 samples long
+     */
+    static File createMpeg2File(String name, long seed, int frameCount, int firstHeader) throws Exception
+    {
+        Random random = new Random(seed);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < frameCount; i++)
+        {
+            boolean padding = random.nextBoolean();
+            byte[] frame = new byte[72 * 64 * 1000 / 22050 + (padding ? 1 : 0)];
+            random.nextBytes(frame);
+            frame[0] = (byte) (firstHeader >>> 24);
+            frame[1] = (byte) (firstHeader >>> 16);
+            frame[2] = (byte) ((firstHeader >>> 8) | (padding ? 2 : 0));
+            frame[3] = (byte) firstHeader;
+            out.write(frame);
+        }
+
+        File file = new File("testdatatmp", name);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream fos = new FileOutputStream(file))
+        {
+            fos.write(out.toByteArray());
+        }
+        return file;
+    }
+
+    public void testCountEveryFrame() throws Exception
+    {
+        File file = createFile("testFrameCount.mp3", 1);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel fc = raf.getChannel())
+        {
+            MP3FrameCounter.Result result = MP3FrameCounter.count(fc, 0, 0xFFFB9044);
+            assertEquals(FRAME_COUNT, result.getFrameCount());
+            assertTrue(result.isVbr());
+        }
+    }
+
+    /**
+     * However the file is split into segments the count is the same as walking it in one go
+     */
+    public void testSegmentsGiveSameCount() throws Exception
+    {
+        for (long seed = 2; seed < 6; seed++)
+        {
+            File file = createFile("testFrameCountSegments.mp3", seed);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel fc = raf.getChannel())
+            {
+                MP3FrameCounter.Result whole = MP3FrameCounter.count(fc, 0, 0xFFFB9044, Long.MAX_VALUE);
+                assertEquals(FRAME_COUNT, whole.getFrameCount());
+                for (long segmentSize : new long[]{1000, 4099, 65536, 300000})
+                {
+                    MP3FrameCounter.Result split = MP3FrameCounter.count(fc, 0, 0xFFFB9044, segmentSize);
+                    assertEquals(whole.getFrameCount(), split.getFrameCount());
+                    assertEquals(whole.getAudioSize(), split.getAudioSize());
+                }
+            }
+        }
+    }
+
+    public void testExactLengthOption() throws Exception
+    {
+        File file = createFile("testExactLength.mp3", 6);
+        MP3AudioHeader estimated = new MP3AudioHeader(file);
+        assertFalse(estimated.isVariableBitRate());
+
+        TagOptionSingleton.getInstance().setExactMp3Length(true);
+        MP3AudioHeader exact = new MP3AudioHeader(file);
+        assertEquals(FRAME_COUNT, exact.getNumberOfFrames());
+        assertTrue(exact.isVariableBitRate());
+        assertEquals(FRAME_COUNT * 1152 / 44100.0, exact.getPreciseTrackLength(), 0.001);
+    }
+
+    /**
+     * A file larger than a segment read through AudioFileIO, whose read session cannot be shared between threads,
+     * is counted in parallel through a channel of its own
+     */
+    public void testExactLengthOfLargeFileReadThroughAudioFileIO() throws Exception
+    {
+        int frameCount = 20000;
+        File file = createFile("testExactLengthLarge.mp3", 7, frameCount);
+        assertTrue(file.length() > MP3FrameCounter.SEGMENT_SIZE);
+
+        TagOptionSingleton.getInstance().setExactMp3Length(true);
+        for (int i = 0; i < 20; i++)
+        {
+            MP3AudioHeader header = (MP3AudioHeader) AudioFileIO.read(file).getAudioHeader();
+            assertEquals(frameCount, header.getNumberOfFrames());
+        }
+    }
+
+    /**
+     * Without a file to open a channel on, the frames are counted through the session's channel on one thread
+     */
+    public void testExactLengthThroughReadSessionChannel() throws Exception
+    {
+        int frameCount = 20000;
+        File file = createFile("testExactLengthSession.mp3", 8, frameCount);
+        TagOptionSingleton.getInstance().setExactMp3Length(true);
+        try (ReadSession session = new ReadSession(file.toPath()))
+        {
+            MP3AudioHeader header = new MP3AudioHeader(session.getChannel(), 0, file.getName(), null);
+            assertEquals(frameCount, header.getNumberOfFrames());
+        }
+    }
+
+    /**
+     * MPEG-2 Layer III frames are half the length of MPEG-1 frames whatever the channel mode, so every frame is
+     * counted for both stereo and mono
+     */
+    public void testExactLengthOfMpeg2() throws Exception
+    {
+        int frameCount = 1000;
+        for (int firstHeader : new int[]{MPEG2_STEREO_HEADER, MPEG2_MONO_HEADER})
+        {
+            File file = createMpeg2File("testExactLengthMpeg2.mp3", 9, frameCount, firstHeader);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel fc = raf.getChannel())
+            {
+                MP3FrameCounter.Result result = MP3FrameCounter.count(fc, 0, firstHeader);
+                assertEquals(frameCount, result.getFrameCount());
+                assertEquals(file.length(), result.getAudioSize());
+                assertFalse(result.isVbr());
+            }
+
+            MP3AudioHeader estimated = new MP3AudioHeader(file);
+            assertEquals(frameCount * 576 / 22050.0, estimated.getPreciseTrackLength(), 0.1);
+
+            TagOptionSingleton.getInstance().setExactMp3Length(true);
+            MP3AudioHeader exact = new MP3AudioHeader(file);
+            assertEquals(frameCount, exact.getNumberOfFrames());
+            assertEquals(frameCount * 576 / 22050.0, exact.getPreciseTrackLength(), 0.001);
+            TagOptionSingleton.getInstance().setToDefault();
+        }
+    }
+}
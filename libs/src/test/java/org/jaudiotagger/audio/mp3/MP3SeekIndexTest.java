@@ -0,0 +1,159 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.AbstractTestCase;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+
+public class MP3SeekIndexTest extends AbstractTestCase
+{
+    public void testIndexFromXingToc() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1vbrNew0.mp3");
+        MP3AudioHeader header = new MP3File(testFile).getMP3AudioHeader();
+        MP3SeekIndex index = header.getSeekIndex();
+        assertEquals(MP3SeekIndex.Source.XING, index.getSource());
+        assertFalse(index.isFrameAccurate());
+        assertEquals(100, index.getEntryCount());
+        assertEquals(0, index.getTimeMillis(0));
+        assertEquals(header.getMp3StartByte(), index.getPosition(0));
+        for (int i = 1; i < index.getEntryCount(); i++)
+        {
+            assertTrue(index.getTimeMillis(i) > index.getTimeMillis(i - 1));
+            assertTrue(index.getPosition(i) >= index.getPosition(i - 1));
+        }
+        assertTrue(index.getPosition(99) < testFile.length());
+    }
+
+    public void testIndexFromFrames() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1vbrNew0.mp3");
+        MP3AudioHeader header = new MP3File(testFile).getMP3AudioHeader();
+        MP3SeekIndex index = header.createSeekIndex(testFile, 1000);
+        assertEquals(MP3SeekIndex.Source.FRAMES, index.getSource());
+        assertTrue(index.isFrameAccurate());
+
+        //About one entry a second, the first after the Xing frame
+        assertEquals(header.getTrackLength() + 1, index.getEntryCount(), 1);
+        assertTrue(index.getPosition(0) > header.getMp3StartByte());
+        try (RandomAccessFile raf = new RandomAccessFile(testFile, "r"))
+        {
+            for (int i = 0; i < index.getEntryCount(); i++)
+            {
+                ByteBuffer bb = ByteBuffer.allocate(MPEGFrameHeader.HEADER_SIZE);
+                raf.getChannel().read(bb, index.getPosition(i));
+                bb.flip();
+                assertTrue(MPEGFrameHeader.isValidHeader(MPEGFrameHeader.getHeader(bb)));
+                if (i > 0)
+                {
+                    //Interval is a whole number of 26ms frames
+                    assertEquals(1000, index.getTimeMillis(i) - index.getTimeMillis(i - 1), 14);
+                }
+            }
+        }
+
+        assertEquals(2, index.findEntry(index.getTimeMillis(2)));
+        assertEquals(2, index.findEntry(index.getTimeMillis(2) + 1));
+        assertEquals(0, index.findEntry(-5));
+        assertEquals(index.getPosition(index.getEntryCount() - 1), index.getPosition(Long.MAX_VALUE));
+    }
+
+    /**
+     * Every entry of an index of an MPEG-2 Layer III file is at the start of the frame it should be, at the time of
+     * the 576 sample frames before it
+     */
+    public void testIndexFromMpeg2Frames() throws Exception
+    {
+        int frameCount = 1000;
+        for (int firstHeader : new int[]{0xFFF38000, 0xFFF380C0})
+        {
+            File testFile = MP3FrameCounterTest.createMpeg2File("testIndexFromMpeg2Frames.mp3", 3, frameCount, firstHeader);
+            MP3AudioHeader header = new MP3AudioHeader(testFile);
+            MP3SeekIndex index = header.createSeekIndex(testFile, 1000);
+            assertEquals(MP3SeekIndex.Source.FRAMES, index.getSource());
+            assertTrue(index.isFrameAccurate());
+
+            //1000ms is 38 frames of 576 samples at 22050 Hz
+            int framesPerEntry = 38;
+            assertEquals((frameCount + framesPerEntry - 1) / framesPerEntry, index.getEntryCount());
+            try (RandomAccessFile raf = new RandomAccessFile(testFile, "r"))
+            {
+                long position = 0;
+                for (int frame = 0; frame < frameCount; frame++)
+                {
+                    ByteBuffer bb = ByteBuffer.allocate(MPEGFrameHeader.HEADER_SIZE);
+                    raf.getChannel().read(bb, position);
+                    bb.flip();
+                    if (frame % framesPerEntry == 0)
+                    {
+                        int entry = frame / framesPerEntry;
+                        assertEquals(position, index.getPosition(entry));
+                        assertEquals(Math.round(frame * 576 * 1000 / 22050.0), index.getTimeMillis(entry));
+                    }
+                    position += MPEGFrameHeader.getFrameLength(MPEGFrameHeader.getHeader(bb));
+                }
+                assertEquals(testFile.length(), position);
+            }
+        }
+    }
+
+    public void testWriteAndRead() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1vbrNew0.mp3");
+        MP3AudioHeader header = new MP3File(testFile).getMP3AudioHeader();
+        for (MP3SeekIndex index : new MP3SeekIndex[]{header.getSeekIndex(), header.createSeekIndex(testFile, 500)})
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            index.write(new DataOutputStream(bytes));
+            MP3SeekIndex read = MP3SeekIndex.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            assertEquals(index, read);
+        }
+
+        try
+        {
+            MP3SeekIndex.read(new DataInputStream(new ByteArrayInputStream(new byte[16])));
+            fail("Expected IOException");
+        }
+        catch (IOException ex)
+        {
+            //Expected
+        }
+    }
+
+    public void testReadImplausibleCount() throws Exception
+    {
+        long[] times = new long[5000];
+        long[] positions = new long[5000];
+        for (int i = 0; i < times.length; i++)
+        {
+            times[i] = i * 26L;
+            positions[i] = i * 417L;
+        }
+        MP3SeekIndex index = new MP3SeekIndex(MP3SeekIndex.Source.FRAMES, times, positions);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        index.write(new DataOutputStream(bytes));
+        byte[] data = bytes.toByteArray();
+        assertEquals(index, MP3SeekIndex.read(new DataInputStream(new ByteArrayInputStream(data))));
+
+        //Count field follows magic, version and source
+        for (int count : new int[]{Integer.MAX_VALUE, 1000000})
+        {
+            ByteBuffer.wrap(data).putInt(9, count);
+            try
+            {
+                MP3SeekIndex.read(new DataInputStream(new ByteArrayInputStream(data)));
+                fail("Expected IOException for count:" + count);
+            }
+            catch (IOException ex)
+            {
+                //Too many entries, or fewer entries than the count
+            }
+        }
+    }
+}
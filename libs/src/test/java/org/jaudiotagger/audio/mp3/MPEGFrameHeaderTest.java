@@ -0,0 +1,88 @@
+package org.jaudiotagger.audio.mp3;
+
+import junit.framework.TestCase;
+import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+
+import java.nio.ByteBuffer;
+
+public class MPEGFrameHeaderTest extends TestCase
+{
+    /**
+     * Checking the header word accepts exactly the headers that can be parsed, and gives the same frame length
+     */
+    public void testHeaderWordMatchesParsedHeader()
+    {
+        ByteBuffer bb = ByteBuffer.allocate(MPEGFrameHeader.HEADER_SIZE);
+        for (int bits = 0; bits < 1 << 13; bits++)
+        {
+            for (int lastByte : new int[]{0x00, 0x44, 0xC0, 0xFF})
+            {
+                int header = 0xFFE00000 | (bits << 8) | lastByte;
+                bb.putInt(0, header);
+                MPEGFrameHeader parsed;
+                try
+                {
+                    parsed = MPEGFrameHeader.parseMPEGHeader(bb);
+                }
+                catch (InvalidAudioFrameException ex)
+                {
+                    parsed = null;
+                }
+                assertEquals(parsed != null, MPEGFrameHeader.isValidHeader(MPEGFrameHeader.getHeader(bb)));
+                if (parsed != null)
+                {
+                    assertEquals(parsed.getFrameLength(), MPEGFrameHeader.getFrameLength(header));
+                }
+            }
+        }
+        assertFalse(MPEGFrameHeader.isValidHeader(0xFFC39000));
+        assertFalse(MPEGFrameHeader.isValidHeader(0x00FB9000));
+    }
+
+    public void testParseMPEGHeader() throws Exception
+    {
+        ByteBuffer bb = ByteBuffer.wrap(new byte[]{0, (byte) 0xFF, (byte) 0xFB, (byte) 0x92, (byte) 0xC4});
+        bb.position(1);
+        MPEGFrameHeader header = MPEGFrameHeader.parseMPEGHeader(bb);
+        assertEquals(1, bb.position());
+        assertEquals(MPEGFrameHeader.VERSION_1, header.getVersion());
+        assertEquals(MPEGFrameHeader.LAYER_III, header.getLayer());
+        assertEquals(128, header.getBitRate().intValue());
+        assertEquals(44100, header.getSamplingRate().intValue());
+        assertEquals(MPEGFrameHeader.MODE_MONO, header.getChannelMode());
+        assertTrue(header.isPadding());
+        assertEquals(418, header.getFrameLength());
+        assertEquals(1152, header.getNoOfSamples());
+    }
+
+    /**
+     * MPEG-2 and MPEG-2.5 Layer III frames hold 576 samples, so are half the length of MPEG-1 frames whatever the
+     * channel mode
+     */
+    public void testMpeg2LayerIIIFrames() throws Exception
+    {
+        for (int mode : new int[]{0x00, 0x40, 0xC0})
+        {
+            //MPEG-2, 64 kbps, 22050 Hz
+            MPEGFrameHeader header = MPEGFrameHeader.parseMPEGHeader(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xF3, (byte) 0x80, (byte) mode}));
+            assertEquals(MPEGFrameHeader.VERSION_2, header.getVersion());
+            assertEquals(208, header.getFrameLength());
+            assertEquals(576, header.getNoOfSamples());
+
+            //With padding
+            assertEquals(209, MPEGFrameHeader.getFrameLength(0xFFF38200 | mode));
+
+            //MPEG-2.5, 32 kbps, 11025 Hz
+            header = MPEGFrameHeader.parseMPEGHeader(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xE3, (byte) 0x40, (byte) mode}));
+            assertEquals(MPEGFrameHeader.VERSION_2_5, header.getVersion());
+            assertEquals(208, header.getFrameLength());
+            assertEquals(576, header.getNoOfSamples());
+        }
+
+        //Layer II frames are the same length for every version
+        MPEGFrameHeader header = MPEGFrameHeader.parseMPEGHeader(ByteBuffer.wrap(new byte[]{(byte) 0xFF, (byte) 0xF5, (byte) 0x80, (byte) 0xC0}));
+        assertEquals(MPEGFrameHeader.LAYER_II, header.getLayer());
+        assertEquals(417, header.getFrameLength());
+        assertEquals(1152, header.getNoOfSamples());
+    }
+}
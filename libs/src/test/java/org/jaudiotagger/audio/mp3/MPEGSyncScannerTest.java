@@ -0,0 +1,101 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.AbstractTestCase;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Random;
+
+public class MPEGSyncScannerTest extends AbstractTestCase
+{
+    /**
+     * Position the scanner returns is the first one isMPEGFrame accepts
+     */
+    public void testFindMatchesIsMPEGFrame()
+    {
+        Random random = new Random(1);
+        for (int run = 0; run < 200; run++)
+        {
+            byte[] data = new byte[1 + random.nextInt(200000)];
+            random.nextBytes(data);
+            //Mostly sync bytes in places so words with several candidates are searched
+            for (int i = 0; i < data.length; i++)
+            {
+                if (random.nextInt(4) == 0)
+                {
+                    data[i] = (byte) 0xFF;
+                }
+            }
+            ByteBuffer bb = random.nextBoolean() ? ByteBuffer.wrap(data) : ByteBuffer.allocateDirect(data.length).put(data);
+            int start = random.nextInt(data.length);
+            int end = random.nextInt(data.length + 10);
+            bb.limit(data.length);
+            bb.position(start);
+            assertEquals(scan(bb, end), MPEGSyncScanner.find(bb, end));
+            assertEquals(start, bb.position());
+        }
+    }
+
+    /**
+     * Headers found past the first window and at either side of the point where windows overlap
+     */
+    public void testFindAcrossWindows()
+    {
+        int[] offsets = {0, 7, 8, 65531, 65532, 65533, 65534, 65535, 65536, 131067, 131068, 200000};
+        for (int offset : offsets)
+        {
+            ByteBuffer bb = ByteBuffer.allocate(250000);
+            bb.put(offset, (byte) 0xFF);
+            bb.put(offset + 1, (byte) 0xFB);
+            bb.put(offset + 2, (byte) 0x90);
+            assertEquals(offset, MPEGSyncScanner.find(bb, bb.limit()));
+            assertEquals(-1, MPEGSyncScanner.find(bb, offset));
+        }
+        assertEquals(-1, MPEGSyncScanner.find(ByteBuffer.allocate(2), 2));
+    }
+
+    /**
+     * Audio after a large amount of junk containing no sync bytes is still found at the right place
+     */
+    public void testSeekAfterJunk() throws Exception
+    {
+        File original = AbstractTestCase.copyAudioToTmp("testV1.mp3");
+        long expected = new MP3AudioHeader(original).getMp3StartByte();
+
+        File testFile = new File("testdatatmp", "testSyncAfterJunk.mp3");
+        byte[] audio = Files.readAllBytes(original.toPath());
+        byte[] junk = new byte[300000];
+        new Random(2).nextBytes(junk);
+        for (int i = 0; i < junk.length; i++)
+        {
+            if (junk[i] == (byte) 0xFF)
+            {
+                junk[i] = 0;
+            }
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(testFile, "rw"))
+        {
+            raf.setLength(0);
+            raf.write(junk);
+            raf.write(audio);
+        }
+        MP3AudioHeader header = new MP3AudioHeader(testFile);
+        assertEquals(junk.length + expected, header.getMp3StartByte());
+    }
+
+    private static int scan(ByteBuffer bb, int end)
+    {
+        ByteBuffer copy = bb.duplicate();
+        for (int i = bb.position(); i < Math.min(end, bb.limit() - 2); i++)
+        {
+            copy.position(i);
+            if (MPEGFrameHeader.isMPEGFrame(copy))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
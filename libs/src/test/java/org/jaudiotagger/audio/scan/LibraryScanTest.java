@@ -0,0 +1,204 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class LibraryScanTest extends AbstractTestCase
+{
+    private static final String[] SOURCES =
+            {
+                    "01.mp3", "test.ogg", "test.flac", "test.m4a", "test1.wma", "test.wav", "test119.aif"
+            };
+
+    private static final Function<Path, Object> ONE_DEVICE = new Function<Path, Object>()
+    {
+        @Override
+        public Object apply(Path path)
+        {
+            return "device";
+        }
+    };
+
+    private List<Path> copySources(String prefix, int copies)
+    {
+        List<Path> paths = new ArrayList<Path>();
+        for (int i = 0; i < copies; i++)
+        {
+            for (String source : SOURCES)
+            {
+                paths.add(copyAudioToTmp(source, new File(prefix + i + "-" + source)).toPath());
+            }
+        }
+        return paths;
+    }
+
+    public void testOneResultPerPathWithErrorsReported() throws Exception
+    {
+        List<Path> paths = copySources("scan-all-", 2);
+        File corrupt = new File("testdatatmp", "scan-all-corrupt.flac");
+        Files.write(corrupt.toPath(), new byte[1000]);
+        paths.add(corrupt.toPath());
+        File unsupported = copyAudioToTmp("01.mp3", new File("scan-all-unsupported.xyz"));
+        paths.add(unsupported.toPath());
+
+        List<ScanResult> results;
+        try (LibraryScan scan = AudioFileIO.readAll(paths.stream(), new ScanOptions().setParallelism(4)))
+        {
+            results = scan.results().collect(Collectors.toList());
+            assertTrue(scan.getProgress().toString(), scan.getProgress().getCompleted() == paths.size());
+        }
+
+        assertEquals(paths.size(), results.size());
+        Set<Path> seen = new HashSet<Path>();
+        for (ScanResult result : results)
+        {
+            seen.add(result.getPath());
+            if (result.getPath().equals(corrupt.toPath()) || result.getPath().equals(unsupported.toPath()))
+            {
+                assertFalse(result.toString(), result.isSuccess());
+                assertNull(result.getAudioFile());
+                assertTrue(result.getError() instanceof CannotReadException);
+            }
+            else
+            {
+                assertTrue(result.toString(), result.isSuccess());
+                assertEquals(AudioFileIO.read(result.getPath()).getAudioHeader().toString(),
+                        result.getAudioFile().getAudioHeader().toString());
+            }
+        }
+        assertEquals(new HashSet<Path>(paths), seen);
+    }
+
+    public void testConcurrencyLimitedPerDevice() throws Exception
+    {
+        List<Path> paths = copySources("scan-device-", 3);
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final AtomicInteger notified = new AtomicInteger();
+        ScanOptions options = new ScanOptions()
+                .setParallelism(8)
+                .setMaxConcurrencyPerDevice(1)
+                .setDeviceResolver(ONE_DEVICE)
+                .setProgressListener(new ScanProgressListener()
+                {
+                    @Override
+                    public void fileScanned(ScanResult result, ScanProgress progress)
+                    {
+                        notified.incrementAndGet();
+                        maxInFlight.accumulateAndGet(progress.getInFlight(), Math::max);
+                    }
+                });
+
+        try (LibraryScan scan = AudioFileIO.readAll(paths.stream(), options))
+        {
+            assertEquals(paths.size(), scan.results().filter(ScanResult::isSuccess).count());
+            assertTrue(scan.getProgress().getFailed() == 0);
+        }
+        assertEquals(paths.size(), notified.get());
+        assertTrue("In flight:" + maxInFlight.get(), maxInFlight.get() <= 1);
+    }
+
+    public void testSmallPendingWindow() throws Exception
+    {
+        List<Path> paths = copySources("scan-window-", 2);
+        try (LibraryScan scan = AudioFileIO.readAll(paths.stream(), new ScanOptions().setMaxPending(1)))
+        {
+            assertEquals(paths.size(), scan.results().count());
+        }
+    }
+
+    public void testCancel() throws Exception
+    {
+        final List<Path> paths = copySources("scan-cancel-", 1);
+        //Endless stream of paths so the scan can only end by being cancelled
+        Stream<Path> endless = Stream.iterate(0, i -> i + 1).map(i -> paths.get(i % paths.size()));
+
+        LibraryScan scan = AudioFileIO.readAll(endless, new ScanOptions().setMaxPending(4));
+        Stream<ScanResult> results = scan.results();
+        assertEquals(20, results.limit(20).count());
+        results.close();
+
+        assertTrue(scan.isCancelled());
+        for (int i = 0; i < 100 && !scan.isFinished(); i++)
+        {
+            Thread.sleep(50);
+        }
+        assertTrue(scan.getProgress().toString(), scan.isFinished());
+        assertTrue(scan.getProgress().isCancelled());
+    }
+
+    public void testFailingPathStreamReported() throws Exception
+    {
+        List<Path> paths = copySources("scan-fail-", 1);
+        Stream<Path> failing = Stream.concat(paths.stream(), Stream.of((Path) null).map(p ->
+        {
+            throw new IllegalStateException("Directory gone");
+        }));
+
+        List<ScanResult> results;
+        try (LibraryScan scan = AudioFileIO.readAll(failing, new ScanOptions()))
+        {
+            results = scan.results().collect(Collectors.toList());
+        }
+        assertEquals(paths.size() + 1, results.size());
+        int failures = 0;
+        for (ScanResult result : results)
+        {
+            if (result.getPath() == null)
+            {
+                failures++;
+                assertEquals("Directory gone", result.getError().getMessage());
+            }
+        }
+        assertEquals(1, failures);
+    }
+
+    /**
+     * Reads the executor will not run are reported as failures and the scan still finishes
+     */
+    public void testRejectedReadsReported() throws Exception
+    {
+        List<Path> paths = copySources("scan-rejected-", 1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+        final AtomicInteger notified = new AtomicInteger();
+        ScanOptions options = new ScanOptions()
+                .setExecutor(executor)
+                .setProgressListener(new ScanProgressListener()
+                {
+                    @Override
+                    public void fileScanned(ScanResult result, ScanProgress progress)
+                    {
+                        notified.incrementAndGet();
+                    }
+                });
+
+        List<ScanResult> results;
+        try (LibraryScan scan = AudioFileIO.readAll(paths.stream(), options))
+        {
+            results = scan.results().collect(Collectors.toList());
+            assertTrue(scan.isFinished());
+        }
+        assertEquals(paths.size(), results.size());
+        assertEquals(paths.size(), notified.get());
+        for (ScanResult result : results)
+        {
+            assertTrue(result.getError() instanceof RejectedExecutionException);
+        }
+    }
+}
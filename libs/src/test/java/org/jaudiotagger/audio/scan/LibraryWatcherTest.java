@@ -0,0 +1,193 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class LibraryWatcherTest extends AbstractTestCase
+{
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    //Generous because some watch services poll rather than being notified
+    private static final long WAIT_SECONDS = 20;
+
+    private final BlockingQueue<LibraryChange> changes = new LinkedBlockingQueue<LibraryChange>();
+
+    private final LibraryChangeListener listener = new LibraryChangeListener()
+    {
+        @Override
+        public void libraryChanged(LibraryChange change)
+        {
+            changes.add(change);
+        }
+    };
+
+    private static Path createDirectory(String name) throws Exception
+    {
+        Path dir = new File("testdatatmp", name).toPath();
+        delete(dir.toFile());
+        return Files.createDirectories(dir);
+    }
+
+    private static void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private LibraryChange nextChange() throws Exception
+    {
+        LibraryChange change = changes.poll(WAIT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull("No change reported", change);
+        return change;
+    }
+
+    private void assertNoMoreChanges() throws Exception
+    {
+        LibraryChange change = changes.poll(DEBOUNCE_MILLIS * 5, TimeUnit.MILLISECONDS);
+        assertNull(String.valueOf(change), change);
+    }
+
+    public void testCreateModifyDelete() throws Exception
+    {
+        Path dir = createDirectory("library-watch");
+        ScanCache cache = new ScanCache();
+        try (LibraryWatcher watcher = new LibraryWatcher(dir, listener).setDebounceMillis(DEBOUNCE_MILLIS).setCache(cache).start())
+        {
+            Path mp3 = dir.resolve("watched.mp3");
+            Files.copy(new File("testdata", "01.mp3").toPath(), mp3);
+            Files.write(dir.resolve("notes.txt"), new byte[10]);
+
+            LibraryChange change = nextChange();
+            assertEquals(LibraryChange.Kind.CREATED, change.getKind());
+            assertEquals(mp3, change.getPath());
+            assertTrue(String.valueOf(change.getError()), change.isSuccess());
+            assertNotNull(change.getAudioFile().getAudioHeader());
+            assertNotNull(cache.get(mp3, ReadOptions.FULL));
+            assertNoMoreChanges();
+
+            //Tag edited in place
+            Path flac = dir.resolve("watched.flac");
+            Files.copy(new File("testdata", "test.flac").toPath(), flac);
+            assertEquals(LibraryChange.Kind.CREATED, nextChange().getKind());
+            AudioFile audioFile = AudioFileIO.read(flac.toFile());
+            audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Watched Album");
+            audioFile.commit();
+
+            change = nextChange();
+            assertEquals(LibraryChange.Kind.MODIFIED, change.getKind());
+            assertEquals(flac, change.getPath());
+            assertEquals("Watched Album", change.getAudioFile().getTag().getFirst(FieldKey.ALBUM));
+            assertEquals("Watched Album", cache.get(flac, ReadOptions.FULL).getFirst(FieldKey.ALBUM));
+            assertNoMoreChanges();
+
+            Files.delete(mp3);
+            change = nextChange();
+            assertEquals(LibraryChange.Kind.DELETED, change.getKind());
+            assertEquals(mp3, change.getPath());
+            assertNull(change.getAudioFile());
+            assertEquals(1, cache.size());
+            assertNoMoreChanges();
+        }
+    }
+
+    public void testBurstCoalescedAndSubdirectoriesWatched() throws Exception
+    {
+        Path dir = createDirectory("library-watch-burst");
+        try (LibraryWatcher watcher = new LibraryWatcher(dir, listener).setDebounceMillis(DEBOUNCE_MILLIS).setReadOptions(ReadOptions.HEADER_ONLY).start())
+        {
+            //Created and deleted again before being read so not reported
+            Path shortLived = dir.resolve("transient.ogg");
+            Files.copy(new File("testdata", "test.ogg").toPath(), shortLived);
+            Files.delete(shortLived);
+
+            //Written in several steps
+            Path ogg = dir.resolve("burst.ogg");
+            byte[] data = Files.readAllBytes(new File("testdata", "test.ogg").toPath());
+            Files.write(ogg, new byte[0]);
+            Files.write(ogg, data);
+            Files.move(dir.resolve("burst.ogg"), dir.resolve("renamed.ogg"), StandardCopyOption.ATOMIC_MOVE);
+            Files.move(dir.resolve("renamed.ogg"), ogg, StandardCopyOption.ATOMIC_MOVE);
+
+            LibraryChange change = nextChange();
+            assertEquals(LibraryChange.Kind.CREATED, change.getKind());
+            assertEquals(ogg, change.getPath());
+            assertTrue(String.valueOf(change.getError()), change.isSuccess());
+            assertNull(change.getAudioFile().getTag());
+            assertNoMoreChanges();
+
+            Path subdir = dir.resolve("album");
+            Path staging = createDirectory("library-watch-staging");
+            Files.copy(new File("testdata", "test.m4a").toPath(), staging.resolve("track.m4a"), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(staging, subdir, StandardCopyOption.ATOMIC_MOVE);
+
+            change = nextChange();
+            assertEquals(LibraryChange.Kind.CREATED, change.getKind());
+            assertEquals(subdir.resolve("track.m4a"), change.getPath());
+
+            Path wav = subdir.resolve("later.wav");
+            Files.copy(new File("testdata", "test.wav").toPath(), wav);
+            change = nextChange();
+            assertEquals(LibraryChange.Kind.CREATED, change.getKind());
+            assertEquals(wav, change.getPath());
+            assertNoMoreChanges();
+        }
+    }
+
+    /**
+     * A file written elsewhere and renamed over an existing file only raises a create event but is reported as
+     * modified, whether the file was there when watching started or was created since
+     */
+    public void testRenameOverExistingFile() throws Exception
+    {
+        for (boolean recursive : new boolean[]{true, false})
+        {
+            Path dir = createDirectory("library-watch-rename");
+            Path existing = dir.resolve("existing.mp3");
+            Files.copy(new File("testdata", "01.mp3").toPath(), existing);
+            try (LibraryWatcher watcher = new LibraryWatcher(dir, listener).setDebounceMillis(DEBOUNCE_MILLIS).setRecursive(recursive).start())
+            {
+                Path part = dir.resolve("existing.mp3.part");
+                Files.copy(new File("testdata", "01.mp3").toPath(), part);
+                Files.move(part, existing, StandardCopyOption.ATOMIC_MOVE);
+
+                LibraryChange change = nextChange();
+                assertEquals(LibraryChange.Kind.MODIFIED, change.getKind());
+                assertEquals(existing, change.getPath());
+                assertTrue(String.valueOf(change.getError()), change.isSuccess());
+                assertNoMoreChanges();
+
+                Path ogg = dir.resolve("new.ogg");
+                Files.copy(new File("testdata", "test.ogg").toPath(), ogg);
+                change = nextChange();
+                assertEquals(LibraryChange.Kind.CREATED, change.getKind());
+                assertEquals(ogg, change.getPath());
+
+                part = dir.resolve("new.ogg.part");
+                Files.copy(new File("testdata", "test.ogg").toPath(), part);
+                Files.move(part, ogg, StandardCopyOption.ATOMIC_MOVE);
+                change = nextChange();
+                assertEquals(LibraryChange.Kind.MODIFIED, change.getKind());
+                assertEquals(ogg, change.getPath());
+                assertNoMoreChanges();
+            }
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package org.jaudiotagger.audio.scan;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ScanCacheTest extends AbstractTestCase
+{
+    private static final String[] SOURCES =
+            {
+                    "01.mp3", "test.ogg", "test.flac", "test.m4a", "test1.wma", "test.wav"
+            };
+
+    private List<Path> copySources(String prefix)
+    {
+        List<Path> paths = new ArrayList<Path>();
+        for (String source : SOURCES)
+        {
+            paths.add(copyAudioToTmp(source, new File(prefix + source)).toPath());
+        }
+        return paths;
+    }
+
+    private static Map<Path, ScanResult> scan(List<Path> paths, ScanCache cache, ReadOptions readOptions)
+    {
+        Map<Path, ScanResult> results = new HashMap<Path, ScanResult>();
+        try (LibraryScan scan = AudioFileIO.readAll(paths.stream(), new ScanOptions().setCache(cache).setReadOptions(readOptions)))
+        {
+            for (ScanResult result : scan.results().collect(Collectors.toList()))
+            {
+                results.put(result.getPath(), result);
+            }
+        }
+        return results;
+    }
+
+    public void testUnchangedFilesTakenFromCache() throws Exception
+    {
+        List<Path> paths = copySources("scan-cache-");
+        ScanCache cache = new ScanCache();
+
+        Map<Path, ScanResult> first = scan(paths, cache, ReadOptions.FULL);
+        assertEquals(paths.size(), cache.size());
+        for (Path path : paths)
+        {
+            ScanResult result = first.get(path);
+            assertTrue(result.toString(), result.isSuccess());
+            assertFalse(result.isCached());
+            assertNotNull(result.getAudioFile());
+            assertNotNull(result.getSnapshot());
+        }
+
+        Map<Path, ScanResult> second = scan(paths, cache, ReadOptions.FULL);
+        assertEquals(paths.size(), cache.getHits());
+        for (Path path : paths)
+        {
+            ScanResult result = second.get(path);
+            assertTrue(result.toString(), result.isCached());
+            assertNull(result.getAudioFile());
+            assertSameAsFile(AudioFileIO.read(path.toFile()), result.getSnapshot());
+        }
+    }
+
+    public void testChangedFileReadAgain() throws Exception
+    {
+        List<Path> paths = copySources("scan-cache-changed-");
+        ScanCache cache = new ScanCache();
+        scan(paths, cache, ReadOptions.FULL);
+
+        Path changed = paths.get(0);
+        AudioFile audioFile = AudioFileIO.read(changed.toFile());
+        audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Changed Album");
+        audioFile.commit();
+
+        Map<Path, ScanResult> second = scan(paths, cache, ReadOptions.FULL);
+        assertFalse(second.get(changed).isCached());
+        assertEquals("Changed Album", second.get(changed).getSnapshot().getFirst(FieldKey.ALBUM));
+        assertTrue(second.get(paths.get(1)).isCached());
+
+        //Same size but modified
+        Path touched = paths.get(1);
+        Files.setLastModifiedTime(touched, FileTime.fromMillis(Files.getLastModifiedTime(touched).toMillis() - 10000));
+        assertNull(cache.get(touched, ReadOptions.FULL));
+        assertEquals(paths.size() - 1, cache.size());
+    }
+
+    public void testReadOptionsRespected() throws Exception
+    {
+        List<Path> paths = copySources("scan-cache-options-");
+        ScanCache cache = new ScanCache();
+        scan(paths, cache, ReadOptions.HEADER_ONLY);
+
+        for (ScanResult result : scan(paths, cache, ReadOptions.HEADER_ONLY).values())
+        {
+            assertTrue(result.toString(), result.isCached());
+            assertFalse(result.getSnapshot().hasTag());
+        }
+        for (ScanResult result : scan(paths, cache, ReadOptions.FULL).values())
+        {
+            assertFalse(result.toString(), result.isCached());
+        }
+        for (ScanResult result : scan(paths, cache, ReadOptions.TAG_ONLY).values())
+        {
+            assertTrue(result.toString(), result.isCached());
+        }
+    }
+
+    public void testSaveAndLoad() throws Exception
+    {
+        List<Path> paths = copySources("scan-cache-save-");
+        ScanCache cache = new ScanCache();
+        scan(paths, cache, ReadOptions.FULL);
+
+        Path saved = new File("testdatatmp", "scan-cache.bin").toPath();
+        Files.deleteIfExists(saved);
+        cache.save(saved);
+
+        ScanCache loaded = new ScanCache();
+        assertEquals(paths.size(), loaded.load(saved));
+        for (Path path : paths)
+        {
+            FileSnapshot snapshot = loaded.get(path, ReadOptions.FULL);
+            assertNotNull(path.toString(), snapshot);
+            assertSameAsFile(AudioFileIO.read(path.toFile()), snapshot);
+        }
+
+        ScanCache otherFields = new ScanCache(10, Arrays.asList(FieldKey.TITLE));
+        assertEquals(0, otherFields.load(saved));
+        assertEquals(0, new ScanCache().load(new File("testdatatmp", "scan-cache-missing.bin").toPath()));
+
+        byte[] data = Files.readAllBytes(saved);
+        Files.write(saved, Arrays.copyOf(data, data.length / 2));
+        try
+        {
+            new ScanCache().load(saved);
+            fail("Expected IOException");
+        }
+        catch (IOException expected)
+        {
+            //Truncated
+        }
+    }
+
+    /**
+     * A corrupt entry or field count is reported as a corrupt cache without allocating for it
+     */
+    public void testLoadImplausibleCounts() throws Exception
+    {
+        Path saved = new File("testdatatmp", "scan-cache-counts.bin").toPath();
+        Files.createDirectories(saved.getParent());
+        Files.deleteIfExists(saved);
+        new ScanCache().save(saved);
+        byte[] data = Files.readAllBytes(saved);
+
+        for (int count : new int[]{-1, Integer.MAX_VALUE, 1000})
+        {
+            ByteBuffer.wrap(data).putInt(data.length - 4, count);
+            Files.write(saved, data);
+            try
+            {
+                new ScanCache().load(saved);
+                fail("Expected IOException for count:" + count);
+            }
+            catch (IOException expected)
+            {
+                //Corrupt
+            }
+        }
+
+        ByteBuffer.wrap(data).putShort(8, (short) 0xFFFF);
+        Files.write(saved, data);
+        try
+        {
+            new ScanCache().load(saved);
+            fail("Expected IOException");
+        }
+        catch (IOException expected)
+        {
+            //Corrupt
+        }
+    }
+
+    public void testLeastRecentlyUsedEvicted() throws Exception
+    {
+        List<Path> paths = copySources("scan-cache-evict-");
+        ScanCache cache = new ScanCache(2, ScanCache.DEFAULT_FIELDS);
+        for (int i = 0; i < 3; i++)
+        {
+            Path path = paths.get(i);
+            cache.put(path, Files.readAttributes(path, BasicFileAttributes.class), AudioFileIO.read(path.toFile()));
+            if (i == 1)
+            {
+                //Now more recently used than the second file
+                assertNotNull(cache.get(paths.get(0), ReadOptions.FULL));
+            }
+        }
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertNotNull(cache.get(paths.get(0), ReadOptions.FULL));
+        assertNull(cache.get(paths.get(1), ReadOptions.FULL));
+        assertNotNull(cache.get(paths.get(2), ReadOptions.FULL));
+
+        Files.write(paths.get(2), new byte[16], StandardOpenOption.APPEND);
+        assertNull(cache.get(paths.get(2), ReadOptions.FULL));
+    }
+
+    private static void assertSameAsFile(AudioFile audioFile, FileSnapshot snapshot)
+    {
+        String name = audioFile.getFile().getName();
+        assertEquals(name, audioFile.getAudioHeader().getFormat(), snapshot.getAudioHeader().getFormat());
+        assertEquals(name, audioFile.getAudioHeader().getSampleRateAsNumber(), snapshot.getAudioHeader().getSampleRateAsNumber());
+        assertEquals(name, audioFile.getAudioHeader().getBitRateAsNumber(), snapshot.getAudioHeader().getBitRateAsNumber());
+        assertEquals(name, audioFile.getAudioHeader().getPreciseTrackLength(), snapshot.getAudioHeader().getPreciseTrackLength());
+        assertEquals(name, audioFile.getAudioHeader().getChannels(), snapshot.getAudioHeader().getChannels());
+        assertEquals(name, audioFile.getTag() != null, snapshot.hasTag());
+        if (audioFile.getTag() != null)
+        {
+            assertEquals(name, audioFile.getTag().getFirst(FieldKey.TITLE), snapshot.getFirst(FieldKey.TITLE));
+            assertEquals(name, audioFile.getTag().getFirst(FieldKey.ARTIST), snapshot.getFirst(FieldKey.ARTIST));
+            assertEquals(name, audioFile.getTag().getFirst(FieldKey.ALBUM), snapshot.getFirst(FieldKey.ALBUM));
+        }
+    }
+}
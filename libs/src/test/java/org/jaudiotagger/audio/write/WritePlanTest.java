@@ -0,0 +1,86 @@
+package org.jaudiotagger.audio.write;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+public class WritePlanTest extends AbstractTestCase
+{
+    private static AudioFile readCopy(String source, String name) throws Exception
+    {
+        return AudioFileIO.read(copyAudioToTmp(source, new File(name)));
+    }
+
+    /**
+     * Plan the write, check the file was not touched, then write and check the file length changed as planned
+     */
+    private static WritePlan planAndWrite(AudioFile audioFile) throws Exception
+    {
+        File file = audioFile.getFile();
+        byte[] before = Files.readAllBytes(file.toPath());
+        WritePlan plan = AudioFileIO.planWrite(audioFile);
+        assertTrue(Arrays.equals(before, Files.readAllBytes(file.toPath())));
+        assertEquals(before.length, plan.getFileLength());
+        assertTrue(plan.toString(), plan.getBytesToWrite() > 0);
+
+        audioFile.commit();
+        long after = file.length();
+        if (plan.getStrategy() == WritePlan.Strategy.IN_PLACE || plan.getStrategy() == WritePlan.Strategy.PADDING_CONSUMED)
+        {
+            assertEquals(plan.toString(), before.length, after);
+        }
+        return plan;
+    }
+
+    public void testSmallChangeUsesPadding() throws Exception
+    {
+        for (String source : new String[]{"test.flac", "01.mp3", "test.m4a"})
+        {
+            AudioFile audioFile = readCopy(source, "plan-small-" + source);
+            audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Plan");
+            audioFile.commit();
+
+            audioFile = AudioFileIO.read(audioFile.getFile());
+            audioFile.getTag().setField(FieldKey.ALBUM, "Plan Album");
+            WritePlan plan = planAndWrite(audioFile);
+            assertFalse(source + ":" + plan, plan.isAudioRewritten());
+            assertEquals(source + ":" + plan, 0, plan.getBytesToRead());
+            assertTrue(source + ":" + plan, plan.getBytesToWrite() < plan.getFileLength());
+        }
+    }
+
+    public void testLargeArtworkShiftsAudio() throws Exception
+    {
+        for (String source : new String[]{"test.flac", "01.mp3"})
+        {
+            AudioFile audioFile = readCopy(source, "plan-artwork-" + source);
+            audioFile.getTagOrCreateAndSetDefault().setField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart_large.jpg")));
+            long before = audioFile.getFile().length();
+            WritePlan plan = planAndWrite(audioFile);
+            assertEquals(source + ":" + plan, WritePlan.Strategy.SHIFT, plan.getStrategy());
+            assertTrue(plan.isAudioRewritten());
+            assertTrue(source + ":" + plan, plan.getBytesToRead() > 0);
+            assertTrue(source + ":" + plan, plan.getBytesToWrite() > plan.getBytesToRead());
+            assertTrue(audioFile.getFile().length() > before);
+        }
+    }
+
+    public void testTailAndFullCopy() throws Exception
+    {
+        AudioFile wav = readCopy("test.wav", "plan-tail.wav");
+        wav.getTagOrCreateAndSetDefault().setField(FieldKey.ARTIST, "Plan Artist");
+        assertEquals(WritePlan.Strategy.TAIL_APPEND, planAndWrite(wav).getStrategy());
+
+        AudioFile ogg = readCopy("test.ogg", "plan-copy.ogg");
+        ogg.getTagOrCreateAndSetDefault().setField(FieldKey.ARTIST, "Plan Artist");
+        WritePlan plan = planAndWrite(ogg);
+        assertEquals(WritePlan.Strategy.FULL_COPY, plan.getStrategy());
+        assertTrue(plan.toString(), plan.getBytesToRead() >= plan.getFileLength());
+    }
+}
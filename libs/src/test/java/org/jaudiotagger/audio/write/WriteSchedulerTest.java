@@ -0,0 +1,312 @@
+package org.jaudiotagger.audio.write;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.exceptions.ModifyVetoException;
+import org.jaudiotagger.audio.generic.AudioFileModificationAdapter;
+import org.jaudiotagger.audio.generic.AudioFileModificationListener;
+import org.jaudiotagger.audio.instrument.InstrumentationListener;
+import org.jaudiotagger.audio.instrument.PhaseEvent;
+import org.jaudiotagger.tag.FieldKey;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class WriteSchedulerTest extends AbstractTestCase
+{
+    private static final String[] SOURCES =
+            {
+                    "01.mp3", "test.ogg", "test.flac", "test.m4a", "test1.wma", "test.wav"
+            };
+
+    /**
+     * Executor recording the most tasks it ran at once, tasks wait until the gate is opened so all the writes are
+     * queued before any start
+     */
+    private static class CountingExecutor extends ThreadPoolExecutor
+    {
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        private CountingExecutor(int threads)
+        {
+            super(threads, threads, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        }
+
+        @Override
+        protected void beforeExecute(Thread t, Runnable r)
+        {
+            try
+            {
+                gate.await();
+            }
+            catch (InterruptedException ie)
+            {
+                t.interrupt();
+            }
+            int now = active.incrementAndGet();
+            maxActive.accumulateAndGet(now, Math::max);
+        }
+
+        @Override
+        protected void afterExecute(Runnable r, Throwable t)
+        {
+            active.decrementAndGet();
+        }
+    }
+
+    private static final Function<Path, Object> ONE_DEVICE = new Function<Path, Object>()
+    {
+        @Override
+        public Object apply(Path path)
+        {
+            return "device";
+        }
+    };
+
+    public void testWriteAsync() throws Exception
+    {
+        List<AudioFile> audioFiles = new ArrayList<AudioFile>();
+        List<CompletableFuture<AudioFile>> futures = new ArrayList<CompletableFuture<AudioFile>>();
+        for (String source : SOURCES)
+        {
+            AudioFile audioFile = AudioFileIO.read(copyAudioToTmp(source, new File("write-async-" + source)));
+            audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Async Album");
+            audioFiles.add(audioFile);
+            futures.add(AudioFileIO.writeAsync(audioFile));
+        }
+        for (int i = 0; i < audioFiles.size(); i++)
+        {
+            assertSame(audioFiles.get(i), futures.get(i).get(30, TimeUnit.SECONDS));
+            AudioFile written = AudioFileIO.read(audioFiles.get(i).getFile());
+            assertEquals(SOURCES[i], "Async Album", written.getTag().getFirst(FieldKey.ALBUM));
+        }
+
+        WriteMetrics metrics = WriteScheduler.getDefaultWriteScheduler().getMetrics();
+        assertTrue(metrics.toString(), metrics.getCompleted() >= SOURCES.length);
+        assertEquals(metrics.toString(), 0, metrics.getQueued());
+    }
+
+    public void testWritesLimitedPerDevice() throws Exception
+    {
+        CountingExecutor executor = new CountingExecutor(4);
+        try (WriteScheduler scheduler = new WriteScheduler(executor, 1, ONE_DEVICE))
+        {
+            List<CompletableFuture<AudioFile>> futures = new ArrayList<CompletableFuture<AudioFile>>();
+            for (String source : SOURCES)
+            {
+                AudioFile audioFile = AudioFileIO.read(copyAudioToTmp(source, new File("write-device-" + source)));
+                audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, "Device Title");
+                futures.add(scheduler.write(audioFile));
+            }
+            executor.gate.countDown();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            assertEquals(1, executor.maxActive.get());
+
+            WriteMetrics metrics = scheduler.getMetrics();
+            assertEquals(SOURCES.length, metrics.getSubmitted());
+            assertEquals(SOURCES.length, metrics.getCompleted());
+            assertEquals(0, metrics.getFailed());
+            assertEquals(0, metrics.getRunning());
+            assertTrue(metrics.getMaxLatencyNanos() > 0);
+            assertTrue(metrics.getAverageLatencyMillis() > 0);
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    public void testWritesToSameFileSerialised() throws Exception
+    {
+        CountingExecutor executor = new CountingExecutor(4);
+        try (WriteScheduler scheduler = new WriteScheduler(executor, 4, ONE_DEVICE))
+        {
+            AudioFile audioFile = AudioFileIO.read(copyAudioToTmp("test.flac", new File("write-same-file.flac")));
+            audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Same File");
+            List<CompletableFuture<AudioFile>> futures = new ArrayList<CompletableFuture<AudioFile>>();
+            for (int i = 0; i < 4; i++)
+            {
+                futures.add(scheduler.write(audioFile));
+            }
+            executor.gate.countDown();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+            assertEquals(1, executor.maxActive.get());
+            assertEquals("Same File", AudioFileIO.read(audioFile.getFile()).getTag().getFirst(FieldKey.ALBUM));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Background writes tell the listeners registered on the default AudioFileIO, which can veto them
+     */
+    public void testListenersOfDefaultAudioFileIO() throws Exception
+    {
+        final List<File> modified = new ArrayList<File>();
+        final List<PhaseEvent> phases = new ArrayList<PhaseEvent>();
+        AudioFileModificationListener listener = new AudioFileModificationAdapter()
+        {
+            @Override
+            public void fileModified(AudioFile original, File temporary)
+            {
+                synchronized (modified)
+                {
+                    modified.add(original.getFile());
+                }
+            }
+        };
+        AudioFileModificationListener veto = new AudioFileModificationAdapter()
+        {
+            @Override
+            public void fileWillBeModified(AudioFile file, boolean delete) throws ModifyVetoException
+            {
+                throw new ModifyVetoException("Vetoed:" + file.getFile());
+            }
+        };
+        InstrumentationListener instrumentation = new InstrumentationListener()
+        {
+            @Override
+            public void phaseCompleted(PhaseEvent event)
+            {
+                synchronized (phases)
+                {
+                    phases.add(event);
+                }
+            }
+        };
+
+        AudioFileIO afio = AudioFileIO.getDefaultAudioFileIO();
+        try (WriteScheduler scheduler = new WriteScheduler(1, 1))
+        {
+            afio.addAudioFileModificationListener(listener);
+            afio.addInstrumentationListener(instrumentation);
+            File file = copyAudioToTmp("test.ogg", new File("write-listened.ogg"));
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTag().setField(FieldKey.ALBUM, "Listened");
+            scheduler.write(audioFile).get(30, TimeUnit.SECONDS);
+            synchronized (modified)
+            {
+                assertEquals(1, modified.size());
+            }
+            synchronized (phases)
+            {
+                assertFalse(phases.isEmpty());
+            }
+
+            afio.addAudioFileModificationListener(veto);
+            audioFile = AudioFileIO.read(file);
+            audioFile.getTag().setField(FieldKey.ALBUM, "Vetoed");
+            try
+            {
+                scheduler.write(audioFile).get(30, TimeUnit.SECONDS);
+                fail("Expected write to be vetoed");
+            }
+            catch (ExecutionException ee)
+            {
+                assertTrue(String.valueOf(ee.getCause()), ee.getCause() instanceof CannotWriteException);
+                assertTrue(String.valueOf(ee.getCause()), ee.getCause().getMessage().contains("Vetoed"));
+            }
+            assertEquals("Listened", AudioFileIO.read(file).getTag().getFirst(FieldKey.ALBUM));
+        }
+        finally
+        {
+            afio.removeAudioFileModificationListener(listener);
+            afio.removeAudioFileModificationListener(veto);
+            afio.removeInstrumentationListener(instrumentation);
+        }
+    }
+
+    public void testFailedWriteCompletesExceptionally() throws Exception
+    {
+        try (WriteScheduler scheduler = new WriteScheduler(1, 1))
+        {
+            File file = copyAudioToTmp("test.flac", new File("write-missing.flac"));
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "Missing");
+            assertTrue(file.delete());
+            try
+            {
+                scheduler.write(audioFile).get(30, TimeUnit.SECONDS);
+                fail("Expected write to fail");
+            }
+            catch (ExecutionException ee)
+            {
+                assertTrue(String.valueOf(ee.getCause()), ee.getCause() instanceof CannotWriteException);
+            }
+            assertEquals(1, scheduler.getMetrics().getFailed());
+
+            scheduler.close();
+            assertTrue(scheduler.write(audioFile).isCompletedExceptionally());
+        }
+    }
+
+    /**
+     * An error thrown by a write completes it exceptionally and does not stop the other writes to the same file or
+     * device
+     */
+    public void testErrorDuringWriteDoesNotStallDevice() throws Exception
+    {
+        final AtomicInteger writes = new AtomicInteger();
+        AudioFileModificationListener failFirst = new AudioFileModificationAdapter()
+        {
+            @Override
+            public void fileWillBeModified(AudioFile file, boolean delete)
+            {
+                if (writes.getAndIncrement() == 0)
+                {
+                    throw new OutOfMemoryError("Simulated");
+                }
+            }
+        };
+
+        AudioFileIO afio = AudioFileIO.getDefaultAudioFileIO();
+        try (WriteScheduler scheduler = new WriteScheduler(1, 1))
+        {
+            afio.addAudioFileModificationListener(failFirst);
+            File file = copyAudioToTmp("test.ogg", new File("write-error.ogg"));
+            File other = copyAudioToTmp("test.flac", new File("write-error.flac"));
+            List<CompletableFuture<AudioFile>> futures = new ArrayList<CompletableFuture<AudioFile>>();
+            for (File next : new File[]{file, file, other})
+            {
+                AudioFile audioFile = AudioFileIO.read(next);
+                audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.ALBUM, "After error");
+                futures.add(scheduler.write(audioFile));
+            }
+
+            try
+            {
+                futures.get(0).get(30, TimeUnit.SECONDS);
+                fail("Expected write to fail");
+            }
+            catch (ExecutionException ee)
+            {
+                assertTrue(String.valueOf(ee.getCause()), ee.getCause() instanceof OutOfMemoryError);
+            }
+            futures.get(1).get(30, TimeUnit.SECONDS);
+            futures.get(2).get(30, TimeUnit.SECONDS);
+            assertEquals("After error", AudioFileIO.read(file).getTag().getFirst(FieldKey.ALBUM));
+            assertEquals("After error", AudioFileIO.read(other).getTag().getFirst(FieldKey.ALBUM));
+            assertEquals(1, scheduler.getMetrics().getFailed());
+        }
+        finally
+        {
+            afio.removeAudioFileModificationListener(failFirst);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.jaudiotagger.tag;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.options.PaddingPolicy;
+import org.jaudiotagger.tag.reference.ID3V2Version;
+
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class TagOptionsTest extends AbstractTestCase
+{
+    public void testOptionsAreCopied() throws Exception
+    {
+        TagOptionSingleton.getInstance().setWriteChunkSize(1000);
+        TagOptions options = TagOptions.getDefault();
+        TagOptions changed = options.with(o -> o.setWriteChunkSize(2000));
+        TagOptionSingleton.getInstance().setWriteChunkSize(3000);
+
+        try (TagOptions.Scope scope = TagOptions.use(options))
+        {
+            assertEquals(1000, TagOptionSingleton.getInstance().getWriteChunkSize());
+            try (TagOptions.Scope inner = TagOptions.use(changed))
+            {
+                assertEquals(2000, TagOptionSingleton.getInstance().getWriteChunkSize());
+            }
+            assertEquals(1000, TagOptionSingleton.getInstance().getWriteChunkSize());
+        }
+        assertEquals(3000, TagOptionSingleton.getInstance().getWriteChunkSize());
+        assertNull(TagOptions.use(null));
+    }
+
+    /**
+     * Changing the options in use within a scope does not change the TagOptions, nor other scopes using them
+     */
+    public void testChangesWithinScopeAreNotShared() throws Exception
+    {
+        TagOptions options = TagOptions.getDefault().with(o -> o.setWriteChunkSize(2000));
+        try (TagOptions.Scope scope = TagOptions.use(options))
+        {
+            TagOptionSingleton.getInstance().setWriteChunkSize(5000);
+            assertEquals(5000, TagOptionSingleton.getInstance().getWriteChunkSize());
+            try (TagOptions.Scope inner = TagOptions.use(options))
+            {
+                assertEquals(2000, TagOptionSingleton.getInstance().getWriteChunkSize());
+            }
+        }
+        try (TagOptions.Scope scope = TagOptions.use(options))
+        {
+            assertEquals(2000, TagOptionSingleton.getInstance().getWriteChunkSize());
+        }
+    }
+
+    /**
+     * Options in use on one thread are not seen by another
+     */
+    public void testOptionsAreThreadConfined() throws Exception
+    {
+        TagOptions options = TagOptions.getDefault().with(o -> o.setWriteChunkSize(2000));
+        long global = TagOptionSingleton.getInstance().getWriteChunkSize();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (TagOptions.Scope scope = TagOptions.use(options))
+        {
+            long other = executor.submit(new Callable<Long>()
+            {
+                public Long call()
+                {
+                    return TagOptionSingleton.getInstance().getWriteChunkSize();
+                }
+            }).get();
+            assertEquals(global, other);
+            assertEquals(2000, TagOptionSingleton.getInstance().getWriteChunkSize());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * A file read with options creates its default tag and is written with them, the global options are not used
+     */
+    public void testFileWrittenWithOptionsItWasReadWith() throws Exception
+    {
+        TagOptions options = TagOptions.getDefault().with(o ->
+        {
+            o.setID3V2Version(ID3V2Version.ID3_V24);
+            o.setPaddingPolicy(PaddingPolicy.fixed(20000));
+        });
+        File testFile = copyAudioToTmp("testV1.mp3", new File("tag-options.mp3"));
+
+        AudioFile audioFile = AudioFileIO.read(testFile.toPath(), ReadOptions.FULL, options);
+        audioFile.setTag(null);
+        Tag tag = audioFile.getTagOrCreateAndSetDefault();
+        assertTrue(tag instanceof ID3v24Tag);
+        tag.setField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.jpg")));
+        long before = testFile.length();
+        audioFile.commit();
+        assertTrue(testFile.length() >= before + 20000);
+        assertNull(TagOptionSingleton.getInstance().getPaddingPolicy());
+        assertEquals(ID3V2Version.ID3_V23, TagOptionSingleton.getInstance().getID3V2Version());
+    }
+}
@@ -0,0 +1,185 @@
+package org.jaudiotagger.tag.id3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagField;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.reference.ID3V2Version;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class LazyFrameBodyTest extends AbstractTestCase
+{
+    private static final FieldKey[] KEYS =
+            {
+                    FieldKey.TITLE, FieldKey.ARTIST, FieldKey.ALBUM, FieldKey.YEAR, FieldKey.TRACK, FieldKey.TRACK_TOTAL,
+                    FieldKey.DISC_NO, FieldKey.COMMENT, FieldKey.GENRE, FieldKey.MUSICBRAINZ_TRACK_ID
+            };
+
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    public void testLazyMatchesEager() throws Exception
+    {
+        for (ID3V2Version version : new ID3V2Version[]{ID3V2Version.ID3_V22, ID3V2Version.ID3_V23, ID3V2Version.ID3_V24})
+        {
+            File file = createTaggedFile(version);
+            Tag eager = AudioFileIO.read(file).getTag();
+
+            TagOptionSingleton.getInstance().setLazyId3FrameBodies(true);
+            AbstractID3v2Tag lazy = ((MP3File) AudioFileIO.read(file)).getID3v2Tag();
+            String albumId = version == ID3V2Version.ID3_V22 ? ID3v22Frames.FRAME_ID_V2_ALBUM : ID3v24Frames.FRAME_ID_ALBUM;
+            AbstractID3v2Frame album = (AbstractID3v2Frame) lazy.getFrame(albumId).get(0);
+            assertFalse(version.toString(), album.isBodyDecoded());
+            assertEquals(version.toString(), eager.getFieldCount(), lazy.getFieldCount());
+
+            for (FieldKey key : KEYS)
+            {
+                assertEquals(version + ":" + key, eager.getFirst(key), lazy.getFirst(key));
+            }
+            assertTrue(version.toString(), album.isBodyDecoded());
+        }
+    }
+
+    public void testUntouchedFrameWrittenAsRead() throws Exception
+    {
+        //Trailing null is dropped when the body is decoded and written again
+        byte[] tyer = frame(ID3v23Frames.FRAME_ID_V3_TYER, "\u00001999\u0000");
+        byte[] tit2 = frame(ID3v23Frames.FRAME_ID_V3_TITLE, "\u0000Title");
+        byte[] tag = tag(tit2, tyer);
+
+        ID3v23Tag eager = new ID3v23Tag(ByteBuffer.wrap(tag));
+        assertFalse(contains(eager.writeFramesToBuffer().toByteArray(), tyer));
+
+        TagOptionSingleton.getInstance().setLazyId3FrameBodies(true);
+        ID3v23Tag lazy = new ID3v23Tag(ByteBuffer.wrap(tag));
+        lazy.setField(FieldKey.TITLE, "New Title");
+        AbstractID3v2Frame year = (AbstractID3v2Frame) lazy.getFrame(ID3v23Frames.FRAME_ID_V3_TYER).get(0);
+        assertFalse(year.isBodyDecoded());
+        assertEquals(tyer.length, year.getSize());
+
+        byte[] frames = lazy.writeFramesToBuffer().toByteArray();
+        assertTrue(contains(frames, tyer));
+        assertFalse(contains(frames, tit2));
+
+        TagOptionSingleton.getInstance().setLazyId3FrameBodies(false);
+        ID3v23Tag reread = new ID3v23Tag(ByteBuffer.wrap(tag(frames)));
+        assertEquals("New Title", reread.getFirst(FieldKey.TITLE));
+        assertEquals("1999", reread.getFirst(FieldKey.YEAR));
+    }
+
+    public void testWriteLazilyReadFile() throws Exception
+    {
+        for (ID3V2Version version : new ID3V2Version[]{ID3V2Version.ID3_V22, ID3V2Version.ID3_V23, ID3V2Version.ID3_V24})
+        {
+            File file = createTaggedFile(version);
+            Tag before = AudioFileIO.read(file).getTag();
+
+            TagOptionSingleton.getInstance().setLazyId3FrameBodies(true);
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTag().setField(FieldKey.TITLE, "Lazy Title");
+            audioFile.commit();
+            TagOptionSingleton.getInstance().setLazyId3FrameBodies(false);
+
+            Tag after = AudioFileIO.read(file).getTag();
+            assertEquals(version.toString(), "Lazy Title", after.getFirst(FieldKey.TITLE));
+            for (FieldKey key : KEYS)
+            {
+                if (key != FieldKey.TITLE)
+                {
+                    assertEquals(version + ":" + key, before.getFirst(key), after.getFirst(key));
+                }
+            }
+        }
+    }
+
+    public void testUndecodedFramesEqual() throws Exception
+    {
+        File file = createTaggedFile(ID3V2Version.ID3_V23);
+        TagOptionSingleton.getInstance().setLazyId3FrameBodies(true);
+        AbstractID3v2Tag first = ((MP3File) AudioFileIO.read(file)).getID3v2Tag();
+        AbstractID3v2Tag second = ((MP3File) AudioFileIO.read(file)).getID3v2Tag();
+        List<TagField> firstAlbum = first.getFrame(ID3v23Frames.FRAME_ID_V3_ALBUM);
+        List<TagField> secondAlbum = second.getFrame(ID3v23Frames.FRAME_ID_V3_ALBUM);
+        assertEquals(firstAlbum, secondAlbum);
+        assertEquals(first, second);
+        assertEquals(first, new ID3v23Tag((ID3v23Tag) second));
+    }
+
+    private File createTaggedFile(ID3V2Version version) throws Exception
+    {
+        File file = copyAudioToTmp("testV1.mp3", new File("lazy-frame-body-" + version + ".mp3"));
+        TagOptionSingleton.getInstance().setID3V2Version(version);
+        AudioFile audioFile = AudioFileIO.read(file);
+        Tag tag = audioFile.getTagOrCreateAndSetDefault();
+        tag.setField(FieldKey.TITLE, "Title");
+        tag.setField(FieldKey.ARTIST, "Artist");
+        tag.setField(FieldKey.ALBUM, "Album");
+        tag.setField(FieldKey.YEAR, "1999");
+        tag.setField(FieldKey.TRACK, "3");
+        tag.setField(FieldKey.TRACK_TOTAL, "12");
+        tag.setField(FieldKey.DISC_NO, "1");
+        tag.setField(FieldKey.COMMENT, "Comment");
+        tag.setField(FieldKey.GENRE, "Rock");
+        tag.setField(FieldKey.MUSICBRAINZ_TRACK_ID, "d1b5a9c4-5f4a-4b3c-8c0e-2d1f6a7b8c9d");
+        audioFile.commit();
+        TagOptionSingleton.getInstance().setToDefault();
+        return file;
+    }
+
+    private static byte[] frame(String identifier, String body)
+    {
+        byte[] data = body.getBytes(StandardCharsets.ISO_8859_1);
+        ByteBuffer frame = ByteBuffer.allocate(ID3v23Frame.FRAME_HEADER_SIZE + data.length);
+        frame.put(identifier.getBytes(StandardCharsets.ISO_8859_1));
+        frame.putInt(data.length);
+        frame.putShort((short) 0);
+        frame.put(data);
+        return frame.array();
+    }
+
+    private static byte[] tag(byte[]... frames)
+    {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (byte[] frame : frames)
+        {
+            body.write(frame, 0, frame.length);
+        }
+        ByteBuffer tag = ByteBuffer.allocate(AbstractID3v2Tag.TAG_HEADER_LENGTH + body.size());
+        tag.put(AbstractID3v2Tag.TAG_ID);
+        tag.put(ID3v23Tag.MAJOR_VERSION);
+        tag.put(ID3v23Tag.REVISION);
+        tag.put((byte) 0);
+        tag.put(ID3SyncSafeInteger.valueToBuffer(body.size()));
+        tag.put(body.toByteArray());
+        tag.flip();
+        return tag.array();
+    }
+
+    private static boolean contains(byte[] data, byte[] part)
+    {
+        for (int i = 0; i + part.length <= data.length; i++)
+        {
+            int j = 0;
+            while (j < part.length && data[i + j] == part[j])
+            {
+                j++;
+            }
+            if (j == part.length)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,158 @@
+package org.jaudiotagger.tag.images;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.reference.ID3V2Version;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+public class LazyArtworkTest extends AbstractTestCase
+{
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    public void testLazyMatchesEager() throws Exception
+    {
+        for (String source : new String[]{"test.flac", "test2.m4a", "test14.m4a"})
+        {
+            File file = copyAudioToTmp(source, new File("lazy-artwork-" + source));
+            List<Artwork> eager = AudioFileIO.read(file).getTag().getArtworkList();
+
+            TagOptionSingleton.getInstance().setLazyArtwork(true);
+            List<Artwork> lazy = AudioFileIO.read(file).getTag().getArtworkList();
+            TagOptionSingleton.getInstance().setLazyArtwork(false);
+
+            assertSameArtwork(source, eager, lazy);
+        }
+    }
+
+    public void testLazyMp3EveryId3Version() throws Exception
+    {
+        byte[] image = Files.readAllBytes(new File("testdata", "coverart.png").toPath());
+        for (ID3V2Version version : new ID3V2Version[]{ID3V2Version.ID3_V22, ID3V2Version.ID3_V23, ID3V2Version.ID3_V24})
+        {
+            File file = copyAudioToTmp("testV1.mp3", new File("lazy-artwork-" + version + ".mp3"));
+            TagOptionSingleton.getInstance().setID3V2Version(version);
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTagOrCreateAndSetDefault().setField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart.png")));
+            audioFile.commit();
+            List<Artwork> eager = AudioFileIO.read(file).getTag().getArtworkList();
+
+            TagOptionSingleton.getInstance().setLazyArtwork(true);
+            List<Artwork> lazy = AudioFileIO.read(file).getTag().getArtworkList();
+            assertSameArtwork(version.toString(), eager, lazy);
+
+            //Tag rewritten in place over the image data
+            AudioFile lazyFile = AudioFileIO.read(file);
+            lazyFile.getTag().setField(FieldKey.TITLE, "Lazy Title");
+            lazyFile.commit();
+            TagOptionSingleton.getInstance().setLazyArtwork(false);
+            assertTrue(version.toString(), Arrays.equals(image, AudioFileIO.read(file).getTag().getFirstArtwork().getBinaryData()));
+        }
+    }
+
+    public void testWriteLazilyReadFile() throws Exception
+    {
+        for (String source : new String[]{"test.flac", "test2.m4a"})
+        {
+            File file = copyAudioToTmp(source, new File("lazy-artwork-write-" + source));
+            List<Artwork> before = AudioFileIO.read(file).getTag().getArtworkList();
+
+            TagOptionSingleton.getInstance().setLazyArtwork(true);
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTag().setField(FieldKey.ALBUM, "Lazy Album");
+            audioFile.commit();
+            TagOptionSingleton.getInstance().setLazyArtwork(false);
+
+            Tag after = AudioFileIO.read(file).getTag();
+            assertEquals(source, "Lazy Album", after.getFirst(FieldKey.ALBUM));
+            assertEquals(source, before.size(), after.getArtworkList().size());
+            for (int i = 0; i < before.size(); i++)
+            {
+                assertTrue(source, Arrays.equals(before.get(i).getBinaryData(), after.getArtworkList().get(i).getBinaryData()));
+            }
+        }
+    }
+
+    /**
+     * Artwork read lazily is still loaded before writing if the option has been turned off in the meantime
+     */
+    public void testWriteAfterLazyArtworkTurnedOff() throws Exception
+    {
+        File file = copyAudioToTmp("test2.m4a", new File("lazy-artwork-turned-off.m4a"));
+        byte[] image = AudioFileIO.read(file).getTag().getFirstArtwork().getBinaryData();
+
+        TagOptionSingleton.getInstance().setLazyArtwork(true);
+        AudioFile audioFile = AudioFileIO.read(file);
+        TagOptionSingleton.getInstance().setLazyArtwork(false);
+        audioFile.loadLazyArtwork();
+        assertTrue(audioFile.getTag().getFirstArtwork().getLazyBinaryData().isLoaded());
+        audioFile.getTag().setField(FieldKey.ALBUM, "Lazy Album");
+        audioFile.commit();
+
+        //Read before the file was written so still available now it has changed
+        assertTrue(Arrays.equals(image, audioFile.getTag().getFirstArtwork().getBinaryData()));
+        Tag after = AudioFileIO.read(file).getTag();
+        assertEquals("Lazy Album", after.getFirst(FieldKey.ALBUM));
+        assertTrue(Arrays.equals(image, after.getFirstArtwork().getBinaryData()));
+    }
+
+    public void testModifiedFileNotRead() throws Exception
+    {
+        File file = copyAudioToTmp("test.flac", new File("lazy-artwork-modified.flac"));
+        TagOptionSingleton.getInstance().setLazyArtwork(true);
+        Artwork artwork = AudioFileIO.read(file).getTag().getFirstArtwork();
+        assertEquals("image/png", artwork.getMimeType());
+
+        Files.write(file.toPath(), new byte[16], StandardOpenOption.APPEND);
+        try
+        {
+            artwork.getBinaryData();
+            fail("Expected UncheckedIOException");
+        }
+        catch (UncheckedIOException expected)
+        {
+            //File changed since read
+        }
+    }
+
+    private static void assertSameArtwork(String source, List<Artwork> eager, List<Artwork> lazy)
+    {
+        assertFalse(source, eager.isEmpty());
+        assertEquals(source, eager.size(), lazy.size());
+        for (int i = 0; i < eager.size(); i++)
+        {
+            Artwork expected = eager.get(i);
+            Artwork actual = lazy.get(i);
+            if (expected.isLinked())
+            {
+                assertNull(source, actual.getLazyBinaryData());
+                assertEquals(source, expected.getImageUrl(), actual.getImageUrl());
+                continue;
+            }
+            assertNull(source, expected.getLazyBinaryData());
+            assertNotNull(source, actual.getLazyBinaryData());
+            assertFalse(source, actual.getLazyBinaryData().isLoaded());
+            assertEquals(source, expected.getMimeType(), actual.getMimeType());
+            assertEquals(source, expected.getPictureType(), actual.getPictureType());
+            assertEquals(source, expected.getDescription(), actual.getDescription());
+            assertEquals(source, expected.getWidth(), actual.getWidth());
+            assertEquals(source, expected.getHeight(), actual.getHeight());
+            assertEquals(source, expected.getBinaryData().length, actual.getLazyBinaryData().getLength());
+
+            assertTrue(source, Arrays.equals(expected.getBinaryData(), actual.getBinaryData()));
+            assertTrue(source, actual.getLazyBinaryData().isLoaded());
+        }
+    }
+}
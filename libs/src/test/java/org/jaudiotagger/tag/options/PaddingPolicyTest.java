@@ -0,0 +1,98 @@
+package org.jaudiotagger.tag.options;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.wav.WavOptions;
+import org.jaudiotagger.audio.wav.WavSaveOptions;
+import org.jaudiotagger.audio.write.WritePlan;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+
+import java.io.File;
+
+public class PaddingPolicyTest extends AbstractTestCase
+{
+    public void testPadding()
+    {
+        assertEquals(500, PaddingPolicy.fixed(500).getPadding(10000));
+
+        PaddingPolicy percentage = PaddingPolicy.percentage(10, 1000);
+        assertEquals(1000, percentage.getPadding(500));
+        assertEquals(5000, percentage.getPadding(50000));
+
+        PaddingPolicy sizeClasses = PaddingPolicy.sizeClasses(65536, 4096, 16384);
+        assertEquals(96, sizeClasses.getPadding(4000));
+        assertEquals(0, sizeClasses.getPadding(4096));
+        assertEquals(16384 - 5000, sizeClasses.getPadding(5000));
+        assertEquals(131072 - 70000, sizeClasses.getPadding(70000));
+
+        assertEquals(0, PaddingPolicy.fixed(0).getPadding(100, 8));
+        assertEquals(8, PaddingPolicy.fixed(3).getPadding(100, 8));
+
+        try
+        {
+            PaddingPolicy.fixed(-1);
+            fail("Expected negative padding to be rejected");
+        }
+        catch (IllegalArgumentException iae)
+        {
+            //Expected
+        }
+    }
+
+    /**
+     * Once the audio has been moved to make room for artwork the policy leaves enough padding for the next edit to be
+     * written in place
+     */
+    public void testPaddingReservedWhenAudioMoved() throws Exception
+    {
+        TagOptionSingleton.getInstance().setPaddingPolicy(PaddingPolicy.fixed(20000));
+        for (String source : new String[]{"test.flac", "01.mp3", "test.m4a"})
+        {
+            AudioFile audioFile = AudioFileIO.read(copyAudioToTmp(source, new File("padding-policy-" + source)));
+            audioFile.getTagOrCreateAndSetDefault().setField(ArtworkFactory.createArtworkFromFile(new File("testdata", "coverart_large.jpg")));
+            long before = audioFile.getFile().length();
+            assertEquals(source, WritePlan.Strategy.SHIFT, AudioFileIO.planWrite(audioFile).getStrategy());
+            audioFile.commit();
+            assertTrue(source, audioFile.getFile().length() >= before + 20000);
+
+            audioFile = AudioFileIO.read(audioFile.getFile());
+            audioFile.getTag().setField(FieldKey.COMMENT, new String(new char[5000]).replace('\0', 'c'));
+            long length = audioFile.getFile().length();
+            WritePlan plan = AudioFileIO.planWrite(audioFile);
+            assertEquals(source + ":" + plan, WritePlan.Strategy.PADDING_CONSUMED, plan.getStrategy());
+            audioFile.commit();
+            assertEquals(source, length, audioFile.getFile().length());
+            assertEquals(source, 5000, AudioFileIO.read(audioFile.getFile()).getTag().getFirst(FieldKey.COMMENT).length());
+        }
+    }
+
+    /**
+     * A newly added ID3 chunk gets the policy padding, so the next edit fits in it without changing the size of the
+     * file
+     */
+    public void testPaddingReservedForNewId3Chunk() throws Exception
+    {
+        TagOptionSingleton.getInstance().setPaddingPolicy(PaddingPolicy.fixed(2000));
+        TagOptionSingleton.getInstance().setWavOptions(WavOptions.READ_ID3_ONLY);
+        TagOptionSingleton.getInstance().setWavSaveOptions(WavSaveOptions.SAVE_ACTIVE);
+        for (String source : new String[]{"test.wav", "test119.aif"})
+        {
+            File file = copyAudioToTmp(source, new File("padding-policy-new-" + source));
+            AudioFile audioFile = AudioFileIO.read(file);
+            audioFile.getTagOrCreateAndSetDefault().setField(FieldKey.TITLE, "Title");
+            long before = file.length();
+            audioFile.commit();
+            assertTrue(source, file.length() >= before + 2000);
+
+            long length = file.length();
+            audioFile = AudioFileIO.read(file);
+            audioFile.getTag().setField(FieldKey.TITLE, "A longer title");
+            audioFile.commit();
+            assertEquals(source, length, file.length());
+            assertEquals(source, "A longer title", AudioFileIO.read(file).getTag().getFirst(FieldKey.TITLE));
+        }
+    }
+}
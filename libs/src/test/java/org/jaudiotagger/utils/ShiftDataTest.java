@@ -0,0 +1,160 @@
+package org.jaudiotagger.utils;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class ShiftDataTest extends AbstractTestCase
+{
+    private static final int FILE_LENGTH = 700000;
+    private static final int START = 1234;
+
+    /**
+     * Wraps a file channel so it is not seen as a FileChannel
+     */
+    private static class PlainChannel implements SeekableByteChannel
+    {
+        private final FileChannel fc;
+
+        private PlainChannel(FileChannel fc)
+        {
+            this.fc = fc;
+        }
+
+        public int read(ByteBuffer dst) throws IOException
+        {
+            return fc.read(dst);
+        }
+
+        public int write(ByteBuffer src) throws IOException
+        {
+            return fc.write(src);
+        }
+
+        public long position() throws IOException
+        {
+            return fc.position();
+        }
+
+        public SeekableByteChannel position(long newPosition) throws IOException
+        {
+            fc.position(newPosition);
+            return this;
+        }
+
+        public long size() throws IOException
+        {
+            return fc.size();
+        }
+
+        public SeekableByteChannel truncate(long size) throws IOException
+        {
+            fc.truncate(size);
+            return this;
+        }
+
+        public boolean isOpen()
+        {
+            return fc.isOpen();
+        }
+
+        public void close() throws IOException
+        {
+            fc.close();
+        }
+    }
+
+    private static byte[] createData()
+    {
+        byte[] data = new byte[FILE_LENGTH];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte) (i * 31 + (i >> 8));
+        }
+        return data;
+    }
+
+    /**
+     * Shift the data after START by offset, then check the data before START is untouched and the data after it has
+     * moved intact
+     */
+    private static void checkShift(int offset, boolean shrink, boolean plainChannel) throws Exception
+    {
+        byte[] data = createData();
+        File file = new File("testdatatmp", "shift-" + offset + "-" + shrink + "-" + plainChannel + ".bin");
+        if (!file.getParentFile().exists())
+        {
+            file.getParentFile().mkdirs();
+        }
+        Files.write(file.toPath(), data);
+
+        int start = shrink ? START + offset : START + Math.max(-offset, 0);
+        FileChannel fc = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        SeekableByteChannel channel = plainChannel ? new PlainChannel(fc) : fc;
+        try
+        {
+            channel.position(start);
+            if (shrink)
+            {
+                ShiftData.shiftDataByOffsetToShrinkSpace(channel, offset);
+            }
+            else
+            {
+                ShiftData.shiftDataByOffsetToMakeSpace(channel, offset);
+            }
+        }
+        finally
+        {
+            channel.close();
+        }
+
+        String message = "offset:" + offset + ":shrink:" + shrink + ":plain:" + plainChannel;
+        byte[] shifted = Files.readAllBytes(file.toPath());
+        int newStart = shrink ? start - offset : start + offset;
+        assertEquals(message, data.length + newStart - start, shifted.length);
+        assertTrue(message, Arrays.equals(Arrays.copyOfRange(data, 0, Math.min(start, newStart)),
+                Arrays.copyOfRange(shifted, 0, Math.min(start, newStart))));
+        assertTrue(message, Arrays.equals(Arrays.copyOfRange(data, start, data.length),
+                Arrays.copyOfRange(shifted, newStart, shifted.length)));
+    }
+
+    private static void checkAllShifts() throws Exception
+    {
+        int[] offsets = {1, 4000, 4096, 10000, ShiftData.MIN_TRANSFER_DISTANCE + 10};
+        for (int offset : offsets)
+        {
+            checkShift(offset, false, false);
+            checkShift(offset, true, false);
+            checkShift(offset, false, true);
+            checkShift(offset, true, true);
+        }
+        checkShift(-4000, false, false);
+        checkShift(-4000, false, true);
+    }
+
+    public void testShiftAcrossChunks() throws Exception
+    {
+        TagOptionSingleton.getInstance().setWriteChunkSize(4096);
+        checkAllShifts();
+    }
+
+    public void testShiftSingleChunk() throws Exception
+    {
+        checkAllShifts();
+    }
+
+    public void testShiftMapped() throws Exception
+    {
+        TagOptionSingleton.getInstance().setWriteChunkSize(4096);
+        TagOptionSingleton.getInstance().setMaxMappedShiftSize(FILE_LENGTH * 2);
+        checkAllShifts();
+    }
+}
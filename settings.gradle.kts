@@ -16,3 +16,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "jaudiotagger"
 include(":libs")
+include(":benchmarks")
+include(":jfr")